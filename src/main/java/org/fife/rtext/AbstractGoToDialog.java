@@ -0,0 +1,459 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.Icon;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.UIManager;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.RListSelectionModel;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.rsyntaxtextarea.HtmlUtil;
+
+
+/**
+ * Base class for dialogs that let the user jump to something, such as a
+ * file or a symbol, by typing part of its name.  The dialog lists the best
+ * matches from an index that may still be being built, and refreshes the
+ * list whenever the index changes.<p>
+ *
+ * Subclasses should call {@link #refreshResults()}, then <code>pack()</code>,
+ * at the end of their constructors, once they can search their index.
+ *
+ * @param <T> The type of item listed.
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public abstract class AbstractGoToDialog<T> extends EscapableDialog {
+
+	private final RText rtext;
+
+	private JList<T> list;
+	private DefaultListModel<T> model;
+	private JTextField filterField;
+	private JLabel statusLabel;
+	private JButton okButton;
+	private Listener listener;
+
+	/**
+	 * The maximum width of this dialog.
+	 */
+	private static final int MAX_WIDTH = 800;
+
+	/**
+	 * The maximum number of items listed.
+	 */
+	private static final int MAX_RESULTS = 100;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param title The title of this dialog.
+	 */
+	protected AbstractGoToDialog(RText parent, String title) {
+		super(parent, title, true);
+		this.rtext = parent;
+		createUI();
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+	}
+
+
+	/**
+	 * Starts listening for changes to the index searched.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeIndexListener(ChangeListener)
+	 */
+	protected abstract void addIndexListener(ChangeListener l);
+
+
+	/**
+	 * Creates the content of this dialog.
+	 */
+	private void createUI() {
+
+		listener = new Listener();
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		filterField = new JTextField(40);
+		filterField.getDocument().addDocumentListener(listener);
+		filterField.addKeyListener(listener);
+		cp.add(filterField, BorderLayout.NORTH);
+
+		okButton = new JButton(rtext.getString("OKButtonLabel"));
+		okButton.setActionCommand("OK");
+		okButton.addActionListener(listener);
+		JButton cancelButton = new JButton(rtext.getString("Cancel"));
+		cancelButton.setActionCommand("Cancel");
+		cancelButton.addActionListener(listener);
+
+		JPanel bottomPanel = new JPanel(new BorderLayout());
+		statusLabel = new JLabel();
+		statusLabel.setBorder(UIUtil.getEmpty5Border());
+		bottomPanel.add(statusLabel, BorderLayout.LINE_START);
+		Container buttons = UIUtil.createButtonFooter(okButton, cancelButton);
+		bottomPanel.add(buttons, BorderLayout.LINE_END);
+		cp.add(bottomPanel, BorderLayout.SOUTH);
+
+		model = new DefaultListModel<>();
+		list = new JList<>(model);
+		list.setVisibleRowCount(12);
+		list.addMouseListener(listener);
+		list.setCellRenderer(new ItemCellRenderer());
+		list.setSelectionModel(new RListSelectionModel());
+		RScrollPane sp = new RScrollPane(list);
+		cp.add(sp);
+
+		getRootPane().setDefaultButton(okButton);
+
+	}
+
+
+	@Override
+	public void dispose() {
+		removeIndexListener(listener);
+		super.dispose();
+	}
+
+
+	private static String escapeForHtml(String text) {
+		return HtmlUtil.escapeForHtml(text, null, false);
+	}
+
+
+	/**
+	 * Returns the text displayed below an item's name, such as where it's
+	 * located.
+	 *
+	 * @param item The item.
+	 * @return The text to display.  This will be escaped for HTML.
+	 */
+	protected abstract String getItemDetails(T item);
+
+
+	/**
+	 * Returns the icon to display for an item.
+	 *
+	 * @param item The item.
+	 * @return The icon, or <code>null</code> for none.
+	 */
+	protected abstract Icon getItemIcon(T item);
+
+
+	/**
+	 * Returns the name to display for an item.
+	 *
+	 * @param item The item.
+	 * @return The name.  This will be escaped for HTML.
+	 */
+	protected abstract String getItemName(T item);
+
+
+	/**
+	 * Overridden to limit this dialog's width.
+	 */
+	@Override
+	public Dimension getPreferredSize() {
+		Dimension size = super.getPreferredSize();
+		if (size != null) {
+			size.width = Math.min(MAX_WIDTH, size.width);
+		}
+		return size;
+	}
+
+
+	/**
+	 * Returns the parent RText application.
+	 *
+	 * @return The parent RText instance.
+	 */
+	protected RText getRText() {
+		return rtext;
+	}
+
+
+	/**
+	 * Returns the text to display in the status bar, such as how many items
+	 * are indexed.
+	 *
+	 * @return The status text.
+	 */
+	protected abstract String getStatusText();
+
+
+	/**
+	 * Returns whether two items are the same, so the user's selection can be
+	 * kept when the index is updated.  The default implementation uses
+	 * <code>equals()</code>.
+	 *
+	 * @param item1 An item.
+	 * @param item2 Another item.
+	 * @return Whether the two items are the same.
+	 */
+	protected boolean isSameItem(T item1, T item2) {
+		return item1.equals(item2);
+	}
+
+
+	/**
+	 * Jumps to an item.  If this succeeds, the implementation should close
+	 * this dialog with {@link #escapePressed()}.
+	 *
+	 * @param item The item selected by the user.
+	 * @return Whether the item could be opened.
+	 */
+	protected abstract boolean open(T item);
+
+
+	/**
+	 * Opens the item selected in the list.
+	 */
+	private void openSelectedItem() {
+		T item = list.getSelectedValue();
+		if (item == null || !open(item)) {
+			UIManager.getLookAndFeel().provideErrorFeedback(list);
+		}
+	}
+
+
+	/**
+	 * Re-runs the search for the text in the filter field, and updates the
+	 * status text.
+	 */
+	protected void refreshResults() {
+
+		T selected = list.getSelectedValue();
+		List<T> items = search(filterField.getText(), MAX_RESULTS);
+
+		model.clear();
+		int selectedIndex = 0;
+		for (T item : items) {
+			// Keep the user's selection if the index was just updated
+			if (selected != null && isSameItem(item, selected)) {
+				selectedIndex = model.size();
+			}
+			model.addElement(item);
+		}
+
+		boolean modelNotEmpty = model.size() > 0;
+		if (modelNotEmpty) {
+			list.setSelectedIndex(selectedIndex);
+			list.ensureIndexIsVisible(selectedIndex);
+		}
+		okButton.setEnabled(modelNotEmpty);
+
+		statusLabel.setText(getStatusText());
+
+	}
+
+
+	/**
+	 * Stops listening for changes to the index searched.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addIndexListener(ChangeListener)
+	 */
+	protected abstract void removeIndexListener(ChangeListener l);
+
+
+	/**
+	 * Searches the index for the items best matching the text typed by the
+	 * user.
+	 *
+	 * @param text The text typed.
+	 * @param maxResults The maximum number of items to return.
+	 * @return The matching items, best match first.
+	 */
+	protected abstract List<T> search(String text, int maxResults);
+
+
+	/**
+	 * Selects the next row in the list.
+	 *
+	 * @see #selectPreviousVisibleRow()
+	 */
+	private void selectNextVisibleRow() {
+		if (model.size() > 0) {
+			int index = list.getSelectedIndex();
+			index = (index + 1) % model.size();
+			list.setSelectedIndex(index);
+			list.ensureIndexIsVisible(index);
+		}
+	}
+
+
+	/**
+	 * Selects the previous row in the list.
+	 *
+	 * @see #selectNextVisibleRow()
+	 */
+	private void selectPreviousVisibleRow() {
+		if (model.size() > 0) {
+			int index = list.getSelectedIndex();
+			index--;
+			if (index < 0) {
+				index = model.size() - 1;
+			}
+			list.setSelectedIndex(index);
+			list.ensureIndexIsVisible(index);
+		}
+	}
+
+
+	/**
+	 * Toggles whether this dialog is visible.
+	 *
+	 * @param visible Whether this dialog should be visible.
+	 */
+	@Override
+	public void setVisible(boolean visible) {
+		if (visible) {
+			addIndexListener(listener);
+			refreshResults(); // In case the index changed while hidden
+			super.setVisible(true);
+			filterField.requestFocusInWindow();
+		}
+		else {
+			removeIndexListener(listener);
+			super.setVisible(false);
+		}
+	}
+
+
+	/**
+	 * Renders an item as its name, with its details below it.
+	 */
+	private final class ItemCellRenderer extends DefaultListCellRenderer {
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list, Object value,
+				int index, boolean selected, boolean hasFocus) {
+
+			super.getListCellRendererComponent(list, value, index, selected, hasFocus);
+
+			@SuppressWarnings("unchecked")
+			T item = (T)value;
+			String text = "<html>" + escapeForHtml(getItemName(item)) + "<br>";
+			if (!selected) {
+				Color fg = getForeground();
+				String color = UIUtil.isLightForeground(fg) ? "#c0c0c0" : "#808080";
+				text += "<font color=\"" + color + "\">";
+			}
+			text += escapeForHtml(getItemDetails(item));
+			if (!selected) {
+				text += "</font>";
+			}
+			setText(text);
+			setIcon(getItemIcon(item));
+
+			return this;
+		}
+	}
+
+
+	/**
+	 * Listens for events in this dialog.
+	 */
+	private class Listener extends MouseAdapter implements ActionListener,
+			ChangeListener, DocumentListener, KeyListener {
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+
+			String command = e.getActionCommand();
+
+			if ("OK".equals(command)) {
+				openSelectedItem();
+			}
+
+			else if ("Cancel".equals(command)) {
+				escapePressed();
+			}
+
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			refreshResults();
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			refreshResults();
+		}
+
+		@Override
+		public void keyPressed(KeyEvent e) {
+			switch (e.getKeyCode()) {
+				case KeyEvent.VK_DOWN -> selectNextVisibleRow();
+				case KeyEvent.VK_UP -> selectPreviousVisibleRow();
+			}
+		}
+
+		@Override
+		public void keyReleased(KeyEvent e) {
+		}
+
+		@Override
+		public void keyTyped(KeyEvent e) {
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			if (e.getClickCount()==2) {
+				openSelectedItem();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			refreshResults();
+		}
+
+		/**
+		 * Called when the index is updated.
+		 *
+		 * @param e The event.
+		 */
+		@Override
+		public void stateChanged(ChangeEvent e) {
+			refreshResults();
+		}
+
+	}
+
+
+}
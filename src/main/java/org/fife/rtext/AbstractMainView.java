@@ -37,6 +37,7 @@ import org.fife.rtext.SearchManager.SearchingMode;
 import org.fife.rtext.actions.AbstractSearchAction;
 import org.fife.rtext.actions.CapsLockAction;
 import org.fife.rtext.actions.ToggleTextModeAction;
+import org.fife.rtext.jfr.FileOpenEvent;
 import org.fife.ui.UIUtil;
 import org.fife.ui.app.AbstractGUIApplication;
 import org.fife.ui.app.AppTheme;
@@ -196,6 +197,8 @@ public abstract class AbstractMainView extends JPanel
 	private ToggleTextModeAction toggleTextModeAction;
 	private CapsLockAction capsLockAction;
 
+	private IdleEditorEvictor idleEditorEvictor;
+
 
 	/**
 	 * The cursor used when recording a macro.
@@ -210,6 +213,7 @@ public abstract class AbstractMainView extends JPanel
 	public AbstractMainView() {
 
 		listenerList = new EventListenerList();
+		idleEditorEvictor = new IdleEditorEvictor(this);
 
 		checkForModification = true;
 		Timer t = new Timer();
@@ -385,6 +389,22 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns whether the document at the specified index can have its
+	 * content evicted when idle, assuming it isn't the selected document.
+	 * The default implementation returns {@code true}, since views typically
+	 * only display the selected document.  Views that can display several
+	 * documents at once should override this method.
+	 *
+	 * @param index The index of the document.
+	 * @return Whether the document can be evicted.
+	 * @see #setIdleEditorEvictionEnabled(boolean)
+	 */
+	protected boolean canEvictDocumentAt(int index) {
+		return true;
+	}
+
+
 	/**
 	 * Checks the "modified" timestamps for open files against the last known
 	 * "modified" timestamps to see if any files have been modified outside of
@@ -534,8 +554,12 @@ public abstract class AbstractMainView extends JPanel
 	 * @see #convertOpenFilesTabsToSpaces
 	 */
 	public void convertOpenFilesSpacesToTabs() {
-		for (int i=0; i<getNumDocuments(); i++)
-			getRTextEditorPaneAt(i).convertSpacesToTabs();
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (rehydrate(textArea)) {
+				textArea.convertSpacesToTabs();
+			}
+		}
 	}
 
 
@@ -546,8 +570,12 @@ public abstract class AbstractMainView extends JPanel
 	 * @see #convertOpenFilesSpacesToTabs
 	 */
 	public void convertOpenFilesTabsToSpaces() {
-		for (int i=0; i<getNumDocuments(); i++)
-			getRTextEditorPaneAt(i).convertTabsToSpaces();
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (rehydrate(textArea)) {
+				textArea.convertTabsToSpaces();
+			}
+		}
 	}
 
 
@@ -670,6 +698,10 @@ public abstract class AbstractMainView extends JPanel
 		lineNumberColor = fromPanel.lineNumberColor;
 		gutterBorderColor = fromPanel.gutterBorderColor;
 
+		setIdleEditorEvictionDelay(fromPanel.getIdleEditorEvictionDelay());
+		setCompressIdleEditors(fromPanel.getCompressIdleEditors());
+		setIdleEditorEvictionEnabled(fromPanel.getIdleEditorEvictionEnabled());
+
 		setPreferredSize(fromPanel.getPreferredSize());
 
 		int numDocuments = fromPanel.getNumDocuments();
@@ -732,8 +764,12 @@ public abstract class AbstractMainView extends JPanel
 				String encoding) throws IOException {
 
 		String style = getSyntaxStyleForFile(loc.getFileName());
+		FileOpenEvent event = new FileOpenEvent();
+		event.begin();
 		RTextEditorPane pane = new RTextEditorPane(owner, lineWrapEnabled,
 												textMode, loc, encoding);
+		event.commit(loc.getFileFullPath(), loc.isLocal() ? new File(loc.getFileFullPath()).length() : -1,
+			pane.getDocument().getLength(), pane.getEncoding(), style);
 
 		// Set some properties.
 		pane.setFont(getTextAreaFont());
@@ -862,10 +898,11 @@ public abstract class AbstractMainView extends JPanel
 
 	/**
 	 * Disposes of this view.  This is called when the user changes the main
-	 * view style.  The default implementation does nothing; subclasses can
-	 * override to dispose of anything they want.
+	 * view style.  Subclasses can override to dispose of anything else they
+	 * want, but should call the super implementation.
 	 */
 	public void dispose() {
+		idleEditorEvictor.setRunning(false);
 	}
 
 
@@ -1063,6 +1100,20 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns whether the content of idle editors is kept compressed in
+	 * memory, as opposed to being re-read from disk when they are selected
+	 * again.
+	 *
+	 * @return Whether idle editors' content is compressed.
+	 * @see #setCompressIdleEditors(boolean)
+	 * @see #getIdleEditorEvictionEnabled()
+	 */
+	public boolean getCompressIdleEditors() {
+		return idleEditorEvictor.getCompress();
+	}
+
+
 	/**
 	 * Returns the color of the current line highlight, if enabled.
 	 *
@@ -1321,6 +1372,33 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns how long an editor must sit unused in the background before
+	 * its content is evicted, if idle editor eviction is enabled.
+	 *
+	 * @return The idle time, in minutes.
+	 * @see #setIdleEditorEvictionDelay(int)
+	 * @see #getIdleEditorEvictionEnabled()
+	 */
+	public int getIdleEditorEvictionDelay() {
+		return idleEditorEvictor.getIdleMinutes();
+	}
+
+
+	/**
+	 * Returns whether the content of unmodified editors that sit unused in
+	 * the background is evicted from memory.
+	 *
+	 * @return Whether idle editors are evicted.
+	 * @see #setIdleEditorEvictionEnabled(boolean)
+	 * @see #getIdleEditorEvictionDelay()
+	 * @see #getCompressIdleEditors()
+	 */
+	public boolean getIdleEditorEvictionEnabled() {
+		return idleEditorEvictor.isRunning();
+	}
+
+
 	/**
 	 * Returns whether RText ignores extensions like ".bak", ".old", and
 	 * ".orig" when deciding how to open them.
@@ -2278,6 +2356,9 @@ public abstract class AbstractMainView extends JPanel
 		setLineNumberFont(prefs.lineNumberFont);
 		setLineNumberColor(prefs.lineNumberColor);
 		setGutterBorderColor(prefs.gutterBorderColor);
+		setIdleEditorEvictionDelay(prefs.idleEditorEvictionDelay);
+		setCompressIdleEditors(prefs.compressIdleEditors);
+		setIdleEditorEvictionEnabled(prefs.idleEditorEvictionEnabled);
 		spellingSupport = new SpellingSupport(owner);
 		spellingSupport.configure(prefs); // Do this BEFORE opening any files!
 
@@ -2687,6 +2768,24 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public abstract void refreshTabIcons();
 
+	/**
+	 * Restores an editor's content if it was evicted due to being idle.
+	 * Any error is displayed to the user.
+	 *
+	 * @param textArea The editor.
+	 * @return Whether the editor's content is loaded.
+	 */
+	public boolean rehydrate(RTextEditorPane textArea) {
+		try {
+			textArea.rehydrate();
+			return true;
+		} catch (IOException ioe) {
+			owner.displayException(ioe);
+			return false;
+		}
+	}
+
+
 	/**
 	 * Looks for duplicate open documents (documents opened more than once)
 	 * and adds numbers to the display names for these documents to
@@ -3192,6 +3291,20 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Sets whether the content of idle editors is kept compressed in memory,
+	 * as opposed to being re-read from disk when they are selected again.
+	 * The content of remote files is always kept compressed.
+	 *
+	 * @param compress Whether to compress idle editors' content.
+	 * @see #getCompressIdleEditors()
+	 * @see #setIdleEditorEvictionEnabled(boolean)
+	 */
+	public void setCompressIdleEditors(boolean compress) {
+		idleEditorEvictor.setCompress(compress);
+	}
+
+
 	/**
 	 * Sets the color to use to highlight the current line.  Note that if
 	 * highlighting the current line is turned off, you will not be able to see
@@ -3232,7 +3345,8 @@ public abstract class AbstractMainView extends JPanel
 	 * Sets the "currently active" text area.  This should only be called
 	 * by subclasses.  After this is called, subclasses should call
 	 * {@link #fireCurrentTextAreaEvent(int, Object, Object)} to notify any
-	 * registered listeners of the change.
+	 * registered listeners of the change.  If the text area's content was
+	 * evicted due to it being idle, it is restored.
 	 *
 	 * @param textArea The new text area.
 	 * @see #getCurrentTextArea()
@@ -3241,7 +3355,17 @@ public abstract class AbstractMainView extends JPanel
 	 * TODO: Make this method fire the event.
 	 */
 	protected void setCurrentTextArea(RTextEditorPane textArea) {
+
+		long now = System.currentTimeMillis();
+		if (currentTextArea!=null) {
+			currentTextArea.setLastActiveTime(now);
+		}
 		currentTextArea = textArea;
+
+		if (textArea!=null) {
+			textArea.setLastActiveTime(now);
+			rehydrate(textArea);
+		}
 	}
 
 
@@ -3461,6 +3585,35 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Sets how long an editor must sit unused in the background before its
+	 * content is evicted, if idle editor eviction is enabled.
+	 *
+	 * @param minutes The idle time, in minutes.
+	 * @see #getIdleEditorEvictionDelay()
+	 * @see #setIdleEditorEvictionEnabled(boolean)
+	 */
+	public void setIdleEditorEvictionDelay(int minutes) {
+		idleEditorEvictor.setIdleMinutes(minutes);
+	}
+
+
+	/**
+	 * Sets whether the content of unmodified editors that sit unused in the
+	 * background is evicted from memory.  Evicted editors are restored,
+	 * along with their caret and scroll positions, when they are selected
+	 * again.
+	 *
+	 * @param enabled Whether to evict idle editors.
+	 * @see #getIdleEditorEvictionEnabled()
+	 * @see #setIdleEditorEvictionDelay(int)
+	 * @see #setCompressIdleEditors(boolean)
+	 */
+	public void setIdleEditorEvictionEnabled(boolean enabled) {
+		idleEditorEvictor.setRunning(enabled);
+	}
+
+
 	/**
 	 * Sets whether RText should ignore extensions like ".bak", ".old", and
 	 * ".orig" when deciding how to open them.
@@ -0,0 +1,216 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.table.AbstractTableModel;
+
+import org.fife.ui.RScrollPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.dockablewindows.DockableWindow;
+import org.fife.ui.dockablewindows.DockableWindowConstants;
+import org.fife.ui.dockablewindows.DockableWindowScrollPane;
+
+
+/**
+ * A window that lists the stalls detected by the {@link EdtWatchdog},
+ * along with a sampled stack for the selected stall.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class EdtStallWindow extends DockableWindow
+		implements ChangeListener, PropertyChangeListener {
+
+	private RText rtext;
+	private StallTableModel model;
+	private JTable table;
+	private JTextArea stackArea;
+
+
+	EdtStallWindow(RText rtext) {
+
+		this.rtext = rtext;
+
+		model = new StallTableModel();
+		table = new JTable(model);
+		setPrimaryComponent(table);
+		table.setFillsViewportHeight(true);
+		table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		table.getColumnModel().getColumn(0).setPreferredWidth(300);
+		table.getSelectionModel().addListSelectionListener(e -> refreshStack());
+		UIUtil.fixJTableRendererOrientations(table);
+		UIUtil.possiblyFixGridColor(table);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(table);
+		RScrollPane sp = new DockableWindowScrollPane(table);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
+
+		stackArea = new JTextArea();
+		stackArea.setEditable(false);
+		RScrollPane stackSp = new DockableWindowScrollPane(stackArea);
+
+		JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, sp, stackSp);
+		splitPane.setResizeWeight(0.5);
+
+		JButton clearButton = new JButton(rtext.getString("EdtStalls.Clear"));
+		clearButton.addActionListener(e -> EdtWatchdog.get().clear());
+		JPanel buttonPanel = new JPanel(new BorderLayout());
+		buttonPanel.setBorder(UIUtil.getEmpty5Border());
+		buttonPanel.add(clearButton, BorderLayout.LINE_END);
+
+		setLayout(new BorderLayout());
+		add(splitPane);
+		add(buttonPanel, BorderLayout.SOUTH);
+
+		setPosition(DockableWindowConstants.BOTTOM);
+		setActive(true);
+		setDockableWindowName(rtext.getString("EdtStalls.Title"));
+
+		setIcon(getIconForAppTheme());
+		rtext.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, this);
+
+		EdtWatchdog.get().addChangeListener(this);
+		model.refresh();
+
+	}
+
+
+	private Icon getIconForAppTheme() {
+		return rtext.getIconGroup().getIcon("stop");
+	}
+
+
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+		if (RText.ICON_STYLE_PROPERTY.equals(e.getPropertyName())) {
+			setIcon(getIconForAppTheme());
+		}
+	}
+
+
+	/**
+	 * Displays the sampled stack of the selected stall.
+	 */
+	private void refreshStack() {
+
+		int row = table.getSelectedRow();
+		if (row == -1) {
+			stackArea.setText(null);
+			return;
+		}
+
+		EdtWatchdog.Stall stall = model.getStall(table.convertRowIndexToModel(row));
+		StringBuilder sb = new StringBuilder(stall.getLocation()).append('\n');
+		StackTraceElement[] stack = stall.getStack();
+		if (stack != null) {
+			for (StackTraceElement element : stack) {
+				sb.append("    at ").append(element).append('\n');
+			}
+		}
+		stackArea.setText(sb.toString());
+		stackArea.setCaretPosition(0);
+	}
+
+
+	/**
+	 * Called when the watchdog records a stall or is cleared.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void stateChanged(ChangeEvent e) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			model.refresh();
+		}
+		else {
+			SwingUtilities.invokeLater(model::refresh);
+		}
+	}
+
+
+	/**
+	 * The model for the table of stalls.
+	 */
+	private final class StallTableModel extends AbstractTableModel {
+
+		private List<EdtWatchdog.Stall> stalls;
+		private String[] columnNames;
+
+		StallTableModel() {
+			stalls = new ArrayList<>();
+			columnNames = new String[] {
+				rtext.getString("EdtStalls.Location"),
+				rtext.getString("EdtStalls.Count"),
+				rtext.getString("EdtStalls.Total"),
+				rtext.getString("EdtStalls.Max"),
+				rtext.getString("EdtStalls.LastEvent"),
+			};
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			return column >= 1 && column <= 3 ? Long.class : String.class;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return columnNames.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columnNames[column];
+		}
+
+		@Override
+		public int getRowCount() {
+			return stalls.size();
+		}
+
+		EdtWatchdog.Stall getStall(int row) {
+			return stalls.get(row);
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			EdtWatchdog.Stall stall = stalls.get(row);
+			return switch (column) {
+				case 0 -> stall.getLocation();
+				case 1 -> (long)stall.getCount();
+				case 2 -> stall.getTotalMillis();
+				case 3 -> stall.getMaxMillis();
+				default -> stall.getLastEventType();
+			};
+		}
+
+		void refresh() {
+			String selected = null;
+			int row = table.getSelectedRow();
+			if (row > -1) {
+				selected = stalls.get(row).getLocation();
+			}
+			stalls = EdtWatchdog.get().getStalls();
+			fireTableDataChanged();
+			for (int i = 0; i < stalls.size(); i++) {
+				if (stalls.get(i).getLocation().equals(selected)) {
+					table.setRowSelectionInterval(i, i);
+					break;
+				}
+			}
+			refreshStack();
+		}
+
+	}
+
+
+}
@@ -0,0 +1,520 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.EventListenerList;
+
+import org.fife.rtext.jfr.EdtTaskEvent;
+
+
+/**
+ * Detects when the event dispatch thread (EDT) is blocked handling a single
+ * event for longer than a threshold.  While such a stall lasts, the EDT's
+ * stack is sampled periodically.  When it ends, the stall is attributed to
+ * the application method seen most often in those samples, and added to an
+ * aggregated "top stalls" report.  The report is written to the preferences
+ * directory and can be viewed in RText.<p>
+ *
+ * The watchdog works by replacing the system event queue, so
+ * {@link #install()} should be called once, early during startup.  The
+ * replacement event queue also emits {@link EdtTaskEvent}s for the flight
+ * recorder.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class EdtWatchdog {
+
+	private static final EdtWatchdog INSTANCE = new EdtWatchdog();
+
+	private volatile Thread edt;
+	private volatile Task currentTask;
+	private volatile boolean enabled;
+	private volatile int thresholdMillis;
+	private final Map<String, Stall> stalls;
+	private final EventListenerList listeners;
+	private ScheduledExecutorService executor;
+	private ScheduledFuture<?> samplerFuture;
+	private File reportFile;
+
+	/**
+	 * The default stall threshold, in milliseconds.
+	 */
+	public static final int DEFAULT_THRESHOLD_MILLIS = 500;
+
+	/**
+	 * How often the EDT's stack is sampled, in milliseconds.
+	 */
+	private static final int SAMPLE_INTERVAL_MILLIS = 50;
+
+	/**
+	 * The number of stack frames kept for each stall.
+	 */
+	private static final int MAX_STACK_DEPTH = 25;
+
+	/**
+	 * The name of the report file written to the preferences directory.
+	 */
+	static final String REPORT_FILE_NAME = "edt-stalls.txt";
+
+
+	/**
+	 * Private constructor to enforce singleton.
+	 */
+	private EdtWatchdog() {
+		thresholdMillis = DEFAULT_THRESHOLD_MILLIS;
+		stalls = new HashMap<>();
+		listeners = new EventListenerList();
+		reportFile = new File(RTextUtilities.getPreferencesDirectory(), REPORT_FILE_NAME);
+	}
+
+
+	/**
+	 * Adds a listener notified on the EDT whenever a stall is recorded or
+	 * the stalls are cleared.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	public void addChangeListener(ChangeListener l) {
+		listeners.add(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Discards all recorded stalls.
+	 */
+	public void clear() {
+		synchronized (stalls) {
+			stalls.clear();
+		}
+		fireChangeEvent();
+		scheduleReportWrite();
+	}
+
+
+	private void fireChangeEvent() {
+		ChangeEvent e = new ChangeEvent(this);
+		for (ChangeListener l : listeners.getListeners(ChangeListener.class)) {
+			l.stateChanged(e);
+		}
+	}
+
+
+	/**
+	 * Returns the singleton instance of this class.
+	 *
+	 * @return The singleton instance.
+	 */
+	public static EdtWatchdog get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the location a stall is attributed to: the application method
+	 * seen most often on top of the sampled stacks.
+	 *
+	 * @param task The stalled task.
+	 * @return The location.
+	 */
+	private static String getLocation(Task task) {
+		String location = null;
+		int max = 0;
+		for (Map.Entry<String, Integer> entry : task.locationCounts.entrySet()) {
+			if (entry.getValue() > max) {
+				max = entry.getValue();
+				location = entry.getKey();
+			}
+		}
+		return location != null ? location : "(not sampled) " + task.eventType;
+	}
+
+
+	/**
+	 * Returns the first application frame in a stack trace, or the top frame
+	 * if no application code is on the stack.
+	 *
+	 * @param stack The stack trace.
+	 * @return The frame, as a string.
+	 */
+	private static String getLocation(StackTraceElement[] stack) {
+		for (StackTraceElement element : stack) {
+			if (element.getClassName().startsWith("org.fife.")) {
+				return element.toString();
+			}
+		}
+		return stack.length > 0 ? stack[0].toString() : "(unknown)";
+	}
+
+
+	/**
+	 * Returns the recorded stalls, longest total time first.
+	 *
+	 * @return The stalls.
+	 */
+	public List<Stall> getStalls() {
+		List<Stall> list;
+		synchronized (stalls) {
+			list = new ArrayList<>(stalls.values());
+		}
+		list.sort((s1, s2) -> Long.compare(s2.totalMillis, s1.totalMillis));
+		return list;
+	}
+
+
+	/**
+	 * Returns the minimum length of a stall.
+	 *
+	 * @return The threshold, in milliseconds.
+	 * @see #setThresholdMillis(int)
+	 */
+	public int getThresholdMillis() {
+		return thresholdMillis;
+	}
+
+
+	/**
+	 * Installs the event queue that watches for stalls.  Stalls are not
+	 * detected until the watchdog is enabled.
+	 *
+	 * @see #setEnabled(boolean)
+	 */
+	public static void install() {
+		Toolkit.getDefaultToolkit().getSystemEventQueue().push(INSTANCE.new WatchdogEventQueue());
+	}
+
+
+	/**
+	 * Returns whether stalls are being detected.
+	 *
+	 * @return Whether stalls are being detected.
+	 * @see #setEnabled(boolean)
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+
+	/**
+	 * Records a finished task as a stall, if it ran long enough.  This is
+	 * called on the EDT.
+	 *
+	 * @param task The task.
+	 * @param endNanos When the task finished.
+	 */
+	private void possiblyRecordStall(Task task, long endNanos) {
+
+		long millis = (endNanos - task.startNanos) / 1_000_000;
+		if (!enabled || millis < thresholdMillis) {
+			return;
+		}
+
+		synchronized (stalls) {
+			String location;
+			StackTraceElement[] stack;
+			synchronized (task) {
+				location = getLocation(task);
+				stack = task.stacks.get(location);
+			}
+			Stall stall = stalls.computeIfAbsent(location, Stall::new);
+			stall.count++;
+			stall.totalMillis += millis;
+			stall.maxMillis = Math.max(stall.maxMillis, millis);
+			stall.lastEventType = task.eventType;
+			stall.lastTime = System.currentTimeMillis();
+			if (stack != null) {
+				stall.stack = stack;
+			}
+		}
+
+		fireChangeEvent();
+		scheduleReportWrite();
+	}
+
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	public void removeChangeListener(ChangeListener l) {
+		listeners.remove(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Samples the EDT's stack, if it has been busy for at least half the
+	 * threshold, so short stalls still get samples.  This is called on the
+	 * sampler thread.
+	 */
+	private void sample() {
+
+		Task task = currentTask;
+		Thread thread = edt;
+		if (task == null || thread == null ||
+				System.nanoTime() - task.startNanos < thresholdMillis * 500_000L) {
+			return;
+		}
+
+		StackTraceElement[] stack = thread.getStackTrace();
+		if (task != currentTask) { // Stall ended while we were sampling
+			return;
+		}
+		if (stack.length > MAX_STACK_DEPTH) {
+			StackTraceElement[] temp = new StackTraceElement[MAX_STACK_DEPTH];
+			System.arraycopy(stack, 0, temp, 0, MAX_STACK_DEPTH);
+			stack = temp;
+		}
+
+		String location = getLocation(stack);
+		synchronized (task) {
+			task.locationCounts.merge(location, 1, Integer::sum);
+			task.stacks.putIfAbsent(location, stack);
+		}
+	}
+
+
+	/**
+	 * Writes the report on the sampler thread, to keep file IO off the EDT.
+	 */
+	private synchronized void scheduleReportWrite() {
+		if (executor != null) {
+			executor.execute(this::writeReport);
+		}
+	}
+
+
+	/**
+	 * Toggles whether stalls are detected.
+	 *
+	 * @param enabled Whether stalls should be detected.
+	 * @see #isEnabled()
+	 */
+	public synchronized void setEnabled(boolean enabled) {
+
+		if (enabled == this.enabled) {
+			return;
+		}
+		this.enabled = enabled;
+
+		if (enabled) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "RText EDT Watchdog");
+				t.setDaemon(true);
+				return t;
+			});
+			samplerFuture = executor.scheduleAtFixedRate(this::sample,
+				SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+		}
+		else {
+			samplerFuture.cancel(false);
+			executor.shutdown();
+			executor = null;
+			samplerFuture = null;
+		}
+	}
+
+
+	/**
+	 * Sets the minimum length of a stall.
+	 *
+	 * @param millis The threshold, in milliseconds.  This must be at least
+	 *        {@code 100}.
+	 * @see #getThresholdMillis()
+	 */
+	public void setThresholdMillis(int millis) {
+		thresholdMillis = Math.max(100, millis);
+	}
+
+
+	/**
+	 * Writes the "top stalls" report to the preferences directory.
+	 */
+	private void writeReport() {
+
+		List<Stall> list = getStalls();
+
+		try (PrintWriter w = new PrintWriter(reportFile, StandardCharsets.UTF_8)) {
+			w.println("RText EDT stall report - " + new Date());
+			w.println("Threshold: " + thresholdMillis + " ms");
+			w.println();
+			int rank = 1;
+			for (Stall stall : list) {
+				w.println("#" + rank++ + "  " + stall.location);
+				w.println("    count=" + stall.count + ", total=" + stall.totalMillis +
+					" ms, max=" + stall.maxMillis + " ms, last event=" + stall.lastEventType +
+					" at " + new Date(stall.lastTime));
+				if (stall.stack != null) {
+					for (StackTraceElement element : stall.stack) {
+						w.println("        at " + element);
+					}
+				}
+				w.println();
+			}
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Aggregated information about stalls attributed to the same location.
+	 */
+	public static final class Stall {
+
+		private final String location;
+		private int count;
+		private long totalMillis;
+		private long maxMillis;
+		private String lastEventType;
+		private long lastTime;
+		private StackTraceElement[] stack;
+
+		private Stall(String location) {
+			this.location = location;
+		}
+
+		/**
+		 * Returns the number of stalls at this location.
+		 *
+		 * @return The number of stalls.
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the type of the last event that stalled at this location.
+		 *
+		 * @return The event type.
+		 */
+		public String getLastEventType() {
+			return lastEventType;
+		}
+
+		/**
+		 * Returns the location the stalls are attributed to.
+		 *
+		 * @return The location.
+		 */
+		public String getLocation() {
+			return location;
+		}
+
+		/**
+		 * Returns the length of the longest stall.
+		 *
+		 * @return The length of the longest stall, in milliseconds.
+		 */
+		public long getMaxMillis() {
+			return maxMillis;
+		}
+
+		/**
+		 * Returns a sampled stack of a stall at this location.
+		 *
+		 * @return The stack, or <code>null</code> if none was sampled.
+		 */
+		public StackTraceElement[] getStack() {
+			return stack;
+		}
+
+		/**
+		 * Returns the total length of all stalls.
+		 *
+		 * @return The total length, in milliseconds.
+		 */
+		public long getTotalMillis() {
+			return totalMillis;
+		}
+
+	}
+
+
+	/**
+	 * The handling of a single event on the EDT.
+	 */
+	private static final class Task {
+
+		private final long startNanos;
+		private final String eventType;
+		private final Map<String, Integer> locationCounts;
+		private final Map<String, StackTraceElement[]> stacks;
+
+		private Task(AWTEvent event) {
+			startNanos = System.nanoTime();
+			eventType = event.getClass().getName();
+			locationCounts = new HashMap<>();
+			stacks = new HashMap<>();
+		}
+
+	}
+
+
+	/**
+	 * Event queue that tracks the event being dispatched.  A task ends when
+	 * the EDT asks for its next event, including when a modal dialog starts
+	 * pumping events inside another event's handler, so time spent waiting
+	 * for user input is never counted.
+	 */
+	private final class WatchdogEventQueue extends EventQueue {
+
+		@Override
+		protected void dispatchEvent(AWTEvent event) {
+
+			edt = Thread.currentThread();
+			finishCurrentTask();
+			currentTask = new Task(event);
+
+			EdtTaskEvent jfrEvent = new EdtTaskEvent();
+			jfrEvent.begin();
+			try {
+				super.dispatchEvent(event);
+			} finally {
+				jfrEvent.commit(event);
+			}
+		}
+
+		private void finishCurrentTask() {
+			Task task = currentTask;
+			if (task != null) {
+				currentTask = null;
+				possiblyRecordStall(task, System.nanoTime());
+			}
+		}
+
+		@Override
+		public AWTEvent getNextEvent() throws InterruptedException {
+			if (Thread.currentThread() == edt) {
+				finishCurrentTask();
+			}
+			return super.getNextEvent();
+		}
+
+	}
+
+
+}
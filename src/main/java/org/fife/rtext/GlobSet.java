@@ -0,0 +1,273 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.fife.ui.OS;
+
+
+/**
+ * A set of wildcard file name filters, such as <code>*.java</code> or
+ * <code>Makefile</code>, compiled so a file name can be checked against all
+ * of them at once.  Each filter can be associated with a value, such as a
+ * syntax style.<p>
+ *
+ * The only wildcards supported are <code>*</code>, matching any sequence of
+ * characters, and <code>?</code>, matching any single character.  All other
+ * characters match literally.<p>
+ *
+ * Filters without wildcards are looked up in a hash table, as are filters of
+ * the form <code>*.ext</code>.  All other filters are combined into a single
+ * regular expression.  If more than one filter matches a file name, the
+ * first one added wins, just as if the filters were checked one at a
+ * time.<p>
+ *
+ * Instances of this class are immutable and thread-safe.
+ *
+ * @param <T> The type of value associated with each filter.
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class GlobSet<T> {
+
+	private final boolean ignoreCase;
+	private final Map<String, Filter<T>> names;
+	private final Map<String, Filter<T>> extensions;
+	private final List<Filter<T>> wildcardFilters;
+	private final Pattern wildcards;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param filters A mapping from filters to their values.  If this map
+	 *        has a defined iteration order, it is used to resolve matches
+	 *        as described above.  Blank filters are ignored.
+	 * @param ignoreCase Whether matching should be case-insensitive.
+	 * @see #of(Collection)
+	 */
+	public GlobSet(Map<String, ? extends T> filters, boolean ignoreCase) {
+
+		this.ignoreCase = ignoreCase;
+		names = new HashMap<>();
+		extensions = new HashMap<>();
+		wildcardFilters = new ArrayList<>();
+		StringBuilder regex = new StringBuilder();
+		int order = 0;
+
+		for (Map.Entry<String, ? extends T> entry : filters.entrySet()) {
+
+			String filter = entry.getKey().trim();
+			if (filter.isEmpty()) {
+				continue;
+			}
+			Filter<T> value = new Filter<>(entry.getValue(), order++);
+
+			if (!hasWildcards(filter)) {
+				names.putIfAbsent(normalize(filter), value);
+			}
+			else if (filter.startsWith("*.") && !hasWildcards(filter.substring(2))) {
+				extensions.putIfAbsent(normalize(filter.substring(2)), value);
+			}
+			else {
+				regex.append(regex.length() == 0 ? "^(?:(" : ")|(");
+				appendRegex(regex, filter);
+				wildcardFilters.add(value);
+			}
+		}
+
+		if (regex.length() > 0) {
+			regex.append("))$");
+			int flags = Pattern.DOTALL;
+			if (ignoreCase) {
+				flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+			}
+			wildcards = Pattern.compile(regex.toString(), flags);
+		}
+		else {
+			wildcards = null;
+		}
+	}
+
+
+	/**
+	 * Appends the regular expression equivalent to a filter.
+	 *
+	 * @param sb The buffer to append to.
+	 * @param filter The filter.
+	 */
+	private static void appendRegex(StringBuilder sb, String filter) {
+
+		int literalStart = 0;
+
+		for (int i = 0; i < filter.length(); i++) {
+			char ch = filter.charAt(i);
+			if (ch == '*' || ch == '?') {
+				if (i > literalStart) {
+					sb.append(Pattern.quote(filter.substring(literalStart, i)));
+				}
+				sb.append(ch == '*' ? ".*" : ".");
+				literalStart = i + 1;
+			}
+		}
+
+		if (literalStart < filter.length()) {
+			sb.append(Pattern.quote(filter.substring(literalStart)));
+		}
+	}
+
+
+	/**
+	 * Returns the value of the filter matching a file name.
+	 *
+	 * @param fileName The file name, without any directory.
+	 * @return The value of the matching filter, or <code>null</code> if
+	 *         none match.
+	 * @see #matches(String)
+	 */
+	public T get(String fileName) {
+
+		String name = normalize(fileName);
+
+		Filter<T> match = names.get(name);
+
+		if (!extensions.isEmpty()) {
+			int dot = name.indexOf('.');
+			while (dot > -1) {
+				match = first(match, extensions.get(name.substring(dot + 1)));
+				dot = name.indexOf('.', dot + 1);
+			}
+		}
+
+		if (wildcards != null) {
+			Matcher m = wildcards.matcher(fileName);
+			if (m.matches()) {
+				// The regex tries the filters in order, so this is the
+				// first wildcard filter that matches
+				for (int i = 1; i <= m.groupCount(); i++) {
+					if (m.start(i) > -1) {
+						match = first(match, wildcardFilters.get(i - 1));
+						break;
+					}
+				}
+			}
+		}
+
+		return match != null ? match.value : null;
+	}
+
+
+	/**
+	 * Returns whichever of two matching filters was added first.
+	 *
+	 * @param f1 A filter, or <code>null</code>.
+	 * @param f2 Another filter, or <code>null</code>.
+	 * @return The filter added first, or <code>null</code> if both are
+	 *         <code>null</code>.
+	 */
+	private static <T> Filter<T> first(Filter<T> f1, Filter<T> f2) {
+		if (f1 == null) {
+			return f2;
+		}
+		return f2 == null || f1.order < f2.order ? f1 : f2;
+	}
+
+
+	private static boolean hasWildcards(String filter) {
+		return filter.indexOf('*') > -1 || filter.indexOf('?') > -1;
+	}
+
+
+	/**
+	 * Returns whether this set contains no filters.
+	 *
+	 * @return Whether this set is empty.
+	 */
+	public boolean isEmpty() {
+		return names.isEmpty() && extensions.isEmpty() && wildcards == null;
+	}
+
+
+	/**
+	 * Returns whether any filter matches a file name.
+	 *
+	 * @param fileName The file name, without any directory.
+	 * @return Whether any filter matches.
+	 * @see #get(String)
+	 */
+	public boolean matches(String fileName) {
+		return get(fileName) != null;
+	}
+
+
+	private String normalize(String text) {
+		return ignoreCase ? text.toLowerCase(Locale.ROOT) : text;
+	}
+
+
+	/**
+	 * Returns a set of filters, matching case-insensitively if the file
+	 * system is case-insensitive.
+	 *
+	 * @param filters The filters.  Blank filters are ignored.
+	 * @return The filter set.  Each filter's value is the filter itself.
+	 * @see #of(Collection, boolean)
+	 */
+	public static GlobSet<String> of(Collection<String> filters) {
+		return of(filters, !OS.get().isCaseSensitive());
+	}
+
+
+	/**
+	 * Returns a set of filters.
+	 *
+	 * @param filters The filters.  Blank filters are ignored.
+	 * @param ignoreCase Whether matching should be case-insensitive.
+	 * @return The filter set.  Each filter's value is the filter itself.
+	 * @see #of(Collection)
+	 */
+	public static GlobSet<String> of(Collection<String> filters, boolean ignoreCase) {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (String filter : filters) {
+			map.put(filter.trim(), filter.trim());
+		}
+		return new GlobSet<>(map, ignoreCase);
+	}
+
+
+	/**
+	 * Returns a regular expression matching the same file names as a single
+	 * filter.  This is for callers that need a <code>Pattern</code>; prefer
+	 * creating a <code>GlobSet</code> when matching against more than one
+	 * filter.
+	 *
+	 * @param filter The filter.
+	 * @return The equivalent regular expression.
+	 */
+	public static String toRegex(String filter) {
+		StringBuilder sb = new StringBuilder("^");
+		appendRegex(sb, filter);
+		return sb.append('$').toString();
+	}
+
+
+	/**
+	 * A filter's value, along with the order in which the filter was added.
+	 */
+	private record Filter<T>(T value, int order) {
+	}
+
+
+}
@@ -0,0 +1,197 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+
+
+/**
+ * The GraalJS engine shared by everything in RText that runs JavaScript,
+ * e.g. the console and macros.  Each of them creates its own
+ * <code>Context</code> via {@link #newContextBuilder()}, but since all
+ * contexts share one <code>Engine</code>, code parsed and compiled for one
+ * context is reused by the others.<p>
+ *
+ * The engine only keeps compiled code around while its <code>Source</code>
+ * is reachable, so recently evaluated sources are cached here via
+ * {@link #getSource(String, String)} and {@link #getSource(File)}.  Running
+ * the same macro or console snippet again then skips parsing and starts with
+ * code the engine has already optimized.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class GraalJavaScript {
+
+	/**
+	 * The shared engine.  Guarded by the class lock.
+	 */
+	private static Engine engine;
+
+	/**
+	 * The most recently used sources, keyed by name or file.  Guarded by
+	 * the class lock.
+	 */
+	private static final Map<String, CachedSource> SOURCES =
+			new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedSource> eldest) {
+			return size() > MAX_CACHED_SOURCES;
+		}
+	};
+
+	private static final int MAX_CACHED_SOURCES = 64;
+
+	private static final String LANGUAGE = "js";
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private GraalJavaScript() {
+	}
+
+
+	/**
+	 * Returns the shared engine, creating it if necessary.
+	 *
+	 * @return The engine.
+	 */
+	public static synchronized Engine getEngine() {
+		if (engine == null) {
+			engine = Engine.newBuilder(LANGUAGE)
+				.option("engine.WarnInterpreterOnly", "false")
+				.build();
+		}
+		return engine;
+	}
+
+
+	/**
+	 * Returns the source for a script file.  If the file hasn't changed since
+	 * it was last requested, the same source is returned, so its compiled
+	 * code is reused.
+	 *
+	 * @param file The script file.
+	 * @return The source.
+	 * @throws IOException If an IO error occurs reading the file.
+	 * @see #isCached(File)
+	 */
+	public static Source getSource(File file) throws IOException {
+
+		String key = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+
+		synchronized (GraalJavaScript.class) {
+			CachedSource cached = SOURCES.get(key);
+			if (cached != null && cached.lastModified == lastModified &&
+					cached.length == length) {
+				return cached.source;
+			}
+		}
+
+		Source source = Source.newBuilder(LANGUAGE, file).build();
+		synchronized (GraalJavaScript.class) {
+			SOURCES.put(key, new CachedSource(source, lastModified, length));
+		}
+		return source;
+
+	}
+
+
+	/**
+	 * Returns the source for a snippet of code.  If the same code was
+	 * recently requested under the same name, the same source is returned,
+	 * so its compiled code is reused.
+	 *
+	 * @param name The name of the source, e.g. <code>"console"</code>.
+	 * @param code The code.
+	 * @return The source.
+	 */
+	public static synchronized Source getSource(String name, String code) {
+		String key = name + '\0' + code;
+		CachedSource cached = SOURCES.get(key);
+		if (cached == null) {
+			Source source = Source.newBuilder(LANGUAGE, code, name).buildLiteral();
+			cached = new CachedSource(source, 0, code.length());
+			SOURCES.put(key, cached);
+		}
+		return cached.source;
+	}
+
+
+	/**
+	 * Returns whether the source for a script file is cached, i.e. whether
+	 * running it again reuses its compiled code.
+	 *
+	 * @param file The script file.
+	 * @return Whether the file's source is cached.
+	 * @see #getSource(File)
+	 */
+	public static synchronized boolean isCached(File file) {
+		CachedSource cached = SOURCES.get(file.getAbsolutePath());
+		return cached != null && cached.lastModified == file.lastModified() &&
+			cached.length == file.length();
+	}
+
+
+	/**
+	 * Returns a builder for a context that runs on the shared engine and can
+	 * access all of RText.  Note that engine options can't be set on the
+	 * builder.
+	 *
+	 * @return The builder.
+	 */
+	public static Context.Builder newContextBuilder() {
+		return Context.newBuilder(LANGUAGE)
+			.engine(getEngine())
+			.allowAllAccess(true);
+	}
+
+
+	/**
+	 * Parses a script file on the shared engine without running it, so the
+	 * first time it's run doesn't pay for parsing.
+	 *
+	 * @param file The script file.
+	 * @throws IOException If an IO error occurs reading the file.
+	 */
+	public static void precompile(File file) throws IOException {
+		Source source = getSource(file);
+		try (Context context = newContextBuilder().build()) {
+			context.parse(source);
+		}
+	}
+
+
+	/**
+	 * Creates the shared engine and evaluates a throwaway script, so the
+	 * first JavaScript run by the user doesn't pay for it.  This is called by
+	 * the {@link WarmUpScheduler} on a background thread.
+	 */
+	public static void warmUp() {
+		try (Context context = newContextBuilder().build()) {
+			context.eval(LANGUAGE, "[1, 2, 3].map(x => x * 2).join()");
+		}
+	}
+
+
+	/**
+	 * A cached source, along with the state of its file when it was read.
+	 */
+	private record CachedSource(Source source, long lastModified, long length) {
+	}
+
+
+}
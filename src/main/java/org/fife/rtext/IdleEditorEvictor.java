@@ -0,0 +1,145 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.IOException;
+import javax.swing.Timer;
+
+
+/**
+ * Periodically evicts the content of editors that have sat unchanged in the
+ * background of a main view for longer than a configurable idle time.  This
+ * keeps memory usage down when many files are open.  Evicted editors are
+ * restored by their main view when they are selected again.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RTextEditorPane#evict(boolean)
+ * @see RTextEditorPane#rehydrate()
+ */
+class IdleEditorEvictor {
+
+	private AbstractMainView mainView;
+	private Timer timer;
+
+	private int idleMinutes;
+	private boolean compress;
+
+	/**
+	 * How often to check for idle editors, in milliseconds.
+	 */
+	private static final int CHECK_INTERVAL_MILLIS = 60 * 1000;
+
+
+	/**
+	 * Constructor.  The evictor is initially stopped.
+	 *
+	 * @param mainView The main view whose editors to evict.
+	 */
+	IdleEditorEvictor(AbstractMainView mainView) {
+		this.mainView = mainView;
+		idleMinutes = 30;
+		timer = new Timer(CHECK_INTERVAL_MILLIS, e -> evictIdleEditors());
+	}
+
+
+	/**
+	 * Evicts the content of all editors that have been idle long enough.
+	 */
+	void evictIdleEditors() {
+
+		long cutoff = System.currentTimeMillis() - idleMinutes * 60 * 1000L;
+		RTextEditorPane current = mainView.getCurrentTextArea();
+
+		for (int i = 0; i < mainView.getNumDocuments(); i++) {
+			RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
+			if (textArea != current && textArea.getLastActiveTime() < cutoff &&
+					mainView.canEvictDocumentAt(i)) {
+				try {
+					textArea.evict(compress);
+				} catch (IOException ioe) { // It's left loaded
+					mainView.owner.displayException(ioe);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Returns whether evicted content is kept compressed in memory rather
+	 * than re-read from disk.
+	 *
+	 * @return Whether evicted content is compressed.
+	 * @see #setCompress(boolean)
+	 */
+	boolean getCompress() {
+		return compress;
+	}
+
+
+	/**
+	 * Returns how long an editor must be idle before it is evicted.
+	 *
+	 * @return The idle time, in minutes.
+	 * @see #setIdleMinutes(int)
+	 */
+	int getIdleMinutes() {
+		return idleMinutes;
+	}
+
+
+	/**
+	 * Returns whether this evictor is running.
+	 *
+	 * @return Whether this evictor is running.
+	 * @see #setRunning(boolean)
+	 */
+	boolean isRunning() {
+		return timer.isRunning();
+	}
+
+
+	/**
+	 * Sets whether evicted content is kept compressed in memory rather than
+	 * re-read from disk.  Content of remote files is always compressed.
+	 *
+	 * @param compress Whether to compress evicted content.
+	 * @see #getCompress()
+	 */
+	void setCompress(boolean compress) {
+		this.compress = compress;
+	}
+
+
+	/**
+	 * Sets how long an editor must be idle before it is evicted.
+	 *
+	 * @param minutes The idle time, in minutes.  This must be at least
+	 *        {@code 1}.
+	 * @see #getIdleMinutes()
+	 */
+	void setIdleMinutes(int minutes) {
+		idleMinutes = Math.max(1, minutes);
+	}
+
+
+	/**
+	 * Starts or stops this evictor.
+	 *
+	 * @param running Whether this evictor should be running.
+	 * @see #isRunning()
+	 */
+	void setRunning(boolean running) {
+		if (running) {
+			timer.start();
+		}
+		else {
+			timer.stop();
+		}
+	}
+
+
+}
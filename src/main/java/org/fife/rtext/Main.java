@@ -31,6 +31,12 @@ public final class Main {
 	 */
 	public static void main(String[] args) {
 
+		// Hand the files to an already-running RText if there is one.  This
+		// must happen before any AWT classes are loaded, to keep it fast
+		if (SingleInstance.sendToRunningInstance(args)) {
+			return;
+		}
+
 		// Properties that must be set before amy AWT classes are loaded.
 		// Note that some of these are also configured for our installable
 		// package via jpackage, but are also set here for testing before
@@ -39,6 +45,17 @@ public final class Main {
 		MacOSUtil.setApplicationAppearance(MacOSUtil.AppAppearance.SYSTEM);
 
 		RTextAppContext context = new RTextAppContext();
-		SwingUtilities.invokeLater(() -> context.createApplication(args).setVisible(true));
+		SwingUtilities.invokeLater(() -> {
+			EdtWatchdog.install();
+			RText rtext;
+			try (StartupProfiler.Span span = StartupProfiler.start("Create application")) {
+				rtext = context.createApplication(args);
+			}
+			try (StartupProfiler.Span span = StartupProfiler.start("Show main window")) {
+				rtext.setVisible(true);
+			}
+			// Queued after any initial file opens
+			SwingUtilities.invokeLater(rtext::startupCompleted);
+		});
 	}
 }
@@ -0,0 +1,552 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.fife.io.ProcessRunnerOutputListener;
+
+
+/**
+ * An external process launched and tracked by the {@link ProcessManager}.
+ * This is a replacement for <code>ProcessRunner</code> that:
+ *
+ * <ul>
+ *    <li>Kills the process and all of its descendants when it is killed,
+ *        times out, or the thread waiting on it is interrupted.</li>
+ *    <li>Only keeps the last {@link #getMaxOutputLength()} characters of
+ *        the process's stdout and stderr.</li>
+ *    <li>Is listed in the "Running Processes" window while it runs.</li>
+ * </ul>
+ *
+ * Output is passed to the output listener, if any, as it's read.  The
+ * listener is called on a worker thread, not the EDT.  As with
+ * <code>ProcessRunner</code>, a process that was killed is reported to the
+ * listener as completing with an <code>InterruptedException</code>.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class ManagedProcess {
+
+	private final String[] command;
+	private File dir;
+	private Map<String, String> env;
+	private boolean appendEnv;
+	private long timeoutMillis;
+	private int maxOutputLength;
+	private ProcessRunnerOutputListener listener;
+
+	private volatile Process process;
+	private long startTime;
+	private final OutputBuffer stdout;
+	private final OutputBuffer stderr;
+	private volatile boolean killed;
+	private volatile boolean timedOut;
+	private int rc;
+	private Throwable lastError;
+	private final CountDownLatch done;
+
+	/**
+	 * The default maximum number of characters kept from each of stdout and
+	 * stderr.
+	 */
+	public static final int DEFAULT_MAX_OUTPUT_LENGTH = 1024 * 1024;
+
+	/**
+	 * How long to wait for the output of a process to be read after it
+	 * terminates.  A grandchild process that escaped being killed may keep
+	 * its output pipes open.
+	 */
+	private static final int OUTPUT_DRAIN_MILLIS = 1000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param command The command line to run.
+	 */
+	public ManagedProcess(String... command) {
+		this.command = command.clone();
+		maxOutputLength = DEFAULT_MAX_OUTPUT_LENGTH;
+		stdout = new OutputBuffer();
+		stderr = new OutputBuffer();
+		rc = -1;
+		done = new CountDownLatch(1);
+	}
+
+
+	/**
+	 * Kills a process and all of its descendants.  The descendants are
+	 * found first, since they can no longer be found once their parent is
+	 * killed.
+	 *
+	 * @param handle The process to kill.
+	 */
+	private static void destroyTree(ProcessHandle handle) {
+		List<ProcessHandle> descendants = handle.descendants().collect(Collectors.toList());
+		handle.destroyForcibly();
+		descendants.forEach(ProcessHandle::destroyForcibly);
+	}
+
+
+	/**
+	 * Returns the command line being run.
+	 *
+	 * @return The command line.
+	 */
+	public String[] getCommand() {
+		return command.clone();
+	}
+
+
+	/**
+	 * Returns the command line being run, as a single string.
+	 *
+	 * @return The command line.
+	 */
+	public String getCommandLine() {
+		return String.join(" ", command);
+	}
+
+
+	/**
+	 * Returns the CPU time used by this process and its descendants.  This
+	 * asks the OS about every descendant, so it shouldn't be called on the
+	 * EDT.
+	 *
+	 * @return The CPU time, or <code>null</code> if it isn't known, e.g. if
+	 *         the process isn't running or the OS doesn't report it.
+	 */
+	public Duration getCpuDuration() {
+		Process process = this.process;
+		if (process == null || !process.isAlive()) {
+			return null;
+		}
+		ProcessHandle handle = process.toHandle();
+		Duration total = handle.info().totalCpuDuration().orElse(null);
+		if (total != null) {
+			total = handle.descendants().flatMap(h -> h.info().totalCpuDuration().stream()).
+				reduce(total, Duration::plus);
+		}
+		return total;
+	}
+
+
+	/**
+	 * Returns the error that occurred launching or running the process, if
+	 * any.  This is an <code>InterruptedException</code> if the process was
+	 * killed, and a <code>TimeoutException</code> if it timed out.
+	 *
+	 * @return The error, or <code>null</code> if none occurred.
+	 */
+	public synchronized Throwable getLastError() {
+		return lastError;
+	}
+
+
+	/**
+	 * Returns the maximum number of characters kept from each of stdout and
+	 * stderr.
+	 *
+	 * @return The maximum length.
+	 * @see #setMaxOutputLength(int)
+	 */
+	public int getMaxOutputLength() {
+		return maxOutputLength;
+	}
+
+
+	/**
+	 * Returns the process's ID.
+	 *
+	 * @return The ID, or <code>-1</code> if the process hasn't been
+	 *         launched.
+	 */
+	public long getPid() {
+		Process process = this.process;
+		return process != null ? process.pid() : -1;
+	}
+
+
+	/**
+	 * Returns the process's exit code.
+	 *
+	 * @return The exit code, or <code>-1</code> if the process hasn't
+	 *         completed or could not be launched.
+	 */
+	public synchronized int getReturnCode() {
+		return rc;
+	}
+
+
+	/**
+	 * Returns when the process was launched.
+	 *
+	 * @return The time the process was launched, in milliseconds since the
+	 *         epoch.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+
+	/**
+	 * Returns the end of the process's stderr output.
+	 *
+	 * @return The output.
+	 * @see #getStdout()
+	 */
+	public String getStderr() {
+		return stderr.toString();
+	}
+
+
+	/**
+	 * Returns the end of the process's stdout output.
+	 *
+	 * @return The output.
+	 * @see #getStderr()
+	 */
+	public String getStdout() {
+		return stdout.toString();
+	}
+
+
+	/**
+	 * Returns whether the process is still running.
+	 *
+	 * @return Whether the process is still running.
+	 */
+	public boolean isAlive() {
+		return done.getCount() > 0;
+	}
+
+
+	/**
+	 * Returns whether some of the process's output was discarded because
+	 * it was longer than {@link #getMaxOutputLength()}.
+	 *
+	 * @return Whether output was discarded.
+	 */
+	public boolean isOutputTruncated() {
+		return stdout.isTruncated() || stderr.isTruncated();
+	}
+
+
+	/**
+	 * Returns whether the process was killed because it ran longer than its
+	 * timeout.
+	 *
+	 * @return Whether the process timed out.
+	 * @see #setTimeout(long)
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+
+
+	/**
+	 * Kills the process and all of its descendants, if it's running.
+	 */
+	public void kill() {
+		Process process = this.process;
+		if (process != null && isAlive()) {
+			killed = true;
+			destroyTree(process.toHandle());
+		}
+	}
+
+
+	/**
+	 * Notes that the process has completed, and notifies the output
+	 * listener.
+	 *
+	 * @param process The process, or <code>null</code> if it couldn't be
+	 *        launched.
+	 * @param rc The process's exit code.
+	 * @param error The error that occurred, if any.
+	 */
+	private void processCompleted(Process process, int rc, Throwable error) {
+		synchronized (this) {
+			this.rc = rc;
+			this.lastError = error;
+		}
+		ProcessManager.get().unregister(this);
+		if (listener != null) {
+			listener.processCompleted(process, rc, error);
+		}
+		done.countDown();
+	}
+
+
+	/**
+	 * Reads a stream of the process's output until it's closed.  As with
+	 * <code>ProcessRunner</code>, the output listener is passed one line at
+	 * a time, without its line terminator.  This is called on a worker
+	 * thread.
+	 *
+	 * @param process The process.
+	 * @param in The stream to read.
+	 * @param buffer Receives the output.
+	 * @param isStdout Whether <code>in</code> is the process's stdout.
+	 */
+	private void pump(Process process, InputStream in, OutputBuffer buffer, boolean isStdout) {
+		try (BufferedReader r = new BufferedReader(new InputStreamReader(in))) {
+			String line;
+			while ((line = r.readLine()) != null) {
+				buffer.append(line);
+				if (listener != null) {
+					listener.outputWritten(process, line, isStdout);
+				}
+			}
+		} catch (IOException ioe) {
+			// The stream was closed after the process was killed
+		}
+	}
+
+
+	/**
+	 * Launches the process and waits for it to complete.  If the calling
+	 * thread is interrupted while waiting, the process is killed.
+	 *
+	 * @return The process's exit code, or <code>-1</code> if it couldn't
+	 *         be launched or didn't complete.
+	 * @see #start()
+	 * @see #getLastError()
+	 */
+	public int run() {
+		start();
+		try {
+			waitFor();
+		} catch (InterruptedException ie) {
+			kill();
+			Thread.currentThread().interrupt();
+		}
+		return getReturnCode();
+	}
+
+
+	/**
+	 * Sets the directory to run the process in.
+	 *
+	 * @param dir The directory.  If this is <code>null</code>, the current
+	 *        directory is used.
+	 */
+	public void setDirectory(File dir) {
+		this.dir = dir;
+	}
+
+
+	/**
+	 * Sets environment variables for the process.
+	 *
+	 * @param env The environment variables.  This may be <code>null</code>.
+	 * @param append Whether to add them to RText's environment, as opposed
+	 *        to replacing it.
+	 */
+	public void setEnvironmentVars(Map<String, String> env, boolean append) {
+		this.env = env;
+		this.appendEnv = append;
+	}
+
+
+	/**
+	 * Sets the maximum number of characters kept from each of stdout and
+	 * stderr.  If the process writes more than this, the oldest output is
+	 * discarded.  This doesn't affect what's passed to the output listener.
+	 *
+	 * @param length The maximum length.
+	 * @see #getMaxOutputLength()
+	 */
+	public void setMaxOutputLength(int length) {
+		maxOutputLength = Math.max(0, length);
+	}
+
+
+	/**
+	 * Sets the listener notified of output from the process and of its
+	 * completion.
+	 *
+	 * @param listener The listener.  This may be <code>null</code>.
+	 */
+	public void setOutputListener(ProcessRunnerOutputListener listener) {
+		this.listener = listener;
+	}
+
+
+	/**
+	 * Sets how long the process may run before it is killed.
+	 *
+	 * @param millis The timeout, in milliseconds.  If this is
+	 *        <code>0</code>, the process may run forever.
+	 * @see #isTimedOut()
+	 */
+	public void setTimeout(long millis) {
+		timeoutMillis = Math.max(0, millis);
+	}
+
+
+	/**
+	 * Launches the process and returns immediately.  If the process can't
+	 * be launched, the output listener is notified as if it had completed.
+	 *
+	 * @see #run()
+	 */
+	public void start() {
+
+		if (startTime != 0) {
+			throw new IllegalStateException("Process already started");
+		}
+		startTime = System.currentTimeMillis();
+
+		ProcessBuilder pb = new ProcessBuilder(command);
+		pb.directory(dir);
+		if (env != null) {
+			Map<String, String> pbEnv = pb.environment();
+			if (!appendEnv) {
+				pbEnv.clear();
+			}
+			pbEnv.putAll(env);
+		}
+
+		Process process;
+		try {
+			process = pb.start();
+		} catch (IOException ioe) {
+			processCompleted(null, -1, ioe);
+			return;
+		}
+		this.process = process;
+		ProcessManager manager = ProcessManager.get();
+		manager.register(this);
+
+		Future<?> out = manager.submit(() -> pump(process, process.getInputStream(), stdout, true));
+		Future<?> err = manager.submit(() -> pump(process, process.getErrorStream(), stderr, false));
+		manager.submit(() -> waitForProcess(process, out, err));
+
+	}
+
+
+	/**
+	 * Waits for the process to complete.
+	 *
+	 * @throws InterruptedException If the calling thread is interrupted.
+	 *         The process is not killed.
+	 * @see #run()
+	 */
+	public void waitFor() throws InterruptedException {
+		done.await();
+	}
+
+
+	/**
+	 * Waits for the process to terminate, killing it if it times out, and
+	 * then for its output to be read.  This is called on a worker thread.
+	 *
+	 * @param process The process.
+	 * @param out Reads the process's stdout.
+	 * @param err Reads the process's stderr.
+	 */
+	private void waitForProcess(Process process, Future<?> out, Future<?> err) {
+
+		int rc = -1;
+		Throwable error = null;
+
+		try {
+			if (timeoutMillis > 0 && !process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				timedOut = true;
+				destroyTree(process.toHandle());
+			}
+			rc = process.waitFor();
+			for (Future<?> f : new Future<?>[] { out, err }) {
+				try {
+					f.get(OUTPUT_DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException te) {
+					f.cancel(true);
+				}
+			}
+		} catch (InterruptedException ie) {
+			destroyTree(process.toHandle());
+			error = ie;
+		} catch (ExecutionException ee) { // Never happens
+			error = ee.getCause();
+		}
+
+		if (error == null) {
+			if (killed) {
+				error = new InterruptedException("Process killed");
+			}
+			else if (timedOut) {
+				error = new TimeoutException("Process timed out after " + timeoutMillis + " ms");
+			}
+		}
+		processCompleted(process, rc, error);
+
+	}
+
+
+	/**
+	 * Keeps the last {@link #getMaxOutputLength()} characters written to
+	 * one of the process's output streams.
+	 */
+	private final class OutputBuffer {
+
+		private final StringBuilder sb;
+		private boolean truncated;
+
+		OutputBuffer() {
+			sb = new StringBuilder();
+		}
+
+		synchronized void append(String line) {
+			sb.append(line).append('\n');
+			// Trim in chunks so we aren't shifting the buffer on every append
+			if (sb.length() > maxOutputLength + maxOutputLength / 4) {
+				trim();
+			}
+		}
+
+		synchronized boolean isTruncated() {
+			return truncated || sb.length() > maxOutputLength;
+		}
+
+		@Override
+		public synchronized String toString() {
+			trim();
+			return sb.toString();
+		}
+
+		/**
+		 * Drops the oldest output, so at most the maximum length is kept.
+		 * Whole lines are dropped, so callers never see a partial line.
+		 */
+		private void trim() {
+			int extra = sb.length() - maxOutputLength;
+			if (extra > 0) {
+				int lineEnd = sb.indexOf("\n", extra - 1);
+				sb.delete(0, lineEnd > -1 ? lineEnd + 1 : sb.length());
+				truncated = true;
+			}
+		}
+
+	}
+
+
+}
@@ -0,0 +1,159 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.EventListenerList;
+
+
+/**
+ * Keeps track of every external process RText launches, e.g. tools, system
+ * shell commands, ctags and tsc.  Processes are launched via
+ * {@link ManagedProcess}, whose output is read and whose timeouts are
+ * enforced by a shared pool of daemon threads, rather than each caller
+ * creating its own threads.<p>
+ *
+ * All running processes are killed, along with their descendants, when
+ * RText exits.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class ProcessManager {
+
+	private static final ProcessManager INSTANCE = new ProcessManager();
+
+	private final List<ManagedProcess> processes;
+	private final EventListenerList listeners;
+	private final ExecutorService executor;
+
+
+	/**
+	 * Private constructor to enforce singleton.
+	 */
+	private ProcessManager() {
+		processes = new ArrayList<>();
+		listeners = new EventListenerList();
+		AtomicInteger count = new AtomicInteger();
+		executor = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "RText Process-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Adds a listener notified when a process is launched or completes.
+	 * Note that listeners are not notified on the EDT.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	public void addChangeListener(ChangeListener l) {
+		listeners.add(ChangeListener.class, l);
+	}
+
+
+	private void fireChangeEvent() {
+		ChangeEvent e = new ChangeEvent(this);
+		for (ChangeListener l : listeners.getListeners(ChangeListener.class)) {
+			l.stateChanged(e);
+		}
+	}
+
+
+	/**
+	 * Returns the singleton instance of this class.
+	 *
+	 * @return The singleton instance.
+	 */
+	public static ProcessManager get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the processes that are running.
+	 *
+	 * @return The processes, in the order they were launched.
+	 */
+	public synchronized List<ManagedProcess> getProcesses() {
+		return new ArrayList<>(processes);
+	}
+
+
+	/**
+	 * Kills all running processes, along with their descendants.
+	 */
+	public void killAll() {
+		for (ManagedProcess process : getProcesses()) {
+			process.kill();
+		}
+	}
+
+
+	/**
+	 * Called when a process is launched.
+	 *
+	 * @param process The process.
+	 * @see #unregister(ManagedProcess)
+	 */
+	void register(ManagedProcess process) {
+		synchronized (this) {
+			processes.add(process);
+		}
+		fireChangeEvent();
+	}
+
+
+	/**
+	 * Removes a listener notified when a process is launched or completes.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	public void removeChangeListener(ChangeListener l) {
+		listeners.remove(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Runs a task on the shared thread pool.
+	 *
+	 * @param task The task to run.
+	 * @return The task's future.
+	 */
+	Future<?> submit(Runnable task) {
+		return executor.submit(task);
+	}
+
+
+	/**
+	 * Called when a process completes, or could not be launched.
+	 *
+	 * @param process The process.
+	 * @see #register(ManagedProcess)
+	 */
+	void unregister(ManagedProcess process) {
+		boolean removed;
+		synchronized (this) {
+			removed = processes.remove(process);
+		}
+		if (removed) {
+			fireChangeEvent();
+		}
+	}
+
+
+}
@@ -111,6 +111,10 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 	private SpellingErrorWindow spellingWindow;
 
+	private EdtStallWindow edtStallWindow;
+
+	private RunningProcessesWindow processesWindow;
+
 	private SyntaxScheme colorScheme;
 
 	private String workingDirectory;	// The directory for new empty files.
@@ -161,11 +165,19 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	 */
 	private int lastPluginCount;
 
+	/**
+	 * When the plugin currently being loaded started loading, for the
+	 * startup trace.
+	 */
+	private long pluginLoadStartNanos;
+
 	private static final String DEFAULT_ICON_GROUP_NAME = "IntelliJ Icons (Dark)";
 
 	/**
-	 * System property that, if set, causes RText to print timing information
-	 * while it is starting up.
+	 * System property that, if set, causes RText to print its startup trace
+	 * once it has started, and save it to the preferences directory.
+	 *
+	 * @see StartupProfiler
 	 */
 	private static final String PROPERTY_PRINT_START_TIMES = "printStartTimes";
 
@@ -303,8 +315,10 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 		//splashScreen.updateStatus(msg.getString("CreatingMenuBar"), 75);
 
-		menuBar = new RTextMenuBar(this);
-		mainView.addPropertyChangeListener(menuBar);
+		try (StartupProfiler.Span span = StartupProfiler.start("Menu bar")) {
+			menuBar = new RTextMenuBar(this);
+			mainView.addPropertyChangeListener(menuBar);
+		}
 
 		menuBar.setWindowMenuVisible(prefs.mainView==MDI_VIEW);
 
@@ -406,6 +420,16 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Displays a report of how long each part of RText's startup took.
+	 *
+	 * @see StartupProfiler
+	 */
+	public void displayStartupReport() {
+		new StartupReportDialog(this).setVisible(true);
+	}
+
+
 	/**
 	 * Called when the user attempts to close the application, whether from
 	 * an "Exit" menu item, closing the main application window, or any other
@@ -441,6 +465,8 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 				if (chooser!=null) {
 					RTextUtilities.saveFileChooserFavorites(this);
 				}
+				SingleInstance.stop();
+				ProcessManager.get().killAll();
 				System.exit(0);
 			}
 
@@ -613,11 +639,11 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 
 	/**
-	 * Returns the list of most recently opened files, least-recently opened
+	 * Returns the list of most recently opened files, most-recently opened
 	 * first.
 	 *
 	 * @return The list of files.  This may be empty but will never be
-	 *         <code>null</code>.
+	 *         <code>null</code>.  This is a copy.
 	 */
 	java.util.List<FileLocation> getRecentFiles() {
 		return recentFileManager.getRecentFiles();
@@ -772,6 +798,14 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	 */
 	@Override
 	protected void handleInstallPlugin(Plugin plugin) {
+
+		// Plugins are loaded by the application framework, so each one's
+		// construction and installation is measured from the end of the
+		// previous one.
+		long now = System.nanoTime();
+		StartupProfiler.record("Plugin: " + plugin.getPluginName(), pluginLoadStartNanos, now);
+		pluginLoadStartNanos = now;
+
 		// Normally we don't have to check currentTextArea for null, but in
 		// this case, we do.  Plugins are installed at startup, after the main
 		// window is displayed.  If the user passes in a filename to open, but
@@ -840,6 +874,28 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Returns whether the EDT stall window is visible.
+	 *
+	 * @return Whether the EDT stall window is visible.
+	 * @see #setEdtStallWindowVisible(boolean)
+	 */
+	public boolean isEdtStallWindowVisible() {
+		return edtStallWindow!=null && edtStallWindow.isActive();
+	}
+
+
+	/**
+	 * Returns whether the running processes window is visible.
+	 *
+	 * @return Whether the running processes window is visible.
+	 * @see #setRunningProcessesWindowVisible(boolean)
+	 */
+	public boolean isRunningProcessesWindowVisible() {
+		return processesWindow!=null && processesWindow.isActive();
+	}
+
+
 	/**
 	 * Returns whether search window opacity is enabled.
 	 *
@@ -851,6 +907,18 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Returns whether later launches of RText open their files in this
+	 * process rather than starting a new one.
+	 *
+	 * @return Whether single-instance mode is enabled.
+	 * @see #setSingleInstanceEnabled(boolean)
+	 */
+	public boolean isSingleInstanceEnabled() {
+		return SingleInstance.isEnabled();
+	}
+
+
 	/**
 	 * Returns whether the spelling window is visible.
 	 *
@@ -897,7 +965,12 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	private void openFiles(String[] filesToOpen) {
 		int count = filesToOpen==null ? 0 : filesToOpen.length;
 		for (int i=0; i<count; i++) {
-			openFile(new File(filesToOpen[i]));
+			File file = new File(filesToOpen[i]);
+			SwingUtilities.invokeLater(() -> {
+				try (StartupProfiler.Span span = StartupProfiler.start("Open " + file.getName())) {
+					mainView.openFile(file.getAbsolutePath(), null, true);
+				}
+			});
 		}
 	}
 
@@ -913,7 +986,7 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	@Override
 	protected void preDisplayInit(RTextPrefs prefs, SplashScreen splashScreen) {
 
-		long start = System.currentTimeMillis();
+		StartupProfiler.Span span = StartupProfiler.start("preDisplayInit");
 
 		// Some stuff down the line may assume this directory exists!
 		File prefsDir = RTextUtilities.getPreferencesDirectory();
@@ -922,7 +995,10 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		}
 
 		// Install any plugins.
-		super.preDisplayInit(prefs, splashScreen);
+		try (StartupProfiler.Span pluginsSpan = StartupProfiler.start("Plugins")) {
+			pluginLoadStartNanos = System.nanoTime();
+			super.preDisplayInit(prefs, splashScreen);
+		}
 
 		splashScreen.updateStatus(getString("AddingFinalTouches"), 90);
 
@@ -932,12 +1008,14 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 
 		// Enable templates in text areas.
-		if (RTextUtilities.enableTemplates(this, true)) {
-			// If there are no templates, assume this is the user's first
-			// time in RText and add some "standard" templates.
-			CodeTemplateManager ctm = RTextEditorPane.getCodeTemplateManager();
-			if (ctm.getTemplates().length==0) {
-				RTextUtilities.addDefaultCodeTemplates();
+		try (StartupProfiler.Span templatesSpan = StartupProfiler.start("Templates")) {
+			if (RTextUtilities.enableTemplates(this, true)) {
+				// If there are no templates, assume this is the user's first
+				// time in RText and add some "standard" templates.
+				CodeTemplateManager ctm = RTextEditorPane.getCodeTemplateManager();
+				if (ctm.getTemplates().length==0) {
+					RTextUtilities.addDefaultCodeTemplates();
+				}
 			}
 		}
 
@@ -951,18 +1029,18 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 		SwingUtilities.invokeLater(this::updateTextAreaIcons);
 
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preDisplayInit: " + (System.currentTimeMillis()-start));
-		}
+		span.close();
 	}
 
 
 	@Override
 	protected void preMenuBarInit(RTextPrefs prefs, SplashScreen splashScreen) {
 
-		long start = System.currentTimeMillis();
+		StartupProfiler.Span span = StartupProfiler.start("preMenuBarInit");
 
-		initRecentFileManager(prefs);
+		try (StartupProfiler.Span recentFilesSpan = StartupProfiler.start("Recent files")) {
+			initRecentFileManager(prefs);
+		}
 
 		// Make the split pane positions same as last time.
 		setSplitPaneDividerLocation(DockableWindowConstants.TOP,
@@ -980,6 +1058,15 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 		// Show any docked windows
 		setSpellingWindowVisible(prefs.viewSpellingList);
+		setEdtStallWindowVisible(prefs.viewEdtStallWindow);
+		setRunningProcessesWindowVisible(prefs.viewProcessesWindow);
+
+		EdtWatchdog watchdog = EdtWatchdog.get();
+		watchdog.setThresholdMillis(prefs.edtStallThreshold);
+		watchdog.setEnabled(prefs.edtWatchdogEnabled);
+
+		setSingleInstanceEnabled(prefs.singleInstance);
+		WarmUpScheduler.get().setEnabledTasks(prefs.warmUpTasks);
 
 		setShowHostName(prefs.showHostName);
 
@@ -987,9 +1074,7 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		setToolBarVisible(prefs.toolbarVisible);
 		setStatusBarVisible(prefs.statusBarVisible);
 
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preMenuBarInit: " + (System.currentTimeMillis()-start));
-		}
+		span.close();
 
 	}
 
@@ -998,7 +1083,7 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	protected void preStatusBarInit(RTextPrefs prefs,
 							SplashScreen splashScreen) {
 
-		long start = System.currentTimeMillis();
+		StartupProfiler.Span span = StartupProfiler.start("preStatusBarInit");
 
 		final String[] filesToOpen = null;
 
@@ -1006,28 +1091,34 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		newFileName = getString("NewFileName");
 
 		splashScreen.updateStatus(getString("SettingSHColors"), 10);
-		setSyntaxScheme(prefs.colorScheme);
+		try (StartupProfiler.Span schemeSpan = StartupProfiler.start("Syntax scheme")) {
+			setSyntaxScheme(prefs.colorScheme);
+		}
 
 		setWorkingDirectory(prefs.workingDirectory);
 
 		splashScreen.updateStatus(getString("CreatingView"), 20);
 
-		loadPossibleIconGroups();
-		setIconGroupByName((String)getTheme().getExtraUiDefaults().get("rtext.iconGroupName"));
+		try (StartupProfiler.Span iconsSpan = StartupProfiler.start("Icon groups")) {
+			loadPossibleIconGroups();
+			setIconGroupByName((String)getTheme().getExtraUiDefaults().get("rtext.iconGroupName"));
+		}
 
 		// Initialize our view object.
-		switch (prefs.mainView) {
-			case TABBED_VIEW -> {
-				mainViewStyle = TABBED_VIEW;
-				mainView = new RTextTabbedPaneView(RText.this, filesToOpen, prefs);
-			}
-			case SPLIT_PANE_VIEW -> {
-				mainViewStyle = SPLIT_PANE_VIEW;
-				mainView = new RTextSplitPaneView(RText.this, filesToOpen, prefs);
-			}
-			default -> {
-				mainViewStyle = MDI_VIEW;
-				mainView = new RTextMDIView(RText.this, filesToOpen, prefs);
+		try (StartupProfiler.Span viewSpan = StartupProfiler.start("Main view")) {
+			switch (prefs.mainView) {
+				case TABBED_VIEW -> {
+					mainViewStyle = TABBED_VIEW;
+					mainView = new RTextTabbedPaneView(RText.this, filesToOpen, prefs);
+				}
+				case SPLIT_PANE_VIEW -> {
+					mainViewStyle = SPLIT_PANE_VIEW;
+					mainView = new RTextSplitPaneView(RText.this, filesToOpen, prefs);
+				}
+				default -> {
+					mainViewStyle = MDI_VIEW;
+					mainView = new RTextMDIView(RText.this, filesToOpen, prefs);
+				}
 			}
 		}
 
@@ -1045,9 +1136,7 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		// centrally toggled
 		mainView.setCodeFoldingEnabledFor(SyntaxConstants.SYNTAX_STYLE_PROTO, true);
 
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preStatusBarInit: " + (System.currentTimeMillis()-start));
-		}
+		span.close();
 
 	}
 
@@ -1055,15 +1144,13 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	@Override
 	protected void preToolBarInit(RTextPrefs prefs, SplashScreen splashScreen) {
 
-		long start = System.currentTimeMillis();
+		StartupProfiler.Span span = StartupProfiler.start("preToolBarInit");
 
 		StatusBar statusBar = (StatusBar)getStatusBar();
 		mainView.addPropertyChangeListener(statusBar);
 
 		splashScreen.updateStatus(getString("CreatingToolBar"), 60);
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preToolbarInit: " + (System.currentTimeMillis()-start));
-		}
+		span.close();
 
 	}
 
@@ -1166,6 +1253,31 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Toggles whether the EDT stall window is visible.
+	 *
+	 * @param visible Whether the EDT stall window is visible.
+	 * @see #isEdtStallWindowVisible()
+	 */
+	public void setEdtStallWindowVisible(boolean visible) {
+		if (visible) {
+			if (edtStallWindow==null) {
+				edtStallWindow = new EdtStallWindow(this);
+				DockableWindowPanel dwp = (DockableWindowPanel)mainContentPanel;
+				dwp.addDockableWindow(edtStallWindow);
+			}
+			else {
+				edtStallWindow.setActive(true);
+			}
+		}
+		else {
+			if (edtStallWindow!=null) {
+				edtStallWindow.setActive(false);
+			}
+		}
+	}
+
+
 	/**
 	 * Sets the main view style.  This method fires a property change of type
 	 * {@link #MAIN_VIEW_STYLE_PROPERTY}.
@@ -1286,6 +1398,31 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Toggles whether the running processes window is visible.
+	 *
+	 * @param visible Whether the running processes window is visible.
+	 * @see #isRunningProcessesWindowVisible()
+	 */
+	public void setRunningProcessesWindowVisible(boolean visible) {
+		if (visible) {
+			if (processesWindow==null) {
+				processesWindow = new RunningProcessesWindow(this);
+				DockableWindowPanel dwp = (DockableWindowPanel)mainContentPanel;
+				dwp.addDockableWindow(processesWindow);
+			}
+			else {
+				processesWindow.setActive(true);
+			}
+		}
+		else {
+			if (processesWindow!=null) {
+				processesWindow.setActive(false);
+			}
+		}
+	}
+
+
 	/**
 	 * Sets whether the hostname should be shown in the title of the main
 	 * RText window.
@@ -1429,6 +1566,29 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Toggles whether later launches of RText open their files in this
+	 * process rather than starting a new one.  This affects all RText
+	 * windows in this process.
+	 *
+	 * @param enabled Whether single-instance mode is enabled.
+	 * @see #isSingleInstanceEnabled()
+	 */
+	public void setSingleInstanceEnabled(boolean enabled) {
+		if (enabled) {
+			try {
+				SingleInstance.start();
+			} catch (IOException ioe) {
+				// Not fatal; every launch just starts its own process
+				ioe.printStackTrace();
+			}
+		}
+		else {
+			SingleInstance.stop();
+		}
+	}
+
+
 	/**
 	 * Toggles whether the spelling error window is visible.
 	 *
@@ -1457,6 +1617,19 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	@Override
 	protected void setThemeAdditionalProperties(AppTheme theme) {
 
+		try (StartupProfiler.Span span = StartupProfiler.start("Theme: " + theme.getId())) {
+			setThemeAdditionalPropertiesImpl(theme);
+		}
+	}
+
+
+	/**
+	 * Installs the RText-specific parts of an application theme.
+	 *
+	 * @param theme The theme being installed.
+	 */
+	private void setThemeAdditionalPropertiesImpl(AppTheme theme) {
+
 		if (iconGroupMap != null) {
 			setIconGroupByName((String)theme.getExtraUiDefaults().get("rtext.iconGroupName"));
 		}
@@ -1488,6 +1661,27 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Called once this RText instance has been displayed.  This starts
+	 * warming up subsystems in the background.  If the
+	 * {@link #PROPERTY_PRINT_START_TIMES} system property is set, the
+	 * startup trace is printed and saved to the preferences directory.
+	 */
+	void startupCompleted() {
+		WarmUpScheduler.get().start();
+		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
+			StartupProfiler.printSummary();
+			File file = new File(RTextUtilities.getPreferencesDirectory(),
+				StartupReportDialog.TRACE_FILE_NAME);
+			try {
+				StartupProfiler.writeChromeTrace(file);
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
 	private void updateAppIcon(String actionName, IconGroup iconGroup, String iconName) {
 		getAction(actionName).putValue(Action.SMALL_ICON, iconGroup.getIcon(iconName));
 		getAction(actionName).putValue(StandardAction.ROLLOVER_SMALL_ICON, iconGroup.getRolloverIcon(iconName));
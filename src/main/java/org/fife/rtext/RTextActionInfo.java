@@ -48,6 +48,10 @@ public interface RTextActionInfo {
 	String OPTIONS_ACTION			  = "optionsAction";
 	String HOME_PAGE_ACTION			  = "homePageAction";
 	String UPDATES_ACTION			  = "checkForUpdatesAction";
+	String STARTUP_REPORT_ACTION	  = "startupReportAction";
+	String FLIGHT_RECORDING_ACTION	  = "flightRecordingAction";
+	String EDT_STALL_WINDOW_ACTION	  = "edtStallWindowAction";
+	String PROCESSES_WINDOW_ACTION	  = "processesWindowAction";
 	String INC_FONT_SIZES_ACTION	  = "incFontSizesAction";
 	String DEC_FONT_SIZES_ACTION	  = "decFontSizesAction";
 
@@ -98,6 +102,10 @@ public interface RTextActionInfo {
 		OPTIONS_ACTION,
 		HOME_PAGE_ACTION,
 		UPDATES_ACTION,
+		STARTUP_REPORT_ACTION,
+		FLIGHT_RECORDING_ACTION,
+		EDT_STALL_WINDOW_ACTION,
+		PROCESSES_WINDOW_ACTION,
 		DEC_FONT_SIZES_ACTION,
 		INC_FONT_SIZES_ACTION,
 
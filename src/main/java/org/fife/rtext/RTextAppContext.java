@@ -51,7 +51,10 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 	@Override
 	protected RText createApplicationImpl(String[] filesToOpen, RTextPrefs preferences) {
 
-		RText rtext = new RText(this, filesToOpen, preferences);
+		RText rtext;
+		try (StartupProfiler.Span span = StartupProfiler.start("RText constructor")) {
+			rtext = new RText(this, filesToOpen, preferences);
+		}
 
 		// For some reason, when using MDI_VIEW, the first window
 		// isn't selected (although it is activated)...
@@ -168,6 +171,15 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 		prefs.searchWindowOpacityRule	= rtext.getSearchWindowOpacityRule();
 		prefs.dropShadowsInEditor		= RTextUtilities.getDropShadowsEnabledInEditor();
 		prefs.codeFoldingEnabledFor		= mainView.getCodeFoldingEnabledForString();
+		prefs.idleEditorEvictionEnabled	= mainView.getIdleEditorEvictionEnabled();
+		prefs.idleEditorEvictionDelay	= mainView.getIdleEditorEvictionDelay();
+		prefs.compressIdleEditors		= mainView.getCompressIdleEditors();
+		prefs.edtWatchdogEnabled		= EdtWatchdog.get().isEnabled();
+		prefs.edtStallThreshold			= EdtWatchdog.get().getThresholdMillis();
+		prefs.viewEdtStallWindow		= rtext.isEdtStallWindowVisible();
+		prefs.viewProcessesWindow		= rtext.isRunningProcessesWindowVisible();
+		prefs.singleInstance			= rtext.isSingleInstanceEnabled();
+		prefs.warmUpTasks				= WarmUpScheduler.get().getEnabledTasks();
 
 		prefs.useSearchDialogs			= mainView.getSearchManager().
 			getSearchingMode()== SearchManager.SearchingMode.DIALOGS;
@@ -11,17 +11,31 @@ package org.fife.rtext;
 
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Point;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.awt.print.PageFormat;
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultEditorKit;
 
 import org.fife.print.RPrintUtilities;
+import org.fife.io.UnicodeReader;
+import org.fife.rtext.jfr.FileOpenEvent;
+import org.fife.rtext.jfr.FileSaveEvent;
 import org.fife.rtext.plugins.filesystemtree.FileSystemTreePlugin;
 import org.fife.ui.StandardMenuItem;
 import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
 import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+import org.fife.ui.rsyntaxtextarea.parser.AbstractParser;
+import org.fife.ui.rsyntaxtextarea.parser.Parser;
 import org.fife.ui.rtextarea.RTATextTransferHandler;
 
 
@@ -35,6 +49,24 @@ public class RTextEditorPane extends TextEditorPane {
 
 	private RText rtext;
 
+	/**
+	 * The last time this editor was the active editor in its main view.
+	 */
+	private long lastActiveTime;
+
+	/**
+	 * If this editor's content has been evicted to save memory, the
+	 * information needed to restore it.  This is {@code null} if the editor's
+	 * content is loaded.
+	 */
+	private EvictedState evictedState;
+
+	/**
+	 * The parsers disabled while a batch edit is running.
+	 */
+	private List<AbstractParser> suspendedParsers;
+	private int batchEditDepth;
+
 
 	/**
 	 * Creates a new <code>RTextEditorPane</code>.  Syntax highlighting will
@@ -57,6 +89,32 @@ public class RTextEditorPane extends TextEditorPane {
 		// Change the transfer handler to one that recognizes drag-and-dropped
 		// files as needing to be opened in the parent main view.
 		setTransferHandler(new RTextEditorPaneTransferHandler());
+		lastActiveTime = System.currentTimeMillis();
+	}
+
+
+	/**
+	 * Overridden to wrap the parser so its runs are recorded as JFR events.
+	 *
+	 * @param parser The parser to add.
+	 * @see #removeParser(Parser)
+	 */
+	@Override
+	public void addParser(Parser parser) {
+		super.addParser(new TimedParser(parser));
+	}
+
+
+	/**
+	 * Returns a new, empty document with the same syntax style and line
+	 * separator as this editor's current document.
+	 *
+	 * @return The new document.
+	 */
+	private RSyntaxDocument createEmptyDocument() {
+		RSyntaxDocument doc = new RSyntaxDocument(getSyntaxEditingStyle());
+		doc.putProperty(DefaultEditorKit.EndOfLineStringProperty, getLineSeparator());
+		return doc;
 	}
 
 
@@ -87,6 +145,195 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * Drops this editor's content to reduce memory usage.  The editor is
+	 * left with an empty document; its content is restored by
+	 * {@link #rehydrate()}.  Only editors with no unsaved changes and
+	 * nothing to undo can be evicted.<p>
+	 *
+	 * Local files are simply re-read from disk when restored.  Remote files,
+	 * or all files if {@code compress} is {@code true}, have their content
+	 * kept gzipped in memory instead.
+	 *
+	 * @param compress Whether to keep the content compressed in memory
+	 *        rather than re-reading it from disk.
+	 * @return Whether the content was evicted.
+	 * @throws IOException If an error occurs compressing the content.
+	 * @see #isEvicted()
+	 * @see #rehydrate()
+	 */
+	boolean evict(boolean compress) throws IOException {
+
+		if (isEvicted() || isDirty() || canUndo() || (isLocal() && !isLocalAndExists())) {
+			return false;
+		}
+
+		EvictedState state = new EvictedState();
+		state.caretPosition = getCaretPosition();
+		if (getParent() instanceof JViewport) {
+			state.viewPosition = ((JViewport)getParent()).getViewPosition();
+		}
+		if (compress || !isLocal()) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			try (Writer w = new OutputStreamWriter(new GZIPOutputStream(baos), StandardCharsets.UTF_8)) {
+				w.write(getText());
+			}
+			state.compressedText = baos.toByteArray();
+		}
+
+		evictedState = state;
+		setDocument(createEmptyDocument());
+		return true;
+	}
+
+
+	/**
+	 * Returns the size of this editor's evicted content kept in memory.
+	 *
+	 * @return The size of the compressed content, in bytes.  This is
+	 *         <code>0</code> if the content isn't evicted, or will be
+	 *         re-read from disk.
+	 * @see #isEvicted()
+	 */
+	public int getEvictedContentSize() {
+		EvictedState state = evictedState;
+		return state != null && state.compressedText != null ?
+			state.compressedText.length : 0;
+	}
+
+
+	/**
+	 * Returns the size of this editor's file on disk.
+	 *
+	 * @return The size of the file, or <code>-1</code> if it is not local.
+	 */
+	private long getFileSize() {
+		return isLocal() ? new File(getFileFullPath()).length() : -1;
+	}
+
+
+	/**
+	 * Starts a batch edit.  Parsers are suspended until the batch completes,
+	 * and all edits made are undone as a single edit.  Batch edits can be
+	 * nested.
+	 *
+	 * @see #endBatchEdit()
+	 */
+	private void beginBatchEdit() {
+		if (batchEditDepth++ == 0) {
+			suspendedParsers = new ArrayList<>();
+			for (int i = 0; i < getParserCount(); i++) {
+				Parser parser = getParser(i);
+				if (parser instanceof AbstractParser && parser.isEnabled()) {
+					((AbstractParser)parser).setEnabled(false);
+					suspendedParsers.add((AbstractParser)parser);
+				}
+			}
+		}
+		beginAtomicEdit();
+	}
+
+
+	/**
+	 * Ends a batch edit.  When the outermost batch edit completes, parsers
+	 * are re-enabled; the document is reparsed once, as usual, after the
+	 * parser delay.
+	 *
+	 * @see #beginBatchEdit()
+	 */
+	private void endBatchEdit() {
+		endAtomicEdit();
+		if (--batchEditDepth == 0) {
+			for (AbstractParser parser : suspendedParsers) {
+				parser.setEnabled(true);
+			}
+			suspendedParsers = null;
+		}
+	}
+
+
+	/**
+	 * Overridden to return the parser added, not the wrapper used to time
+	 * its runs.
+	 *
+	 * @param index The index of the parser.
+	 * @return The parser.
+	 */
+	@Override
+	public Parser getParser(int index) {
+		Parser parser = super.getParser(index);
+		return parser instanceof TimedParser timed ? timed.getDelegate() : parser;
+	}
+
+
+	/**
+	 * Returns the last time this editor was the active editor.
+	 *
+	 * @return The last time this editor was active, in milliseconds.
+	 * @see #setLastActiveTime(long)
+	 */
+	long getLastActiveTime() {
+		return lastActiveTime;
+	}
+
+
+	/**
+	 * Returns whether this editor's content has been evicted to save memory.
+	 *
+	 * @return Whether this editor's content is evicted.
+	 * @see #evict(boolean)
+	 * @see #rehydrate()
+	 */
+	public boolean isEvicted() {
+		return evictedState != null;
+	}
+
+
+	/**
+	 * Plays back the last recorded macro repeatedly, as a single batch edit.
+	 * The whole run is undone as one edit, and parsers don't run until it
+	 * completes.<p>
+	 *
+	 * When playing the macro back until the end of the document, playback
+	 * stops as soon as an iteration doesn't make progress through the
+	 * document, i.e. the amount of text after the caret doesn't shrink.
+	 * This keeps e.g. a macro that just types text from running forever.
+	 *
+	 * @param count The number of times to play back the macro, or
+	 *        <code>-1</code> to play it back until the end of the document.
+	 * @return The number of times the macro was played back.
+	 * @see #runBatchEdit(Runnable)
+	 */
+	public int playbackLastMacro(int count) {
+
+		if (getCurrentMacro() == null) {
+			return 0;
+		}
+
+		int played = 0;
+		beginBatchEdit();
+		try {
+			int remaining = getDocument().getLength() - getCaretPosition();
+			while (count < 0 || played < count) {
+				playbackLastMacro();
+				played++;
+				if (count < 0) {
+					int newRemaining = getDocument().getLength() - getCaretPosition();
+					if (newRemaining <= 0 || newRemaining >= remaining) {
+						break;
+					}
+					remaining = newRemaining;
+				}
+			}
+		} finally {
+			endBatchEdit();
+		}
+
+		return played;
+
+	}
+
+
 	/**
 	 * Method called when it's time to print this badboy (the old-school, AWT
 	 * way).  This method overrides <code>RTextArea</code>'s <code>print</code>
@@ -106,6 +353,178 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * Restores the content of this editor if it was evicted, along with its
+	 * caret position and scroll position.  If the content isn't evicted,
+	 * this method does nothing.
+	 *
+	 * @throws IOException If an error occurs reading the content back in.
+	 *         If this happens, the editor is left evicted.
+	 * @see #evict(boolean)
+	 * @see #isEvicted()
+	 */
+	public void rehydrate() throws IOException {
+
+		if (!isEvicted()) {
+			return;
+		}
+
+		FileOpenEvent event = new FileOpenEvent();
+		event.begin();
+		EvictedState state = evictedState;
+		RSyntaxDocument doc = createEmptyDocument();
+
+		try {
+			if (state.compressedText != null) {
+				try (Reader r = new InputStreamReader(new GZIPInputStream(
+						new ByteArrayInputStream(state.compressedText)), StandardCharsets.UTF_8)) {
+					getUI().getEditorKit(this).read(r, doc, 0);
+				}
+			}
+			else {
+				try (Reader r = new BufferedReader(new UnicodeReader(
+						new FileInputStream(getFileFullPath()), getEncoding()))) {
+					getUI().getEditorKit(this).read(r, doc, 0);
+				}
+			}
+		} catch (BadLocationException ble) { // Never happens
+			throw new IOException(ble);
+		}
+
+		evictedState = null;
+		setDocument(doc);
+		for (int i = 0; i < getParserCount(); i++) {
+			forceReparsing(i); // Spelling, tasks, etc. skip evicted editors
+		}
+		if (state.compressedText == null) {
+			syncLastSaveOrLoadTimeToActualFile();
+		}
+		event.commit(getFileFullPath(), state.compressedText == null ? -1 : state.compressedText.length,
+			doc.getLength(), getEncoding(), getSyntaxEditingStyle());
+
+		setCaretPosition(Math.min(state.caretPosition, doc.getLength()));
+		if (state.viewPosition != null) {
+			SwingUtilities.invokeLater(() -> {
+				if (getParent() instanceof JViewport) {
+					((JViewport)getParent()).setViewPosition(state.viewPosition);
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * Overridden to discard any evicted content, since the reloaded content
+	 * replaces it.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void reload() throws IOException {
+		if (isEvicted()) {
+			setDocument(createEmptyDocument());
+			evictedState = null;
+		}
+		FileOpenEvent event = new FileOpenEvent();
+		event.begin();
+		super.reload();
+		event.commit(getFileFullPath(), getFileSize(), getDocument().getLength(),
+			getEncoding(), getSyntaxEditingStyle());
+	}
+
+
+	/**
+	 * Overridden to remove the wrapper used to time the parser's runs.
+	 *
+	 * @param parser The parser to remove.
+	 * @return Whether the parser was found and removed.
+	 * @see #addParser(Parser)
+	 */
+	@Override
+	public boolean removeParser(Parser parser) {
+		for (int i = 0; i < getParserCount(); i++) {
+			if (super.getParser(i) instanceof TimedParser timed &&
+					timed.getDelegate() == parser) {
+				// The notices refer to the wrapped parser, so the text area
+				// would not remove them along with the wrapper
+				timed.setClearing();
+				forceReparsing(i);
+				return super.removeParser(timed);
+			}
+		}
+		return super.removeParser(parser);
+	}
+
+
+	/**
+	 * Runs a series of edits as a single batch.  All of the edits are undone
+	 * as one edit, and parsers (e.g. spell checking and syntax checking)
+	 * don't run until the batch completes.  Macros that make many edits
+	 * should use this, e.g.:
+	 *
+	 * <pre>
+	 * textArea.runBatchEdit(() =&gt; {
+	 *     // Many edits...
+	 * });
+	 * </pre>
+	 *
+	 * This should only be called on the EDT.
+	 *
+	 * @param edits The edits to make.
+	 * @see #playbackLastMacro(int)
+	 */
+	public void runBatchEdit(Runnable edits) {
+		beginBatchEdit();
+		try {
+			edits.run();
+		} finally {
+			endBatchEdit();
+		}
+	}
+
+
+	/**
+	 * Overridden to emit a flight recorder event.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void save() throws IOException {
+		FileSaveEvent event = new FileSaveEvent();
+		event.begin();
+		super.save();
+		event.commit(getFileFullPath(), getDocument().getLength(), getEncoding(),
+			getSyntaxEditingStyle());
+	}
+
+
+	/**
+	 * Overridden to emit a flight recorder event.
+	 *
+	 * @param loc The location to save to.
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void saveAs(FileLocation loc) throws IOException {
+		FileSaveEvent event = new FileSaveEvent();
+		event.begin();
+		super.saveAs(loc);
+		event.commit(getFileFullPath(), getDocument().getLength(), getEncoding(),
+			getSyntaxEditingStyle());
+	}
+
+
+	/**
+	 * Sets the last time this editor was the active editor.
+	 *
+	 * @param time The time, in milliseconds.
+	 * @see #getLastActiveTime()
+	 */
+	void setLastActiveTime(long time) {
+		lastActiveTime = time;
+	}
+
+
 	/**
 	 * Transfer handler for editor panes.  Overrides the default transfer
 	 * handler so we can drag-and-drop files into a text area, and know to
@@ -129,4 +548,21 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * The information needed to restore an evicted editor.
+	 */
+	private static final class EvictedState {
+
+		private int caretPosition;
+		private Point viewPosition;
+
+		/**
+		 * The gzipped content of the editor, or {@code null} if the content
+		 * should be re-read from disk.
+		 */
+		private byte[] compressedText;
+
+	}
+
+
 }
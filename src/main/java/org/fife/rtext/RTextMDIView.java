@@ -142,6 +142,19 @@ class RTextMDIView extends AbstractMainView implements InternalFrameListener {
 	}
 
 
+	/**
+	 * Overridden so only iconified documents have their content evicted,
+	 * since all other internal frames may be visible.
+	 *
+	 * @param index The index of the document.
+	 * @return Whether the document can be evicted.
+	 */
+	@Override
+	protected boolean canEvictDocumentAt(int index) {
+		return frames.get(index).isIcon();
+	}
+
+
 	/**
 	 * Cascades the windows in this MDI view.
 	 */
@@ -418,6 +431,11 @@ class RTextMDIView extends AbstractMainView implements InternalFrameListener {
 	 */
 	@Override
 	public void internalFrameDeiconified(InternalFrameEvent e) {
+		// Iconified frames may have had their content evicted
+		int index = frames.indexOf(e.getInternalFrame());
+		if (index > -1) {
+			rehydrate(getRTextEditorPaneAt(index));
+		}
 	}
 
 
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
@@ -401,12 +402,7 @@ public class RTextMenuBar extends MenuBar<RText>
 
 		fileMenu.addSeparator();
 
-		recentFilesMenu = new RecentFilesMenu(menuMsg.getString("RecentFiles")) {
-			@Override
-			protected Action createOpenAction(String fileFullPath) {
-				return new OpenFileAction(rtext, fileFullPath);
-			}
-		};
+		recentFilesMenu = createRecentFilesMenu(menuMsg.getString("RecentFiles"));
 		fileMenu.add(recentFilesMenu);
 
 		// 1.5.2004/pwy: On OS X the Exit menu item is in the standard
@@ -436,6 +432,9 @@ public class RTextMenuBar extends MenuBar<RText>
 		updatesItem = createMenuItem(rtext.getAction(RText.UPDATES_ACTION));
 		menu.add(updatesItem);
 
+		menu.add(createMenuItem(rtext.getAction(RText.STARTUP_REPORT_ACTION)));
+		menu.add(createMenuItem(rtext.getAction(RText.FLIGHT_RECORDING_ACTION)));
+
 		menu.addSeparator();
 
 		aboutItem = createMenuItem(rtext.getAction(RText.ABOUT_ACTION_KEY));
@@ -445,6 +444,17 @@ public class RTextMenuBar extends MenuBar<RText>
 	}
 
 
+	private RecentFilesMenu createRecentFilesMenu(String title) {
+		RText rtext = getApplication();
+		return new RecentFilesMenu(title) {
+			@Override
+			protected Action createOpenAction(String fileFullPath) {
+				return new OpenFileAction(rtext, fileFullPath);
+			}
+		};
+	}
+
+
 	private JMenu createSearchMenu(ResourceBundle menuMsg, int defaultModifier, int shift) {
 
 		RText rtext = getApplication();
@@ -574,6 +584,14 @@ public class RTextMenuBar extends MenuBar<RText>
 
 		JMenu dwMenu = createMenu(menuMsg, "MenuDockedWindows");
 		registerMenuByName(MENU_DOCKED_WINDOWS, dwMenu);
+		JCheckBoxMenuItem edtStallItem = new JCheckBoxMenuItem(rtext.getAction(RText.EDT_STALL_WINDOW_ACTION));
+		edtStallItem.setToolTipText(null);
+		edtStallItem.setSelected(rtext.isEdtStallWindowVisible());
+		dwMenu.add(edtStallItem);
+		JCheckBoxMenuItem processesItem = new JCheckBoxMenuItem(rtext.getAction(RText.PROCESSES_WINDOW_ACTION));
+		processesItem.setToolTipText(null);
+		processesItem.setSelected(rtext.isRunningProcessesWindowVisible());
+		dwMenu.add(processesItem);
 		viewMenu.add(dwMenu);
 
 		statusBarItem = new JCheckBoxMenuItem(rtext.getAction(RText.STATUS_BAR_ACTION));
@@ -853,6 +871,33 @@ public class RTextMenuBar extends MenuBar<RText>
 	}
 
 
+	/**
+	 * Removes files from the file history.  This should be called on the
+	 * EDT.
+	 *
+	 * @param fileFullPaths The full paths of the files to remove.
+	 * @see #getFileHistoryString()
+	 */
+	void removeFilesFromFileHistory(Collection<String> fileFullPaths) {
+
+		// RecentFilesMenu can't remove files, so replace it with a new menu
+		// containing just the files to keep
+		RecentFilesMenu menu = createRecentFilesMenu(recentFilesMenu.getText());
+		for (int i=recentFilesMenu.getItemCount()-1; i>=0; i--) {
+			String fileFullPath = recentFilesMenu.getFileFullPath(i);
+			if (!fileFullPaths.contains(fileFullPath)) {
+				menu.addFileToFileHistory(fileFullPath);
+			}
+		}
+
+		int index = fileMenu.getPopupMenu().getComponentIndex(recentFilesMenu);
+		fileMenu.remove(index);
+		fileMenu.insert(menu, index);
+		recentFilesMenu = menu;
+
+	}
+
+
 	/**
 	 * Sets whether the "Window" menu is visible.  This menu should
 	 * only be visible on the MDI view.
@@ -140,6 +140,15 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 	public boolean dropShadowsInEditor;
 	public String codeFoldingEnabledFor;
 	public boolean useSearchDialogs;
+	public boolean idleEditorEvictionEnabled;
+	public int idleEditorEvictionDelay;			// In minutes
+	public boolean compressIdleEditors;
+	public boolean edtWatchdogEnabled;
+	public int edtStallThreshold;				// In milliseconds
+	public boolean viewEdtStallWindow;
+	public boolean viewProcessesWindow;
+	public boolean singleInstance;
+	public String warmUpTasks;
 
 
 	/**
@@ -277,6 +286,15 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 		dropShadowsInEditor = getDefaultDropShadowsInEditorValue();
 		codeFoldingEnabledFor = "";
 		useSearchDialogs = true;
+		idleEditorEvictionEnabled = false;
+		idleEditorEvictionDelay = 30;
+		compressIdleEditors = false;
+		edtWatchdogEnabled = true;
+		edtStallThreshold = EdtWatchdog.DEFAULT_THRESHOLD_MILLIS;
+		viewEdtStallWindow = false;
+		viewProcessesWindow = false;
+		singleInstance = false;
+		warmUpTasks = WarmUpScheduler.DEFAULT_TASKS;
 
 	}
 
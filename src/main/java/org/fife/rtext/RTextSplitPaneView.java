@@ -211,6 +211,7 @@ class RTextSplitPaneView extends AbstractMainView
 	 */
 	@Override
 	public void dispose() {
+		super.dispose();
 		owner.removeDockableWindow(listWindow);
 	}
 
@@ -14,8 +14,6 @@ import java.awt.geom.Rectangle2D;
 import java.io.File;
 import java.io.IOException;
 import java.util.ResourceBundle;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 import javax.swing.*;
 import javax.swing.text.BadLocationException;
@@ -23,7 +21,6 @@ import javax.swing.text.BadLocationException;
 import org.fife.jgoodies.looks.common.ShadowPopupBorder;
 import org.fife.jgoodies.looks.common.ShadowPopupFactory;
 import org.fife.rsta.ui.DecorativeIconPanel;
-import org.fife.ui.OS;
 import org.fife.ui.UIUtil;
 import org.fife.ui.WebLookAndFeelUtils;
 import org.fife.ui.app.AppTheme;
@@ -398,28 +395,6 @@ public final class RTextUtilities {
 	}
 
 
-	/**
-	 * Creates a regular expression for a file filter.
-	 *
-	 * @param filter The file filter.
-	 * @return The regular expression.
-	 */
-	private static String createRegexForFileFilter(String filter) {
-		StringBuilder sb = new StringBuilder("^");
-		for (int i=0; i<filter.length(); i++) {
-			char ch = filter.charAt(i);
-			switch (ch) {
-				case '.' -> sb.append("\\.");
-				case '*' -> sb.append(".*");
-				case '?' -> sb.append('.');
-				case '$' -> sb.append("\\$");
-				default -> sb.append(ch);
-			}
-		}
-		return sb.append('$').toString();
-	}
-
-
 	/**
 	 * Enables or disables template usage in RText text areas.
 	 *
@@ -533,57 +508,6 @@ public final class RTextUtilities {
 	}
 
 
-	/**
-	 * Converts a <code>String</code> representing a wildcard file filter into
-	 * a <code>Pattern</code> containing a regular expression good for
-	 * finding files that match the wildcard expression.<p>
-	 *
-	 * Example: For<p>
-	 * <code>String regEx = RTextUtilities.getPatternForFileFilter("*.c", false);
-	 * </code><p>
-	 * the returned pattern will match <code>^.*\.c$</code>.<p>
-	 *
-	 * Case-sensitivity is taken into account appropriately.
-	 *
-	 * @param fileFilter The file filter for which to create equivalent regular
-	 *        expressions.  This filter can currently only contain the
-	 *        wildcards '*' and '?'.
-	 * @param showErrorDialog If <code>true</code>, an error dialog is
-	 *        displayed if an error occurs.
-	 * @return A <code>Pattern</code> representing an equivalent regular
-	 *         expression for the string passed in.  If an error occurs,
-	 *         <code>null</code> is returned.
-	 */
-	public static Pattern getPatternForFileFilter(String fileFilter,
-										boolean showErrorDialog) {
-
-		String pattern = createRegexForFileFilter(fileFilter);
-		int flags = OS.get().isCaseSensitive() ? 0 :
-				(Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
-		try {
-			return Pattern.compile(pattern, flags);
-		} catch (PatternSyntaxException pse) {
-			if (showErrorDialog) {
-				String text = pse.getMessage();
-				if (text==null) {
-					text = pse.toString();
-				}
-				JOptionPane.showMessageDialog(null,
-					"Error in the regular expression '" + pattern +
-					"' formed from parameter '" + fileFilter + "':\n" +
-					text + "\nPlease use only valid filename characters " +
-					"or wildcards (* or ?).\n" +
-					"If you have, please report this error at: " +
-					"https://github.com/bobbylight/RText",
-					"Error", JOptionPane.ERROR_MESSAGE);
-			}
-		}
-
-		return null;
-
-	}
-
-
 	/**
 	 * Returns all macro files saved in the macro directory.
 	 *
@@ -21,7 +21,6 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
 import java.util.List;
-import java.util.regex.Pattern;
 import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JList;
@@ -37,7 +36,6 @@ import org.fife.ui.RScrollPane;
 import org.fife.ui.ResizableFrameContentPane;
 import org.fife.ui.UIUtil;
 import org.fife.ui.rsyntaxtextarea.FileLocation;
-import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
 
 
 /**
@@ -136,18 +134,14 @@ public class RecentFileDialog extends EscapableDialog {
 
 
 	/**
-	 * Returns whether the given file's name matches a pattern.
+	 * Returns whether the given file's name matches a filter.
 	 *
 	 * @param loc The file to check.
-	 * @param pattern The pattern for the file name.
-	 * @return Whether the file's name matched the pattern.
+	 * @param filter The filter for the file name.
+	 * @return Whether the file's name matched the filter.
 	 */
-	private static boolean matches(FileLocation loc, Pattern pattern) {
-		if (pattern == null) {
-			return true;
-		}
-		String fileName = loc.getFileName();
-		return pattern.matcher(fileName).find();
+	private static boolean matches(FileLocation loc, GlobSet<String> filter) {
+		return filter == null || filter.matches(loc.getFileName());
 	}
 
 
@@ -217,11 +211,12 @@ public class RecentFileDialog extends EscapableDialog {
 
 		model.clear();
 
-		Pattern pattern = filter==null || filter.isEmpty() ? null :
-			RSyntaxUtilities.wildcardToPattern("^" + filter, false, false);
+		// The filter matches the start of file names, ignoring case
+		GlobSet<String> glob = filter==null || filter.isEmpty() ? null :
+			GlobSet.of(List.of(filter + "*"), true);
 
 		for (FileLocation loc : files) {
-			if (matches(loc, pattern)) {
+			if (matches(loc, glob)) {
 				model.addElement(loc);
 			}
 		}
@@ -13,14 +13,33 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
 
 import org.fife.ui.rsyntaxtextarea.FileLocation;
 
 
 /**
  * Listens for files being opened in RText, so anyone interested can easily
- * get this list.
+ * get this list.<p>
+ *
+ * Files remembered from a previous session are added without checking
+ * whether they still exist, since that can block for a long time on an
+ * unreachable network share.  Instead, they are checked on background
+ * threads after startup, and any that no longer exist are removed, both
+ * from this list and from the "Recent Files" menu.  A check that doesn't
+ * finish within {@link #PROBE_TIMEOUT_MILLIS} milliseconds keeps its file.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -28,24 +47,46 @@ import org.fife.ui.rsyntaxtextarea.FileLocation;
 public class RecentFileManager implements PropertyChangeListener {
 
 	private RText rtext;
-	private List<FileLocation> files;
+
+	/**
+	 * The remembered files, keyed by full path, least recently opened
+	 * first.  This is only accessed on the EDT.
+	 */
+	private Map<String, FileLocation> files;
 
 	/**
 	 * The number of files we remember.
 	 */
 	private static final int MAX_FILE_COUNT = 75;
 
+	/**
+	 * How long to wait for a file's existence check before giving up on it.
+	 */
+	private static final long PROBE_TIMEOUT_MILLIS = 3000;
+
+	/**
+	 * The number of files checked at the same time.
+	 */
+	private static final int PROBE_THREAD_COUNT = 4;
+
 
 	/**
 	 * Constructor.
 	 *
 	 * @param rtext The parent application.
-	 * @param recentFiles The initial set of recent files.
+	 * @param recentFiles The initial set of recent files, least recently
+	 *        opened first.
 	 */
 	public RecentFileManager(RText rtext, List<String> recentFiles) {
 
 		this.rtext = rtext;
-		files = new ArrayList<>();
+		files = new LinkedHashMap<>(MAX_FILE_COUNT * 4 / 3 + 1) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, FileLocation> eldest) {
+				// Too many files?  Oust the file in history added least recently.
+				return size() > MAX_FILE_COUNT;
+			}
+		};
 
 		rtext.getMainView().addPropertyChangeListener(
 				AbstractMainView.TEXT_AREA_ADDED_PROPERTY, this);
@@ -54,8 +95,64 @@ public class RecentFileManager implements PropertyChangeListener {
 			for (String recentFile : recentFiles) {
 				addFile(recentFile);
 			}
+			pruneMissingFiles();
+		}
+
+	}
+
+
+	/**
+	 * Adds a file to the list of recent files.
+	 *
+	 * @param file The file to add.
+	 */
+	private void addFile(String file) {
+
+		if (file == null) {
+			return;
+		}
+
+		// If we already are remembering this file, move it to the "top."
+		FileLocation loc = files.remove(file);
+		if (loc == null) {
+			try {
+				loc = FileLocation.create(file);
+			} catch (IllegalArgumentException iae) {
+				iae.printStackTrace(); // Malformed URL, shouldn't happen.
+				return;
+			}
 		}
 
+		files.put(file, loc);
+
+	}
+
+
+	private static ExecutorService createProbeExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			PROBE_THREAD_COUNT, PROBE_THREAD_COUNT, 1, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), r -> {
+				Thread t = new Thread(r, "RText Recent File Probe");
+				t.setDaemon(true);
+				t.setPriority(Thread.MIN_PRIORITY);
+				return t;
+			});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+
+	/**
+	 * Returns the list of recent files.  This method should only be called
+	 * on the EDT.
+	 *
+	 * @return The list of recent files, most recently opened first.  This
+	 *         is a copy.
+	 */
+	public List<FileLocation> getRecentFiles() {
+		List<FileLocation> list = new ArrayList<>(files.values());
+		Collections.reverse(list);
+		return list;
 	}
 
 
@@ -91,73 +188,60 @@ public class RecentFileManager implements PropertyChangeListener {
 
 
 	/**
-	 * Adds a file to the list of recent files.
+	 * Checks whether the local files in the history still exist, on
+	 * background threads.  Once all of them have been checked, those that
+	 * don't exist are removed.
 	 *
-	 * @param file The file to add.
+	 * @see #removeMissingFiles(Collection)
 	 */
-	private void addFile(String file) {
-
-		if (file == null) {
-			return;
-		}
-
-		// If we already are remembering this file, move it to the "top."
-		int index = indexOf(file);
-		if (index > -1) {
-			FileLocation loc = files.remove(index);
-			files.add(0, loc);
-			return;
-		}
-
-		// Add our new file to the "top" of remembered files.
-		FileLocation loc;
-		try {
-			loc = FileLocation.create(file);
-		} catch (IllegalArgumentException iae) {
-			iae.printStackTrace(); // Malformed URL, shouldn't happen.
-			return;
-		}
-
-		if (loc.isLocal() && !loc.isLocalAndExists()) {
-			// When adding from saved history, some files may no longer
-			// exist
-			return;
+	private void pruneMissingFiles() {
+
+		ExecutorService executor = createProbeExecutor();
+		Set<String> missing = ConcurrentHashMap.newKeySet();
+		List<CompletableFuture<Void>> probes = new ArrayList<>();
+
+		for (Map.Entry<String, FileLocation> entry : files.entrySet()) {
+			String path = entry.getKey();
+			FileLocation loc = entry.getValue();
+			if (loc.isLocal()) {
+				probes.add(CompletableFuture.supplyAsync(loc::isLocalAndExists, executor)
+					.completeOnTimeout(Boolean.TRUE, PROBE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+					.thenAccept(exists -> {
+						if (!exists) {
+							missing.add(path);
+						}
+					}));
+			}
 		}
-		files.add(0, loc);
 
-		// Too many files?  Oust the file in history added least recently.
-		if (files.size() > MAX_FILE_COUNT) {
-			files.remove(files.size() - 1);
-		}
+		executor.shutdown();
 
+		CompletableFuture.allOf(probes.toArray(new CompletableFuture[0]))
+			.thenRun(() -> SwingUtilities.invokeLater(() -> removeMissingFiles(missing)));
 	}
 
 
 	/**
-	 * Returns the current index of the specified file in this history.
+	 * Removes files found to be missing from the history, both here and in
+	 * the "Recent Files" menu.  The menu is what's saved when RText exits.
+	 * This is called on the EDT.
 	 *
-	 * @param file The file to look for.
-	 * @return The index of the file, or <code>-1</code> if it is not
-	 *         currently in the list.
+	 * @param missing The full paths of the missing files.
 	 */
-	private int indexOf(String file) {
-		for (int i=0; i<files.size(); i++) {
-			FileLocation loc = files.get(i);
-			if (file.equals(loc.getFileFullPath())) {
-				return i;
-			}
+	private void removeMissingFiles(Collection<String> missing) {
+
+		if (missing.isEmpty()) {
+			return;
 		}
-		return -1;
-	}
 
+		files.keySet().removeAll(missing);
 
-	/**
-	 * Returns the list of recent files.
-	 *
-	 * @return The list of recent files.
-	 */
-	public List<FileLocation> getRecentFiles() {
-		return files;
+		// If the menu hasn't been filled yet, it will be filled from the
+		// pruned list
+		RTextMenuBar menuBar = (RTextMenuBar)rtext.getJMenuBar();
+		if (menuBar != null) {
+			menuBar.removeFilesFromFileHistory(missing);
+		}
 	}
 
 
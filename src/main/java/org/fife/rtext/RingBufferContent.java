@@ -0,0 +1,328 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.UndoableEdit;
+
+
+/**
+ * Document content for output windows such as the console and tool output,
+ * stored in a circular buffer.  These only ever append output and trim old
+ * lines from the front of the document.  With <code>GapContent</code>, every trim moves the gap to
+ * the start of the document, shifting all of its text; here, removing text
+ * from the front just advances the start of the buffer.<p>
+ *
+ * Positions store their offset relative to the total amount of text ever
+ * trimmed from the front, so they don't need to be updated when text is
+ * trimmed either.  Only positions after an edit in the middle of the
+ * content, e.g. the user typing after the prompt, are updated.<p>
+ *
+ * Edits made to this content can't be undone.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class RingBufferContent implements AbstractDocument.Content {
+
+	private char[] buf;
+	private int head;
+	private int length;
+
+	/**
+	 * The number of characters ever removed from the front of the content.
+	 */
+	private long origin;
+
+	/**
+	 * The positions in the content, sorted by offset.
+	 */
+	private final List<Mark> marks;
+	private final ReferenceQueue<MarkPosition> queue;
+	private int unusedMarks;
+
+	private static final int INITIAL_CAPACITY = 8192;
+
+
+	/**
+	 * Constructor.
+	 */
+	public RingBufferContent() {
+		buf = new char[INITIAL_CAPACITY];
+		marks = new ArrayList<>();
+		queue = new ReferenceQueue<>();
+		// The implied break at the end of the content
+		buf[0] = '\n';
+		length = 1;
+	}
+
+
+	@Override
+	public Position createPosition(int offset) throws BadLocationException {
+
+		if (offset < 0 || offset > length) {
+			throw new BadLocationException("Invalid position", offset);
+		}
+		removeUnusedMarks();
+
+		long mark = origin + offset;
+		int index = indexOfFirstMarkAfter(mark - 1);
+		// Share positions at the same offset, as GapContent does
+		if (index < marks.size() && marks.get(index).offset == mark) {
+			MarkPosition pos = marks.get(index).get();
+			if (pos != null) {
+				return pos;
+			}
+		}
+
+		MarkPosition pos = new MarkPosition(mark);
+		marks.add(index, pos.mark);
+		return pos;
+	}
+
+
+	/**
+	 * Grows the buffer so it can hold at least the specified number of
+	 * characters.
+	 *
+	 * @param capacity The required capacity.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > buf.length) {
+			resize(Math.max(capacity, buf.length * 2));
+		}
+	}
+
+
+	@Override
+	public void getChars(int where, int len, Segment txt) throws BadLocationException {
+
+		if (where < 0 || len < 0 || where + len > length) {
+			throw new BadLocationException("Invalid location", where + len);
+		}
+
+		int start = physical(where);
+		if (start + len <= buf.length) {
+			txt.array = buf;
+			txt.offset = start;
+			txt.count = len;
+		}
+		else if (txt.isPartialReturn()) {
+			txt.array = buf;
+			txt.offset = start;
+			txt.count = buf.length - start;
+		}
+		else {
+			char[] chars = new char[len];
+			int firstPart = buf.length - start;
+			System.arraycopy(buf, start, chars, 0, firstPart);
+			System.arraycopy(buf, 0, chars, firstPart, len - firstPart);
+			txt.array = chars;
+			txt.offset = 0;
+			txt.count = len;
+		}
+	}
+
+
+	@Override
+	public String getString(int where, int len) throws BadLocationException {
+		Segment s = new Segment();
+		getChars(where, len, s);
+		return new String(s.array, s.offset, s.count);
+	}
+
+
+	/**
+	 * Returns the index of the first mark whose offset is greater than the
+	 * specified offset.
+	 *
+	 * @param mark The offset, relative to the start of the first text ever
+	 *        in this content.
+	 * @return The index of the mark, or the number of marks if there is no
+	 *         such mark.
+	 */
+	private int indexOfFirstMarkAfter(long mark) {
+		int low = 0;
+		int high = marks.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (marks.get(mid).offset <= mark) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+
+	@Override
+	public UndoableEdit insertString(int where, String str) throws BadLocationException {
+
+		if (where < 0 || where > length) {
+			throw new BadLocationException("Invalid insert", length);
+		}
+
+		int count = str.length();
+		ensureCapacity(length + count);
+		// Shift the text after the insertion point.  For output windows,
+		// this is almost always just the implied break.
+		for (int i = length - 1; i >= where; i--) {
+			buf[physical(i + count)] = buf[physical(i)];
+		}
+		for (int i = 0; i < count; i++) {
+			buf[physical(where + i)] = str.charAt(i);
+		}
+		length += count;
+
+		// Positions at the insertion point move forward, except at offset 0
+		long mark = origin + where;
+		int index = indexOfFirstMarkAfter(where == 0 ? mark : mark - 1);
+		for (int i = index; i < marks.size(); i++) {
+			marks.get(i).offset += count;
+		}
+
+		return null;
+	}
+
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+
+	/**
+	 * Maps an offset into the content to an index into the buffer.
+	 *
+	 * @param offset The offset.
+	 * @return The index into the buffer.
+	 */
+	private int physical(int offset) {
+		int index = head + offset;
+		return index < buf.length ? index : index - buf.length;
+	}
+
+
+	@Override
+	public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+
+		if (where < 0 || nitems < 0 || where + nitems >= length) {
+			throw new BadLocationException("Invalid remove", length + 1);
+		}
+
+		if (where == 0) {
+			// Positions in the removed text now come before the start of
+			// the content, and are treated as being at offset 0
+			head = physical(nitems);
+			origin += nitems;
+		}
+		else {
+			for (int i = where + nitems; i < length; i++) {
+				buf[physical(i - nitems)] = buf[physical(i)];
+			}
+			long start = origin + where;
+			long end = start + nitems;
+			for (int i = indexOfFirstMarkAfter(start); i < marks.size(); i++) {
+				Mark mark = marks.get(i);
+				mark.offset = mark.offset < end ? start : mark.offset - nitems;
+			}
+		}
+		length -= nitems;
+
+		// Give back memory after a very long line is trimmed
+		if (buf.length > INITIAL_CAPACITY && length < buf.length / 4) {
+			resize(Math.max(INITIAL_CAPACITY, buf.length / 2));
+		}
+
+		return null;
+	}
+
+
+	/**
+	 * Removes marks whose positions have been garbage collected, if there
+	 * are enough of them to be worth it.
+	 */
+	private void removeUnusedMarks() {
+		while (queue.poll() != null) {
+			unusedMarks++;
+		}
+		if (unusedMarks > Math.max(5, marks.size() / 10)) {
+			marks.removeIf(mark -> mark.get() == null);
+			unusedMarks = 0;
+		}
+	}
+
+
+	/**
+	 * Copies the content into a new buffer, starting at its beginning.
+	 *
+	 * @param capacity The size of the new buffer.
+	 */
+	private void resize(int capacity) {
+		char[] chars = new char[capacity];
+		int firstPart = Math.min(length, buf.length - head);
+		System.arraycopy(buf, head, chars, 0, firstPart);
+		System.arraycopy(buf, 0, chars, firstPart, length - firstPart);
+		buf = chars;
+		head = 0;
+	}
+
+
+	/**
+	 * A position in the content.  Positions before the start of the content
+	 * are at offset 0.
+	 */
+	private final class MarkPosition implements Position {
+
+		private final Mark mark;
+
+		MarkPosition(long offset) {
+			mark = new Mark(this, offset);
+		}
+
+		@Override
+		public int getOffset() {
+			return (int)Math.max(0, mark.offset - origin);
+		}
+
+		@Override
+		public String toString() {
+			return Integer.toString(getOffset());
+		}
+
+	}
+
+
+	/**
+	 * The offset of a position.  This is kept separately from the position
+	 * itself so positions that are no longer used can be garbage collected.
+	 */
+	private final class Mark extends WeakReference<MarkPosition> {
+
+		/**
+		 * The offset, relative to the start of the first text ever in this
+		 * content.
+		 */
+		private long offset;
+
+		Mark(MarkPosition pos, long offset) {
+			super(pos, queue);
+			this.offset = offset;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,276 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.table.AbstractTableModel;
+
+import org.fife.ui.RScrollPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.dockablewindows.DockableWindow;
+import org.fife.ui.dockablewindows.DockableWindowConstants;
+import org.fife.ui.dockablewindows.DockableWindowScrollPane;
+
+
+/**
+ * A window that lists the external processes launched by RText that are
+ * still running, and allows the user to kill them.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ProcessManager
+ */
+class RunningProcessesWindow extends DockableWindow
+		implements ChangeListener, PropertyChangeListener {
+
+	private RText rtext;
+	private ProcessTableModel model;
+	private JTable table;
+	private JButton killButton;
+	private JButton killAllButton;
+	private Timer refreshTimer;
+
+	/**
+	 * How often the running and CPU times are updated.
+	 */
+	private static final int REFRESH_MILLIS = 1000;
+
+
+	RunningProcessesWindow(RText rtext) {
+
+		this.rtext = rtext;
+
+		model = new ProcessTableModel();
+		table = new JTable(model);
+		setPrimaryComponent(table);
+		table.setFillsViewportHeight(true);
+		table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		table.getColumnModel().getColumn(1).setPreferredWidth(400);
+		table.getSelectionModel().addListSelectionListener(e -> refreshButtons());
+		UIUtil.fixJTableRendererOrientations(table);
+		UIUtil.possiblyFixGridColor(table);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(table);
+		RScrollPane sp = new DockableWindowScrollPane(table);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
+
+		killButton = new JButton(rtext.getString("RunningProcesses.Kill"));
+		killButton.addActionListener(e -> killSelectedProcess());
+		killAllButton = new JButton(rtext.getString("RunningProcesses.KillAll"));
+		killAllButton.addActionListener(e -> ProcessManager.get().killAll());
+		JPanel buttons = new JPanel(new GridLayout(1, 2, 5, 0));
+		buttons.add(killButton);
+		buttons.add(killAllButton);
+		JPanel buttonPanel = new JPanel(new BorderLayout());
+		buttonPanel.setBorder(UIUtil.getEmpty5Border());
+		buttonPanel.add(buttons, BorderLayout.LINE_END);
+
+		setLayout(new BorderLayout());
+		add(sp);
+		add(buttonPanel, BorderLayout.SOUTH);
+
+		setPosition(DockableWindowConstants.BOTTOM);
+		setActive(true);
+		setDockableWindowName(rtext.getString("RunningProcesses.Title"));
+
+		setIcon(getIconForAppTheme());
+		rtext.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, this);
+
+		refreshTimer = new Timer(REFRESH_MILLIS, e -> model.refreshTimes());
+		ProcessManager.get().addChangeListener(this);
+		model.refresh();
+
+	}
+
+
+	private Icon getIconForAppTheme() {
+		return rtext.getIconGroup().getIcon("application");
+	}
+
+
+	/**
+	 * Kills the process selected in the table, along with its descendants.
+	 */
+	private void killSelectedProcess() {
+		int row = table.getSelectedRow();
+		if (row > -1) {
+			model.getProcess(table.convertRowIndexToModel(row)).kill();
+		}
+	}
+
+
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+		if (RText.ICON_STYLE_PROPERTY.equals(e.getPropertyName())) {
+			setIcon(getIconForAppTheme());
+		}
+	}
+
+
+	/**
+	 * Enables or disables the kill buttons.
+	 */
+	private void refreshButtons() {
+		killButton.setEnabled(table.getSelectedRow() > -1);
+		killAllButton.setEnabled(model.getRowCount() > 0);
+	}
+
+
+	/**
+	 * Called when a process is launched or completes.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void stateChanged(ChangeEvent e) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			model.refresh();
+		}
+		else {
+			SwingUtilities.invokeLater(model::refresh);
+		}
+	}
+
+
+	/**
+	 * Formats a duration as seconds.
+	 *
+	 * @param millis The duration, in milliseconds.
+	 * @return The formatted duration.
+	 */
+	private static String toSeconds(long millis) {
+		return String.format("%.1f", millis / 1000f);
+	}
+
+
+	/**
+	 * The model for the table of processes.
+	 */
+	private final class ProcessTableModel extends AbstractTableModel {
+
+		private List<ManagedProcess> processes;
+		private String[] columnNames;
+
+		/**
+		 * The CPU times last sampled.  Reading them can be slow, so they're
+		 * sampled off the EDT.
+		 */
+		private Map<ManagedProcess, Duration> cpuDurations;
+		private boolean sampling;
+
+		ProcessTableModel() {
+			processes = new ArrayList<>();
+			cpuDurations = new HashMap<>();
+			columnNames = new String[] {
+				rtext.getString("RunningProcesses.Pid"),
+				rtext.getString("RunningProcesses.Command"),
+				rtext.getString("RunningProcesses.Running"),
+				rtext.getString("RunningProcesses.CpuTime"),
+			};
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			return column == 0 ? Long.class : String.class;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return columnNames.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columnNames[column];
+		}
+
+		ManagedProcess getProcess(int row) {
+			return processes.get(row);
+		}
+
+		@Override
+		public int getRowCount() {
+			return processes.size();
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			ManagedProcess process = processes.get(row);
+			return switch (column) {
+				case 0 -> process.getPid();
+				case 1 -> process.getCommandLine();
+				case 2 -> toSeconds(System.currentTimeMillis() - process.getStartTime());
+				default -> {
+					Duration cpu = cpuDurations.get(process);
+					yield cpu != null ? toSeconds(cpu.toMillis()) : "";
+				}
+			};
+		}
+
+		void refresh() {
+			ManagedProcess selected = null;
+			int row = table.getSelectedRow();
+			if (row > -1) {
+				selected = processes.get(table.convertRowIndexToModel(row));
+			}
+			processes = ProcessManager.get().getProcesses();
+			fireTableDataChanged();
+			int index = processes.indexOf(selected);
+			if (index > -1) {
+				index = table.convertRowIndexToView(index);
+				table.setRowSelectionInterval(index, index);
+			}
+			refreshButtons();
+			// Only poll the running processes while there are some
+			if (processes.isEmpty()) {
+				refreshTimer.stop();
+			}
+			else {
+				refreshTimer.start();
+			}
+		}
+
+		/**
+		 * Samples the CPU times of the running processes on a background
+		 * thread, then updates the running and CPU times in the table.
+		 */
+		void refreshTimes() {
+
+			if (processes.isEmpty() || !table.isShowing() || sampling) {
+				return;
+			}
+
+			sampling = true;
+			List<ManagedProcess> toSample = processes;
+			ProcessManager.get().submit(() -> {
+				Map<ManagedProcess, Duration> durations = new HashMap<>();
+				for (ManagedProcess process : toSample) {
+					durations.put(process, process.getCpuDuration());
+				}
+				SwingUtilities.invokeLater(() -> {
+					sampling = false;
+					cpuDurations = durations;
+					if (!processes.isEmpty()) {
+						fireTableRowsUpdated(0, processes.size() - 1);
+					}
+				});
+			});
+		}
+
+	}
+
+
+}
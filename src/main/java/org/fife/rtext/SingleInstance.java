@@ -0,0 +1,320 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Frame;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.swing.SwingUtilities;
+
+
+/**
+ * Lets later launches of RText hand their files to an already running
+ * instance rather than starting a new JVM.<p>
+ *
+ * When single-instance mode is enabled, RText listens on a Unix-domain
+ * socket in a directory only the user can access, under the preferences
+ * directory.  {@link Main} checks for that socket
+ * before loading any UI classes; if an instance answers, the working
+ * directory and files to open are sent to it and the new process exits.
+ * Otherwise, startup proceeds as usual.<p>
+ *
+ * The message sent is a sequence of NUL-terminated UTF-8 strings: a
+ * protocol header, the working directory, then each file to open.  The
+ * running instance replies with <code>OK</code> once the request is queued.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class SingleInstance {
+
+	private static ServerSocketChannel server;
+
+	/**
+	 * Whether single-instance mode is enabled.  This stays set if the socket
+	 * could not be created, so the user's preference is still saved.
+	 */
+	private static boolean enabled;
+
+	/**
+	 * The directory containing the socket file, in the preferences
+	 * directory.  Only the user can access it.
+	 */
+	private static final String SOCKET_DIR_NAME = "ipc";
+
+	/**
+	 * The socket file.
+	 */
+	private static final String SOCKET_FILE_NAME = "rtext.sock";
+
+	private static final String HEADER = "RText-Open-1";
+	private static final String ACK = "OK";
+
+	/**
+	 * The largest request accepted, to keep a bad client from exhausting
+	 * memory.
+	 */
+	private static final int MAX_REQUEST_SIZE = 1024 * 1024;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SingleInstance() {
+		// Do nothing
+	}
+
+
+	/**
+	 * Creates the directory containing the socket file if necessary, and
+	 * ensures only the user can access it.  The socket is bound in this
+	 * directory, so no one else can connect to it even before its own
+	 * permissions are set.
+	 *
+	 * @param dir The directory.
+	 * @throws IOException If an IO error occurs, or the directory's
+	 *         permissions can't be restricted.
+	 */
+	private static void createSocketDirectory(Path dir) throws IOException {
+
+		Files.createDirectories(dir.getParent());
+
+		Set<PosixFilePermission> perms = PosixFilePermissions.fromString("rwx------");
+		try {
+			Files.createDirectory(dir, PosixFilePermissions.asFileAttribute(perms));
+		} catch (FileAlreadyExistsException faee) {
+			// Fails if someone else owns it
+			Files.setPosixFilePermissions(dir, perms);
+		} catch (UnsupportedOperationException uoe) {
+			// Not a POSIX file system; rely on the preferences directory
+			Files.createDirectories(dir);
+		}
+	}
+
+
+	private static Path getSocketPath() {
+		File dir = new File(RTextUtilities.getPreferencesDirectory(), SOCKET_DIR_NAME);
+		return new File(dir, SOCKET_FILE_NAME).toPath();
+	}
+
+
+	/**
+	 * Handles a single request from another launch of RText.  This is called
+	 * on the server thread.
+	 *
+	 * @param channel The connection.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static void handleRequest(SocketChannel channel) throws IOException {
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ByteBuffer buf = ByteBuffer.allocate(8192);
+		while (channel.read(buf) != -1) {
+			baos.write(buf.array(), 0, buf.position());
+			buf.clear();
+			if (baos.size() > MAX_REQUEST_SIZE) {
+				return;
+			}
+		}
+
+		String[] tokens = baos.toString(StandardCharsets.UTF_8).split("\0");
+		if (tokens.length < 2 || !HEADER.equals(tokens[0])) {
+			return;
+		}
+
+		File workingDir = new File(tokens[1]);
+		List<File> files = new ArrayList<>();
+		for (int i = 2; i < tokens.length; i++) {
+			File file = new File(tokens[i]);
+			if (!file.isAbsolute()) {
+				file = new File(workingDir, tokens[i]);
+			}
+			files.add(file);
+		}
+
+		SwingUtilities.invokeLater(() -> openInRunningInstance(files));
+		channel.write(ByteBuffer.wrap(ACK.getBytes(StandardCharsets.UTF_8)));
+	}
+
+
+	/**
+	 * Returns whether single-instance mode is enabled.  This is
+	 * <code>true</code> after {@link #start()} is called, even if the
+	 * socket could not be created.
+	 *
+	 * @return Whether single-instance mode is enabled.
+	 * @see #start()
+	 * @see #stop()
+	 */
+	static synchronized boolean isEnabled() {
+		return enabled;
+	}
+
+
+	/**
+	 * Brings an RText window to the front and opens files in it.  This is
+	 * called on the EDT.
+	 *
+	 * @param files The files to open.
+	 */
+	private static void openInRunningInstance(List<File> files) {
+
+		RText rtext = StoreKeeper.getMostRecentInstance();
+		if (rtext == null) {
+			return;
+		}
+
+		for (File file : files) {
+			rtext.openFile(file);
+		}
+
+		if ((rtext.getExtendedState() & Frame.ICONIFIED) != 0) {
+			rtext.setExtendedState(rtext.getExtendedState() & ~Frame.ICONIFIED);
+		}
+		rtext.toFront();
+		rtext.requestFocus();
+	}
+
+
+	/**
+	 * Sends files to an already running RText, if there is one listening.
+	 * This is called before any UI classes are loaded, so it must stay
+	 * cheap.
+	 *
+	 * @param filesToOpen The files to open.  This may be empty.
+	 * @return Whether a running RText accepted the files.  If this is
+	 *         <code>false</code>, this process should start normally.
+	 */
+	static boolean sendToRunningInstance(String[] filesToOpen) {
+
+		Path socketPath = getSocketPath();
+		if (!Files.exists(socketPath)) {
+			return false;
+		}
+
+		StringBuilder sb = new StringBuilder(HEADER).append('\0');
+		sb.append(System.getProperty("user.dir")).append('\0');
+		for (String file : filesToOpen) {
+			sb.append(file).append('\0');
+		}
+
+		try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+			ByteBuffer out = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+			while (out.hasRemaining()) {
+				channel.write(out);
+			}
+			channel.shutdownOutput();
+			ByteBuffer in = ByteBuffer.allocate(ACK.length());
+			while (in.hasRemaining() && channel.read(in) != -1) {
+				// Keep reading
+			}
+			return ACK.equals(new String(in.array(), 0, in.position(), StandardCharsets.UTF_8));
+		} catch (IOException | UnsupportedOperationException e) {
+			// Stale socket file or no Unix-domain socket support
+			return false;
+		}
+	}
+
+
+	/**
+	 * Enables single-instance mode and starts listening for other launches
+	 * of RText.  This method does nothing if this process is already
+	 * listening.
+	 *
+	 * @throws IOException If the socket cannot be created.
+	 * @see #stop()
+	 */
+	static synchronized void start() throws IOException {
+
+		enabled = true;
+		if (server != null) {
+			return;
+		}
+
+		Path socketPath = getSocketPath();
+		createSocketDirectory(socketPath.getParent());
+		// If another instance were listening, we would not have gotten here
+		Files.deleteIfExists(socketPath);
+
+		ServerSocketChannel channel;
+		try {
+			channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		} catch (UnsupportedOperationException uoe) {
+			throw new IOException(uoe);
+		}
+		channel.bind(UnixDomainSocketAddress.of(socketPath));
+		try {
+			Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+		} catch (UnsupportedOperationException uoe) {
+			// Not a POSIX file system
+		}
+		server = channel;
+
+		Thread t = new Thread(() -> serve(channel), "RText Single Instance Server");
+		t.setDaemon(true);
+		t.start();
+	}
+
+
+	/**
+	 * Accepts requests until the server channel is closed.  This runs on
+	 * its own thread.
+	 *
+	 * @param channel The server channel.
+	 */
+	private static void serve(ServerSocketChannel channel) {
+		while (channel.isOpen()) {
+			try (SocketChannel client = channel.accept()) {
+				handleRequest(client);
+			} catch (AsynchronousCloseException ace) {
+				return; // stop() was called
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
+	/**
+	 * Disables single-instance mode, stops listening for other launches of
+	 * RText and removes the socket file.
+	 *
+	 * @see #start()
+	 */
+	static synchronized void stop() {
+
+		enabled = false;
+		if (server == null) {
+			return;
+		}
+
+		try {
+			server.close();
+			Files.deleteIfExists(getSocketPath());
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+		server = null;
+	}
+
+
+}
@@ -49,9 +49,23 @@ public class SpellingSupport implements SpellingParserListener {
 	private int maxSpellingErrors;
 	private ViewSpellingErrorWindowAction viewAction;
 
+	/**
+	 * A spelling parser loaded ahead of time by {@link #warmUp()}, and the
+	 * dictionary it was loaded for.  Guarded by <code>this</code>.
+	 */
+	private SpellingParser preparedParser;
+	private String preparedDictionary;
+
 	private static final String VIEW_SPELLING_ERROR_WINDOW
 									= "viewSpellingErrorWindowAction";
 
+	private static final String DICTIONARY_ZIP = "english_dic.zip";
+
+	/**
+	 * The identifier of the spelling dictionary's warm-up task.
+	 */
+	static final String WARM_UP_TASK = "spelling";
+
 
 	/**
 	 * Constructor.
@@ -99,6 +113,8 @@ public class SpellingSupport implements SpellingParserListener {
 		// Add menu item later since menu bar not yet created(!)
 		SwingUtilities.invokeLater(this::addViewErrorWindowMenuItem);
 
+		WarmUpScheduler.get().register(WARM_UP_TASK, this::warmUp);
+
 	}
 
 
@@ -109,12 +125,14 @@ public class SpellingSupport implements SpellingParserListener {
 	 * @throws IOException If an IO error occurs.
 	 */
 	private void createSpellingParser() throws IOException {
-		String fileName = "english_dic.zip";
-		File file = new File(rtext.getInstallLocation(), fileName);
+		File file = new File(rtext.getInstallLocation(), DICTIONARY_ZIP);
 		try {
-			boolean american = DICTIONARIES[1].equals(spellingDictionary);
-			spellingParser = SpellingParser.
-						createEnglishSpellingParser(file, american);
+			spellingParser = takePreparedParser(spellingDictionary);
+			if (spellingParser==null) {
+				boolean american = DICTIONARIES[1].equals(spellingDictionary);
+				spellingParser = SpellingParser.
+							createEnglishSpellingParser(file, american);
+			}
 			spellingParser.setSquiggleUnderlineColor(getSpellCheckingColor());
 			spellingParser.setMaxErrorCount(getMaxSpellingErrors());
 			spellingParser.setAllowAdd(true);//userDictionary!=null);
@@ -220,13 +238,16 @@ public class SpellingSupport implements SpellingParserListener {
 
 
 	/**
-	 * Forces all opened documents to be re-spell checked.
+	 * Forces all opened documents to be re-spell checked.  Evicted documents
+	 * are skipped, since they are re-spell checked when they are restored.
 	 */
 	private void recheckSpelling() {
 		AbstractMainView view = rtext.getMainView();
 		for (int i=0; i<view.getNumDocuments(); i++) {
 			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-			textArea.forceReparsing(spellingParser);
+			if (!textArea.isEvicted()) {
+				textArea.forceReparsing(spellingParser);
+			}
 		}
 	}
 
@@ -396,8 +417,9 @@ public class SpellingSupport implements SpellingParserListener {
 			AbstractMainView view = rtext.getMainView();
 			for (int i=0; i<view.getNumDocuments(); i++) {
 				RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-				// currentTextArea already done by the SpellingParser itself
-				if (textArea!=view.getCurrentTextArea()) {
+				// currentTextArea already done by the SpellingParser itself,
+				// and evicted text areas are re-checked when restored
+				if (textArea!=view.getCurrentTextArea() && !textArea.isEvicted()) {
 					forceSpellCheck(textArea);
 				}
 			}
@@ -407,6 +429,25 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Returns the spelling parser loaded by {@link #warmUp()}, if it was
+	 * loaded for the given dictionary.
+	 *
+	 * @param dictionary The dictionary needed.
+	 * @return The parser, or <code>null</code> if none was prepared for
+	 *         that dictionary.
+	 */
+	private synchronized SpellingParser takePreparedParser(String dictionary) {
+		SpellingParser parser = null;
+		if (preparedParser!=null && preparedDictionary.equals(dictionary)) {
+			parser = preparedParser;
+		}
+		preparedParser = null;
+		preparedDictionary = null;
+		return parser;
+	}
+
+
 	/**
 	 * Toggles whether the spelling parser is installed on all currently
 	 * visible text areas.  This should only be called on the EDT.
@@ -435,6 +476,38 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Loads the spelling dictionary ahead of time if spell checking is not
+	 * enabled yet, so that enabling it later takes effect immediately.  This
+	 * is called by the {@link WarmUpScheduler} on a background thread, but
+	 * only if the user has opted in to the <code>spelling</code> task, since
+	 * it keeps a dictionary in memory for a feature that is turned off.
+	 */
+	private void warmUp() {
+
+		String dictionary;
+		synchronized (this) {
+			if (spellingParser!=null || preparedParser!=null) {
+				return;
+			}
+			dictionary = spellingDictionary;
+		}
+
+		File file = new File(rtext.getInstallLocation(), DICTIONARY_ZIP);
+		try {
+			boolean american = DICTIONARIES[1].equals(dictionary);
+			SpellingParser parser = SpellingParser.createEnglishSpellingParser(file, american);
+			synchronized (this) {
+				preparedParser = parser;
+				preparedDictionary = dictionary;
+			}
+		} catch (IOException ioe) {
+			// An error is displayed if the user enables spell checking
+			ioe.printStackTrace();
+		}
+	}
+
+
 	/**
 	 * Creates the spelling parser off the EDT, then safely starts it on the
 	 * EDT.
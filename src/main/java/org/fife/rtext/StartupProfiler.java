@@ -0,0 +1,266 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Records a trace of how long each part of RText's startup takes.  Startup
+ * code wraps interesting sections in spans:
+ *
+ * <pre>
+ * try (StartupProfiler.Span span = StartupProfiler.start("Main view")) {
+ *    // ...
+ * }
+ * </pre>
+ *
+ * Spans may be nested.  The recorded trace can be viewed in the "Startup
+ * Report" dialog, or exported in the Chrome trace event format so it can be
+ * loaded into <code>chrome://tracing</code> or similar tools.<p>
+ *
+ * Only the first {@link #MAX_SPANS} spans are kept, so leaving the profiler
+ * enabled after startup is harmless.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class StartupProfiler {
+
+	/**
+	 * The maximum number of spans recorded.
+	 */
+	public static final int MAX_SPANS = 1000;
+
+	private static final List<Span> SPANS = new ArrayList<>();
+	private static final long ORIGIN_NANOS = System.nanoTime();
+
+	private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private StartupProfiler() {
+		// Do nothing
+	}
+
+
+	/**
+	 * Escapes a string for a JSON string literal.
+	 *
+	 * @param str The string to escape.
+	 * @return The escaped string.
+	 */
+	private static String escapeJson(String str) {
+		StringBuilder sb = new StringBuilder(str.length());
+		for (int i = 0; i < str.length(); i++) {
+			char ch = str.charAt(i);
+			switch (ch) {
+				case '"' -> sb.append("\\\"");
+				case '\\' -> sb.append("\\\\");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\t' -> sb.append("\\t");
+				default -> {
+					if (ch < 0x20) {
+						sb.append(String.format("\\u%04x", (int)ch));
+					}
+					else {
+						sb.append(ch);
+					}
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Returns a snapshot of the spans recorded so far, in the order they
+	 * were started.
+	 *
+	 * @return The completed spans.
+	 */
+	public static List<Span> getSpans() {
+		List<Span> spans = new ArrayList<>();
+		synchronized (SPANS) {
+			for (Span span : SPANS) {
+				if (span.endNanos >= 0) {
+					spans.add(span);
+				}
+			}
+		}
+		return spans;
+	}
+
+
+	/**
+	 * Prints a summary of the recorded spans to <code>stderr</code>.
+	 */
+	public static void printSummary() {
+		for (Span span : getSpans()) {
+			System.err.println("  ".repeat(span.getDepth()) + span.getName() +
+				": " + span.getDurationMillis() + " ms");
+		}
+	}
+
+
+	/**
+	 * Records a span whose start and end times were measured by the caller.
+	 * This is useful for sections of startup that do not run inside a single
+	 * method, such as plugins loaded by the application framework.
+	 *
+	 * @param name The name of the span.
+	 * @param startNanos The start time, as returned by
+	 *        {@link System#nanoTime()}.
+	 * @param endNanos The end time, as returned by {@link System#nanoTime()}.
+	 */
+	public static void record(String name, long startNanos, long endNanos) {
+		Span span = new Span(name, startNanos, DEPTH.get()[0]);
+		span.endNanos = endNanos;
+		synchronized (SPANS) {
+			if (SPANS.size() < MAX_SPANS) {
+				SPANS.add(span);
+			}
+		}
+	}
+
+
+	/**
+	 * Starts a span.  The returned span should be closed, typically via a
+	 * try-with-resources block, when the section being measured completes.
+	 *
+	 * @param name The name of the span.
+	 * @return The span.
+	 */
+	public static Span start(String name) {
+		int[] depth = DEPTH.get();
+		Span span = new Span(name, System.nanoTime(), depth[0]++);
+		synchronized (SPANS) {
+			if (SPANS.size() < MAX_SPANS) {
+				SPANS.add(span);
+			}
+		}
+		return span;
+	}
+
+
+	/**
+	 * Writes the recorded spans to a file in the Chrome trace event format.
+	 *
+	 * @param file The file to write to.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public static void writeChromeTrace(File file) throws IOException {
+
+		try (PrintWriter w = new PrintWriter(file, StandardCharsets.UTF_8)) {
+			w.println("{\"traceEvents\":[");
+			List<Span> spans = getSpans();
+			for (int i = 0; i < spans.size(); i++) {
+				Span span = spans.get(i);
+				w.print("{\"name\":\"" + escapeJson(span.getName()) + "\",\"cat\":\"startup\",\"ph\":\"X\"," +
+					"\"ts\":" + (span.startNanos - ORIGIN_NANOS) / 1000 + "," +
+					"\"dur\":" + (span.endNanos - span.startNanos) / 1000 + "," +
+					"\"pid\":1,\"tid\":\"" + escapeJson(span.threadName) + "\"}");
+				w.println(i < spans.size() - 1 ? "," : "");
+			}
+			w.println("],\"displayTimeUnit\":\"ms\"}");
+		}
+	}
+
+
+	/**
+	 * A timed section of startup.
+	 */
+	public static final class Span implements AutoCloseable {
+
+		private final String name;
+		private final String threadName;
+		private final int depth;
+		private final long startNanos;
+		private volatile long endNanos;
+
+		private Span(String name, long startNanos, int depth) {
+			this.name = name;
+			this.threadName = Thread.currentThread().getName();
+			this.startNanos = startNanos;
+			this.depth = depth;
+			this.endNanos = -1;
+		}
+
+
+		/**
+		 * Ends this span.  Calling this method more than once has no effect.
+		 */
+		@Override
+		public void close() {
+			if (endNanos < 0) {
+				endNanos = System.nanoTime();
+				DEPTH.get()[0]--;
+			}
+		}
+
+
+		/**
+		 * Returns how deeply nested this span is.
+		 *
+		 * @return The depth, with <code>0</code> being a top-level span.
+		 */
+		public int getDepth() {
+			return depth;
+		}
+
+
+		/**
+		 * Returns the length of this span.
+		 *
+		 * @return The length of this span, in milliseconds.
+		 */
+		public double getDurationMillis() {
+			return (endNanos - startNanos) / 1_000_000.0;
+		}
+
+
+		/**
+		 * Returns the name of this span.
+		 *
+		 * @return The name of this span.
+		 */
+		public String getName() {
+			return name;
+		}
+
+
+		/**
+		 * Returns when this span started, relative to when RText started.
+		 *
+		 * @return The start time, in milliseconds.
+		 */
+		public double getStartMillis() {
+			return (startNanos - ORIGIN_NANOS) / 1_000_000.0;
+		}
+
+
+		/**
+		 * Returns the name of the thread this span was recorded on.
+		 *
+		 * @return The thread name.
+		 */
+		public String getThreadName() {
+			return threadName;
+		}
+
+
+	}
+
+
+}
@@ -0,0 +1,152 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+
+
+/**
+ * Displays the spans recorded by the {@link StartupProfiler}, and allows the
+ * user to export them as a Chrome trace.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class StartupReportDialog extends EscapableDialog {
+
+	private RText rtext;
+
+	/**
+	 * The name of the trace file written to the preferences directory.
+	 */
+	static final String TRACE_FILE_NAME = "startup-trace.json";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 */
+	StartupReportDialog(RText parent) {
+
+		super(parent, parent.getString("Dialog.StartupReport.Title"), true);
+		this.rtext = parent;
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		List<StartupProfiler.Span> spans = StartupProfiler.getSpans();
+		double total = 0;
+		for (StartupProfiler.Span span : spans) {
+			if (span.getDepth() == 0) {
+				total = Math.max(total, span.getStartMillis() + span.getDurationMillis());
+			}
+		}
+		cp.add(new JLabel(parent.getString("Dialog.StartupReport.Total",
+			String.format("%.1f", total))), BorderLayout.NORTH);
+
+		JTable table = new JTable(new SpanTableModel(spans));
+		table.getColumnModel().getColumn(0).setPreferredWidth(300);
+		cp.add(new RScrollPane(table));
+
+		JButton exportButton = new JButton(parent.getString("Dialog.StartupReport.Export"));
+		exportButton.addActionListener(e -> exportTrace());
+		JButton closeButton = new JButton(parent.getString("Dialog.StartupReport.Close"));
+		closeButton.addActionListener(e -> escapePressed());
+		Container buttons = UIUtil.createButtonFooter(exportButton, closeButton);
+		cp.add(buttons, BorderLayout.SOUTH);
+
+		getRootPane().setDefaultButton(closeButton);
+		setPreferredSize(new Dimension(640, 480));
+		pack();
+		setLocationRelativeTo(parent);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+	}
+
+
+	/**
+	 * Prompts the user for a file and exports the startup trace to it.
+	 */
+	private void exportTrace() {
+
+		JFileChooser chooser = new JFileChooser();
+		chooser.setSelectedFile(new File(TRACE_FILE_NAME));
+		if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+			try {
+				StartupProfiler.writeChromeTrace(chooser.getSelectedFile());
+			} catch (IOException ioe) {
+				rtext.displayException(ioe);
+			}
+		}
+	}
+
+
+	/**
+	 * The model for the table of spans.
+	 */
+	private final class SpanTableModel extends AbstractTableModel {
+
+		private List<StartupProfiler.Span> spans;
+		private String[] columnNames;
+
+		SpanTableModel(List<StartupProfiler.Span> spans) {
+			this.spans = spans;
+			columnNames = new String[] {
+				rtext.getString("Dialog.StartupReport.Span"),
+				rtext.getString("Dialog.StartupReport.Start"),
+				rtext.getString("Dialog.StartupReport.Duration"),
+				rtext.getString("Dialog.StartupReport.Thread"),
+			};
+		}
+
+		@Override
+		public int getColumnCount() {
+			return columnNames.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columnNames[column];
+		}
+
+		@Override
+		public int getRowCount() {
+			return spans.size();
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			StartupProfiler.Span span = spans.get(row);
+			return switch (column) {
+				case 0 -> "    ".repeat(span.getDepth()) + span.getName();
+				case 1 -> String.format("%.1f", span.getStartMillis());
+				case 2 -> String.format("%.1f", span.getDurationMillis());
+				default -> span.getThreadName();
+			};
+		}
+
+	}
+
+
+}
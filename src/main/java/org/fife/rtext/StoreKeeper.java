@@ -59,6 +59,19 @@ public final class StoreKeeper {
 	}
 
 
+	/**
+	 * Returns the most recently opened <code>RText</code> instance that is
+	 * still open.
+	 *
+	 * @return The instance, or <code>null</code> if none are open.
+	 */
+	public static RText getMostRecentInstance() {
+		if (rtextInstances==null || rtextInstances.isEmpty())
+			return null;
+		return rtextInstances.get(rtextInstances.size() - 1);
+	}
+
+
 	/**
 	 * Removes an <code>RText</code> instance.
 	 *
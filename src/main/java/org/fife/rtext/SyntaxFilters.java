@@ -13,13 +13,18 @@ package org.fife.rtext;
 import java.io.File;
 import java.util.*;
 
+import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.FileTypeUtil;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 
 /**
  * Manages a list of wildcard file filters and what syntax highlighting
- * styles they map to.
+ * styles they map to.<p>
+ *
+ * The filters are compiled into a {@link GlobSet} the first time a style
+ * is looked up, and the styles for recently looked-up file names are
+ * cached.  Both are discarded whenever the filters change.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -37,6 +42,36 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	private Map<String, List<String>> addedFilters;
 
+	/**
+	 * All filters compiled into a single matcher, or <code>null</code> if
+	 * the filters have changed since it was last needed.
+	 */
+	private GlobSet<String> index;
+
+	/**
+	 * All filters, including those added by plugins.  This is created along
+	 * with the index, for file names the index doesn't match.
+	 */
+	private Map<String, List<String>> allFilters;
+
+	/**
+	 * Recently resolved file names and their styles.  Keys are prefixed
+	 * with whether backup extensions were ignored.  Names no filter matches
+	 * map to {@link #NO_MATCH}.
+	 */
+	private final Map<String, String> styleCache;
+
+	/**
+	 * Cached for file names that no filter matches, even ignoring backup
+	 * extensions.  Their style can only come from their content.
+	 */
+	private static final String NO_MATCH = "";
+
+	/**
+	 * The maximum number of file names whose styles are cached.
+	 */
+	private static final int STYLE_CACHE_SIZE = 512;
+
 	/**
 	 * Creates a new <code>SyntaxFilters</code> with default values for
 	 * all filters.
@@ -55,6 +90,13 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	public SyntaxFilters(String filterStr) {
 
+		styleCache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > STYLE_CACHE_SIZE;
+			}
+		};
+
 		// One filter set for every file type except plain text.
 		filters = new HashMap<>();
 		restoreDefaultFileFilters();
@@ -113,8 +155,9 @@ public class SyntaxFilters implements SyntaxConstants {
 	 *        be done.
 	 * @throws IllegalArgumentException If <code>style</code> is invalid.
 	 */
-	public void addFileFilter(String style, String filter) {
+	public synchronized void addFileFilter(String style, String filter) {
 		getFiltersForStyle(style).add(filter);
+		invalidateIndex();
 	}
 
 
@@ -181,12 +224,65 @@ public class SyntaxFilters implements SyntaxConstants {
 			return SyntaxConstants.SYNTAX_STYLE_NONE;
 		}
 
-		Map<String, List<String>> allFilters = new HashMap<>(filters);
-		if (addedFilters != null) {
-			allFilters.putAll(addedFilters);
+		File file = new File(fileName);
+		String key = (ignoreBackupExtensions ? '1' : '0') + file.getName();
+		GlobSet<String> currentIndex;
+		Map<String, List<String>> currentFilters;
+
+		synchronized (this) {
+			String style = styleCache.get(key);
+			if (style != null) {
+				return style.equals(NO_MATCH) ? guessContentTypeFromContent(file) : style;
+			}
+			if (index == null) {
+				rebuildIndex();
+			}
+			currentIndex = index;
+			currentFilters = allFilters;
+		}
+
+		String style = currentIndex.get(file.getName());
+		String cached = style;
+		if (style == null) {
+			// Backup extensions and files identified by their content are
+			// left to RSTA.  If the name played no part in the result, only
+			// the content needs to be checked next time, since it may change.
+			style = FileTypeUtil.get().guessContentType(file, currentFilters,
+				ignoreBackupExtensions);
+			cached = Objects.equals(style, guessContentTypeFromContent(file)) ?
+				NO_MATCH : style;
+		}
+
+		synchronized (this) {
+			if (currentIndex == index) {
+				styleCache.put(key, cached);
+			}
 		}
-		return FileTypeUtil.get().guessContentType(new File(fileName),
-			allFilters, ignoreBackupExtensions);
+		return style;
+	}
+
+
+	/**
+	 * Returns the syntax style for a file based only on its content, e.g.
+	 * a <code>#!</code> line.
+	 *
+	 * @param file The file.
+	 * @return The syntax style.
+	 */
+	private static String guessContentTypeFromContent(File file) {
+		return FileTypeUtil.get().guessContentType(file,
+			Collections.emptyMap(), false);
+	}
+
+
+	/**
+	 * Discards the compiled filters and cached styles.  This should be called
+	 * whenever the filters change.
+	 */
+	private synchronized void invalidateIndex() {
+		index = null;
+		allFilters = null;
+		styleCache.clear();
 	}
 
 
@@ -223,12 +319,36 @@ public class SyntaxFilters implements SyntaxConstants {
 	}
 
 
+	/**
+	 * Compiles all filters into the index.  Filters added by plugins take
+	 * precedence for their styles, as they always have.
+	 */
+	private synchronized void rebuildIndex() {
+
+		Map<String, List<String>> all = new HashMap<>(filters);
+		if (addedFilters != null) {
+			all.putAll(addedFilters);
+		}
+
+		Map<String, String> filterToStyle = new LinkedHashMap<>();
+		for (Map.Entry<String, List<String>> entry : all.entrySet()) {
+			for (String filter : entry.getValue()) {
+				filterToStyle.putIfAbsent(filter, entry.getKey());
+			}
+		}
+
+		allFilters = Collections.unmodifiableMap(all);
+		index = new GlobSet<>(filterToStyle, !OS.get().isCaseSensitive());
+	}
+
+
 	/**
 	 * Sets default values for syntax filters.
 	 */
-	public void restoreDefaultFileFilters() {
+	public synchronized void restoreDefaultFileFilters() {
 		filters = FileTypeUtil.get().getDefaultContentTypeToFilterMap();
 		// Keep any filters added by the user
+		invalidateIndex();
 	}
 
 
@@ -241,7 +361,7 @@ public class SyntaxFilters implements SyntaxConstants {
 	 * @throws IllegalArgumentException If <code>style</code> is invalid.
 	 * @see #getFiltersForStyle(String)
 	 */
-	public void setFiltersForSyntaxStyle(String style, String filterString) {
+	public synchronized void setFiltersForSyntaxStyle(String style, String filterString) {
 
 		List<String> filters = getFiltersForStyle(style);
 		filters.clear();
@@ -259,6 +379,7 @@ public class SyntaxFilters implements SyntaxConstants {
 			filters.add(filterString.substring(oldSpacePos));
 		}
 
+		invalidateIndex();
 	}
 
 
@@ -267,8 +388,9 @@ public class SyntaxFilters implements SyntaxConstants {
 	 *
 	 * @param filters The new values for filters.
 	 */
-	public void setPreservingPluginAdded(SyntaxFilters filters) {
+	public synchronized void setPreservingPluginAdded(SyntaxFilters filters) {
 		this.filters = new HashMap<>(filters.filters);
+		invalidateIndex();
 	}
 
 
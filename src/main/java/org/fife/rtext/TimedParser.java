@@ -0,0 +1,115 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.net.URL;
+
+import org.fife.rtext.jfr.ParserEvent;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.ExtendedHyperlinkListener;
+import org.fife.ui.rsyntaxtextarea.parser.ParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.Parser;
+
+
+/**
+ * Wraps a parser added to an {@link RTextEditorPane} and emits a
+ * {@link ParserEvent} each time it runs.  RSyntaxTextArea runs parsers
+ * itself, so this is the only place their runs can be timed.<p>
+ *
+ * The wrapper is never visible outside of the editor.  The editor's parser
+ * methods take and return the wrapped parser, and the notices the wrapped
+ * parser creates refer to it rather than to the wrapper.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class TimedParser implements Parser {
+
+	private final Parser parser;
+
+	/**
+	 * Whether the next parse should just clear the wrapped parser's
+	 * notices.
+	 */
+	private boolean clearing;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parser The parser to wrap.
+	 */
+	TimedParser(Parser parser) {
+		this.parser = parser;
+	}
+
+
+	/**
+	 * Returns the wrapped parser.
+	 *
+	 * @return The wrapped parser.
+	 */
+	Parser getDelegate() {
+		return parser;
+	}
+
+
+	@Override
+	public ExtendedHyperlinkListener getHyperlinkListener() {
+		return parser.getHyperlinkListener();
+	}
+
+
+	@Override
+	public URL getImageBase() {
+		return parser.getImageBase();
+	}
+
+
+	@Override
+	public boolean isEnabled() {
+		return clearing || parser.isEnabled();
+	}
+
+
+	@Override
+	public ParseResult parse(RSyntaxDocument doc, String style) {
+
+		if (clearing) {
+			// The text area only removes the notices of the parser that
+			// returned a result, and the notices refer to the wrapped parser
+			clearing = false;
+			DefaultParseResult result = new DefaultParseResult(parser);
+			result.setParsedLines(0, doc.getDefaultRootElement().getElementCount() - 1);
+			return result;
+		}
+
+		ParserEvent event = new ParserEvent();
+		event.begin();
+		ParseResult result = null;
+		try {
+			result = parser.parse(doc, style);
+			return result;
+		} finally {
+			int noticeCount = result != null ? result.getNotices().size() : -1;
+			event.commit(parser.getClass().getName(), style, doc.getLength(), noticeCount);
+		}
+
+	}
+
+
+	/**
+	 * Makes the next parse clear the wrapped parser's notices instead of
+	 * parsing.  This is called just before this parser is removed from its
+	 * editor.
+	 */
+	void setClearing() {
+		clearing = true;
+	}
+
+
+}
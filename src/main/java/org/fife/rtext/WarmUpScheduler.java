@@ -0,0 +1,240 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.AWTEvent;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Runs the expensive one-time initialization of subsystems, such as script
+ * engines and spelling dictionaries, on a low-priority background thread
+ * while the user is idle, so the first time they are used there is no
+ * pause.<p>
+ *
+ * Subsystems register a warm-up task under an identifier.  Tasks are only
+ * run after {@link #start()} is called, once RText's first window has been
+ * displayed, and only if their identifier is enabled.  Before each task, the
+ * scheduler waits until there has been no keyboard or mouse input for
+ * {@link #IDLE_MILLIS} milliseconds.<p>
+ *
+ * Warm-up tasks must be safe to run on a thread other than the EDT, and
+ * must tolerate the subsystem being initialized by the user in the
+ * meantime.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class WarmUpScheduler {
+
+	private static final WarmUpScheduler INSTANCE = new WarmUpScheduler();
+
+	private final Map<String, Runnable> pending;
+	private final Set<String> enabledTasks;
+	private final AWTEventListener inputListener;
+	private volatile long lastInputNanos;
+	private boolean started;
+	private Thread thread;
+
+	/**
+	 * The default enabled warm-up tasks.  Warming up the consoles' script
+	 * engines (<code>jsConsole</code> and <code>rubyConsole</code>) and the
+	 * spelling dictionary (<code>spelling</code>) is expensive and only
+	 * helps users who later turn those features on, so those tasks must be
+	 * enabled explicitly.
+	 */
+	public static final String DEFAULT_TASKS = "macros,fileIndex,symbolIndex";
+
+	/**
+	 * How long the user must be idle before a task is run.
+	 */
+	public static final int IDLE_MILLIS = 1500;
+
+	private static final long INPUT_EVENT_MASK = AWTEvent.KEY_EVENT_MASK |
+		AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK |
+		AWTEvent.MOUSE_WHEEL_EVENT_MASK;
+
+
+	/**
+	 * Private constructor to enforce singleton.
+	 */
+	private WarmUpScheduler() {
+		pending = new LinkedHashMap<>();
+		enabledTasks = new LinkedHashSet<>();
+		setEnabledTasks(DEFAULT_TASKS);
+		inputListener = e -> lastInputNanos = System.nanoTime();
+	}
+
+
+	/**
+	 * Returns the singleton instance of this class.
+	 *
+	 * @return The singleton instance.
+	 */
+	public static WarmUpScheduler get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the identifiers of the enabled warm-up tasks.
+	 *
+	 * @return A comma-separated list of identifiers.
+	 * @see #setEnabledTasks(String)
+	 */
+	public synchronized String getEnabledTasks() {
+		return String.join(",", enabledTasks);
+	}
+
+
+	/**
+	 * Returns whether a warm-up task is enabled.
+	 *
+	 * @param id The task's identifier.
+	 * @return Whether the task is enabled.
+	 */
+	public synchronized boolean isTaskEnabled(String id) {
+		return enabledTasks.contains(id);
+	}
+
+
+	/**
+	 * Returns the next enabled task, removing it from the pending tasks.
+	 * If there are none, the scheduler thread is stopped.
+	 *
+	 * @return The next task, or <code>null</code> if there are none.
+	 */
+	private synchronized Map.Entry<String, Runnable> nextTask() {
+
+		Iterator<Map.Entry<String, Runnable>> i = pending.entrySet().iterator();
+		while (i.hasNext()) {
+			Map.Entry<String, Runnable> entry = i.next();
+			if (enabledTasks.contains(entry.getKey())) {
+				i.remove();
+				return entry;
+			}
+		}
+
+		Toolkit.getDefaultToolkit().removeAWTEventListener(inputListener);
+		thread = null;
+		return null;
+	}
+
+
+	/**
+	 * Registers a warm-up task.  If a task with the same identifier is
+	 * already pending, it is replaced.
+	 *
+	 * @param id The task's identifier.
+	 * @param task The task.  This is run on a background thread.
+	 * @see #setEnabledTasks(String)
+	 */
+	public synchronized void register(String id, Runnable task) {
+		pending.put(id, task);
+		if (started) {
+			startThread();
+		}
+	}
+
+
+	/**
+	 * Runs pending tasks until there are none left.  This runs on the
+	 * scheduler thread.
+	 */
+	private void runTasks() {
+
+		Map.Entry<String, Runnable> entry;
+		while ((entry = nextTask()) != null) {
+
+			try {
+				waitUntilIdle();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+
+			try (StartupProfiler.Span span = StartupProfiler.start("Warm up: " + entry.getKey())) {
+				entry.getValue().run();
+			} catch (RuntimeException | LinkageError e) {
+				// The subsystem will report the problem when it's actually used
+				e.printStackTrace();
+			}
+		}
+	}
+
+
+	/**
+	 * Sets which warm-up tasks are enabled.  Disabling a task that is
+	 * already running does not stop it.
+	 *
+	 * @param ids A comma-separated list of identifiers.  If this is
+	 *        <code>null</code> or empty, no tasks are run.
+	 * @see #getEnabledTasks()
+	 */
+	public synchronized void setEnabledTasks(String ids) {
+		enabledTasks.clear();
+		if (ids != null) {
+			for (String id : ids.split(",")) {
+				if (!id.isBlank()) {
+					enabledTasks.add(id.trim());
+				}
+			}
+		}
+		if (started) {
+			startThread();
+		}
+	}
+
+
+	/**
+	 * Starts running warm-up tasks.  This should be called once RText's
+	 * first window has been displayed.  Calling this method more than once
+	 * has no effect.
+	 */
+	public synchronized void start() {
+		if (!started) {
+			started = true;
+			startThread();
+		}
+	}
+
+
+	/**
+	 * Starts the scheduler thread, if it isn't running already.
+	 */
+	private synchronized void startThread() {
+		if (thread == null && !pending.isEmpty()) {
+			lastInputNanos = System.nanoTime();
+			Toolkit.getDefaultToolkit().addAWTEventListener(inputListener, INPUT_EVENT_MASK);
+			thread = new Thread(this::runTasks, "RText Warm-up");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.start();
+		}
+	}
+
+
+	/**
+	 * Blocks until there has been no user input for {@link #IDLE_MILLIS}
+	 * milliseconds.
+	 *
+	 * @throws InterruptedException If the thread is interrupted.
+	 */
+	private void waitUntilIdle() throws InterruptedException {
+		long idleMillis;
+		while ((idleMillis = (System.nanoTime() - lastInputNanos) / 1_000_000) < IDLE_MILLIS) {
+			Thread.sleep(IDLE_MILLIS - idleMillis);
+		}
+	}
+
+
+}
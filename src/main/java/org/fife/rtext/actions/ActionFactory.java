@@ -144,6 +144,18 @@ public final class ActionFactory implements RTextActionInfo {
 		a = new CheckForUpdatesAction(rtext, msg, null);
 		rtext.addAction(UPDATES_ACTION, a);
 
+		a = new StartupReportAction(rtext, msg);
+		rtext.addAction(STARTUP_REPORT_ACTION, a);
+
+		a = new FlightRecordingAction(rtext, msg);
+		rtext.addAction(FLIGHT_RECORDING_ACTION, a);
+
+		a = new ViewEdtStallWindowAction(rtext, msg);
+		rtext.addAction(EDT_STALL_WINDOW_ACTION, a);
+
+		a = new ViewRunningProcessesWindowAction(rtext, msg);
+		rtext.addAction(PROCESSES_WINDOW_ACTION, a);
+
 		a = new CloseAction(rtext, msg, null);
 		rtext.addAction(CLOSE_ACTION, a);
 
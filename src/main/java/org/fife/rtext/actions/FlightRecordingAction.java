@@ -0,0 +1,70 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+import javax.swing.JOptionPane;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.jfr.FlightRecording;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that starts a flight recording, or stops the current one and saves
+ * it to the preferences directory.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class FlightRecordingAction extends AppAction<RText> {
+
+	private ResourceBundle msg;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 */
+	FlightRecordingAction(RText owner, ResourceBundle msg) {
+		super(owner, msg, "FlightRecordingAction");
+		this.msg = msg;
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+
+		RText rtext = getApplication();
+
+		try {
+			if (FlightRecording.isRecording()) {
+				File dir = new File(RTextUtilities.getPreferencesDirectory(), "recordings");
+				File file = FlightRecording.stop(dir);
+				setName(msg.getString("FlightRecordingAction"));
+				String text = MessageFormat.format(msg.getString("FlightRecordingAction.Saved"),
+					file.getAbsolutePath());
+				JOptionPane.showMessageDialog(rtext, text, rtext.getString("InfoDialogHeader"),
+					JOptionPane.INFORMATION_MESSAGE);
+			}
+			else {
+				FlightRecording.start();
+				setName(msg.getString("FlightRecordingAction.Stop"));
+			}
+		} catch (IOException | RuntimeException ex) {
+			rtext.displayException(ex);
+		}
+	}
+
+
+}
@@ -0,0 +1,41 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that displays how long each part of RText's startup took.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class StartupReportAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 */
+	StartupReportAction(RText owner, ResourceBundle msg) {
+		super(owner, msg, "StartupReportAction");
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		getApplication().displayStartupReport();
+	}
+
+
+}
@@ -0,0 +1,43 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that toggles the visibility of the window listing stalls of the
+ * event dispatch thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ViewEdtStallWindowAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 */
+	ViewEdtStallWindowAction(RText owner, ResourceBundle msg) {
+		super(owner, msg, "ViewEdtStallWindowAction");
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		RText rtext = getApplication();
+		rtext.setEdtStallWindowVisible(!rtext.isEdtStallWindowVisible());
+	}
+
+
+}
@@ -0,0 +1,43 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that toggles the visibility of the window listing the external
+ * processes RText has launched that are still running.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ViewRunningProcessesWindowAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 */
+	ViewRunningProcessesWindowAction(RText owner, ResourceBundle msg) {
+		super(owner, msg, "ViewRunningProcessesWindowAction");
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		RText rtext = getApplication();
+		rtext.setRunningProcessesWindowVisible(!rtext.isRunningProcessesWindowVisible());
+	}
+
+
+}
@@ -0,0 +1,56 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Emitted when the source browser runs ctags on a file.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.Ctags")
+@Label("Ctags Run")
+@Category({ "RText", "Source Browser" })
+@Description("ctags was run on a file for the source browser")
+public final class CtagsEvent extends Event {
+
+	@Label("Path")
+	private String path;
+
+	@Label("Language")
+	private String language;
+
+	@Label("Tag Count")
+	private int tagCount;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param path The path of the file.
+	 * @param language The ctags language the file was parsed as.
+	 * @param tagCount The number of tags read, or <code>-1</code> if ctags
+	 *        failed.
+	 */
+	public void commit(String path, String language, int tagCount) {
+		end();
+		if (shouldCommit()) {
+			this.path = path;
+			this.language = language;
+			this.tagCount = tagCount;
+			commit();
+		}
+	}
+
+
+}
@@ -0,0 +1,65 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import java.awt.AWTEvent;
+import java.awt.event.InvocationEvent;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+
+/**
+ * Emitted when the event dispatch thread spends a long time handling a
+ * single event.  By default only events taking at least 20 milliseconds are
+ * recorded.  These events are emitted by the event queue installed by
+ * {@link org.fife.rtext.EdtWatchdog}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.EdtTask")
+@Label("EDT Task")
+@Category({ "RText", "Swing" })
+@Description("The event dispatch thread handled a single event")
+@Threshold("20 ms")
+public final class EdtTaskEvent extends Event {
+
+	@Label("Event Type")
+	private String eventType;
+
+	@Label("Source")
+	private String source;
+
+	@Label("Details")
+	@Description("For invocation events, the runnable that was invoked")
+	private String details;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param event The AWT event that was dispatched.
+	 */
+	public void commit(AWTEvent event) {
+		end();
+		if (shouldCommit()) {
+			eventType = event.getClass().getName();
+			Object src = event.getSource();
+			source = src == null ? null : src.getClass().getName();
+			if (event instanceof InvocationEvent) {
+				details = event.paramString();
+			}
+			commit();
+		}
+	}
+
+
+}
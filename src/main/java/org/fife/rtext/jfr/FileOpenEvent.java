@@ -0,0 +1,68 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Emitted when a file is read and decoded into an editor.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.FileOpen")
+@Label("File Open")
+@Category({ "RText", "Files" })
+@Description("A file was read and decoded into an editor")
+public final class FileOpenEvent extends Event {
+
+	@Label("Path")
+	private String path;
+
+	@Label("File Size")
+	@DataAmount
+	private long fileSize;
+
+	@Label("Characters")
+	private int characters;
+
+	@Label("Encoding")
+	private String encoding;
+
+	@Label("Syntax Style")
+	private String syntaxStyle;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param path The path of the file.
+	 * @param fileSize The size of the file on disk, or <code>-1</code> if
+	 *        it is not known.
+	 * @param characters The number of characters in the decoded file.
+	 * @param encoding The encoding used to decode the file.
+	 * @param syntaxStyle The syntax style of the file.
+	 */
+	public void commit(String path, long fileSize, int characters, String encoding, String syntaxStyle) {
+		end();
+		if (shouldCommit()) {
+			this.path = path;
+			this.fileSize = fileSize;
+			this.characters = characters;
+			this.encoding = encoding;
+			this.syntaxStyle = syntaxStyle;
+			commit();
+		}
+	}
+
+
+}
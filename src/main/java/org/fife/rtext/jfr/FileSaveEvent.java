@@ -0,0 +1,60 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Emitted when an editor's content is encoded and written to a file.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.FileSave")
+@Label("File Save")
+@Category({ "RText", "Files" })
+@Description("An editor's content was encoded and written to a file")
+public final class FileSaveEvent extends Event {
+
+	@Label("Path")
+	private String path;
+
+	@Label("Characters")
+	private int characters;
+
+	@Label("Encoding")
+	private String encoding;
+
+	@Label("Syntax Style")
+	private String syntaxStyle;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param path The path of the file.
+	 * @param characters The number of characters written.
+	 * @param encoding The encoding of the file.
+	 * @param syntaxStyle The syntax style of the file.
+	 */
+	public void commit(String path, int characters, String encoding, String syntaxStyle) {
+		end();
+		if (shouldCommit()) {
+			this.path = path;
+			this.characters = characters;
+			this.encoding = encoding;
+			this.syntaxStyle = syntaxStyle;
+			commit();
+		}
+	}
+
+
+}
@@ -0,0 +1,62 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Emitted when a single file is searched by Find or Replace in Files.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.FindInFiles")
+@Label("Find in Files")
+@Category({ "RText", "Search" })
+@Description("A single file was read and searched by Find or Replace in Files")
+public final class FindInFilesEvent extends Event {
+
+	@Label("Path")
+	private String path;
+
+	@Label("File Size")
+	@DataAmount
+	private long fileSize;
+
+	@Label("Syntax Style")
+	private String syntaxStyle;
+
+	@Label("Regular Expression")
+	private boolean regex;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param path The path of the file.
+	 * @param fileSize The size of the file.
+	 * @param syntaxStyle The syntax style the file was highlighted with.
+	 * @param regex Whether the search was a regular expression search.
+	 */
+	public void commit(String path, long fileSize, String syntaxStyle, boolean regex) {
+		end();
+		if (shouldCommit()) {
+			this.path = path;
+			this.fileSize = fileSize;
+			this.syntaxStyle = syntaxStyle;
+			this.regex = regex;
+			commit();
+		}
+	}
+
+
+}
@@ -0,0 +1,125 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+
+/**
+ * Starts and dumps a flight recording of the running application, so users
+ * can capture a profile of a slow session without any command line flags.
+ * The recording uses the JDK's <code>profile</code> settings, with all of
+ * RText's own events enabled.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class FlightRecording {
+
+	private static Recording recording;
+
+	/**
+	 * The JFR configuration to use.
+	 */
+	private static final String CONFIGURATION = "profile";
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private FlightRecording() {
+		// Do nothing
+	}
+
+
+	/**
+	 * Returns whether a recording is in progress.
+	 *
+	 * @return Whether a recording is in progress.
+	 * @see #start()
+	 * @see #stop(File)
+	 */
+	public static synchronized boolean isRecording() {
+		return recording != null;
+	}
+
+
+	/**
+	 * Starts a recording.  If a recording is already in progress, this
+	 * method does nothing.
+	 *
+	 * @throws IOException If the recording's configuration cannot be read.
+	 * @see #stop(File)
+	 */
+	public static synchronized void start() throws IOException {
+
+		if (recording == null) {
+			Configuration config;
+			try {
+				config = Configuration.getConfiguration(CONFIGURATION);
+			} catch (ParseException pe) {
+				throw new IOException(pe);
+			}
+			Recording r = new Recording(config);
+			r.setName("RText");
+			r.enable(EdtTaskEvent.class);
+			r.enable(FileOpenEvent.class);
+			r.enable(FileSaveEvent.class);
+			r.enable(FindInFilesEvent.class);
+			r.enable(CtagsEvent.class);
+			r.enable(TidyEvent.class);
+			r.enable(MacroEvent.class);
+			r.enable(ToolEvent.class);
+			r.enable(ParserEvent.class);
+			r.start();
+			recording = r;
+		}
+	}
+
+
+	/**
+	 * Stops the current recording and writes it to a new file in a
+	 * directory.
+	 *
+	 * @param dir The directory to write the recording to.  This is created
+	 *        if it does not exist.
+	 * @return The file written, or <code>null</code> if no recording was
+	 *         in progress.
+	 * @throws IOException If an IO error occurs.
+	 * @see #start()
+	 */
+	public static synchronized File stop(File dir) throws IOException {
+
+		if (recording == null) {
+			return null;
+		}
+
+		Recording r = recording;
+		recording = null;
+
+		try {
+			if (!dir.isDirectory() && !dir.mkdirs()) {
+				throw new IOException("Cannot create directory: " + dir.getAbsolutePath());
+			}
+			String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+			File file = new File(dir, "rtext-" + timestamp + ".jfr");
+			r.stop();
+			r.dump(file.toPath());
+			return file;
+		} finally {
+			r.close();
+		}
+	}
+
+
+}
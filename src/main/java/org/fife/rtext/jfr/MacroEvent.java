@@ -0,0 +1,70 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+
+/**
+ * Emitted when a macro is run.  Each event records how long the macro's
+ * last cold run took, i.e. its last run without cached compiled code, so
+ * the duration of a warm run can be compared to it directly.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.Macro")
+@Label("Macro Run")
+@Category({ "RText", "Plugins" })
+@Description("A macro script was evaluated")
+public final class MacroEvent extends Event {
+
+	@Label("Macro")
+	private String macro;
+
+	@Label("Source")
+	private String source;
+
+	@Label("Warm")
+	@Description("Whether the macro's compiled code from a previous run was reused")
+	private boolean warm;
+
+	@Label("Cold Duration")
+	@Description("How long the macro's last run without cached compiled code took, or 0 if unknown")
+	@Timespan(Timespan.NANOSECONDS)
+	private long coldDuration;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param macro The name of the macro.
+	 * @param source The name of the macro's script file.
+	 * @param warm Whether the macro's compiled code from a previous run was
+	 *        reused.
+	 * @param coldDuration How long the macro's last cold run took, in
+	 *        nanoseconds.  For a cold run, this is the run itself.  This is
+	 *        <code>0</code> if the macro hasn't had a cold run, e.g. if it
+	 *        was compiled while warming up.
+	 */
+	public void commit(String macro, String source, boolean warm, long coldDuration) {
+		end();
+		if (shouldCommit()) {
+			this.macro = macro;
+			this.source = source;
+			this.warm = warm;
+			this.coldDuration = coldDuration;
+			commit();
+		}
+	}
+
+
+}
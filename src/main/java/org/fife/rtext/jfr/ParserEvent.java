@@ -0,0 +1,62 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Emitted when a parser, e.g. a language support's syntax checker or the
+ * spelling parser, parses an editor's document.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.Parser")
+@Label("Parser Run")
+@Category({ "RText", "Editor" })
+@Description("A parser parsed an editor's document")
+public final class ParserEvent extends Event {
+
+	@Label("Parser")
+	private String parser;
+
+	@Label("Language")
+	private String language;
+
+	@Label("Characters")
+	private int characters;
+
+	@Label("Notice Count")
+	private int noticeCount;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param parser The class name of the parser.
+	 * @param language The syntax style of the document.
+	 * @param characters The length of the document.
+	 * @param noticeCount The number of notices the parser returned, or
+	 *        <code>-1</code> if it failed.
+	 */
+	public void commit(String parser, String language, int characters, int noticeCount) {
+		end();
+		if (shouldCommit()) {
+			this.parser = parser;
+			this.language = language;
+			this.characters = characters;
+			this.noticeCount = noticeCount;
+			commit();
+		}
+	}
+
+
+}
@@ -0,0 +1,56 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Emitted when the tidy plugin pretty prints an editor's content.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.Tidy")
+@Label("Tidy")
+@Category({ "RText", "Plugins" })
+@Description("An editor's content was pretty printed")
+public final class TidyEvent extends Event {
+
+	@Label("Syntax Style")
+	private String syntaxStyle;
+
+	@Label("Characters")
+	private int characters;
+
+	@Label("Result")
+	@Description("0 for success, 1 for warnings, 2 for errors")
+	private int result;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param syntaxStyle The syntax style of the content.
+	 * @param characters The number of characters pretty printed.
+	 * @param result The pretty printer's result code.
+	 */
+	public void commit(String syntaxStyle, int characters, int result) {
+		end();
+		if (shouldCommit()) {
+			this.syntaxStyle = syntaxStyle;
+			this.characters = characters;
+			this.result = result;
+			commit();
+		}
+	}
+
+
+}
@@ -0,0 +1,50 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Emitted when an external tool runs to completion.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.Tool")
+@Label("Tool Run")
+@Category({ "RText", "Plugins" })
+@Description("An external tool was run")
+public final class ToolEvent extends Event {
+
+	@Label("Tool")
+	private String tool;
+
+	@Label("Program")
+	private String program;
+
+
+	/**
+	 * Ends this event and commits it, if it should be recorded.
+	 *
+	 * @param tool The name of the tool.
+	 * @param program The program the tool ran.
+	 */
+	public void commit(String tool, String program) {
+		end();
+		if (shouldCommit()) {
+			this.tool = tool;
+			this.program = program;
+			commit();
+		}
+	}
+
+
+}
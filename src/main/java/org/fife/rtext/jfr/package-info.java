@@ -0,0 +1,5 @@
+/**
+ * Java Flight Recorder events emitted by RText, and support for recording
+ * them from within the application.
+ */
+package org.fife.rtext.jfr;
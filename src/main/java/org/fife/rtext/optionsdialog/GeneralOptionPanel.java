@@ -51,6 +51,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	private final JCheckBox utf8BomCB;
 	private final JCheckBox sizeCheckCB;
 	private final JFormattedTextField sizeField;
+	private final JCheckBox evictCB;
+	private final JSpinner evictDelaySpinner;
+	private final JCheckBox compressCB;
 	private final JCheckBox dropShadowsInEditorCB;
 
 	private String fileSizeError;
@@ -184,6 +187,27 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		temp.add(Box.createHorizontalGlue());
 		temp2.add(temp, BorderLayout.LINE_START);
 		otherPanel.add(temp2);
+		temp = new JPanel();
+		temp.setLayout(new BoxLayout(temp, BoxLayout.LINE_AXIS));
+		evictCB = new JCheckBox(msg.getString("OptEvictIdleFiles"));
+		evictCB.setActionCommand("EvictCB");
+		evictCB.addActionListener(this);
+		evictDelaySpinner = new JSpinner(new SpinnerNumberModel(30, 1, 24 * 60, 5));
+		evictDelaySpinner.addChangeListener(e -> setDirty(true));
+		temp.add(evictCB);
+		temp.add(Box.createHorizontalStrut(5));
+		temp.add(evictDelaySpinner);
+		temp.add(Box.createHorizontalGlue());
+		temp2 = new JPanel(new BorderLayout());
+		temp2.add(temp, BorderLayout.LINE_START);
+		otherPanel.add(temp2);
+		compressCB = new JCheckBox(msg.getString("OptCompressIdleFiles"));
+		compressCB.setActionCommand("CompressCB");
+		compressCB.addActionListener(this);
+		temp2 = new JPanel(new BorderLayout());
+		temp2.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 0));
+		temp2.add(compressCB, BorderLayout.LINE_START);
+		otherPanel.add(temp2);
 		topPanel.add(otherPanel);
 
 		// A panel for "experimental" options.
@@ -260,6 +284,15 @@ class GeneralOptionPanel extends OptionsDialogPanel
 			setDirty(true);
 		}
 
+		else if ("EvictCB".equals(command)) {
+			setEvictIdleEditors(evictCB.isSelected());
+			setDirty(true);
+		}
+
+		else if ("CompressCB".equals(command)) {
+			setDirty(true);
+		}
+
 		else if (dropShadowsInEditorCB==e.getSource()) {
 			setDirty(true);
 		}
@@ -270,6 +303,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 			String defaultEnc = Charset.forName(defaultEncName).name();
 			boolean defaultUtf8BomSelected = false;
 			final float defaultSizeFieldValue = 25;
+			final int defaultEvictDelay = 30;
 			// Only default to this experimental option if running on Windows
 			boolean defaultDropShadowsInEditor = OS.get() == OS.WINDOWS;
 
@@ -279,6 +313,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.isSelected()!=defaultUtf8BomSelected ||
 				!sizeCheckCB.isSelected() ||
 				defaultSizeFieldValue != ((Number)sizeField.getValue()).floatValue() ||
+				evictCB.isSelected() ||
+				defaultEvictDelay != getIdleEditorEvictionDelay() ||
+				compressCB.isSelected() ||
 				dropShadowsInEditorCB.isSelected()!=defaultDropShadowsInEditor) {
 
 				dirField.setText(null);
@@ -288,6 +325,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.setSelected(defaultUtf8BomSelected);
 				setDoFileSizeCheck(true);
 				sizeField.setValue(defaultSizeFieldValue);
+				setEvictIdleEditors(false);
+				evictDelaySpinner.setValue(defaultEvictDelay);
+				compressCB.setSelected(false);
 				dropShadowsInEditorCB.setSelected(defaultDropShadowsInEditor);
 
 				setDirty(true);
@@ -318,6 +358,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		mainView.setWriteBOMInUtf8Files(getWriteUtf8BOM()); // Ditto.
 		mainView.setDoFileSizeCheck(getDoFileSizeCheck()); // Ditto.
 		mainView.setMaxFileSize(getMaxFileSize());		// Ditto.
+		mainView.setIdleEditorEvictionDelay(getIdleEditorEvictionDelay());
+		mainView.setCompressIdleEditors(compressCB.isSelected());
+		mainView.setIdleEditorEvictionEnabled(evictCB.isSelected());
 
 		// Experimental options
 		RTextUtilities.setDropShadowsEnabledInEditor(
@@ -358,6 +401,17 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	}
 
 
+	/**
+	 * Returns how long, in minutes, an editor must be idle before its
+	 * content is unloaded.
+	 *
+	 * @return The idle time.
+	 */
+	private int getIdleEditorEvictionDelay() {
+		return ((Number)evictDelaySpinner.getValue()).intValue();
+	}
+
+
 	/**
 	 * Returns the line terminator selected by the user.
 	 *
@@ -483,6 +537,19 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	}
 
 
+	/**
+	 * Sets whether idle editors are unloaded, and enables the related
+	 * options accordingly.
+	 *
+	 * @param evict Whether to unload idle editors.
+	 */
+	private void setEvictIdleEditors(boolean evict) {
+		evictCB.setSelected(evict);
+		evictDelaySpinner.setEnabled(evict);
+		compressCB.setEnabled(evict);
+	}
+
+
 	/**
 	 * Selects the specified line terminator.
 	 *
@@ -506,6 +573,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		setWriteUtf8BOM(mainView.getWriteBOMInUtf8Files());
 		setDoFileSizeCheck(mainView.getDoFileSizeCheck());
 		sizeField.setValue(mainView.getMaxFileSize());
+		setEvictIdleEditors(mainView.getIdleEditorEvictionEnabled());
+		evictDelaySpinner.setValue(mainView.getIdleEditorEvictionDelay());
+		compressCB.setSelected(mainView.getCompressIdleEditors());
 
 		// Experimental options
 		dropShadowsInEditorCB.setSelected(RTextUtilities.
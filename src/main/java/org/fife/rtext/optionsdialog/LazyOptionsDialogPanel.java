@@ -0,0 +1,201 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.optionsdialog;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.HierarchyEvent;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import org.fife.ui.OptionsDialogPanel;
+
+
+/**
+ * A placeholder in the Options dialog for a panel that is expensive to
+ * create.  The real panel is created by a factory the first time this
+ * placeholder is displayed, and is initialized from the application at
+ * that time.  Until then, this panel does nothing when values are set or
+ * applied.<p>
+ *
+ * Panels whose settings depend on each other, such as those sharing the
+ * editor preview, can be grouped with {@link #createTogether(LazyOptionsDialogPanel...)}
+ * so they are always created at the same time.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class LazyOptionsDialogPanel extends OptionsDialogPanel {
+
+	private final Frame owner;
+	private final Supplier<? extends OptionsDialogPanel> factory;
+	private OptionsDialogPanel panel;
+	private List<LazyOptionsDialogPanel> group;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent application.  The real panel is initialized
+	 *        from this when it is created.
+	 * @param id The ID of the real panel, so other panels can look it up.
+	 *        This may be <code>null</code>.
+	 * @param name The name of the real panel, displayed in the Options
+	 *        dialog's tree.
+	 * @param factory Creates the real panel.
+	 */
+	public LazyOptionsDialogPanel(Frame owner, String id, String name,
+			Supplier<? extends OptionsDialogPanel> factory) {
+
+		super(name);
+		this.owner = owner;
+		this.factory = factory;
+		if (id != null) {
+			setId(id);
+		}
+		setLayout(new BorderLayout());
+
+		addHierarchyListener(e -> {
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 &&
+					isShowing()) {
+				getPanel();
+			}
+		});
+	}
+
+
+	/**
+	 * Creates the real panel, if it hasn't been already.
+	 */
+	private void createPanel() {
+
+		if (panel != null) {
+			return;
+		}
+
+		panel = factory.get();
+		panel.addPropertyChangeListener(e -> {
+			if (panel.isDirty() != isDirty()) {
+				setDirty(panel.isDirty());
+			}
+		});
+		add(panel);
+
+		panel.setValues(owner);
+		panel.setDirty(false);
+
+		revalidate();
+		growWindowIfNecessary();
+	}
+
+
+	/**
+	 * Makes a set of lazy panels always be created at the same time.  This
+	 * should be used for panels that share state, so none of them is
+	 * initialized after the user has modified another.
+	 *
+	 * @param panels The panels to group.
+	 */
+	public static void createTogether(LazyOptionsDialogPanel... panels) {
+		List<LazyOptionsDialogPanel> group = List.of(panels);
+		for (LazyOptionsDialogPanel panel : panels) {
+			panel.group = group;
+		}
+	}
+
+
+	/**
+	 * Applies the real panel's settings, if it has been created and
+	 * modified.
+	 *
+	 * @param owner The parent application.
+	 */
+	@Override
+	protected void doApplyImpl(Frame owner) {
+		if (panel != null && panel.isDirty()) {
+			panel.doApply(owner);
+		}
+	}
+
+
+	@Override
+	protected OptionsPanelCheckResult ensureValidInputsImpl() {
+		return panel != null ? panel.ensureValidInputs() : null;
+	}
+
+
+	/**
+	 * Returns the real panel, creating it (and any panels grouped with it)
+	 * if necessary.
+	 *
+	 * @return The real panel.
+	 * @see #isPanelCreated()
+	 */
+	public OptionsDialogPanel getPanel() {
+		if (panel == null) {
+			if (group != null) {
+				group.forEach(LazyOptionsDialogPanel::createPanel);
+			}
+			else {
+				createPanel();
+			}
+		}
+		return panel;
+	}
+
+
+	@Override
+	public JComponent getTopJComponent() {
+		return panel != null ? panel.getTopJComponent() : this;
+	}
+
+
+	/**
+	 * Since the Options dialog is sized before lazy panels are created,
+	 * makes it bigger if the real panel doesn't fit.
+	 */
+	private void growWindowIfNecessary() {
+		Window window = SwingUtilities.getWindowAncestor(this);
+		if (window != null && window.isDisplayable()) {
+			Dimension pref = window.getPreferredSize();
+			if (pref.width > window.getWidth() || pref.height > window.getHeight()) {
+				window.setSize(Math.max(pref.width, window.getWidth()),
+					Math.max(pref.height, window.getHeight()));
+			}
+		}
+	}
+
+
+	/**
+	 * Returns whether the real panel has been created.
+	 *
+	 * @return Whether the real panel has been created.
+	 * @see #getPanel()
+	 */
+	public boolean isPanelCreated() {
+		return panel != null;
+	}
+
+
+	/**
+	 * Sets the values displayed by the real panel, if it has been created.
+	 * Otherwise, this is done when it is created.
+	 *
+	 * @param owner The parent application.
+	 */
+	@Override
+	protected void setValuesImpl(Frame owner) {
+		if (panel != null) {
+			panel.setValues(owner);
+		}
+	}
+
+
+}
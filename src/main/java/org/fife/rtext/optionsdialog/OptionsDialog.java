@@ -12,6 +12,8 @@ package org.fife.rtext.optionsdialog;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import javax.swing.Action;
+import javax.swing.Icon;
 
 import org.fife.rtext.RText;
 import org.fife.ui.OptionsDialogPanel;
@@ -24,7 +26,9 @@ import org.fife.ui.rtextfilechooser.RTextFileChooserOptionPanel;
 
 
 /**
- * RText's options dialog.
+ * RText's options dialog.  Panels that are expensive to create, such as
+ * those with an editor preview, are only created when they are first
+ * displayed; see {@link LazyOptionsDialogPanel}.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -38,6 +42,7 @@ public class OptionsDialog extends org.fife.ui.OptionsDialog {
 	private OptionsDialogPanel rtaPanel;
 	private OptionsDialogPanel searchPanel;
 	private OptionsDialogPanel fileChooserPanel;
+	private OptionsDialogPanel printPanel;
 	private OptionsDialogPanel filtersPanel;
 	private OptionsDialogPanel shortcutPanel;
 
@@ -63,21 +68,50 @@ public class OptionsDialog extends org.fife.ui.OptionsDialog {
 		uiPanel = new UIOptionPanel(rtext, msg);
 		panels.add(uiPanel);
 
-		languagePanel = new LanguageOptionPanel(rtext, msg);
+		languagePanel = new LazyOptionsDialogPanel(rtext, null,
+			msg.getString("OptLaName"), () -> new LanguageOptionPanel(rtext, msg));
 		uiPanel.addChildPanel(languagePanel);
 
-		rtaPanel = new RTextAreaOptionPanel();
+		// The text area panels share the editor preview, so they're created
+		// together when any of them is first displayed.
+		ResourceBundle taMsg = ResourceBundle.getBundle(
+								"org.fife.ui.rsyntaxtextarea.TextAreaOptionPanel");
+		LazyOptionsDialogPanel lazyRtaPanel = new LazyOptionsDialogPanel(rtext,
+			RTextAreaOptionPanel.OPTION_PANEL_ID, taMsg.getString("Title"),
+			RTextAreaOptionPanel::new);
+		LazyOptionsDialogPanel fontPanel = new LazyOptionsDialogPanel(rtext,
+			FontAndTabsOptionPanel.OPTION_PANEL_ID, taMsg.getString("Title.Font"),
+			FontAndTabsOptionPanel::new);
+		LazyOptionsDialogPanel rstaPanel = new LazyOptionsDialogPanel(rtext,
+			RSyntaxTextAreaOptionPanel.OPTION_PANEL_ID,
+			taMsg.getString("Title.SyntaxHighlighting"),
+			RSyntaxTextAreaOptionPanel::new);
+		LazyOptionsDialogPanel caretPanel = new LazyOptionsDialogPanel(rtext,
+			null, taMsg.getString("Title.CaretAndSelection"),
+			CaretAndSelectionOptionPanel::new);
+		LazyOptionsDialogPanel highlightsPanel = new LazyOptionsDialogPanel(rtext,
+			null, taMsg.getString("Title.Highlights"), HighlightsOptionPanel::new);
+		LazyOptionsDialogPanel gutterPanel = new LazyOptionsDialogPanel(rtext,
+			null, taMsg.getString("Title.Gutter"), GutterOptionPanel::new);
+		LazyOptionsDialogPanel.createTogether(lazyRtaPanel, fontPanel, rstaPanel,
+			caretPanel, highlightsPanel, gutterPanel);
+
+		rtaPanel = lazyRtaPanel;
 		panels.add(rtaPanel);
-		rtaPanel.addChildPanel(new FontAndTabsOptionPanel());
-		RSyntaxTextAreaOptionPanel rstaPanel = new RSyntaxTextAreaOptionPanel();
+		rtaPanel.addChildPanel(fontPanel);
 		rtaPanel.addChildPanel(rstaPanel);
-		rstaPanel.addChildPanel(new CaretAndSelectionOptionPanel());
-		rstaPanel.addChildPanel(new HighlightsOptionPanel());
-		rstaPanel.addChildPanel(new GutterOptionPanel());
-		rtaPanel.addChildPanel(new SpellingOptionPanel());
-		rtaPanel.addChildPanel(new TemplateOptionPanel());
-
-		searchPanel = new SearchOptionPanel(rtext, msg);
+		rstaPanel.addChildPanel(caretPanel);
+		rstaPanel.addChildPanel(highlightsPanel);
+		rstaPanel.addChildPanel(gutterPanel);
+		rtaPanel.addChildPanel(new LazyOptionsDialogPanel(rtext, null,
+			getBundleString("org.fife.ui.rsyntaxtextarea.SpellingOptionPanel", "Title"),
+			SpellingOptionPanel::new));
+		rtaPanel.addChildPanel(new LazyOptionsDialogPanel(rtext, null,
+			getBundleString("org.fife.ui.rsyntaxtextarea.TemplateOptionPanel", "Title"),
+			TemplateOptionPanel::new));
+
+		searchPanel = new LazyOptionsDialogPanel(rtext, null,
+			msg.getString("OptSearchOptionsName"), () -> new SearchOptionPanel(rtext, msg));
 		panels.add(searchPanel);
 
 		fileChooserPanel = new RTextFileChooserOptionPanel();
@@ -85,10 +119,12 @@ public class OptionsDialog extends org.fife.ui.OptionsDialog {
 
 		fileChooserPanel.addChildPanel(new FileChooserFavoritesOptionPanel());
 
-		OptionsDialogPanel printPanel = new PrintingOptionPanel(rtext, msg);
+		printPanel = new LazyOptionsDialogPanel(rtext, null,
+			msg.getString("OptPrName"), () -> new PrintingOptionPanel(rtext, msg));
 		panels.add(printPanel);
 
-		filtersPanel = new FileFilterOptionPanel(rtext, msg);
+		filtersPanel = new LazyOptionsDialogPanel(rtext, null,
+			msg.getString("OptFFName"), () -> new FileFilterOptionPanel(rtext, msg));
 		panels.add(filtersPanel);
 
 		shortcutPanel = new ShortcutOptionPanel(rtext);
@@ -125,6 +161,11 @@ public class OptionsDialog extends org.fife.ui.OptionsDialog {
 	}
 
 
+	private static String getBundleString(String bundle, String key) {
+		return ResourceBundle.getBundle(bundle).getString(key);
+	}
+
+
 	/**
 	 * Returns the options dialog panel with the specified ID.
 	 *
@@ -177,6 +218,7 @@ public class OptionsDialog extends org.fife.ui.OptionsDialog {
 		rtaPanel.setIcon(iconGroup.getIcon("options_textarea"));
 		searchPanel.setIcon(iconGroup.getIcon("options_search"));
 		fileChooserPanel.setIcon(iconGroup.getIcon("options_file_chooser"));
+		printPanel.setIcon((Icon)rtext.getAction(RText.PRINT_ACTION).getValue(Action.SMALL_ICON));
 		filtersPanel.setIcon(iconGroup.getIcon("options_file_filters"));
 		shortcutPanel.setIcon(iconGroup.getIcon("options_shortcuts"));
 	}
@@ -52,6 +52,7 @@ public class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 	private JComboBox<String> docSelCombo;
 
 	private JCheckBox showHostNameCheckBox;
+	private JCheckBox singleInstanceCheckBox;
 
 	/**
 	 * Constructor.
@@ -93,7 +94,7 @@ public class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 		String actionCommand = e.getActionCommand();
 
 		switch (actionCommand) {
-			case "ViewComboBox", "ShowHostNameCB", "AppThemeComboBox" -> setDirty(true);
+			case "ViewComboBox", "ShowHostNameCB", "SingleInstanceCB", "AppThemeComboBox" -> setDirty(true);
 		}
 
 	}
@@ -189,6 +190,13 @@ public class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 		showHostNamePanel.add(showHostNameCheckBox, BorderLayout.LINE_START);
 		temp.add(showHostNamePanel);
 
+		JPanel singleInstancePanel = new JPanel(new BorderLayout());
+		singleInstanceCheckBox = new JCheckBox(msg.getString("OptUISingleInstance"));
+		singleInstanceCheckBox.setActionCommand("SingleInstanceCB");
+		singleInstanceCheckBox.addActionListener(this);
+		singleInstancePanel.add(singleInstanceCheckBox, BorderLayout.LINE_START);
+		temp.add(singleInstancePanel);
+
 		temp.add(Box.createVerticalGlue());
 		return temp;
 	}
@@ -234,6 +242,7 @@ public class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 		applySelectedTheme();
 		rtext.setMainViewStyle(getMainViewStyle());	// Doesn't update if it doesn't have to.
 		rtext.setShowHostName(showHostNameCheckBox.isSelected());	// Doesn't update if doesn't have to.
+		rtext.setSingleInstanceEnabled(singleInstanceCheckBox.isSelected());
 	}
 
 
@@ -374,6 +383,7 @@ public class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 		setTheme(rtext.getTheme());
 		setMainViewStyle(rtext.getMainViewStyle());
 		showHostNameCheckBox.setSelected(rtext.getShowHostName());
+		singleInstanceCheckBox.setSelected(rtext.isSingleInstanceEnabled());
 	}
 
 
@@ -74,9 +74,8 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 	protected void doApplyImpl(Frame owner) {
 
 		Plugin plugin = getPlugin();
-		ConsoleWindow window = plugin.getDockableWindow();
-		window.setActive(visibleCB.isSelected());
-		window.setPosition(locationCombo.getSelectedIndex());
+		plugin.setConsoleWindowPosition(locationCombo.getSelectedIndex());
+		plugin.setConsoleWindowVisible(visibleCB.isSelected());
 
 	}
 
@@ -97,9 +96,8 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 	protected void setValuesImpl(Frame owner) {
 
 		Plugin plugin = getPlugin();
-		ConsoleWindow window = plugin.getDockableWindow();
-		visibleCB.setSelected(window.isActive());
-		locationCombo.setSelectedIndex(window.getPosition());
+		visibleCB.setSelected(plugin.isConsoleWindowVisible());
+		locationCombo.setSelectedIndex(plugin.getConsoleWindowPosition());
 	}
 
 
@@ -16,7 +16,11 @@ import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -26,19 +30,23 @@ import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultEditorKit;
+import javax.swing.text.DefaultStyledDocument;
 import javax.swing.text.Document;
 import javax.swing.text.Element;
 import javax.swing.text.Style;
 import javax.swing.text.StyleConstants;
+import javax.swing.text.StyleContext;
 import javax.swing.text.StyledDocument;
 import javax.swing.text.TextAction;
 import javax.swing.text.Utilities;
 
+import org.fife.rtext.RingBufferContent;
 import org.fife.ui.OptionsDialog;
 import org.fife.ui.app.console.AbstractConsoleTextArea;
 import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
@@ -72,6 +80,24 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	 */
 	private RSyntaxDocument shDoc;
 
+	/**
+	 * Output appended from threads other than the EDT, waiting to be added
+	 * to the document.  Synchronize on this list to access it.
+	 */
+	private final List<OutputRun> pendingOutput;
+	private int pendingLength;
+	private boolean flushScheduled;
+	private final Timer flushTimer;
+
+	private boolean processRunning;
+
+	/**
+	 * Runs code entered into this console, for consoles that evaluate it
+	 * in-process.  This is only accessed on the EDT.
+	 */
+	private ExecutorService worker;
+	private volatile Thread workerThread;
+
 	/**
 	 * The maximum number of commands the user can recall.
 	 */
@@ -82,12 +108,31 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	 */
 	private static final int MAX_LINE_COUNT				= 1500;
 
+	/**
+	 * How long to collect output from other threads before adding it to the
+	 * document.  This caps the number of updates to about 30 a second.
+	 */
+	private static final int FLUSH_INTERVAL_MILLIS		= 33;
+
+	/**
+	 * The maximum number of characters of output waiting to be added to the
+	 * document.  If a process writes more than this between updates, the
+	 * oldest output is dropped.
+	 */
+	private static final int MAX_PENDING_LENGTH			= 4 * 1024 * 1024;
+
 
 	/**
 	 * Constructor.
 	 */
 	ConsoleTextArea(Plugin plugin) {
 		this.plugin = plugin;
+		pendingOutput = new ArrayList<>();
+		flushTimer = new Timer(FLUSH_INTERVAL_MILLIS, e -> flushPendingOutput());
+		flushTimer.setRepeats(false);
+		// Old lines are trimmed as output is appended, which is cheap with
+		// a ring buffer
+		setStyledDocument(new DefaultStyledDocument(new RingBufferContent(), new StyleContext()));
 		installDefaultStyles(false);
 		fixKeyboardShortcuts();
 		Listener listener = new Listener();
@@ -128,6 +173,8 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 
 	/**
 	 * Handles updating of the text component.  This method is thread-safe.
+	 * Text appended from other threads is collected and added to the
+	 * document in batches.
 	 *
 	 * @param text The text to append.
 	 * @param style The style to apply to the appended text.
@@ -138,42 +185,51 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	void appendImpl(final String text, final String style,
 					final boolean treatAsUserInput) {
 
-		// Ensure the meat of this method is done on the EDT, to prevent
-		// concurrency errors.
-		if (SwingUtilities.isEventDispatchThread()) {
-
-			Document doc = getDocument();
-			int end = doc.getLength();
-			try {
-				doc.insertString(end, text, getStyle(style));
-			} catch (BadLocationException ble) { // Never happens
-				ble.printStackTrace();
+		boolean scheduleFlush;
+		synchronized (pendingOutput) {
+			OutputRun last = pendingOutput.isEmpty() ? null :
+				pendingOutput.get(pendingOutput.size() - 1);
+			if (last!=null && last.style.equals(style) &&
+					last.userInput==treatAsUserInput) {
+				last.text.append(text);
 			}
-			setCaretPosition(doc.getLength());
-			if (!treatAsUserInput) {
-				inputMinOffs = getCaretPosition();
+			else {
+				pendingOutput.add(new OutputRun(text, style, treatAsUserInput));
 			}
-
-			// Don't let the console's text get too long
-			Element root = doc.getDefaultRootElement();
-			int lineCount = root.getElementCount();
-			if (lineCount>MAX_LINE_COUNT) {
-				int toDelete = lineCount - MAX_LINE_COUNT;
-				int endOffs = root.getElement(toDelete-1).getEndOffset();
-				try {
-					doc.remove(0, endOffs);
-					if (!treatAsUserInput) {
-						inputMinOffs -= endOffs;
+			pendingLength += text.length();
+			// Don't let a process writing lots of output eat up memory.  The
+			// oldest output is dropped, even if it's all in a single run.
+			// Dropping down to half the limit means the text isn't copied
+			// again for every later append
+			if (pendingLength>MAX_PENDING_LENGTH) {
+				int excess = pendingLength - MAX_PENDING_LENGTH / 2;
+				while (excess>0) {
+					OutputRun first = pendingOutput.get(0);
+					int length = first.text.length();
+					if (length<=excess) {
+						pendingOutput.remove(0);
+						pendingLength -= length;
+						excess -= length;
+					}
+					else {
+						first.text.delete(0, excess);
+						pendingLength -= excess;
+						excess = 0;
 					}
-				} catch (BadLocationException ble) { // Never happens
-					ble.printStackTrace();
 				}
 			}
-
+			scheduleFlush = !flushScheduled;
+			flushScheduled = true;
 		}
 
-		else {
-			SwingUtilities.invokeLater(() -> appendImpl(text, style, treatAsUserInput));
+		// Ensure the meat of this method is done on the EDT, to prevent
+		// concurrency errors.  Text appended on the EDT is added right
+		// away, after any output still waiting to be added.
+		if (SwingUtilities.isEventDispatchThread()) {
+			flushPendingOutput();
+		}
+		else if (scheduleFlush) {
+			SwingUtilities.invokeLater(flushTimer::start);
 		}
 
 	}
@@ -211,6 +267,85 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Cancels the code running in this console, if any.  The worker thread
+	 * running it is interrupted and abandoned, since the code may be stuck in
+	 * a call that ignores interrupts, and a new prompt is appended right away.
+	 * The next evaluation gets a new worker thread.  This should only be
+	 * called on the EDT.
+	 *
+	 * @param message The message to print.
+	 * @param hardCancel Forcibly stops the script engine running the code.
+	 *        This is run on a separate thread, since it may block until the
+	 *        code stops.  This may be <code>null</code>.
+	 * @see #evaluate(Runnable)
+	 * @see #isEvaluationCancelled()
+	 */
+	void cancelEvaluation(String message, Runnable hardCancel) {
+
+		if (worker==null || !isProcessRunning()) {
+			return;
+		}
+
+		worker.shutdownNow();
+		worker = null;
+		workerThread = null;
+		if (hardCancel!=null) {
+			Thread t = new Thread(hardCancel, "RText Console Cancel");
+			t.setDaemon(true);
+			t.start();
+		}
+
+		append(message, STYLE_STDERR);
+		appendPrompt();
+		setEditable(true);
+		setProcessRunning(false);
+
+	}
+
+
+	/**
+	 * Runs code entered into this console on a worker thread, so a script
+	 * that runs for a long time doesn't freeze RText.  The console isn't
+	 * editable while it runs, and a new prompt is appended when it completes.
+	 * This should only be called on the EDT.
+	 *
+	 * @param evaluation Evaluates the code.  Its output should be appended
+	 *        via {@link #append(String, String)}.
+	 * @see #cancelEvaluation(String, Runnable)
+	 */
+	void evaluate(Runnable evaluation) {
+
+		if (worker==null) {
+			worker = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "RText Console Worker");
+				t.setDaemon(true);
+				workerThread = t;
+				return t;
+			});
+		}
+
+		final ExecutorService worker = this.worker;
+		setEditable(false);
+		setProcessRunning(true);
+		worker.execute(() -> {
+			try {
+				evaluation.run();
+			} finally {
+				SwingUtilities.invokeLater(() -> {
+					// If the code was cancelled, the prompt's already back
+					if (this.worker==worker) {
+						appendPrompt();
+						setEditable(true);
+						setProcessRunning(false);
+					}
+				});
+			}
+		});
+
+	}
+
+
 	/**
 	 * Fixes the keyboard shortcuts for this text component so the user cannot
 	 * accidentally delete any stdout or stderr, only stdin.
@@ -274,6 +409,68 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Adds any output appended from other threads to the document, and
+	 * trims the oldest lines if the console is too long.  This should only
+	 * be called on the EDT.
+	 */
+	private void flushPendingOutput() {
+
+		List<OutputRun> runs;
+		synchronized (pendingOutput) {
+			if (pendingOutput.isEmpty()) {
+				return;
+			}
+			runs = new ArrayList<>(pendingOutput);
+			pendingOutput.clear();
+			pendingLength = 0;
+			flushScheduled = false;
+		}
+
+		// Don't bother adding lines that would just be trimmed
+		int lineCount = 0;
+		outer:
+		for (int i=runs.size()-1; i>=0; i--) {
+			StringBuilder text = runs.get(i).text;
+			for (int j=text.length()-1; j>=0; j--) {
+				if (text.charAt(j)=='\n' && ++lineCount>MAX_LINE_COUNT) {
+					text.delete(0, j+1);
+					runs.subList(0, i).clear();
+					break outer;
+				}
+			}
+		}
+
+		Document doc = getDocument();
+		for (OutputRun run : runs) {
+			try {
+				doc.insertString(doc.getLength(), run.text.toString(), getStyle(run.style));
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+			if (!run.userInput) {
+				inputMinOffs = doc.getLength();
+			}
+		}
+		setCaretPosition(doc.getLength());
+
+		// Don't let the console's text get too long
+		Element root = doc.getDefaultRootElement();
+		lineCount = root.getElementCount();
+		if (lineCount>MAX_LINE_COUNT) {
+			int toDelete = lineCount - MAX_LINE_COUNT;
+			int endOffs = root.getElement(toDelete-1).getEndOffset();
+			try {
+				doc.remove(0, endOffs);
+				inputMinOffs -= endOffs;
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+	}
+
+
 	/**
 	 * Returns the currently entered text.
 	 *
@@ -337,6 +534,31 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Returns whether the code being run on the current thread has been
+	 * cancelled.  If so, it shouldn't print anything else, since a new prompt
+	 * has already been appended.
+	 *
+	 * @return Whether the code has been cancelled.
+	 * @see #cancelEvaluation(String, Runnable)
+	 */
+	boolean isEvaluationCancelled() {
+		return Thread.currentThread()!=workerThread;
+	}
+
+
+	/**
+	 * Returns whether a process, or code entered into this console, is
+	 * running.
+	 *
+	 * @return Whether something is running.
+	 * @see #setProcessRunning(boolean)
+	 */
+	boolean isProcessRunning() {
+		return processRunning;
+	}
+
+
 	/**
 	 * Replaces the command entered thus far with another one.  This is used
 	 * when the user cycles through the command history.  This method should
@@ -402,6 +624,32 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Sets whether a process, or code entered into this console, is
+	 * running.  This fires a property change event of type
+	 * {@link #PROPERTY_PROCESS_RUNNING}.  This should only be called on the
+	 * EDT.
+	 *
+	 * @param running Whether something is running.
+	 * @see #isProcessRunning()
+	 */
+	void setProcessRunning(boolean running) {
+		if (running!=processRunning) {
+			processRunning = running;
+			firePropertyChange(PROPERTY_PROCESS_RUNNING, !running, running);
+		}
+	}
+
+
+	/**
+	 * Stops the currently running process, or code entered into this
+	 * console, if any.  The default implementation does nothing.  This
+	 * should only be called on the EDT.
+	 */
+	void stopCurrentProcess() {
+	}
+
+
 	/**
 	 * Syntax highlights the current input being entered by the user.
 	 */
@@ -717,6 +965,24 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Output in a single style, waiting to be added to the document.
+	 */
+	private static final class OutputRun {
+
+		private final StringBuilder text;
+		private final String style;
+		private final boolean userInput;
+
+		OutputRun(String text, String style, boolean userInput) {
+			this.text = new StringBuilder(text);
+			this.style = style;
+			this.userInput = userInput;
+		}
+
+	}
+
+
 	/**
 	 * Called when the user presses Ctrl+A.
 	 */
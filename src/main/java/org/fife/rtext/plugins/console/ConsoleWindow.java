@@ -76,11 +76,15 @@ class ConsoleWindow extends DockableWindow implements PropertyChangeListener {
 		mainPanel.add(sp, "System");
 
 		jsTextArea = new JavaScriptShellTextArea(plugin);
+		jsTextArea.addPropertyChangeListener(
+							ConsoleTextArea.PROPERTY_PROCESS_RUNNING, this);
 		sp = new RScrollPane(jsTextArea);
 		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
 		mainPanel.add(sp, "JavaScript");
 
 		rubyTextArea = new RubyShellTextArea(plugin);
+		rubyTextArea.addPropertyChangeListener(
+							ConsoleTextArea.PROPERTY_PROCESS_RUNNING, this);
 		sp = new RScrollPane(rubyTextArea);
 		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
 		mainPanel.add(sp, "Ruby");
@@ -157,7 +161,8 @@ class ConsoleWindow extends DockableWindow implements PropertyChangeListener {
 
 
 	/**
-	 * Called whenever a process starts or completes.
+	 * Called whenever a process, or code entered into a console, starts or
+	 * completes.
 	 */
 	@Override
 	public void propertyChange(PropertyChangeEvent e) {
@@ -165,8 +170,8 @@ class ConsoleWindow extends DockableWindow implements PropertyChangeListener {
 		String prop = e.getPropertyName();
 
 		if (ConsoleTextArea.PROPERTY_PROCESS_RUNNING.equals(prop)) {
-			boolean running = (Boolean)e.getNewValue();
-			stopAction.setEnabled(running);
+			stopAction.setEnabled(shellTextArea.isProcessRunning() ||
+				jsTextArea.isProcessRunning() || rubyTextArea.isProcessRunning());
 		}
 
 	}
@@ -232,10 +237,13 @@ class ConsoleWindow extends DockableWindow implements PropertyChangeListener {
 
 
 	/**
-	 * Stops the currently running process, if any.
+	 * Stops the currently running process, and any code running in the
+	 * JavaScript and Ruby consoles.
 	 */
 	public void stopCurrentProcess() {
 		shellTextArea.stopCurrentProcess();
+		jsTextArea.stopCurrentProcess();
+		rubyTextArea.stopCurrentProcess();
 	}
 
 
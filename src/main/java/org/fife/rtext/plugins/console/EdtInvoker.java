@@ -0,0 +1,87 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.console;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javax.swing.SwingUtilities;
+
+
+/**
+ * Runs functions on the EDT for code entered into the JavaScript and Ruby
+ * consoles, which runs on a worker thread.  Methods called on the
+ * <code>rtext</code> and <code>textArea</code> variables already run on the
+ * EDT.  The Ruby console also exposes this as the <code>edt</code> variable,
+ * for running several calls together:
+ *
+ * <pre>
+ * edt.run { textArea.append("Hello") }
+ * text = edt.call { textArea.getText() }
+ * </pre>
+ *
+ * The JavaScript console doesn't, as a Graal context can't run script code
+ * on two threads at once.<p>
+ *
+ * If the calling thread is interrupted while waiting, e.g. because the user
+ * stopped the script, an exception is thrown.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class EdtInvoker {
+
+
+	/**
+	 * Runs a function on the EDT and waits for its result.
+	 *
+	 * @param function The function to run.
+	 * @return The function's return value.
+	 * @throws Exception If the function throws an exception, or the calling
+	 *         thread is interrupted.
+	 * @see #run(Runnable)
+	 */
+	public Object call(Callable<?> function) throws Exception {
+
+		if (SwingUtilities.isEventDispatchThread()) {
+			return function.call();
+		}
+
+		FutureTask<Object> task = new FutureTask<>(function::call);
+		SwingUtilities.invokeLater(task);
+		try {
+			return task.get();
+		} catch (InterruptedException ie) {
+			task.cancel(false);
+			throw ie;
+		} catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception)cause;
+			}
+			throw (Error)cause;
+		}
+
+	}
+
+
+	/**
+	 * Runs a function on the EDT and waits for it to complete.
+	 *
+	 * @param function The function to run.
+	 * @throws Exception If the function throws an exception, or the calling
+	 *         thread is interrupted.
+	 * @see #call(Callable)
+	 */
+	public void run(Runnable function) throws Exception {
+		call(() -> {
+			function.run();
+			return null;
+		});
+	}
+
+
+}
@@ -0,0 +1,264 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.console;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+
+/**
+ * Wraps an object, such as <code>rtext</code> or <code>textArea</code>, so
+ * that JavaScript console code calling its methods runs them on the EDT.
+ * Objects returned by those methods are wrapped too, so e.g.
+ * <code>textArea.getDocument().getLength()</code> is safe.<p>
+ *
+ * A Graal JavaScript context can't be used by two threads at once, so the
+ * worker thread can't simply run script code on the EDT.  Instead, the
+ * arguments are converted to Java objects on the worker thread, and the
+ * method is looked up and called via reflection on the EDT.  Script
+ * functions can't be passed to these methods for the same reason.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see EdtInvoker
+ */
+final class EdtProxy implements ProxyObject {
+
+	private final Object target;
+
+	/**
+	 * Returned by {@link #convert(Class, Object)} if an argument can't be
+	 * converted.
+	 */
+	private static final Object NO_MATCH = new Object();
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param target The object to wrap.
+	 */
+	private EdtProxy(Object target) {
+		this.target = target;
+	}
+
+
+	/**
+	 * Converts an argument to the type of a method parameter.
+	 *
+	 * @param type The parameter type.
+	 * @param arg The argument.
+	 * @return The converted argument, or {@link #NO_MATCH} if it can't be
+	 *         converted.
+	 */
+	private static Object convert(Class<?> type, Object arg) {
+
+		if (arg == null) {
+			return type.isPrimitive() ? NO_MATCH : null;
+		}
+		if (type.isPrimitive()) {
+			type = MethodType.methodType(type).wrap().returnType();
+		}
+		if (type.isInstance(arg)) {
+			return arg;
+		}
+
+		// Script numbers are ints, longs or doubles
+		if (arg instanceof Number num) {
+			boolean integral = !(arg instanceof Double);
+			if (type == Long.class && integral) {
+				return num.longValue();
+			}
+			else if (type == Integer.class && integral && num.intValue() == num.longValue()) {
+				return num.intValue();
+			}
+			else if (type == Double.class) {
+				return num.doubleValue();
+			}
+			else if (type == Float.class) {
+				return num.floatValue();
+			}
+		}
+		else if (arg instanceof String str && type == Character.class && str.length() == 1) {
+			return str.charAt(0);
+		}
+
+		return NO_MATCH;
+	}
+
+
+	/**
+	 * Finds the public method of the wrapped object to call, and converts
+	 * the arguments to its parameter types.
+	 *
+	 * @param name The name of the method.
+	 * @param args The arguments.  These are converted in place.
+	 * @return The method.
+	 * @throws IllegalArgumentException If there is no such method.
+	 */
+	private Method findMethod(String name, Object[] args) {
+
+		for (Method method : target.getClass().getMethods()) {
+			if (!method.getName().equals(name) || method.getParameterCount() != args.length) {
+				continue;
+			}
+			Class<?>[] types = method.getParameterTypes();
+			Object[] converted = new Object[args.length];
+			boolean matches = true;
+			for (int i = 0; i < args.length && matches; i++) {
+				converted[i] = convert(types[i], args[i]);
+				matches = converted[i] != NO_MATCH;
+			}
+			if (matches) {
+				System.arraycopy(converted, 0, args, 0, args.length);
+				return method;
+			}
+		}
+
+		throw new IllegalArgumentException("No method " + name + " with " + args.length +
+			" matching argument(s) in " + target.getClass().getName());
+	}
+
+
+	@Override
+	public Object getMember(String key) {
+		return (ProxyExecutable)args -> invoke(key, args);
+	}
+
+
+	@Override
+	public Object getMemberKeys() {
+		Set<String> names = new TreeSet<>();
+		for (Method method : target.getClass().getMethods()) {
+			names.add(method.getName());
+		}
+		return ProxyArray.fromArray(names.toArray());
+	}
+
+
+	@Override
+	public boolean hasMember(String key) {
+		for (Method method : target.getClass().getMethods()) {
+			if (method.getName().equals(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Calls a method of the wrapped object on the EDT, and waits for it to
+	 * complete.  This is called on the worker thread evaluating the script.
+	 *
+	 * @param name The name of the method.
+	 * @param scriptArgs The arguments from the script.
+	 * @return The method's return value, wrapped if necessary.
+	 */
+	private Object invoke(String name, Value[] scriptArgs) {
+
+		Object[] args = new Object[scriptArgs.length];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = toJava(scriptArgs[i]);
+		}
+
+		try {
+			Object result = new EdtInvoker().call(() -> {
+				Method method = findMethod(name, args);
+				method.trySetAccessible(); // e.g. declared in a private class
+				try {
+					return method.invoke(target, args);
+				} catch (InvocationTargetException ite) {
+					Throwable cause = ite.getCause();
+					if (cause instanceof Exception) {
+						throw (Exception)cause;
+					}
+					throw (Error)cause;
+				}
+			});
+			return wrap(result);
+		} catch (RuntimeException re) {
+			throw re;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+
+	/**
+	 * Fields of the wrapped object can't be set.
+	 *
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void putMember(String key, Value value) {
+		throw new UnsupportedOperationException("Can't set " + key + " in " +
+			target.getClass().getName());
+	}
+
+
+	/**
+	 * Converts a script value passed to a method into a Java object.
+	 *
+	 * @param value The value.
+	 * @return The Java object.
+	 */
+	private static Object toJava(Value value) {
+		if (value.isNull()) {
+			return null;
+		}
+		else if (value.isProxyObject() && value.asProxyObject() instanceof EdtProxy proxy) {
+			return proxy.target;
+		}
+		else if (value.isHostObject()) {
+			return value.asHostObject();
+		}
+		else if (value.isNumber()) {
+			if (value.fitsInInt()) {
+				return value.asInt();
+			}
+			return value.fitsInLong() ? value.asLong() : value.asDouble();
+		}
+		return value.as(Object.class);
+	}
+
+
+	@Override
+	public String toString() {
+		try {
+			return String.valueOf(new EdtInvoker().call(target::toString));
+		} catch (Exception e) {
+			return target.getClass().getName();
+		}
+	}
+
+
+	/**
+	 * Wraps an object so its methods run on the EDT.  Strings, numbers,
+	 * booleans and arrays are returned as-is.
+	 *
+	 * @param value The object to wrap.  This may be <code>null</code>.
+	 * @return The object to pass to the script.
+	 */
+	static Object wrap(Object value) {
+		if (value == null || value instanceof String || value instanceof Number ||
+				value instanceof Boolean || value instanceof Character ||
+				value.getClass().isArray()) {
+			return value;
+		}
+		return new EdtProxy(value);
+	}
+
+
+}
@@ -12,7 +12,9 @@ package org.fife.rtext.plugins.console;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import javax.swing.SwingUtilities;
 
+import org.fife.rtext.GraalJavaScript;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.PolyglotException;
@@ -29,14 +31,11 @@ import org.graalvm.polyglot.Value;
 class JavaScriptShellTextArea extends ConsoleTextArea {
 
 	/**
-	 * Cached script bindings.
+	 * The GraalVM JavaScript context.  This is only used on the worker
+	 * thread evaluating code, but is closed on another thread if the code
+	 * is cancelled.
 	 */
-	private Value bindings;
-
-	/**
-	 * The GraalVM JavaScript context.
-	 */
-	private Context context;
+	private volatile Context context;
 
 	private ConsoleOutputStream stdout;
 
@@ -45,7 +44,12 @@ class JavaScriptShellTextArea extends ConsoleTextArea {
 	/**
 	 * Whether this engine has been initialized.
 	 */
-	private boolean initialized;
+	private volatile boolean initialized;
+
+	/**
+	 * The identifier of the JavaScript engine's warm-up task.
+	 */
+	static final String WARM_UP_TASK = "jsConsole";
 
 
 	/**
@@ -77,66 +81,72 @@ class JavaScriptShellTextArea extends ConsoleTextArea {
 
 
 	/**
-	 * Submits the entered JavaScript code.
+	 * Submits the entered JavaScript code.  It's evaluated on a worker
+	 * thread.
 	 */
 	@Override
 	protected void handleSubmit(String text) {
-		handleSubmitImpl(text, true);
+		// Grab these here since the code isn't evaluated on the EDT
+		Object rtext = plugin.getApplication();
+		Object textArea = plugin.getApplication().getMainView().getCurrentTextArea();
+		evaluate(() -> handleSubmitImpl(text, rtext, textArea));
 	}
 
 
 	/**
-	 * Submits the entered JavaScript code.
+	 * Evaluates the entered JavaScript code.  This is called on the worker
+	 * thread.
 	 *
 	 * @param code The text to submit.
-	 * @param appendPrompt Whether another prompt should be added to the text
-	 *        area after the command completes.
+	 * @param rtext The value of the <code>rtext</code> variable.
+	 * @param textArea The value of the <code>textArea</code> variable.
 	 */
-	private void handleSubmitImpl(String code, boolean appendPrompt) {
+	private void handleSubmitImpl(String code, Object rtext, Object textArea) {
 
 		try {
 			possiblyInitialize();
 		} catch (Throwable t) {
 			// Shouldn't happen, but Graal uses e.g. sun.misc.unsafe, so we need all the info we can
 			// get to debug issues with new JRE versions, etc.
-			plugin.getApplication().displayException(t);
+			SwingUtilities.invokeLater(() -> plugin.getApplication().displayException(t));
 		}
 
 		// Failed to initialize
+		Context context = this.context;
 		if (context == null) {
-			if (appendPrompt) {
-				append(plugin.getString("Error.NotInitialized"), STYLE_STDERR);
-				appendPrompt();
-			}
+			append(plugin.getString("Error.NotInitialized"), STYLE_STDERR);
 			return;
 		}
 
 		try {
 
 			// We always reset the value of "rtext" and "textArea", but
-			// all other variables they've modified are persistent.
-			bindings.putMember("rtext", plugin.getApplication());
-			bindings.putMember("textArea", plugin.getApplication().getMainView().getCurrentTextArea());
+			// all other variables they've modified are persistent.  These
+			// run their methods on the EDT, since we're not on it.
+			Value bindings = context.getBindings("js");
+			bindings.putMember("rtext", EdtProxy.wrap(rtext));
+			bindings.putMember("textArea", EdtProxy.wrap(textArea));
 
-			Value obj = context.eval("js", code);
+			Value obj = context.eval(GraalJavaScript.getSource("console", code));
 			stdout.flush();
 			stderr.flush();
 
 			if (obj != null) {
-				String str = obj.toString();
+				String str = obj.isProxyObject() ? obj.asProxyObject().toString() :
+					obj.toString();
 				append(str, STYLE_RESULT);
 			}
 
 		} catch (PolyglotException pe) {
-			append(pe.getMessage(), STYLE_STDERR);
+			if (!pe.isCancelled() && !isEvaluationCancelled()) {
+				append(pe.getMessage(), STYLE_STDERR);
+			}
 		} catch (Exception e) {
-			StringWriter sw = new StringWriter();
-			e.printStackTrace(new PrintWriter(sw));
-			append(sw.toString(), STYLE_STDERR);
-		}
-
-		if (appendPrompt) {
-			appendPrompt();
+			if (!isEvaluationCancelled()) {
+				StringWriter sw = new StringWriter();
+				e.printStackTrace(new PrintWriter(sw));
+				append(sw.toString(), STYLE_STDERR);
+			}
 		}
 
 	}
@@ -156,17 +166,54 @@ class JavaScriptShellTextArea extends ConsoleTextArea {
 		stdout = new ConsoleOutputStream(STYLE_STDOUT);
 		stderr = new ConsoleOutputStream(STYLE_STDERR);
 
-		context = Context.newBuilder("js")
-			.allowAllAccess(true)
-			.option("engine.WarnInterpreterOnly", "false")
+		context = GraalJavaScript.newContextBuilder()
 			.out(stdout)
 			.err(stderr)
 			.build();
-		bindings = context.getBindings("js");
 
 	}
 
 
+	/**
+	 * Stops the JavaScript code being evaluated, if any.  Since the only
+	 * way to stop a script stuck in e.g. an infinite loop is to close its
+	 * context, all variables the user has defined are lost.
+	 */
+	@Override
+	void stopCurrentProcess() {
+
+		if (!isProcessRunning()) {
+			return;
+		}
+
+		// The next command creates a new context
+		Context context = this.context;
+		this.context = null;
+		initialized = false;
+
+		cancelEvaluation(plugin.getString("ScriptCancelled.Reset"), () -> {
+			if (context != null) {
+				try {
+					context.close(true);
+				} catch (PolyglotException pe) {
+					// Thrown if the context was cancelled while closing
+				}
+			}
+		});
+
+	}
+
+
+	/**
+	 * Loads and initializes the shared GraalJS engine, so the first console
+	 * command doesn't pay for it.  This is called by the
+	 * {@link org.fife.rtext.WarmUpScheduler} on a background thread.
+	 */
+	static void warmUp() {
+		GraalJavaScript.warmUp();
+	}
+
+
 
 	/**
 	 * Listens for output from the script and prints it to this console.
@@ -25,6 +25,7 @@ import javax.swing.JMenu;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.WarmUpScheduler;
 import org.fife.ui.ImageTranscodingUtil;
 import org.fife.ui.app.*;
 import org.fife.ui.app.console.AbstractConsoleTextArea;
@@ -46,6 +47,7 @@ public class Plugin extends GUIPlugin<RText> {
 	private ConsoleWindow window;
 	private Map<String, Icon> icons;
 	private ConsoleOptionPanel optionPanel;
+	private ConsolePrefs loadedPrefs;
 
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.console.Plugin";
 	static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
@@ -64,30 +66,61 @@ public class Plugin extends GUIPlugin<RText> {
 		loadIcons();
 
 		ConsolePrefs prefs = loadPrefs();
+		loadedPrefs = prefs;
 
 		AppAction<RText> a = new ViewConsoleAction(app, MSG, this);
 		a.setAccelerator(prefs.windowVisibilityAccelerator);
 		app.addAction(VIEW_CONSOLE_ACTION, a);
 
-		// Window MUST always be created for preference saving on shutdown
-		window = new ConsoleWindow(app, this);
-		window.setPosition(prefs.windowPosition);
-		window.setActive(prefs.windowVisible);
-		putDockableWindow(DOCKABLE_WINDOW_CONSOLE, window);
+		// Optionally load the script engines while the user is idle, even if
+		// the window itself is created lazily.  These tasks are off by default.
+		WarmUpScheduler scheduler = WarmUpScheduler.get();
+		scheduler.register(JavaScriptShellTextArea.WARM_UP_TASK, JavaScriptShellTextArea::warmUp);
+		scheduler.register(RubyShellTextArea.WARM_UP_TASK, RubyShellTextArea::warmUp);
+
+		// Only create the window and its consoles when it is first shown.
+		// Preferences are saved from loadedPrefs until then.
+		if (prefs.windowVisible) {
+			window = new ConsoleWindow(app, this);
+			window.setPosition(prefs.windowPosition);
+			window.setActive(prefs.windowVisible);
+			putDockableWindow(DOCKABLE_WINDOW_CONSOLE, window);
+		}
 
 		app.addPropertyChangeListener(AbstractGUIApplication.THEME_PROPERTY, e -> {
-			restoreDefaultColors((AppTheme)e.getNewValue());
+			if (window != null) {
+				restoreDefaultColors((AppTheme)e.getNewValue());
+			}
 		});
 
 	}
 
 
 	/**
-	 * Returns the dockable window containing the consoles.
+	 * Returns the position of the console window.  This works even if the
+	 * window has not yet been created.
+	 *
+	 * @return The position of the window.
+	 * @see #setConsoleWindowPosition(int)
+	 */
+	int getConsoleWindowPosition() {
+		return window != null ? window.getPosition() : loadedPrefs.windowPosition;
+	}
+
+
+	/**
+	 * Returns the dockable window containing the consoles.  If the window
+	 * has not yet been created, it is created but not shown.
 	 *
 	 * @return The dockable window.
 	 */
 	public ConsoleWindow getDockableWindow() {
+		if (window == null) {
+			window = new ConsoleWindow(getApplication(), this);
+			window.setPosition(loadedPrefs.windowPosition);
+			window.setActive(false);
+			getApplication().addDockableWindow(window);
+		}
 		return window;
 	}
 
@@ -164,7 +197,9 @@ public class Plugin extends GUIPlugin<RText> {
 		item.applyComponentOrientation(app.getComponentOrientation());
 		menu.add(item);
 
-		window.clearConsoles(); // Needed to pick up styles
+		if (window != null) {
+			window.clearConsoles(); // Needed to pick up styles
+		}
 
 	}
 
@@ -247,10 +282,10 @@ public class Plugin extends GUIPlugin<RText> {
 	public void savePreferences() {
 
 		ConsolePrefs prefs = new ConsolePrefs();
-		prefs.windowPosition = window.getPosition();
+		prefs.windowPosition = getConsoleWindowPosition();
 		AppAction<?> a = (AppAction<?>)getApplication().getAction(VIEW_CONSOLE_ACTION);
 		prefs.windowVisibilityAccelerator = a.getAccelerator();
-		prefs.windowVisible = window.isActive();
+		prefs.windowVisible = isConsoleWindowVisible();
 
 		File prefsFile = getPrefsFile();
 		try {
@@ -262,6 +297,23 @@ public class Plugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Sets the position of the console window.  If the window has not yet
+	 * been created, the position is used when it is.
+	 *
+	 * @param position The new position.
+	 * @see #getConsoleWindowPosition()
+	 */
+	void setConsoleWindowPosition(int position) {
+		if (window != null) {
+			window.setPosition(position);
+		}
+		else {
+			loadedPrefs.windowPosition = position;
+		}
+	}
+
+
 	/**
 	 * Sets the visibility of the console window.
 	 *
@@ -270,11 +322,7 @@ public class Plugin extends GUIPlugin<RText> {
 	 */
 	void setConsoleWindowVisible(boolean visible) {
 		if (visible!=isConsoleWindowVisible()) {
-			if (visible && window==null) {
-				window = new ConsoleWindow(getApplication(), this);
-				getApplication().addDockableWindow(window);
-			}
-			window.setActive(visible);
+			getDockableWindow().setActive(visible);
 		}
 	}
 
@@ -283,7 +331,9 @@ public class Plugin extends GUIPlugin<RText> {
 	 * Stops the currently running process, if any.
 	 */
 	void stopCurrentProcess() {
-		window.stopCurrentProcess();
+		if (window != null) {
+			window.stopCurrentProcess();
+		}
 	}
 
 
@@ -295,8 +345,12 @@ public class Plugin extends GUIPlugin<RText> {
 
 	@Override
 	public void iconGroupChanged(IconGroup iconGroup) {
-		optionPanel.setIcon(getPluginIcon());
-		window.setIcon(getPluginIcon());
+		if (optionPanel != null) {
+			optionPanel.setIcon(getPluginIcon());
+		}
+		if (window != null) {
+			window.setIcon(getPluginIcon());
+		}
 	}
 
 
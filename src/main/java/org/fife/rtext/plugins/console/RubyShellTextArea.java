@@ -13,6 +13,7 @@ package org.fife.rtext.plugins.console;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 import javax.script.*;
+import javax.swing.SwingUtilities;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -29,28 +30,68 @@ class RubyShellTextArea extends ConsoleTextArea {
 	/**
 	 * Cached script bindings.
 	 */
-	private Bindings bindings;
+	private volatile Bindings bindings;
 
 	/**
-	 * Script Engine for Ruby.
+	 * Script Engine for Ruby.  Code is evaluated on a worker thread, and a
+	 * new worker is used after code is cancelled, so this is shared between
+	 * threads.
 	 */
-	private ScriptEngine rubyEngine;
+	private volatile ScriptEngine rubyEngine;
 
 	/**
 	 * Used for {@code "_"} variable support.
 	 */
-	private Object lastResult;
+	private volatile Object lastResult;
 
 	/**
 	 * Whether this engine has been initialized.
 	 */
-	private boolean initialized;
+	private volatile boolean initialized;
 
 	/**
 	 * The version of Ruby supported by JRuby.
 	 */
 	private String rubyVersion;
 
+	/**
+	 * An engine created ahead of time by {@link #warmUp()}.  Guarded by
+	 * the class lock.
+	 */
+	private static ScriptEngine preparedEngine;
+
+	/**
+	 * The identifier of the Ruby engine's warm-up task.
+	 */
+	static final String WARM_UP_TASK = "rubyConsole";
+
+	/**
+	 * Defines a Ruby class wrapping an object, such as <code>rtext</code> or
+	 * <code>textArea</code>, so that calling its methods runs them on the
+	 * EDT.  Java objects returned by those methods are wrapped too.
+	 */
+	private static final String EDT_PROXY_SOURCE =
+		"class RTextEdtProxy < BasicObject\n" +
+		"  def initialize(target, edt)\n" +
+		"    @target = target\n" +
+		"    @edt = edt\n" +
+		"  end\n" +
+		"  def __rtext_target__\n" +
+		"    @target\n" +
+		"  end\n" +
+		"  def method_missing(name, *args, &block)\n" +
+		"    args = args.map { |a| ::RTextEdtProxy === a ? a.__rtext_target__ : a }\n" +
+		"    result = @edt.call { @target.__send__(name, *args, &block) }\n" +
+		"    ::Java::JavaLang::Object === result ? ::RTextEdtProxy.new(result, @edt) : result\n" +
+		"  end\n" +
+		"  def respond_to_missing?(name, include_private = false)\n" +
+		"    @target.respond_to?(name, include_private)\n" +
+		"  end\n" +
+		"end\n" +
+		"def rtext_edt_proxy(target, edt)\n" +
+		"  target.nil? ? nil : RTextEdtProxy.new(target, edt)\n" +
+		"end";
+
 
 	/**
 	 * Constructor.
@@ -91,48 +132,55 @@ class RubyShellTextArea extends ConsoleTextArea {
 
 
 	/**
-	 * Submits the entered JavaScript code.
+	 * Submits the entered Ruby code.  It's evaluated on a worker thread.
 	 */
 	@Override
 	protected void handleSubmit(String text) {
-		handleSubmitImpl(text, true);
+		// Grab these here since the code isn't evaluated on the EDT
+		Object rtext = plugin.getApplication();
+		Object textArea = plugin.getApplication().getMainView().getCurrentTextArea();
+		evaluate(() -> handleSubmitImpl(text, rtext, textArea));
 	}
 
 
 	/**
-	 * Submits the entered JavaScript code.
+	 * Evaluates the entered Ruby code.  This is called on the worker
+	 * thread.
 	 *
 	 * @param code The text to submit.
-	 * @param appendPrompt Whether another prompt should be added to the text
-	 *        area after the command completes.
+	 * @param rtext The value of the <code>rtext</code> variable.
+	 * @param textArea The value of the <code>textArea</code> variable.
 	 */
-	private void handleSubmitImpl(String code, boolean appendPrompt) {
+	private void handleSubmitImpl(String code, Object rtext, Object textArea) {
 
 		try {
 			possiblyInitialize();
 		} catch (Throwable t) {
 			// Shouldn't happen, but Graal uses e.g. sun.misc.unsafe, so we need all the info we can
 			// get to debug issues with new JRE versions, etc.
-			plugin.getApplication().displayException(t);
+			SwingUtilities.invokeLater(() -> plugin.getApplication().displayException(t));
 		}
 
 		// Failed to initialize
 		if (rubyEngine == null) {
-			if (appendPrompt) {
-				append(plugin.getString("Error.NotInitialized"), STYLE_STDERR);
-				appendPrompt();
-			}
+			append(plugin.getString("Error.NotInitialized"), STYLE_STDERR);
 			return;
 		}
 
 		try {
 
 			// We always reset the value of "rtext" and "textArea", but
-			// all other variables they've modified are persistent.
-			bindings.put("rtext", plugin.getApplication());
-			bindings.put("textArea", plugin.getApplication().getMainView().getCurrentTextArea());
+			// all other variables they've modified are persistent.  These
+			// run their methods on the EDT, since we're not on it.
+			EdtInvoker edt = new EdtInvoker();
+			Invocable invocable = (Invocable)rubyEngine;
+			bindings.put("rtext", invocable.invokeFunction("rtext_edt_proxy", rtext, edt));
+			bindings.put("textArea", invocable.invokeFunction("rtext_edt_proxy", textArea, edt));
+			bindings.put("edt", edt);
 			bindings.put("_", lastResult);
 
+			// Remember the Ruby thread running this code so it can be killed
+			rubyEngine.eval("$rtext_console_thread = Thread.current");
 			lastResult = rubyEngine.eval(code);
 			if (lastResult!=null) {
 				String str = lastResult.toString();
@@ -144,6 +192,9 @@ class RubyShellTextArea extends ConsoleTextArea {
 			}
 
 		} catch (Exception e) {
+			if (isEvaluationCancelled()) {
+				return;
+			}
 			// Peel off wrapper ScriptException
 			if (e instanceof ScriptException) {
 				append(massageScriptException((ScriptException)e), STYLE_STDERR);
@@ -155,10 +206,6 @@ class RubyShellTextArea extends ConsoleTextArea {
 			}
 		}
 
-		if (appendPrompt) {
-			appendPrompt();
-		}
-
 	}
 
 
@@ -200,8 +247,11 @@ class RubyShellTextArea extends ConsoleTextArea {
 		}
 		initialized = true;
 
-		ScriptEngineManager sem = new ScriptEngineManager();
-		rubyEngine = sem.getEngineByName("jruby");
+		rubyEngine = takePreparedEngine();
+		if (rubyEngine == null) {
+			ScriptEngineManager sem = new ScriptEngineManager();
+			rubyEngine = sem.getEngineByName("jruby");
+		}
 		bindings = rubyEngine.createBindings();
 		rubyEngine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
 
@@ -211,8 +261,73 @@ class RubyShellTextArea extends ConsoleTextArea {
 		context.setWriter(new PrintWriter(new OutputWriter(STYLE_STDOUT)));
 		context.setErrorWriter(new PrintWriter(new OutputWriter(STYLE_STDERR)));
 
-		String imports = "require 'java'";
-		handleSubmitImpl(imports, false);
+		try {
+			rubyEngine.eval("require 'java'");
+			rubyEngine.eval(EDT_PROXY_SOURCE);
+		} catch (ScriptException se) {
+			append(massageScriptException(se), STYLE_STDERR);
+		}
+	}
+
+
+	/**
+	 * Stops the Ruby code being evaluated, if any, by killing the Ruby
+	 * thread running it.  Variables the user has defined are kept.
+	 */
+	@Override
+	void stopCurrentProcess() {
+		ScriptEngine engine = rubyEngine;
+		cancelEvaluation(plugin.getString("ScriptCancelled"), engine == null ? null : () -> {
+			try {
+				engine.eval("$rtext_console_thread.kill");
+			} catch (ScriptException se) {
+				// The code completed before it could be killed
+			}
+		});
+	}
+
+
+	/**
+	 * Returns the engine created by {@link #warmUp()}, if any.
+	 *
+	 * @return The engine, or {@code null} if none was created.
+	 */
+	private static synchronized ScriptEngine takePreparedEngine() {
+		ScriptEngine engine = preparedEngine;
+		preparedEngine = null;
+		return engine;
+	}
+
+
+	/**
+	 * Creates the JRuby engine and boots its runtime ahead of time, so
+	 * the first console command doesn't pay for it.  This is called by the
+	 * {@link org.fife.rtext.WarmUpScheduler} on a background thread.
+	 */
+	static void warmUp() {
+
+		synchronized (RubyShellTextArea.class) {
+			if (preparedEngine != null) {
+				return;
+			}
+		}
+
+		ScriptEngine engine = new ScriptEngineManager().getEngineByName("jruby");
+		if (engine == null) {
+			return;
+		}
+		try {
+			engine.eval("nil");
+		} catch (ScriptException se) {
+			se.printStackTrace();
+			return;
+		}
+
+		synchronized (RubyShellTextArea.class) {
+			if (preparedEngine == null) {
+				preparedEngine = engine;
+			}
+		}
 	}
 
 
@@ -28,8 +28,8 @@ import javax.swing.text.Document;
 import javax.swing.text.Element;
 import javax.swing.text.TextAction;
 
-import org.fife.io.ProcessRunner;
 import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.ManagedProcess;
 import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
@@ -45,7 +45,7 @@ class SystemShellTextArea extends ConsoleTextArea {
 	private File pwd;
 	private File prevDir;
 	private final boolean isWindows;
-	private transient Thread activeProcessThread;
+	private transient ManagedProcess activeProcess;
 
 	private static final String CD						= "cd";
 	private static final String CLS						= "cls";
@@ -362,14 +362,11 @@ class SystemShellTextArea extends ConsoleTextArea {
 			final String[] cmd = cmdList.toArray(new String[0]);
 
 			setEditable(false);
-			activeProcessThread = new Thread(() -> {
-				ProcessRunner pr = new ProcessRunner(cmd);
-				pr.setDirectory(pwd);
-				pr.setOutputListener(new ProcessOutputListener());
-				pr.run();
-			});
-			firePropertyChange(PROPERTY_PROCESS_RUNNING, false, true);
-			activeProcessThread.start();
+			activeProcess = new ManagedProcess(cmd);
+			activeProcess.setDirectory(pwd);
+			activeProcess.setOutputListener(new ProcessOutputListener());
+			setProcessRunning(true);
+			activeProcess.start();
 
 		}
 
@@ -384,12 +381,14 @@ class SystemShellTextArea extends ConsoleTextArea {
 
 
 	/**
-	 * Stops the currently running process, if any.
+	 * Stops the currently running process, if any, along with any
+	 * processes it launched.
 	 */
-	public void stopCurrentProcess() {
-		if (activeProcessThread!=null && activeProcessThread.isAlive()) {
-			activeProcessThread.interrupt();
-			activeProcessThread = null;
+	@Override
+	void stopCurrentProcess() {
+		if (activeProcess!=null && activeProcess.isAlive()) {
+			activeProcess.kill();
+			activeProcess = null;
 		}
 	}
 
@@ -541,10 +540,10 @@ class SystemShellTextArea extends ConsoleTextArea {
 					append(text, STYLE_STDERR);
 				}
 				// Not really necessary, should allow GC of Process resources
-				activeProcessThread = null;
+				activeProcess = null;
 				appendPrompt();
 				setEditable(true);
-				firePropertyChange(PROPERTY_PROCESS_RUNNING, true, false);
+				setProcessRunning(false);
 			});
 		}
 
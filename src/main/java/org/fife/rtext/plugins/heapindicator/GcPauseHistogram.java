@@ -0,0 +1,104 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.heapindicator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Counts garbage collection pauses by length.  Pauses are added from the
+ * sampling thread and read on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class GcPauseHistogram {
+
+	private final AtomicLongArray counts;
+
+	/**
+	 * The upper bound of each bucket, in milliseconds.  The last bucket
+	 * holds every pause longer than the last bound.
+	 */
+	private static final double[] BOUNDS = { 1, 5, 20, 50, 200 };
+
+
+	/**
+	 * Constructor.
+	 */
+	GcPauseHistogram() {
+		counts = new AtomicLongArray(BOUNDS.length + 1);
+	}
+
+
+	/**
+	 * Adds a pause.
+	 *
+	 * @param millis The length of the pause, in milliseconds.
+	 */
+	void add(double millis) {
+		int bucket = 0;
+		while (bucket < BOUNDS.length && millis >= BOUNDS[bucket]) {
+			bucket++;
+		}
+		counts.incrementAndGet(bucket);
+	}
+
+
+	/**
+	 * Discards all pauses.
+	 */
+	void clear() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0);
+		}
+	}
+
+
+	/**
+	 * Returns the number of buckets.
+	 *
+	 * @return The number of buckets.
+	 */
+	int getBucketCount() {
+		return counts.length();
+	}
+
+
+	/**
+	 * Returns a label for a bucket, such as "<code>5-20</code>".
+	 *
+	 * @param bucket The bucket.
+	 * @return The label.
+	 */
+	String getBucketLabel(int bucket) {
+		if (bucket == 0) {
+			return "<" + format(BOUNDS[0]);
+		}
+		else if (bucket == BOUNDS.length) {
+			return ">" + format(BOUNDS[BOUNDS.length - 1]);
+		}
+		return format(BOUNDS[bucket - 1]) + "-" + format(BOUNDS[bucket]);
+	}
+
+
+	/**
+	 * Returns the number of pauses in a bucket.
+	 *
+	 * @param bucket The bucket.
+	 * @return The number of pauses.
+	 */
+	long getCount(int bucket) {
+		return counts.get(bucket);
+	}
+
+
+	private static String format(double bound) {
+		return String.valueOf((long)bound);
+	}
+
+
+}
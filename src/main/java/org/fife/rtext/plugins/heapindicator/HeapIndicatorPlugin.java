@@ -22,23 +22,29 @@ import java.util.ResourceBundle;
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JLabel;
+import javax.swing.JMenu;
 import javax.swing.JOptionPane;
 import javax.swing.Timer;
 import javax.swing.ToolTipManager;
 import javax.swing.UIManager;
 
 import org.fife.rtext.RText;
+import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
 import org.fife.ui.ImageTranscodingUtil;
+import org.fife.ui.app.MenuBar;
 import org.fife.ui.app.PluginOptionsDialogPanel;
 import org.fife.ui.app.StatusBarPlugin;
 import org.fife.ui.app.icons.IconGroup;
 import org.fife.ui.app.themes.*;
+import org.fife.ui.dockablewindows.DockableWindow;
 
 
 /**
- * A status bar component displaying the current JVM heap.
+ * A status bar component displaying the current JVM heap.  This plugin also
+ * provides an optional dockable window with more detailed runtime metrics.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -52,12 +58,15 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 	private final ResourceBundle msg;
 	private HeapIndicatorOptionPanel optionPanel;
 	private Map<String, Icon> icons;
+	private MetricsWindow metricsWindow;
+	private int metricsWindowPosition;
 
 	private static Object[] objArray;
 
 	private static final String BUNDLE_NAME		=
 					"org.fife.rtext.plugins.heapindicator.HeapIndicator";
 	private static final String VERSION		= "6.0.1";
+	private static final String VIEW_METRICS_ACTION	= "viewMetricsAction";
 
 
 	/**
@@ -85,6 +94,12 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 
 		ToolTipManager.sharedInstance().registerComponent(this);
 
+		app.addAction(VIEW_METRICS_ACTION, new ViewMetricsAction(app, msg, this));
+		metricsWindowPosition = prefs.metricsWindowPosition;
+		if (prefs.metricsWindowVisible) {
+			toggleMetricsWindowVisible(); // Will create and add the window.
+		}
+
 	}
 
 
@@ -237,7 +252,12 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 
 	@Override
 	public void iconGroupChanged(IconGroup iconGroup) {
-		optionPanel.setIcon(getPluginIcon());
+		if (optionPanel != null) {
+			optionPanel.setIcon(getPluginIcon());
+		}
+		if (metricsWindow != null) {
+			metricsWindow.setIcon(getPluginIcon());
+		}
 	}
 
 
@@ -251,6 +271,19 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 	 */
 	@Override
 	public void install() {
+
+		RText rtext = getApplication();
+
+		JCheckBoxMenuItem item = new JCheckBoxMenuItem(rtext.getAction(VIEW_METRICS_ACTION));
+		item.setToolTipText(null);
+		item.setSelected(isMetricsWindowVisible());
+		item.applyComponentOrientation(rtext.getComponentOrientation());
+
+		@SuppressWarnings("unchecked")
+		MenuBar<RText> mb = (MenuBar<RText>)rtext.getJMenuBar();
+		JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
+		menu.add(item);
+
 	}
 
 
@@ -267,6 +300,17 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 	}
 
 
+	/**
+	 * Returns whether the runtime metrics window is currently visible.
+	 *
+	 * @return Whether the runtime metrics window is visible.
+	 * @see #toggleMetricsWindowVisible()
+	 */
+	boolean isMetricsWindowVisible() {
+		return metricsWindow!=null && metricsWindow.isActive();
+	}
+
+
 	private void loadIcons() {
 
 		icons = new HashMap<>();
@@ -340,6 +384,9 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 		HeapIndicatorPrefs prefs = new HeapIndicatorPrefs();
 		prefs.visible         = isVisible();
 		prefs.refreshInterval = getRefreshInterval();
+		prefs.metricsWindowVisible = isMetricsWindowVisible();
+		prefs.metricsWindowPosition = metricsWindow!=null ?
+				metricsWindow.getPosition() : metricsWindowPosition;
 		File prefsFile = getPrefsFile();
 		try {
 			prefs.save(prefsFile);
@@ -372,6 +419,33 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 	}
 
 
+	/**
+	 * Toggles visibility of the runtime metrics window.  Metrics are only
+	 * sampled while the window is visible.
+	 *
+	 * @see #isMetricsWindowVisible()
+	 */
+	void toggleMetricsWindowVisible() {
+		if (metricsWindow==null) { // First time through
+			metricsWindow = new MetricsWindow(this, getApplication());
+			if (DockableWindow.isValidPosition(metricsWindowPosition)) {
+				metricsWindow.setPosition(metricsWindowPosition);
+			}
+			metricsWindow.setActive(true);
+			getApplication().addDockableWindow(metricsWindow);
+		}
+		else {
+			metricsWindow.setActive(!metricsWindow.isActive());
+		}
+		if (metricsWindow.isActive()) {
+			metricsWindow.startSampling();
+		}
+		else {
+			metricsWindow.stopSampling();
+		}
+	}
+
+
 	/**
 	 * Called just before this <code>Plugin</code> is removed from an
 	 * <code>GUIApplication</code>.  This gives the plugin a chance to clean
@@ -384,6 +458,9 @@ public class HeapIndicatorPlugin extends StatusBarPlugin<RText> {
 	@Override
 	public boolean uninstall() {
 		uninstallTimer();
+		if (metricsWindow != null) {
+			metricsWindow.stopSampling();
+		}
 		return true;
 	}
 
@@ -9,7 +9,12 @@
  */
 package org.fife.rtext.plugins.heapindicator;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.fife.ui.app.prefs.Prefs;
+import org.fife.ui.dockablewindows.DockableWindow;
+import org.fife.ui.dockablewindows.DockableWindowConstants;
 
 
 /**
@@ -23,13 +28,38 @@ public class HeapIndicatorPrefs extends Prefs {
 	public boolean visible;
 	public int refreshInterval;
 
+	/**
+	 * Whether the runtime metrics window is visible.
+	 */
+	public boolean metricsWindowVisible;
+
+	/**
+	 * The location of the runtime metrics window.
+	 */
+	public int metricsWindowPosition;
+
 	private static final boolean DEFAULT_VISIBLE = true;
 	private static final int DEFAULT_REFRESH_INTERVAL = 10000;
 
+
+	/**
+	 * Overridden to validate the metrics window position.
+	 */
+	@Override
+	public void load(InputStream in) throws IOException {
+		super.load(in);
+		if (!DockableWindow.isValidPosition(metricsWindowPosition)) {
+			metricsWindowPosition = DockableWindowConstants.BOTTOM;
+		}
+	}
+
+
 	@Override
 	public void setDefaults() {
 		visible         = DEFAULT_VISIBLE;
 		refreshInterval = DEFAULT_REFRESH_INTERVAL;
+		metricsWindowVisible = false;
+		metricsWindowPosition = DockableWindowConstants.BOTTOM;
 	}
 
 
@@ -0,0 +1,120 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.heapindicator;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+
+/**
+ * A fixed-size ring buffer of {@link MetricsSample}s.  Once full, adding a
+ * sample discards the oldest one.  This class is only accessed on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class MetricsHistory {
+
+	private final MetricsSample[] samples;
+	private int start;
+	private int size;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity The maximum number of samples kept.
+	 */
+	MetricsHistory(int capacity) {
+		samples = new MetricsSample[capacity];
+	}
+
+
+	/**
+	 * Adds a sample, discarding the oldest one if the buffer is full.
+	 *
+	 * @param sample The sample to add.
+	 */
+	void add(MetricsSample sample) {
+		if (size < samples.length) {
+			samples[(start + size++) % samples.length] = sample;
+		}
+		else {
+			samples[start] = sample;
+			start = (start + 1) % samples.length;
+		}
+	}
+
+
+	/**
+	 * Discards all samples.
+	 */
+	void clear() {
+		Arrays.fill(samples, null);
+		start = size = 0;
+	}
+
+
+	/**
+	 * Returns a sample.
+	 *
+	 * @param index The index of the sample, with {@code 0} being the oldest.
+	 * @return The sample.
+	 */
+	MetricsSample get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return samples[(start + index) % samples.length];
+	}
+
+
+	/**
+	 * Returns the maximum number of samples kept.
+	 *
+	 * @return The capacity of this buffer.
+	 */
+	int getCapacity() {
+		return samples.length;
+	}
+
+
+	/**
+	 * Returns the most recent sample.
+	 *
+	 * @return The most recent sample, or {@code null} if there are none.
+	 */
+	MetricsSample getLatest() {
+		return size == 0 ? null : get(size - 1);
+	}
+
+
+	/**
+	 * Returns one metric from every sample, oldest first.
+	 *
+	 * @param metric The metric to extract.
+	 * @return The values.
+	 */
+	double[] getSeries(ToDoubleFunction<MetricsSample> metric) {
+		double[] series = new double[size];
+		for (int i = 0; i < size; i++) {
+			series[i] = metric.applyAsDouble(get(i));
+		}
+		return series;
+	}
+
+
+	/**
+	 * Returns the number of samples in this buffer.
+	 *
+	 * @return The number of samples.
+	 */
+	int size() {
+		return size;
+	}
+
+
+}
@@ -0,0 +1,33 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.heapindicator;
+
+
+/**
+ * A snapshot of RText's runtime metrics.
+ *
+ * @param time When the sample was taken, in milliseconds since the epoch.
+ * @param heapUsed The heap in use, in bytes.
+ * @param heapTotal The heap committed by the JVM, in bytes.
+ * @param allocationRate The allocation rate since the previous sample, in
+ *        bytes per second, or {@code -1} if it is unknown.
+ * @param gcCount The number of collections since the previous sample.
+ * @param gcMillis The time spent collecting since the previous sample, in
+ *        milliseconds.
+ * @param threadCount The number of live threads.
+ * @param daemonThreadCount The number of live daemon threads.
+ * @param documentCount The number of open documents.
+ * @param documentBytes The estimated memory retained by open documents, in
+ *        bytes.
+ * @param edtLatencyMillis How long an event posted to the EDT waited before
+ *        it ran, in milliseconds.
+ */
+record MetricsSample(long time, long heapUsed, long heapTotal,
+					double allocationRate, long gcCount, long gcMillis,
+					int threadCount, int daemonThreadCount,
+					int documentCount, long documentBytes,
+					long edtLatencyMillis) {
+}
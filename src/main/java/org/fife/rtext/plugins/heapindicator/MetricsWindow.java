@@ -0,0 +1,329 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.heapindicator;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.GridLayout;
+import java.awt.Insets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.UIManager;
+import javax.swing.table.AbstractTableModel;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.dockablewindows.DockableWindow;
+import org.fife.ui.dockablewindows.DockableWindowScrollPane;
+
+
+/**
+ * A dockable window displaying live runtime metrics: heap, allocation rate,
+ * garbage collection, threads, open documents and EDT latency.  Each metric
+ * has a sparkline of its recent history, so slowdowns can be correlated
+ * with what the user was doing at the time.  Metrics are only sampled while
+ * this window is active.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class MetricsWindow extends DockableWindow {
+
+	private final RText rtext;
+	private final ResourceBundle msg;
+	private final MetricsHistory history;
+	private final GcPauseHistogram histogram;
+	private final RuntimeMetricsSampler sampler;
+	private final List<Row> rows;
+	private final HistogramComponent histogramComponent;
+	private final DocumentTableModel documentModel;
+
+	/**
+	 * The number of samples kept, i.e. five minutes' worth.
+	 */
+	private static final int HISTORY_SIZE = 300;
+
+
+	MetricsWindow(HeapIndicatorPlugin plugin, RText rtext) {
+
+		this.rtext = rtext;
+		msg = plugin.getBundle();
+		history = new MetricsHistory(HISTORY_SIZE);
+		histogram = new GcPauseHistogram();
+		sampler = new RuntimeMetricsSampler(rtext, history, histogram, this::refresh);
+		rows = new ArrayList<>();
+
+		JPanel metricsPanel = new JPanel(new GridBagLayout());
+		metricsPanel.setBorder(UIUtil.getEmpty5Border());
+		addRow(metricsPanel, "Metrics.Heap", MetricsSample::heapUsed,
+			s -> MessageFormat.format(msg.getString("Metrics.Heap.Value"),
+				formatBytes(s.heapUsed()), formatBytes(s.heapTotal())));
+		addRow(metricsPanel, "Metrics.Allocation", MetricsSample::allocationRate,
+			s -> s.allocationRate() < 0 ? msg.getString("Metrics.Unknown") :
+				MessageFormat.format(msg.getString("Metrics.Allocation.Value"),
+					formatBytes((long)s.allocationRate())));
+		addRow(metricsPanel, "Metrics.GC", MetricsSample::gcMillis,
+			s -> MessageFormat.format(msg.getString("Metrics.GC.Value"),
+				String.valueOf(s.gcMillis()), String.valueOf(s.gcCount())));
+		addRow(metricsPanel, "Metrics.Threads", MetricsSample::threadCount,
+			s -> MessageFormat.format(msg.getString("Metrics.Threads.Value"),
+				String.valueOf(s.threadCount()), String.valueOf(s.daemonThreadCount())));
+		addRow(metricsPanel, "Metrics.Documents", MetricsSample::documentBytes,
+			s -> MessageFormat.format(msg.getString("Metrics.Documents.Value"),
+				String.valueOf(s.documentCount()), formatBytes(s.documentBytes())));
+		addRow(metricsPanel, "Metrics.EdtLatency", MetricsSample::edtLatencyMillis,
+			s -> MessageFormat.format(msg.getString("Metrics.EdtLatency.Value"),
+				String.valueOf(s.edtLatencyMillis())));
+
+		histogramComponent = new HistogramComponent();
+		histogramComponent.setBorder(BorderFactory.createTitledBorder(
+			msg.getString("Metrics.GcPauses")));
+
+		documentModel = new DocumentTableModel();
+		JTable documentTable = new JTable(documentModel);
+		documentTable.setFillsViewportHeight(true);
+		UIUtil.fixJTableRendererOrientations(documentTable);
+		UIUtil.possiblyFixGridColor(documentTable);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(documentTable);
+		RScrollPane sp = new DockableWindowScrollPane(documentTable);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
+
+		JPanel detailsPanel = new JPanel(new GridLayout(1, 2, 5, 5));
+		detailsPanel.setBorder(UIUtil.getEmpty5Border());
+		detailsPanel.add(histogramComponent);
+		detailsPanel.add(sp);
+
+		JButton clearButton = new JButton(msg.getString("Metrics.Clear"));
+		clearButton.addActionListener(e -> clear());
+		JPanel buttonPanel = new JPanel(new BorderLayout());
+		buttonPanel.setBorder(UIUtil.getEmpty5Border());
+		buttonPanel.add(clearButton, BorderLayout.LINE_END);
+
+		setLayout(new BorderLayout());
+		add(metricsPanel, BorderLayout.LINE_START);
+		add(detailsPanel);
+		add(buttonPanel, BorderLayout.SOUTH);
+		setPrimaryComponent(documentTable);
+
+		// active and position are set by caller, from HeapIndicatorPrefs
+		setDockableWindowName(msg.getString("Metrics.Title"));
+		setIcon(plugin.getPluginIcon());
+
+		applyComponentOrientation(rtext.getComponentOrientation());
+
+	}
+
+
+	private void addRow(JPanel panel, String key,
+			ToDoubleFunction<MetricsSample> metric, Function<MetricsSample, String> formatter) {
+
+		Row row = new Row(metric, formatter);
+		rows.add(row);
+
+		GridBagConstraints c = new GridBagConstraints();
+		c.gridy = rows.size() - 1;
+		c.anchor = GridBagConstraints.LINE_START;
+		c.insets = new Insets(0, 0, 3, 8);
+		panel.add(new JLabel(msg.getString(key)), c);
+		c.gridx = 1;
+		panel.add(row.valueLabel, c);
+		c.gridx = 2;
+		c.insets = new Insets(0, 0, 3, 0);
+		panel.add(row.sparkline, c);
+	}
+
+
+	/**
+	 * Discards the recorded history.
+	 */
+	private void clear() {
+		history.clear();
+		histogram.clear();
+		refresh();
+	}
+
+
+	/**
+	 * Returns a human-readable version of a number of bytes.
+	 *
+	 * @param bytes The number of bytes.
+	 * @return The human-readable string.
+	 */
+	private static String formatBytes(long bytes) {
+		if (bytes < 1024) {
+			return bytes + " B";
+		}
+		else if (bytes < 1024 * 1024) {
+			return String.format("%.1f KB", bytes / 1024.0);
+		}
+		return String.format("%.1f MB", bytes / (1024.0 * 1024));
+	}
+
+
+	/**
+	 * Updates the displayed metrics from the history.  This is called on the
+	 * EDT after each sample.
+	 */
+	private void refresh() {
+
+		MetricsSample latest = history.getLatest();
+		for (Row row : rows) {
+			row.valueLabel.setText(latest == null ? "" : row.formatter.apply(latest));
+			row.sparkline.setValues(history.getSeries(row.metric));
+		}
+		histogramComponent.repaint();
+		documentModel.refresh();
+	}
+
+
+	/**
+	 * Starts sampling metrics.  This should be called when this window is
+	 * made active.
+	 *
+	 * @see #stopSampling()
+	 */
+	void startSampling() {
+		sampler.start();
+	}
+
+
+	/**
+	 * Stops sampling metrics.  This should be called when this window is
+	 * made inactive.
+	 *
+	 * @see #startSampling()
+	 */
+	void stopSampling() {
+		sampler.stop();
+	}
+
+
+	/**
+	 * The model for the table of open documents and their estimated sizes.
+	 */
+	private final class DocumentTableModel extends AbstractTableModel {
+
+		private final List<RTextEditorPane> textAreas = new ArrayList<>();
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			return column == 1 ? Long.class : String.class;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return 2;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return msg.getString(column == 0 ? "Metrics.Document" : "Metrics.EstimatedSize");
+		}
+
+		@Override
+		public int getRowCount() {
+			return textAreas.size();
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			RTextEditorPane textArea = textAreas.get(row);
+			return column == 0 ? textArea.getFileName() :
+				RuntimeMetricsSampler.estimateRetainedBytes(textArea);
+		}
+
+		void refresh() {
+			textAreas.clear();
+			AbstractMainView view = rtext.getMainView();
+			for (int i = 0; i < view.getNumDocuments(); i++) {
+				textAreas.add(view.getRTextEditorPaneAt(i));
+			}
+			fireTableDataChanged();
+		}
+
+	}
+
+
+	/**
+	 * Draws the garbage collection pause histogram as a bar chart.
+	 */
+	private final class HistogramComponent extends JComponent {
+
+		@Override
+		public Dimension getPreferredSize() {
+			return new Dimension(200, 120);
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+
+			super.paintComponent(g);
+			Insets insets = getInsets();
+			int bucketCount = histogram.getBucketCount();
+			int w = getWidth() - insets.left - insets.right;
+			int fontHeight = g.getFontMetrics().getHeight();
+			int h = getHeight() - insets.top - insets.bottom - 2 * fontHeight;
+			int barWidth = w / bucketCount;
+
+			long max = 1;
+			for (int i = 0; i < bucketCount; i++) {
+				max = Math.max(max, histogram.getCount(i));
+			}
+
+			for (int i = 0; i < bucketCount; i++) {
+				long count = histogram.getCount(i);
+				int x = insets.left + i * barWidth;
+				int barHeight = (int)(h * count / max);
+				int y = insets.top + fontHeight + h - barHeight;
+				g.setColor(UIManager.getColor("ProgressBar.foreground"));
+				g.fillRect(x + 2, y, barWidth - 4, barHeight);
+				g.setColor(getForeground());
+				g.drawString(String.valueOf(count), x + 2, y - 2);
+				g.drawString(histogram.getBucketLabel(i), x + 2,
+					insets.top + fontHeight + h + fontHeight - 2);
+			}
+		}
+
+	}
+
+
+	/**
+	 * A metric's displayed value and sparkline.
+	 */
+	private static final class Row {
+
+		private final ToDoubleFunction<MetricsSample> metric;
+		private final Function<MetricsSample, String> formatter;
+		private final JLabel valueLabel;
+		private final Sparkline sparkline;
+
+		private Row(ToDoubleFunction<MetricsSample> metric, Function<MetricsSample, String> formatter) {
+			this.metric = metric;
+			this.formatter = formatter;
+			valueLabel = new JLabel();
+			sparkline = new Sparkline(HISTORY_SIZE);
+		}
+
+	}
+
+
+}
@@ -0,0 +1,279 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.heapindicator;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+
+import jdk.jfr.consumer.RecordingStream;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+
+
+/**
+ * Periodically samples RText's runtime metrics into a {@link MetricsHistory}.
+ * JVM-wide metrics are read from the platform MXBeans on a background
+ * thread; a probe is then posted to the EDT, which measures how long it
+ * waited in the event queue and reads the open documents.<p>
+ *
+ * Garbage collection pauses and allocation are read by streaming the
+ * <code>jdk.GarbageCollection</code> and <code>jdk.GCHeapSummary</code>
+ * flight recorder events.  If flight recorder streaming is unavailable,
+ * pauses are approximated from the garbage collector MXBeans, and the
+ * allocation rate is reported as unknown.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class RuntimeMetricsSampler {
+
+	private final RText rtext;
+	private final MetricsHistory history;
+	private final GcPauseHistogram histogram;
+	private final Runnable listener;
+	private final AtomicBoolean probePending;
+	private final AtomicLong reclaimedBytes;
+	private ScheduledExecutorService executor;
+	private volatile RecordingStream jfrStream;
+
+	private long lastGcCount;
+	private long lastGcMillis;
+	private long lastHeapUsed;
+	private long lastReclaimedBytes;
+	private long lastSampleNanos;
+
+	/**
+	 * How often metrics are sampled, in milliseconds.
+	 */
+	static final int SAMPLE_INTERVAL_MILLIS = 1000;
+
+	/**
+	 * The rough per-line overhead of a document, in bytes: its line
+	 * element, plus cached tokens and view information.
+	 */
+	private static final int LINE_OVERHEAD_BYTES = 64;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 * @param history The history to add samples to.
+	 * @param histogram The histogram to add garbage collection pauses to.
+	 * @param listener Called on the EDT after each sample is added.
+	 */
+	RuntimeMetricsSampler(RText rtext, MetricsHistory history,
+			GcPauseHistogram histogram, Runnable listener) {
+		this.rtext = rtext;
+		this.history = history;
+		this.histogram = histogram;
+		this.listener = listener;
+		probePending = new AtomicBoolean();
+		reclaimedBytes = new AtomicLong();
+	}
+
+
+	/**
+	 * Returns the estimated memory retained by a document.  This counts the
+	 * document's characters plus a fixed overhead per line, and so is only a
+	 * rough guide for comparing documents.  For an evicted document, this is
+	 * the size of its compressed content.
+	 *
+	 * @param textArea The text area containing the document.
+	 * @return The estimated size, in bytes.
+	 */
+	static long estimateRetainedBytes(RTextEditorPane textArea) {
+		if (textArea.isEvicted()) {
+			return textArea.getEvictedContentSize();
+		}
+		return textArea.getDocument().getLength() * 2L +
+			(long)textArea.getLineCount() * LINE_OVERHEAD_BYTES;
+	}
+
+
+	/**
+	 * Returns whether sampling is in progress.
+	 *
+	 * @return Whether sampling is in progress.
+	 */
+	synchronized boolean isRunning() {
+		return executor != null;
+	}
+
+
+	/**
+	 * Called on the EDT when a probe posted by {@link #sample()} runs.
+	 */
+	private void probeRan(long postedNanos, long heapUsed, long heapTotal,
+			double allocationRate, long gcCount, long gcMillis,
+			int threadCount, int daemonThreadCount) {
+
+		probePending.set(false);
+		long latencyMillis = (System.nanoTime() - postedNanos) / 1_000_000;
+
+		AbstractMainView view = rtext.getMainView();
+		int documentCount = view.getNumDocuments();
+		long documentBytes = 0;
+		for (int i = 0; i < documentCount; i++) {
+			documentBytes += estimateRetainedBytes(view.getRTextEditorPaneAt(i));
+		}
+
+		history.add(new MetricsSample(System.currentTimeMillis(), heapUsed,
+			heapTotal, allocationRate, gcCount, gcMillis, threadCount,
+			daemonThreadCount, documentCount, documentBytes, latencyMillis));
+		listener.run();
+	}
+
+
+	/**
+	 * Samples the JVM-wide metrics and posts a probe to the EDT.  This is
+	 * called on the sampling thread.
+	 */
+	private void sample() {
+
+		// If the EDT hasn't run the last probe yet, the latency it reports
+		// will cover this interval too
+		if (!probePending.compareAndSet(false, true)) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		Runtime runtime = Runtime.getRuntime();
+		long heapTotal = runtime.totalMemory();
+		long heapUsed = heapTotal - runtime.freeMemory();
+
+		long gcCount = 0;
+		long gcMillis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gcCount += Math.max(0, gc.getCollectionCount());
+			gcMillis += Math.max(0, gc.getCollectionTime());
+		}
+		long gcCountDelta = gcCount - lastGcCount;
+		long gcMillisDelta = gcMillis - lastGcMillis;
+
+		// Allocated = growth in the heap + whatever collections freed
+		double allocationRate = -1;
+		long reclaimed = reclaimedBytes.get();
+		if (jfrStream != null && lastSampleNanos != 0) {
+			long allocated = heapUsed - lastHeapUsed + reclaimed - lastReclaimedBytes;
+			allocationRate = Math.max(0, allocated) * 1_000_000_000.0 / (now - lastSampleNanos);
+		}
+		else if (jfrStream == null && gcCountDelta > 0) {
+			histogram.add((double)gcMillisDelta / gcCountDelta);
+		}
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		int threadCount = threads.getThreadCount();
+		int daemonThreadCount = threads.getDaemonThreadCount();
+
+		boolean first = lastSampleNanos == 0;
+		lastGcCount = gcCount;
+		lastGcMillis = gcMillis;
+		lastHeapUsed = heapUsed;
+		lastReclaimedBytes = reclaimed;
+		lastSampleNanos = now;
+		if (first) { // Deltas are meaningless until we have a baseline
+			probePending.set(false);
+			return;
+		}
+
+		final double rate = allocationRate;
+		SwingUtilities.invokeLater(() -> probeRan(now, heapUsed, heapTotal, rate,
+			gcCountDelta, gcMillisDelta, threadCount, daemonThreadCount));
+	}
+
+
+	/**
+	 * Starts sampling.  This method does nothing if sampling is already in
+	 * progress.
+	 *
+	 * @see #stop()
+	 */
+	synchronized void start() {
+
+		if (executor != null) {
+			return;
+		}
+
+		lastSampleNanos = 0;
+		probePending.set(false);
+		startJfrStream();
+
+		executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "RText Metrics Sampler");
+			t.setDaemon(true);
+			return t;
+		});
+		executor.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MILLIS,
+			TimeUnit.MILLISECONDS);
+	}
+
+
+	/**
+	 * Starts streaming garbage collection events from the flight recorder.
+	 * If this fails, the sampler falls back to the MXBeans.
+	 */
+	private void startJfrStream() {
+
+		Map<Integer, Long> usedBeforeGc = new HashMap<>();
+
+		try {
+			RecordingStream stream = new RecordingStream();
+			stream.enable("jdk.GarbageCollection");
+			stream.enable("jdk.GCHeapSummary");
+			stream.onEvent("jdk.GarbageCollection", e ->
+				histogram.add(e.getDuration("longestPause").toNanos() / 1_000_000.0));
+			stream.onEvent("jdk.GCHeapSummary", e -> {
+				int gcId = e.getInt("gcId");
+				long used = e.getLong("heapUsed");
+				if ("Before GC".equals(e.getString("when"))) {
+					usedBeforeGc.put(gcId, used);
+				}
+				else {
+					Long before = usedBeforeGc.remove(gcId);
+					if (before != null && before > used) {
+						reclaimedBytes.addAndGet(before - used);
+					}
+				}
+			});
+			stream.startAsync();
+			jfrStream = stream;
+		} catch (IllegalStateException | SecurityException e) { // JFR not available
+			e.printStackTrace();
+			jfrStream = null;
+		}
+	}
+
+
+	/**
+	 * Stops sampling.
+	 *
+	 * @see #start()
+	 */
+	synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		if (jfrStream != null) {
+			jfrStream.close();
+			jfrStream = null;
+		}
+	}
+
+
+}
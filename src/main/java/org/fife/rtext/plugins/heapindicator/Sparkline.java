@@ -0,0 +1,119 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.heapindicator;
+
+import java.awt.BasicStroke;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import javax.swing.JComponent;
+import javax.swing.UIManager;
+
+
+/**
+ * A small line chart of one metric's recent history.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class Sparkline extends JComponent {
+
+	private double[] values;
+	private final int capacity;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity The maximum number of values displayed.  Fewer values
+	 *        are drawn right-aligned, so time flows at the same rate as
+	 *        the history fills.
+	 */
+	Sparkline(int capacity) {
+		this.capacity = capacity;
+		values = new double[0];
+		setForeground(UIManager.getColor("ProgressBar.foreground"));
+	}
+
+
+	@Override
+	public Dimension getPreferredSize() {
+		Dimension size = super.getPreferredSize();
+		if (!isPreferredSizeSet()) {
+			size = new Dimension(150, 20);
+		}
+		return size;
+	}
+
+
+	@Override
+	protected void paintComponent(Graphics g) {
+
+		super.paintComponent(g);
+		if (values.length < 2) {
+			return;
+		}
+
+		Insets insets = getInsets();
+		int w = getWidth() - insets.left - insets.right;
+		int h = getHeight() - insets.top - insets.bottom - 2;
+		double max = 0;
+		for (double value : values) {
+			max = Math.max(max, value);
+		}
+		if (max == 0) {
+			max = 1;
+		}
+
+		Path2D.Double path = new Path2D.Double();
+		double dx = (double)w / (capacity - 1);
+		double x = insets.left + w - dx * (values.length - 1);
+		for (int i = 0; i < values.length; i++) {
+			double y = insets.top + 1 + h - h * Math.max(0, values[i]) / max;
+			if (i == 0) {
+				path.moveTo(x, y);
+			}
+			else {
+				path.lineTo(x, y);
+			}
+			x += dx;
+		}
+
+		Graphics2D g2d = (Graphics2D)g.create();
+		try {
+			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+				RenderingHints.VALUE_ANTIALIAS_ON);
+			g2d.setStroke(new BasicStroke(1.2f));
+			g2d.setColor(getForeground());
+			g2d.draw(path);
+		} finally {
+			g2d.dispose();
+		}
+	}
+
+
+	/**
+	 * Sets the values to display.
+	 *
+	 * @param values The values, oldest first.
+	 */
+	void setValues(double[] values) {
+		this.values = values;
+		repaint();
+	}
+
+
+	@Override
+	public void updateUI() {
+		super.updateUI();
+		setForeground(UIManager.getColor("ProgressBar.foreground"));
+	}
+
+
+}
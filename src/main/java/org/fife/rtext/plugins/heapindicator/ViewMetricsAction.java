@@ -0,0 +1,54 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.heapindicator;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Toggles the display of the "Runtime Metrics" dockable window.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ViewMetricsAction extends AppAction<RText> {
+
+	/**
+	 * The heap indicator plugin.
+	 */
+	private final HeapIndicatorPlugin plugin;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param plugin The heap indicator plugin.
+	 */
+	ViewMetricsAction(RText owner, ResourceBundle msg,
+							HeapIndicatorPlugin plugin) {
+		super(owner, msg, "ViewMetricsAction");
+		this.plugin = plugin;
+	}
+
+
+	/**
+	 * Called when this action is performed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		plugin.toggleMetricsWindowVisible();
+	}
+
+
+}
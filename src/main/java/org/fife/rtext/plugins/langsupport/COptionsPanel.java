@@ -54,10 +54,6 @@ class COptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.C.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/c"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/c"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
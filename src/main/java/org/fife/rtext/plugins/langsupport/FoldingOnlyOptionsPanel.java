@@ -42,47 +42,23 @@ class FoldingOnlyOptionsPanel extends OptionsDialogPanel {
 	 * Constructor.
 	 */
 	FoldingOnlyOptionsPanel(RText app, String language) {
-		this(app, language, true);
+		this(app, DEFAULT_PANEL_NAME, language);
 	}
 
 
 	/**
-	 * Constructor.
-	 */
-	FoldingOnlyOptionsPanel(RText app, String language, boolean showIcon) {
-		this(app, DEFAULT_PANEL_NAME, language, showIcon);
-	}
-
-
-	/**
-	 * Constructor.
+	 * Constructor.  The panel's icon is set by the lazy placeholder that
+	 * creates it.
+	 *
+	 * @see OptionsPanel
 	 */
 	FoldingOnlyOptionsPanel(RText app, String nameKey, String language) {
-		this(app, nameKey, language, true);
-	}
-
-
-	/**
-	 * Constructor.
-	 */
-	FoldingOnlyOptionsPanel(RText app, String nameKey, String language, boolean showIcon) {
 
 		this.language = language;
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString(nameKey));
 		listener = new Listener();
 
-		// Load the proper icon, and listen for theme changes to update the icon
-		// accordingly.
-		if (showIcon) {
-			String langName = language.substring(language.lastIndexOf('/') + 1);
-			String image = "fileTypes/" + langName;
-			setIcon(app.getIconGroup().getIcon(image));
-			app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-				setIcon(app.getIconGroup().getIcon(image));
-			});
-		}
-
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
 
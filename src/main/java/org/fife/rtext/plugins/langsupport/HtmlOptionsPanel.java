@@ -68,10 +68,6 @@ class HtmlOptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.Html.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/html"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/html"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
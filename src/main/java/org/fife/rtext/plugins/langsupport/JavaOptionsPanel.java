@@ -89,10 +89,6 @@ class JavaOptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.Java.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/java"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/java"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
@@ -119,7 +115,7 @@ class JavaOptionsPanel extends OptionsDialogPanel {
 		applyComponentOrientation(o);
 
 		addChildPanel(new FoldingOnlyOptionsPanel(app,
-							SyntaxConstants.SYNTAX_STYLE_JAVA, false));
+							SyntaxConstants.SYNTAX_STYLE_JAVA));
 
 	}
 
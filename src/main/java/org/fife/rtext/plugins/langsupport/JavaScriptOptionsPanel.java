@@ -82,10 +82,6 @@ class JavaScriptOptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.JavaScript.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/javascript"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/javascript"));
-		});
 
 		setLayout(new BorderLayout());
 		setBorder(UIUtil.getEmpty5Border());
@@ -114,7 +110,7 @@ class JavaScriptOptionsPanel extends OptionsDialogPanel {
 		applyComponentOrientation(o);
 
 		addChildPanel(new FoldingOnlyOptionsPanel(app,
-						SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT, false));
+						SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT));
 
 	}
 
@@ -54,10 +54,6 @@ class JspOptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.Jsp.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/jsp"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/jsp"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
@@ -129,6 +129,7 @@ public class LangSupportPreferences extends Prefs {
 	public int ts_build_output_window_position;
 	public KeyStroke ts_build_accelerator;
 	public KeyStroke ts_build_window_visible_accelerator;
+	public boolean ts_build_watch_mode;
 
 	public boolean xml_folding_enabled;
 	public boolean xml_autoCloseTags;
@@ -256,6 +257,7 @@ public class LangSupportPreferences extends Prefs {
 		ctrlShift |= Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
 		ts_build_accelerator = KeyStroke.getKeyStroke(KeyEvent.VK_F6, ctrlShift);
 		ts_build_window_visible_accelerator = null;
+		ts_build_watch_mode = false;
 
 		xml_folding_enabled = true;
 		xml_autoCloseTags = true;
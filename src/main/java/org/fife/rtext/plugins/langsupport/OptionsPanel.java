@@ -18,6 +18,7 @@ import java.awt.event.ActionListener;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.function.Supplier;
 import javax.swing.*;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
@@ -25,11 +26,14 @@ import javax.swing.event.HyperlinkEvent.EventType;
 
 import org.fife.rsta.ac.java.JavaCellRenderer;
 import org.fife.rtext.RText;
+import org.fife.rtext.optionsdialog.LazyOptionsDialogPanel;
+import org.fife.ui.OptionsDialogPanel;
 import org.fife.ui.RColorSwatchesButton;
 import org.fife.ui.SelectableLabel;
 import org.fife.ui.UIUtil;
 import org.fife.ui.app.PluginOptionsDialogPanel;
 import org.fife.ui.autocomplete.CompletionCellRenderer;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 
 /**
@@ -113,34 +117,91 @@ class OptionsPanel extends PluginOptionsDialogPanel<Plugin> {
 
 		applyComponentOrientation(o);
 
-		// Language-specific child panels
-		addChildPanel(new COptionsPanel(app));
-		addChildPanel(new CPlusPlusOptionsPanel(app));
-		addChildPanel(new CSharpOptionsPanel(app));
-		addChildPanel(new CssOptionsPanel(app));
-		addChildPanel(new ClojureOptionsPanel(app));
-		addChildPanel(new DOptionsPanel(app));
-		addChildPanel(new DartOptionsPanel(app));
-		addChildPanel(new GoOptionsPanel(app));
-		addChildPanel(new GroovyOptionsPanel(app));
-		addChildPanel(new HtmlOptionsPanel(app));
-		addChildPanel(new JavaOptionsPanel(app));
-		addChildPanel(new JavaScriptOptionsPanel(app));
-		addChildPanel(new JSHintOptionsPanel(app));
-		addChildPanel(new JsonOptionsPanel(app));
-		addChildPanel(new JspOptionsPanel(app));
-		addChildPanel(new KotlinOptionsPanel(app));
-		addChildPanel(new LatexOptionsPanel(app));
-		addChildPanel(new LessOptionsPanel(app));
-		addChildPanel(new MxmlOptionsPanel(app));
-		addChildPanel(new NsisOptionsPanel(app));
-		addChildPanel(new PerlOptionsPanel(app));
-		addChildPanel(new PhpOptionsPanel(app));
-		addChildPanel(new PythonOptionsPanel(app));
-		addChildPanel(new ScalaOptionsPanel(app));
-		addChildPanel(new ShellOptionsPanel(app));
-		addChildPanel(new TypeScriptOptionsPanel(app));
-		addChildPanel(new XmlOptionsPanel(app));
+		// Language-specific child panels.  These are only created when
+		// they're first displayed.
+		addLazyChildPanel(app, "Options.C.Name", SyntaxConstants.SYNTAX_STYLE_C,
+			() -> new COptionsPanel(app));
+		addLazyChildPanel(app, "Options.CPlusPlus.Name", SyntaxConstants.SYNTAX_STYLE_CPLUSPLUS,
+			() -> new CPlusPlusOptionsPanel(app));
+		addLazyChildPanel(app, "Options.CSharp.Name", SyntaxConstants.SYNTAX_STYLE_CSHARP,
+			() -> new CSharpOptionsPanel(app));
+		addLazyChildPanel(app, "Options.CSS.Name", SyntaxConstants.SYNTAX_STYLE_CSS,
+			() -> new CssOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Clojure.Name", SyntaxConstants.SYNTAX_STYLE_CLOJURE,
+			() -> new ClojureOptionsPanel(app));
+		addLazyChildPanel(app, "Options.D.Name", SyntaxConstants.SYNTAX_STYLE_D,
+			() -> new DOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Dart.Name", SyntaxConstants.SYNTAX_STYLE_DART,
+			() -> new DartOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Go.Name", SyntaxConstants.SYNTAX_STYLE_GO,
+			() -> new GoOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Groovy.Name", SyntaxConstants.SYNTAX_STYLE_GROOVY,
+			() -> new GroovyOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Html.Name", SyntaxConstants.SYNTAX_STYLE_HTML,
+			() -> new HtmlOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Java.Name", SyntaxConstants.SYNTAX_STYLE_JAVA,
+			() -> new JavaOptionsPanel(app));
+		addLazyChildPanel(app, "Options.JavaScript.Name", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT,
+			() -> new JavaScriptOptionsPanel(app));
+		addLazyChildPanel(app, "Options.JSHint.Name", SyntaxConstants.SYNTAX_STYLE_JSON_WITH_COMMENTS,
+			() -> new JSHintOptionsPanel(app));
+		addLazyChildPanel(app, "Options.JSON.Name", SyntaxConstants.SYNTAX_STYLE_JSON,
+			() -> new JsonOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Jsp.Name", SyntaxConstants.SYNTAX_STYLE_JSP,
+			() -> new JspOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Kotlin.Name", SyntaxConstants.SYNTAX_STYLE_KOTLIN,
+			() -> new KotlinOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Latex.Name", SyntaxConstants.SYNTAX_STYLE_LATEX,
+			() -> new LatexOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Less.Name", SyntaxConstants.SYNTAX_STYLE_LESS,
+			() -> new LessOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Mxml.Name", SyntaxConstants.SYNTAX_STYLE_MXML,
+			() -> new MxmlOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Nsis.Name", SyntaxConstants.SYNTAX_STYLE_NSIS,
+			() -> new NsisOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Perl.Name", SyntaxConstants.SYNTAX_STYLE_PERL,
+			() -> new PerlOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Php.Name", SyntaxConstants.SYNTAX_STYLE_PHP,
+			() -> new PhpOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Python.Name", SyntaxConstants.SYNTAX_STYLE_PYTHON,
+			() -> new PythonOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Scala.Name", SyntaxConstants.SYNTAX_STYLE_SCALA,
+			() -> new ScalaOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Sh.Name", SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL,
+			() -> new ShellOptionsPanel(app));
+		addLazyChildPanel(app, "Options.TypeScript.Name", SyntaxConstants.SYNTAX_STYLE_TYPESCRIPT,
+			() -> new TypeScriptOptionsPanel(app));
+		addLazyChildPanel(app, "Options.Xml.Name", SyntaxConstants.SYNTAX_STYLE_XML,
+			() -> new XmlOptionsPanel(app));
+	}
+
+
+	/**
+	 * Adds a language's options panel as a child of this one.  The panel
+	 * isn't created until it is first displayed.  Only the placeholder is
+	 * shown in the options tree, so it alone displays the language's icon
+	 * and listens for icon style changes.
+	 *
+	 * @param app The parent application.
+	 * @param nameKey The key for the panel's name in the plugin's resource
+	 *        bundle.
+	 * @param language The language, used to determine the panel's icon.
+	 * @param factory Creates the panel.
+	 */
+	private void addLazyChildPanel(RText app, String nameKey, String language,
+			Supplier<OptionsDialogPanel> factory) {
+
+		LazyOptionsDialogPanel panel = new LazyOptionsDialogPanel(app, null,
+			Plugin.MSG.getString(nameKey), factory);
+
+		String langName = language.substring(language.lastIndexOf('/') + 1);
+		String image = "fileTypes/" + langName;
+		panel.setIcon(app.getIconGroup().getIcon(image));
+		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
+			panel.setIcon(app.getIconGroup().getIcon(image));
+		});
+
+		addChildPanel(panel);
 	}
 
 
@@ -89,10 +89,6 @@ class PerlOptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.Perl.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/perl"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/perl"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
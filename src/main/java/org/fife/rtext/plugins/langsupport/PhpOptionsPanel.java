@@ -67,10 +67,6 @@ class PhpOptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.Php.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/php"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/php"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
@@ -55,10 +55,6 @@ class ShellOptionsPanel extends OptionsDialogPanel {
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.Sh.Name"));
 		listener = new Listener();
-		setIcon(app.getIconGroup().getIcon("fileTypes/unix"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/unix"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 											getOrientation(getLocale());
@@ -57,10 +57,6 @@ class XmlOptionsPanel extends OptionsDialogPanel implements ActionListener {
 
 		ResourceBundle msg = Plugin.MSG;
 		setName(msg.getString("Options.Xml.Name"));
-		setIcon(app.getIconGroup().getIcon("fileTypes/xml"));
-		app.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> {
-			setIcon(app.getIconGroup().getIcon("fileTypes/xml"));
-		});
 
 		ComponentOrientation o = ComponentOrientation.
 										getOrientation(getLocale());
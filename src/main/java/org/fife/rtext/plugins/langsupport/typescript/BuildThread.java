@@ -11,7 +11,7 @@ package org.fife.rtext.plugins.langsupport.typescript;
 import java.io.File;
 import javax.swing.SwingUtilities;
 
-import org.fife.io.ProcessRunner;
+import org.fife.rtext.ManagedProcess;
 import org.fife.rtext.RTextEditorPane;
 import org.fife.rtext.plugins.langsupport.Plugin;
 import org.fife.ui.GUIWorkerThread;
@@ -29,6 +29,12 @@ class BuildThread extends GUIWorkerThread<Object> {
 	private final Plugin plugin;
 	private final TypeScriptNoticeWindow window;
 
+	/**
+	 * The maximum amount of tsc output read.  If there's more, the oldest
+	 * output is dropped, and the user is told that errors may be missing.
+	 */
+	private static final int MAX_OUTPUT_LENGTH = 16 * 1024 * 1024;
+
 
 	BuildThread(Plugin plugin, TypeScriptNoticeWindow window) {
 		this.plugin = plugin;
@@ -41,7 +47,7 @@ class BuildThread extends GUIWorkerThread<Object> {
 
 		final File tsConfig;
 		try {
-			tsConfig = getTsConfig();
+			tsConfig = getTsConfig(plugin);
 		} catch (final IllegalArgumentException iae) {
 			SwingUtilities.invokeLater(() -> plugin.getApplication().displayException(iae));
 			return null;
@@ -56,11 +62,13 @@ class BuildThread extends GUIWorkerThread<Object> {
 		else {
 			cmd = new String[] { "cmd.exe", "/c", "tsc", };
 		}
-		ProcessRunner pr = new ProcessRunner(cmd);
-		pr.setDirectory(tsConfig.getParentFile());
-		pr.run();
+		// If this thread is interrupted, tsc and its shell are killed
+		ManagedProcess process = new ManagedProcess(cmd);
+		process.setDirectory(tsConfig.getParentFile());
+		process.setMaxOutputLength(MAX_OUTPUT_LENGTH);
+		process.run();
 
-		return new Result(tsConfig, pr);
+		return new Result(tsConfig, process);
 
 	}
 
@@ -74,7 +82,7 @@ class BuildThread extends GUIWorkerThread<Object> {
 	public void finished() {
 		Result result = (Result)get();
 		window.parseErrors(result.tsConfig.getParentFile(),
-				result.pr.getStdout());
+				result.process.getStdout(), result.process.isOutputTruncated());
 	}
 
 
@@ -82,10 +90,11 @@ class BuildThread extends GUIWorkerThread<Object> {
 	 * Returns the tsconfig file that's the nearest ancestor to the file
 	 * being edited in the active window.
 	 *
+	 * @param plugin The language support plugin.
 	 * @return The tsconfig file.
 	 * @throws IllegalArgumentException If there is no ancestor tsconfig file.
 	 */
-	private File getTsConfig() {
+	static File getTsConfig(Plugin plugin) {
 
 		RTextEditorPane textArea = plugin.getApplication().getMainView().
 				getCurrentTextArea();
@@ -115,9 +124,9 @@ class BuildThread extends GUIWorkerThread<Object> {
 	 * The result of building via tsc.
 	 *
 	 * @param tsConfig The tsconfig file to use.
-	 * @param pr The process runner used.
+	 * @param process The tsc process.
 	 */
-	private record Result(File tsConfig, ProcessRunner pr) {
+	private record Result(File tsConfig, ManagedProcess process) {
 	}
 
 
@@ -0,0 +1,222 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.langsupport.typescript;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
+
+import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.ManagedProcess;
+import org.fife.rtext.RTextEditorPane;
+
+
+/**
+ * Keeps a <code>tsc --watch</code> process running for a
+ * <code>tsconfig</code> file.  tsc recompiles incrementally whenever a file
+ * in the project changes, which is much faster than a cold build.  Its
+ * output is parsed as it's written, and at the end of each compilation the
+ * notice window is given the diagnostics for each file so it can update
+ * just the files whose diagnostics changed.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class TscWatcher implements ProcessRunnerOutputListener {
+
+	private final TypeScriptNoticeWindow window;
+	private final File tsConfig;
+	private final File rootDir;
+	private final ManagedProcess process;
+
+	/**
+	 * The diagnostics of the compilation in progress, by file.  This is only
+	 * accessed on the thread reading tsc's stdout.
+	 */
+	private Map<String, List<TypeScriptParserNotice>> notices;
+
+	/**
+	 * The diagnostics last displayed, by file.  This is only accessed on
+	 * the EDT.
+	 */
+	private Map<String, List<TypeScriptParserNotice>> displayedNotices;
+
+	/**
+	 * Matches tsc's "Starting compilation in watch mode..." and "File change
+	 * detected. Starting incremental compilation..." messages.
+	 */
+	private static final Pattern COMPILATION_STARTED =
+			Pattern.compile(".* - (?:Starting compilation|File change detected)\\b.*");
+
+	/**
+	 * Matches tsc's "Found 2 errors. Watching for file changes." message.
+	 */
+	private static final Pattern COMPILATION_FINISHED =
+			Pattern.compile(".* - Found \\d+ errors?\\b.*");
+
+
+	/**
+	 * Constructor.  The process isn't started until {@link #start()} is
+	 * called.
+	 *
+	 * @param window The window to display diagnostics in.
+	 * @param tsConfig The <code>tsconfig</code> file to build from.
+	 */
+	TscWatcher(TypeScriptNoticeWindow window, File tsConfig) {
+
+		this.window = window;
+		this.tsConfig = tsConfig;
+		rootDir = tsConfig.getParentFile();
+		notices = new LinkedHashMap<>();
+		displayedNotices = new LinkedHashMap<>();
+
+		// Without --pretty false, diagnostics aren't one per line
+		String tsc = "tsc --watch --preserveWatchOutput --pretty false";
+		String[] cmd;
+		if (File.separatorChar=='/') {
+			cmd = new String[] { "/bin/sh", "-c", tsc, };
+		}
+		else {
+			cmd = new String[] { "cmd.exe", "/c", tsc, };
+		}
+		process = new ManagedProcess(cmd);
+		process.setDirectory(rootDir);
+		process.setOutputListener(this);
+
+	}
+
+
+	/**
+	 * Returns the diagnostics last displayed for this project, by file.
+	 * This should only be called on the EDT.
+	 *
+	 * @return The diagnostics.
+	 * @see #setDisplayedNotices(Map)
+	 */
+	Map<String, List<TypeScriptParserNotice>> getDisplayedNotices() {
+		return displayedNotices;
+	}
+
+
+	/**
+	 * Returns the root directory of the project being watched.
+	 *
+	 * @return The root directory.
+	 */
+	File getRootDir() {
+		return rootDir;
+	}
+
+
+	/**
+	 * Returns the <code>tsconfig</code> file being built from.
+	 *
+	 * @return The <code>tsconfig</code> file.
+	 */
+	File getTsConfig() {
+		return tsConfig;
+	}
+
+
+	/**
+	 * Returns whether tsc is running.
+	 *
+	 * @return Whether tsc is running.
+	 */
+	boolean isAlive() {
+		return process.isAlive();
+	}
+
+
+	/**
+	 * Returns whether an editor is editing a file in this project.  tsc is
+	 * stopped when no such editors are left open.
+	 *
+	 * @param textArea The editor.
+	 * @return Whether the editor's file is in this project.
+	 */
+	boolean isRelevant(RTextEditorPane textArea) {
+		if (!textArea.isLocal()) {
+			return false;
+		}
+		String root = rootDir.getAbsolutePath() + File.separatorChar;
+		return textArea.getFileFullPath().startsWith(root);
+	}
+
+
+	@Override
+	public void outputWritten(Process p, String line, boolean stdout) {
+
+		if (!stdout) {
+			return;
+		}
+
+		if (COMPILATION_STARTED.matcher(line).matches()) {
+			notices = new LinkedHashMap<>();
+			SwingUtilities.invokeLater(() -> window.setTitleWhileBuilding(tsConfig));
+		}
+
+		else if (COMPILATION_FINISHED.matcher(line).matches()) {
+			final Map<String, List<TypeScriptParserNotice>> result = notices;
+			notices = new LinkedHashMap<>();
+			SwingUtilities.invokeLater(() -> window.watchCompilationFinished(this, result));
+		}
+
+		else {
+			TypeScriptParserNotice notice = TypeScriptNoticeWindow.parseError(rootDir, line);
+			if (notice!=null) {
+				notices.computeIfAbsent(notice.getFileFullPath(),
+					k -> new ArrayList<>()).add(notice);
+			}
+		}
+
+	}
+
+
+	@Override
+	public void processCompleted(Process p, int rc, Throwable e) {
+		// Note that this isn't called on the EDT
+		SwingUtilities.invokeLater(() -> window.watcherStopped(this));
+	}
+
+
+	/**
+	 * Sets the diagnostics last displayed for this project.  This should
+	 * only be called on the EDT.
+	 *
+	 * @param notices The diagnostics, by file.
+	 * @see #getDisplayedNotices()
+	 */
+	void setDisplayedNotices(Map<String, List<TypeScriptParserNotice>> notices) {
+		displayedNotices = notices;
+	}
+
+
+	/**
+	 * Launches tsc.  This method returns immediately.
+	 *
+	 * @see #stop()
+	 */
+	void start() {
+		process.start();
+	}
+
+
+	/**
+	 * Kills tsc, if it's running.
+	 *
+	 * @see #start()
+	 */
+	void stop() {
+		process.kill();
+	}
+
+
+}
@@ -9,18 +9,28 @@
 package org.fife.rtext.plugins.langsupport.typescript;
 
 import java.awt.BorderLayout;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.swing.JTable;
 
+import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.AbstractParserNoticeWindow;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
@@ -33,21 +43,41 @@ import org.fife.ui.rsyntaxtextarea.parser.ParserNotice;
 
 /**
  * A window that displays all errors in the most recent run of the TypeScript
- * compiler.
+ * compiler.<p>
+ *
+ * In watch mode, a <code>tsc --watch</code> process is kept running for each
+ * <code>tsconfig</code> file built, and this window is updated each time it
+ * recompiles.  Such a process is stopped when the last editor open on a file
+ * in its project is closed.
  *
  * @author Robert Futrell
  * @version 1.0
  */
-class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
+class TypeScriptNoticeWindow extends AbstractParserNoticeWindow
+		implements PropertyChangeListener {
 
 	private final Plugin plugin;
 	private final TypeScriptNoticeTableModel model;
 
+	/**
+	 * Whether builds keep tsc running in watch mode.
+	 */
+	private boolean watchMode;
+
+	/**
+	 * The running <code>tsc --watch</code> processes, keyed by
+	 * <code>tsconfig</code> file.  This is only accessed on the EDT.
+	 */
+	private final Map<File, TscWatcher> watchers;
+
+	private static final Pattern ERROR = Pattern.compile("([^\\(]+)\\((\\d+),(\\d+)\\): (.+)");
+
 
 	TypeScriptNoticeWindow(RText rtext, Plugin plugin) {
 
 		super(rtext);
 		this.plugin = plugin;
+		watchers = new HashMap<>();
 		ResourceBundle msg = plugin.getBundle();
 
 		model = new TypeScriptNoticeTableModel(msg.getString("TypeScript.Message"));
@@ -65,6 +95,8 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 
 		updateIcon();
 		rtext.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, e -> updateIcon());
+		rtext.getMainView().addPropertyChangeListener(
+				AbstractMainView.TEXT_AREA_REMOVED_PROPERTY, this);
 
 		applyComponentOrientation(rtext.getComponentOrientation());
 
@@ -84,39 +116,149 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 
 		this.focusInDockableWindowGroup(true);
 		getRText().getMainView().getCurrentTextArea().requestFocusInWindow();
+
+		if (watchMode) {
+			startWatching();
+			return;
+		}
+
+		stopWatching();
 		model.update(null, null); // Clear prior results
 		new BuildThread(plugin, this).start();
 
 	}
 
 
-	public void parseErrors(File rootDir, String stdout) {
+	/**
+	 * Returns whether builds keep tsc running in watch mode.
+	 *
+	 * @return Whether watch mode is enabled.
+	 * @see #setWatchMode(boolean)
+	 */
+	public boolean getWatchMode() {
+		return watchMode;
+	}
 
-		List<ParserNotice> errors = new ArrayList<>();
 
-		Pattern error = Pattern.compile("([^\\(]+)\\((\\d+),(\\d+)\\): (.+)");
+	/**
+	 * Returns whether two lists of notices for a file are the same, i.e.
+	 * whether the table needs to be updated.
+	 */
+	private static boolean isSameNotices(List<TypeScriptParserNotice> notices1,
+			List<TypeScriptParserNotice> notices2) {
+		if (notices1.size()!=notices2.size()) {
+			return false;
+		}
+		for (int i=0; i<notices1.size(); i++) {
+			ParserNotice n1 = notices1.get(i);
+			ParserNotice n2 = notices2.get(i);
+			if (n1.getLine()!=n2.getLine() ||
+					!Objects.equals(n1.getMessage(), n2.getMessage())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Parses a line of tsc output.
+	 *
+	 * @param rootDir The root directory of the TypeScript project.
+	 * @param line The line of output.
+	 * @return The error or warning described by the line, or
+	 *         <code>null</code> if it doesn't describe one.
+	 */
+	static TypeScriptParserNotice parseError(File rootDir, String line) {
+		Matcher m = ERROR.matcher(line);
+		if (!m.matches()) {
+			return null;
+		}
+		String fileFullPath = new File(rootDir, m.group(1)).getAbsolutePath();
+		int lineNum = Integer.parseInt(m.group(2));
+		String message = m.group(4);
+		TypeScriptParserNotice notice = new TypeScriptParserNotice(
+				null, message, lineNum);
+		notice.setFileFullPath(fileFullPath);
+		return notice;
+	}
+
+
+	/**
+	 * Displays the errors in the output of a tsc build.
+	 *
+	 * @param rootDir The root directory of the project built.
+	 * @param stdout tsc's output.
+	 * @param truncated Whether the oldest output was dropped because there
+	 *        was too much of it.
+	 */
+	public void parseErrors(File rootDir, String stdout, boolean truncated) {
+
+		List<ParserNotice> errors = new ArrayList<>();
 
 		String[] lines = stdout.split("\n");
 		for (String line : lines) {
-			Matcher m = error.matcher(line);
-			if (m.matches()) {
-				String fileFullPath = new File(rootDir, m.group(1)).
-						getAbsolutePath();
-				int lineNum = Integer.parseInt(m.group(2));
-				String message = m.group(4);
-				TypeScriptParserNotice notice = new TypeScriptParserNotice(
-						null, message, lineNum);
-				notice.setFileFullPath(fileFullPath);
+			TypeScriptParserNotice notice = parseError(rootDir, line);
+			if (notice!=null) {
 				errors.add(notice);
 			}
 		}
 
-		setTitleAfterBuilding(rootDir, errors);
+		setTitleAfterBuilding(rootDir, errors, truncated);
 		model.update(null, errors);
 
 	}
 
 
+	/**
+	 * Stops tsc for projects that no longer have any files open when an
+	 * editor is closed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+
+		if (watchers.isEmpty()) {
+			return;
+		}
+		RTextEditorPane closed = (RTextEditorPane)e.getNewValue();
+		AbstractMainView mainView = getRText().getMainView();
+
+		for (TscWatcher watcher : new ArrayList<>(watchers.values())) {
+			if (!watcher.isRelevant(closed)) {
+				continue;
+			}
+			// Evicted editors count too, as only their paths are checked
+			boolean stillOpen = false;
+			for (int i=0; i<mainView.getNumDocuments() && !stillOpen; i++) {
+				RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
+				stillOpen = textArea!=closed && watcher.isRelevant(textArea);
+			}
+			if (!stillOpen) {
+				watchers.remove(watcher.getTsConfig());
+				watcher.stop();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Sets whether builds keep tsc running in watch mode.  Disabling watch
+	 * mode stops any running tsc processes.
+	 *
+	 * @param watchMode Whether to enable watch mode.
+	 * @see #getWatchMode()
+	 */
+	public void setWatchMode(boolean watchMode) {
+		this.watchMode = watchMode;
+		if (!watchMode) {
+			stopWatching();
+		}
+	}
+
+
 	/**
 	 * Sets the title for this window while a build is running.
 	 *
@@ -134,9 +276,10 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 	 *
 	 * @param rootDir The root directory of the TypeScript project.
 	 * @param notices The list of notices returned by the compiler.
+	 * @param truncated Whether some of the compiler's output was dropped.
 	 */
 	private void setTitleAfterBuilding(File rootDir,
-			List<ParserNotice> notices) {
+			List<ParserNotice> notices, boolean truncated) {
 
 		String dateStr = new SimpleDateFormat().format(new Date());
 
@@ -156,7 +299,8 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 			}
 		}
 
-		String msg = plugin.getBundle().getString("TypeScript.BuildComplete");
+		String msg = plugin.getBundle().getString(truncated ?
+				"TypeScript.BuildCompleteTruncated" : "TypeScript.BuildComplete");
 		String title = MessageFormat.format(msg, dateStr, errorCount,
 				warningCount, rootDir.getAbsolutePath());
 		setDockableWindowTitle(title);
@@ -164,17 +308,134 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 	}
 
 
+	/**
+	 * Starts tsc in watch mode for the <code>tsconfig</code> file closest to
+	 * the active editor's file, if it isn't already running.
+	 */
+	private void startWatching() {
+
+		final File tsConfig;
+		try {
+			tsConfig = BuildThread.getTsConfig(plugin);
+		} catch (IllegalArgumentException iae) {
+			getRText().displayException(iae);
+			return;
+		}
+
+		TscWatcher watcher = watchers.get(tsConfig);
+		if (watcher==null || !watcher.isAlive()) {
+			if (watchers.isEmpty()) {
+				model.update(null, null); // Clear prior one-off build results
+			}
+			else { // Clear results from when this project was last watched
+				String root = tsConfig.getParentFile().getAbsolutePath() + File.separatorChar;
+				model.removeFiles(file -> file.startsWith(root));
+			}
+			watcher = new TscWatcher(this, tsConfig);
+			watchers.put(tsConfig, watcher);
+			setTitleWhileBuilding(tsConfig);
+			watcher.start();
+		}
+
+	}
+
+
+	/**
+	 * Stops all tsc processes running in watch mode.
+	 */
+	private void stopWatching() {
+		List<TscWatcher> running = new ArrayList<>(watchers.values());
+		watchers.clear();
+		running.forEach(TscWatcher::stop);
+	}
+
+
 	private void updateIcon() {
 		setIcon(getRText().getIconGroup().getIcon("fileTypes/typescript"));
 	}
 
 
+	/**
+	 * Called on the EDT each time tsc finishes recompiling in watch mode.
+	 * Only the rows of files whose diagnostics changed are updated.
+	 *
+	 * @param watcher The tsc process.
+	 * @param notices The diagnostics of the compilation, by file.
+	 */
+	void watchCompilationFinished(TscWatcher watcher,
+			Map<String, List<TypeScriptParserNotice>> notices) {
+
+		if (watchers.get(watcher.getTsConfig())!=watcher) {
+			return; // Stopped while this event was pending
+		}
+
+		Map<String, List<TypeScriptParserNotice>> displayed = watcher.getDisplayedNotices();
+		Set<String> files = new LinkedHashSet<>(displayed.keySet());
+		files.addAll(notices.keySet());
+		List<TypeScriptParserNotice> none = Collections.emptyList();
+
+		List<ParserNotice> all = new ArrayList<>();
+		for (String file : files) {
+			List<TypeScriptParserNotice> fileNotices = notices.getOrDefault(file, none);
+			if (!isSameNotices(displayed.getOrDefault(file, none), fileNotices)) {
+				model.updateFile(file, fileNotices);
+			}
+			all.addAll(fileNotices);
+		}
+
+		watcher.setDisplayedNotices(notices);
+		setTitleAfterBuilding(watcher.getRootDir(), all, false);
+
+	}
+
+
+	/**
+	 * Called on the EDT when a tsc process running in watch mode exits,
+	 * either because it was stopped or because it failed.
+	 *
+	 * @param watcher The tsc process.
+	 */
+	void watcherStopped(TscWatcher watcher) {
+		if (watchers.get(watcher.getTsConfig())==watcher) {
+			watchers.remove(watcher.getTsConfig());
+			String msg = plugin.getBundle().getString("TypeScript.WatchStopped");
+			setDockableWindowTitle(MessageFormat.format(msg,
+					watcher.getTsConfig().getAbsolutePath()));
+		}
+	}
+
+
 	private class TypeScriptNoticeTableModel extends ParserNoticeTableModel {
 
 		TypeScriptNoticeTableModel(String lastColHeader) {
 			super(lastColHeader);
 		}
 
+		/**
+		 * Replaces the notices for a single file.
+		 *
+		 * @param fileFullPath The file.
+		 * @param notices The new notices for the file.
+		 */
+		void updateFile(String fileFullPath,
+				List<? extends ParserNotice> notices) {
+			removeFiles(fileFullPath::equals);
+			addNoticesImpl(null, new ArrayList<>(notices));
+		}
+
+		/**
+		 * Removes the notices for all files matching a filter.
+		 *
+		 * @param filter Filters the full paths of the files to remove.
+		 */
+		void removeFiles(Predicate<String> filter) {
+			for (int i=getRowCount()-1; i>=0; i--) {
+				if (filter.test(getValueAt(i, 1).toString())) {
+					removeRow(i);
+				}
+			}
+		}
+
 		@Override
 		protected void addNoticesImpl(RTextEditorPane textArea,
 				List<ParserNotice> notices) {
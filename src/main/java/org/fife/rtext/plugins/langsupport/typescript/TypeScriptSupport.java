@@ -35,6 +35,7 @@ public class TypeScriptSupport {
 
 	private TypeScriptNoticeWindow tsWindow;
 	private BuildAction buildAction;
+	private WatchModeAction watchModeAction;
 
 	private static final String DOCKABLE_WINDOW_TS_ERRORS = "TypeScriptWarnings";
 
@@ -88,6 +89,12 @@ public class TypeScriptSupport {
 		tsWindow = new TypeScriptNoticeWindow(rtext, plugin);
 		tsWindow.setPosition(prefs.ts_build_output_window_position);
 		tsWindow.setActive(prefs.ts_build_output_window_visible);
+		tsWindow.setWatchMode(prefs.ts_build_watch_mode);
+
+		watchModeAction = new WatchModeAction(plugin, tsWindow);
+		JCheckBoxMenuItem watchModeItem = new JCheckBoxMenuItem(watchModeAction);
+		watchModeItem.setToolTipText(null);
+		menu.add(watchModeItem);
 		rtext.addDockableWindow(tsWindow);
 		plugin.putDockableWindow(DOCKABLE_WINDOW_TS_ERRORS, tsWindow);
 
@@ -127,6 +134,7 @@ public class TypeScriptSupport {
 				getValue(Action.ACCELERATOR_KEY);
 		prefs.ts_build_output_window_position = tsWindow.getPosition();
 		prefs.ts_build_output_window_visible = tsWindow.isActive();
+		prefs.ts_build_watch_mode = tsWindow.getWatchMode();
 		// Folding is handled by plugin itself
 		//prefs.ts_folding_enabled = ...
 	}
@@ -164,4 +172,27 @@ public class TypeScriptSupport {
 
 	}
 
+
+	/**
+	 * Toggles whether builds keep the TypeScript compiler running in watch
+	 * mode.
+	 */
+	private static final class WatchModeAction extends StandardAction {
+
+		private final TypeScriptNoticeWindow window;
+
+		private WatchModeAction(Plugin plugin, TypeScriptNoticeWindow window) {
+			setName(plugin.getBundle().getString("TypeScript.WatchMode"));
+			putValue(SHORT_DESCRIPTION, plugin.getBundle().getString("TypeScript.WatchMode.ShortDesc"));
+			this.window = window;
+			putValue(SELECTED_KEY, window.getWatchMode());
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			window.setWatchMode(Boolean.TRUE.equals(getValue(SELECTED_KEY)));
+		}
+
+	}
+
 }
@@ -0,0 +1,120 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+
+
+/**
+ * Caches macro scripts compiled via <code>Compilable</code>, so a macro is
+ * only compiled the first time it's run.  A script is recompiled if its
+ * file's modification time or size changes, e.g. because the user edited
+ * it.<p>
+ *
+ * This class is thread-safe, since macros may be precompiled on a
+ * background thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class CompiledScriptCache {
+
+	private final Map<String, Entry> scripts;
+
+
+	/**
+	 * Constructor.
+	 */
+	CompiledScriptCache() {
+		scripts = new HashMap<>();
+	}
+
+
+	/**
+	 * Returns the compiled script for a file, compiling it if it isn't
+	 * cached or has changed since it was compiled.
+	 *
+	 * @param file The script file.
+	 * @param engine The engine to compile the script with.
+	 * @return The compiled script.
+	 * @throws IOException If an IO error occurs reading the file.
+	 * @throws ScriptException If the script does not compile.
+	 * @see #isCached(File)
+	 */
+	CompiledScript get(File file, Compilable engine)
+			throws IOException, ScriptException {
+
+		String key = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+
+		synchronized (this) {
+			Entry entry = scripts.get(key);
+			if (entry!=null && entry.isCurrent(lastModified, length) &&
+					entry.script.getEngine()==engine) {
+				return entry.script;
+			}
+		}
+
+		CompiledScript script;
+		try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+			script = engine.compile(r);
+		}
+
+		synchronized (this) {
+			scripts.put(key, new Entry(script, lastModified, length));
+		}
+		return script;
+
+	}
+
+
+	/**
+	 * Returns whether a file's compiled script is cached and up to date.
+	 *
+	 * @param file The script file.
+	 * @return Whether the compiled script is cached.
+	 */
+	synchronized boolean isCached(File file) {
+		Entry entry = scripts.get(file.getAbsolutePath());
+		return entry!=null && entry.isCurrent(file.lastModified(), file.length());
+	}
+
+
+	/**
+	 * Removes the compiled scripts for all files other than those
+	 * specified.  This is called when macros are added or removed.
+	 *
+	 * @param files The absolute paths of the files to keep.
+	 */
+	synchronized void retainAll(Set<String> files) {
+		scripts.keySet().retainAll(files);
+	}
+
+
+	/**
+	 * A compiled script, along with the state of its file when it was
+	 * compiled.
+	 */
+	private record Entry(CompiledScript script, long lastModified, long length) {
+
+		boolean isCurrent(long lastModified, long length) {
+			return this.lastModified==lastModified && this.length==length;
+		}
+
+	}
+
+
+}
@@ -15,14 +15,17 @@ import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import javax.swing.*;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.WarmUpScheduler;
 import org.fife.ui.ImageTranscodingUtil;
 import org.fife.ui.StandardMenuItem;
 import org.fife.ui.app.AbstractPlugin;
@@ -55,6 +58,7 @@ public class MacroPlugin extends AbstractPlugin<RText>
 
 	private static final String EDIT_MACROS_ACTION		= "editMacrosAction";
 	private static final String NEW_MACRO_ACTION		= "newMacroAction";
+	private static final String PLAYBACK_REPEATEDLY_ACTION	= "playbackMacroRepeatedlyAction";
 
 
 	/**
@@ -76,6 +80,9 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		editMacrosAction.setAccelerator(prefs.editMacrosAccelerator);
 		rtext.addAction(EDIT_MACROS_ACTION, editMacrosAction);
 
+		rtext.addAction(PLAYBACK_REPEATEDLY_ACTION,
+				new PlaybackMacroRepeatedlyAction(rtext, MSG));
+
 		updateActionIcons(rtext.getIconGroup());
 	}
 
@@ -223,11 +230,14 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		macrosMenu.add(createMenuItem(a));
 		a = rtext.getAction(MacroPlugin.EDIT_MACROS_ACTION);
 		macrosMenu.add(createMenuItem(a));
+		a = rtext.getAction(MacroPlugin.PLAYBACK_REPEATEDLY_ACTION);
+		macrosMenu.add(createMenuItem(a));
 		macrosMenu.addSeparator();
 		mb.addExtraMenu(macrosMenu);
 		mb.revalidate();
 
 		loadMacros(); // Do after menu has been added
+		registerWarmUp();
 
 	}
 
@@ -314,6 +324,7 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		String prop = e.getPropertyName();
 
 		if (MacroManager.PROPERTY_MACROS.equals(prop)) {
+			RunMacroAction.macrosChanged();
 			refreshMacrosMenu();
 		}
 	}
@@ -325,8 +336,8 @@ public class MacroPlugin extends AbstractPlugin<RText>
 	 */
 	private void refreshMacrosMenu() {
 
-		while (macrosMenu.getMenuComponentCount()>3) {
-			macrosMenu.remove(3);
+		while (macrosMenu.getMenuComponentCount()>4) {
+			macrosMenu.remove(4);
 		}
 
 		if (MacroManager.get().getMacroCount()>0) {
@@ -347,6 +358,25 @@ public class MacroPlugin extends AbstractPlugin<RText>
 	}
 
 
+	/**
+	 * Registers a task that creates the script engines needed by the user's
+	 * macros and compiles the macros while RText is idle, so the first macro
+	 * run is fast.
+	 */
+	private void registerWarmUp() {
+
+		List<File> files = new ArrayList<>();
+		for (Iterator<Macro> i = MacroManager.get().getMacroIterator(); i.hasNext();) {
+			files.add(new File(i.next().getFile()));
+		}
+
+		if (!files.isEmpty()) {
+			WarmUpScheduler.get().register(RunMacroAction.WARM_UP_TASK,
+					() -> RunMacroAction.warmUp(files));
+		}
+	}
+
+
 	/**
 	 * Saves our current set of macros.
 	 *
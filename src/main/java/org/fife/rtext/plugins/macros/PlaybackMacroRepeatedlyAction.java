@@ -0,0 +1,98 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import javax.swing.*;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.app.AppAction;
+import org.fife.ui.rtextarea.RTextArea;
+
+
+/**
+ * Action that plays back the last recorded macro a number of times, or
+ * until the end of the file, as a single batch edit.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RTextEditorPane#playbackLastMacro(int)
+ */
+class PlaybackMacroRepeatedlyAction extends AppAction<RText> {
+
+	/**
+	 * The number of times to play back the macro, remembered for the next
+	 * time this action is run.
+	 */
+	private int count;
+	private boolean untilEnd;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 */
+	PlaybackMacroRepeatedlyAction(RText owner, ResourceBundle msg) {
+		super(owner, msg, "PlaybackRepeatedlyAction");
+		count = 10;
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+
+		RText rtext = getApplication();
+		ResourceBundle msg = MacroPlugin.MSG;
+		String title = msg.getString("PlaybackRepeatedly.Title");
+
+		if (RTextArea.getCurrentMacro()==null) {
+			JOptionPane.showMessageDialog(rtext,
+					msg.getString("Error.NoRecordedMacro"), title,
+					JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+
+		JRadioButton timesButton = new JRadioButton(
+				msg.getString("PlaybackRepeatedly.Times"), !untilEnd);
+		JSpinner spinner = new JSpinner(new SpinnerNumberModel(count, 1,
+				Integer.MAX_VALUE, 1));
+		JRadioButton untilEndButton = new JRadioButton(
+				msg.getString("PlaybackRepeatedly.UntilEnd"), untilEnd);
+		ButtonGroup bg = new ButtonGroup();
+		bg.add(timesButton);
+		bg.add(untilEndButton);
+		spinner.setEnabled(!untilEnd);
+		timesButton.addItemListener(ev -> spinner.setEnabled(timesButton.isSelected()));
+
+		JPanel timesPanel = new JPanel(new BorderLayout(5, 0));
+		timesPanel.add(timesButton, BorderLayout.LINE_START);
+		timesPanel.add(spinner);
+		JPanel panel = new JPanel(new BorderLayout(0, 5));
+		panel.add(timesPanel, BorderLayout.NORTH);
+		panel.add(untilEndButton, BorderLayout.SOUTH);
+		panel.setBorder(UIUtil.getEmpty5Border());
+
+		int rc = JOptionPane.showConfirmDialog(rtext, panel, title,
+				JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+		if (rc!=JOptionPane.OK_OPTION) {
+			return;
+		}
+
+		count = (Integer)spinner.getValue();
+		untilEnd = untilEndButton.isSelected();
+		RTextEditorPane textArea = rtext.getMainView().getCurrentTextArea();
+		textArea.playbackLastMacro(untilEnd ? -1 : count);
+
+	}
+
+
+}
@@ -11,12 +11,23 @@ package org.fife.rtext.plugins.macros;
 
 import java.awt.event.ActionEvent;
 import java.io.*;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.script.*;
 import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
 
+import org.fife.rtext.GraalJavaScript;
 import org.fife.rtext.RText;
+import org.fife.rtext.jfr.MacroEvent;
 import org.fife.ui.app.AppAction;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
 
 
 /**
@@ -38,16 +49,34 @@ class RunMacroAction extends AppAction<RText> {
 	private final Macro macro;
 
 	/**
-	 * The script engine for JavaScript, shared across all instances of this
-	 * action.
+	 * The script engine for Groovy, shared across all instances of this
+	 * action.  Guarded by the class lock, since it may be created by
+	 * {@link #warmUp(boolean, boolean)}.  JavaScript macros run on the
+	 * shared GraalJS engine instead.
+	 *
+	 * @see GraalJavaScript
 	 */
-	private static ScriptEngine jsEngine;
+	private static ScriptEngine groovyEngine;
 
 	/**
-	 * The script engine for Groovy, shared across all instances of this
-	 * action.
+	 * Groovy macros, compiled the first time they're run.
 	 */
-	private static ScriptEngine groovyEngine;
+	private static final CompiledScriptCache COMPILED_SCRIPTS = new CompiledScriptCache();
+
+	/**
+	 * How long the last cold run of each macro took, in nanoseconds, keyed
+	 * by script file.  This is recorded in each run's {@link MacroEvent}, so
+	 * warm runs can be compared to cold ones.
+	 */
+	private static final Map<String, Long> COLD_RUN_NANOS = new ConcurrentHashMap<>();
+
+	private static final String JS_ENGINE = "JavaScript";
+	private static final String GROOVY_ENGINE = "Groovy";
+
+	/**
+	 * The identifier of the macro engine warm-up task.
+	 */
+	static final String WARM_UP_TASK = "macros";
 
 
 	/**
@@ -75,6 +104,41 @@ class RunMacroAction extends AppAction<RText> {
 	}
 
 
+	/**
+	 * Creates and configures a script engine.
+	 *
+	 * @param shortName The name of the engine.
+	 * @return The script engine, or <code>null</code> if it cannot be
+	 *         created.
+	 */
+	private static ScriptEngine createScriptEngine(String shortName) {
+
+		ScriptEngine engine = null;
+
+		try {
+
+			ScriptEngineManager sem = new ScriptEngineManager(
+					RunMacroAction.class.getClassLoader());
+			engine = sem.getEngineByName(shortName);
+			if (engine==null) {
+				return null;
+			}
+
+			ScriptContext context = engine.getContext();
+			PrintWriter w = new PrintWriter(new OutputStreamWriter(System.out));
+			context.setWriter(w);
+			w = new PrintWriter(new OutputStreamWriter(System.err));
+			context.setErrorWriter(w);
+
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+
+		return engine;
+
+	}
+
+
 	/**
 	 * Returns the directory in which to look for plugin jars.
 	 *
@@ -102,47 +166,38 @@ class RunMacroAction extends AppAction<RText> {
 			return;
 		}
 
+		MacroEvent event = new MacroEvent();
+		event.begin();
+		long start = System.nanoTime();
+		boolean warm = false;
+
 		try {
-			try (BufferedReader r = new BufferedReader(new FileReader(file))) {
-				handleSubmit(file.getName(), r);
+			if (file.getName().endsWith(".js")) {
+				warm = GraalJavaScript.isCached(file);
+				runJavaScript(file);
 			}
-		} catch (IOException | ScriptException e) {
+			else if (file.getName().endsWith(".groovy")) {
+				warm = COMPILED_SCRIPTS.isCached(file);
+				runGroovy(file);
+			}
+			else {
+				getApplication().displayException(
+						new Exception("Bad macro type: " + file.getName()));
+			}
+		} catch (IOException | ScriptException | PolyglotException e) {
 			getApplication().displayException(e);
 		}
 
-	}
-
-
-	private void handleSubmit(String sourceName, BufferedReader r)
-			throws ScriptException {
-
-		RText app = getApplication();
-
-		ScriptEngine engine;
-		if (sourceName.endsWith(".js")) {
-			engine = initJavaScriptEngine();
-		}
-		else if (sourceName.endsWith(".groovy")) {
-			engine = initGroovyEngine();
+		String key = file.getAbsolutePath();
+		long coldNanos;
+		if (warm) {
+			coldNanos = COLD_RUN_NANOS.getOrDefault(key, 0L);
 		}
 		else {
-			app.displayException(new Exception("Bad macro type: " + sourceName));
-			return;
+			coldNanos = System.nanoTime() - start;
+			COLD_RUN_NANOS.put(key, coldNanos);
 		}
-
-		if (engine==null) { // An error message was already displayed
-			return;
-		}
-
-		// Create our bindings and cache them for later.
-		Bindings bindings = engine.createBindings();//getBindings(ScriptContext.ENGINE_SCOPE);
-
-		// We always reset the value of "rtext" and "textArea", but
-		// all other variables they've modified are persistent.
-		bindings.put("rtext", app);
-		bindings.put("textArea", app.getMainView().getCurrentTextArea());
-
-		engine.eval(r, bindings);
+		event.commit(macro.getName(), file.getName(), warm, coldNanos);
 
 	}
 
@@ -153,57 +208,101 @@ class RunMacroAction extends AppAction<RText> {
 	 * @return The script engine, or <code>null</code> if it cannot be created.
 	 */
 	private ScriptEngine initGroovyEngine() {
-		if (groovyEngine==null) {
-			groovyEngine = initScriptEngineImpl("Groovy");
+		synchronized (RunMacroAction.class) {
+			if (groovyEngine==null) {
+				groovyEngine = initScriptEngineImpl(GROOVY_ENGINE);
+			}
+			return groovyEngine;
 		}
-		return groovyEngine;
 	}
 
 
 	/**
-	 * Returns the JS engine, lazily creating it if necessary.
-	 *
-	 * @return The script engine, or <code>null</code> if it cannot be created.
+	 * Called when macros are added or removed.  Drops the compiled scripts
+	 * of macros that no longer exist.
 	 */
-	private ScriptEngine initJavaScriptEngine() {
-		if (jsEngine==null) {
-			jsEngine = initScriptEngineImpl("JavaScript");
+	static void macrosChanged() {
+		Set<String> files = new HashSet<>();
+		for (Iterator<Macro> i = MacroManager.get().getMacroIterator(); i.hasNext();) {
+			files.add(new File(i.next().getFile()).getAbsolutePath());
 		}
-		return jsEngine;
+		COMPILED_SCRIPTS.retainAll(files);
+		COLD_RUN_NANOS.keySet().retainAll(files);
 	}
 
 
 	private ScriptEngine initScriptEngineImpl(String shortName) {
+		ScriptEngine engine = createScriptEngine(shortName);
+		if (engine==null) {
+			showLoadingEngineError(shortName);
+		}
+		return engine;
+	}
 
-		ScriptEngine engine = null;
 
-		try {
+	/**
+	 * Runs a Groovy macro.  It's compiled the first time it's run, and the
+	 * compiled script is reused until the file changes.
+	 *
+	 * @param file The macro's script file.
+	 * @throws IOException If an IO error occurs reading the file.
+	 * @throws ScriptException If an error occurs compiling or running the
+	 *         script.
+	 */
+	private void runGroovy(File file) throws IOException, ScriptException {
 
-			ScriptEngineManager sem = new ScriptEngineManager(
-					this.getClass().getClassLoader());
-			engine = sem.getEngineByName(shortName);
-			if (engine==null) {
-				showLoadingEngineError(shortName);
-				return null;
+		ScriptEngine engine = initGroovyEngine();
+		if (engine==null) { // An error message was already displayed
+			return;
+		}
+
+		RText app = getApplication();
+		Bindings bindings = engine.createBindings();
+		bindings.put("rtext", app);
+		bindings.put("textArea", app.getMainView().getCurrentTextArea());
+
+		if (engine instanceof Compilable) {
+			COMPILED_SCRIPTS.get(file, (Compilable)engine).eval(bindings);
+		}
+		else {
+			try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+				engine.eval(r, bindings);
 			}
+		}
 
-			// Engine-specific bindings that must be set *before* any other
-			// calls that update the context
-			Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
-			bindings.put("polyglot.js.allowAllAccess", true); // Graal-specific
-			bindings.put("polyglot.engine.WarnInterpreterOnly", "false"); // Graal-specific
+	}
 
-			ScriptContext context = engine.getContext();
-			PrintWriter w = new PrintWriter(new OutputStreamWriter(System.out));
-			context.setWriter(w);
-			w = new PrintWriter(new OutputStreamWriter(System.err));
-			context.setErrorWriter(w);
 
-		} catch (Exception e) {
+	/**
+	 * Runs a JavaScript macro in a new context on the shared GraalJS engine.
+	 * If the macro was run before and hasn't changed since, its compiled code
+	 * is reused.
+	 *
+	 * @param file The macro's script file.
+	 * @throws IOException If an IO error occurs reading the file.
+	 */
+	private void runJavaScript(File file) throws IOException {
+
+		RText app = getApplication();
+
+		Context context;
+		try {
+			context = GraalJavaScript.newContextBuilder()
+				.out(System.out)
+				.err(System.err)
+				.build();
+		} catch (IllegalArgumentException | IllegalStateException e) {
 			e.printStackTrace();
+			showLoadingEngineError(JS_ENGINE);
+			return;
 		}
 
-		return engine;
+		try (context) {
+			Value bindings = context.getBindings("js");
+			bindings.putMember("rtext", app);
+			bindings.putMember("textArea", app.getMainView().getCurrentTextArea());
+			context.eval(GraalJavaScript.getSource(file));
+		}
 
 	}
 
@@ -223,4 +322,61 @@ class RunMacroAction extends AppAction<RText> {
 	}
 
 
+	/**
+	 * Creates the script engines used by macros ahead of time and compiles
+	 * the macros, so the first macro run doesn't pay for them.  For
+	 * JavaScript, this warms up the GraalJS engine shared with the console.
+	 * This is called by the {@link org.fife.rtext.WarmUpScheduler} on a
+	 * background thread.  If an engine cannot be created, or a macro doesn't
+	 * compile, the error is displayed when the macro is run.
+	 *
+	 * @param files The macros' script files.
+	 */
+	static void warmUp(List<File> files) {
+
+		boolean js = files.stream().anyMatch(f -> f.getName().endsWith(".js"));
+		if (js) {
+			try {
+				GraalJavaScript.warmUp();
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				e.printStackTrace();
+				js = false;
+			}
+		}
+
+		ScriptEngine groovy = null;
+		if (files.stream().anyMatch(f -> f.getName().endsWith(".groovy"))) {
+			synchronized (RunMacroAction.class) {
+				groovy = groovyEngine;
+			}
+			if (groovy==null) {
+				// Don't hold the lock while creating the engine, so a macro
+				// run while warming up isn't blocked by it
+				ScriptEngine created = createScriptEngine(GROOVY_ENGINE);
+				synchronized (RunMacroAction.class) {
+					if (groovyEngine==null) {
+						groovyEngine = created;
+					}
+					groovy = groovyEngine;
+				}
+			}
+		}
+
+		for (File file : files) {
+			try {
+				if (js && file.getName().endsWith(".js")) {
+					GraalJavaScript.precompile(file);
+				}
+				else if (groovy instanceof Compilable &&
+						file.getName().endsWith(".groovy")) {
+					COMPILED_SCRIPTS.get(file, (Compilable)groovy);
+				}
+			} catch (IOException | ScriptException | RuntimeException e) {
+				// Reported when the macro is run
+			}
+		}
+
+	}
+
+
 }
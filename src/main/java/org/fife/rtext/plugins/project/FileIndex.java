@@ -0,0 +1,761 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.EventListenerList;
+
+import org.fife.rtext.plugins.project.model.FileProjectEntry;
+import org.fife.rtext.plugins.project.model.FolderFilterInfo;
+import org.fife.rtext.plugins.project.model.FolderProjectEntry;
+import org.fife.rtext.plugins.project.model.LogicalFolderProjectEntry;
+import org.fife.rtext.plugins.project.model.Project;
+import org.fife.rtext.plugins.project.model.Workspace;
+import org.fife.rtext.plugins.project.model.WorkspaceVisitor;
+
+
+/**
+ * An in-memory index of the names of the files in a workspace, used by the
+ * "Go to File" dialog.<p>
+ *
+ * The index covers every file under the workspace's folder project entries
+ * that their filters allow, plus any file project entries.  It is built on
+ * a background thread, then kept current by watching the indexed
+ * directories for files being created or deleted.  Listeners are notified
+ * on the EDT whenever its contents change.<p>
+ *
+ * Along with each file name, the index keeps a bit mask of the characters
+ * in it, so most names can be rejected by a query with a single comparison.
+ * Searches read an immutable snapshot of the index, so they never wait on
+ * the file system and may be called from any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see GoToFileDialog
+ */
+class FileIndex {
+
+	private final List<Root> roots;
+	private final String rootsKey;
+	private final EventListenerList listenerList;
+
+	/**
+	 * The indexed directories.  This and {@link #watchKeys} are only
+	 * accessed on the index thread.
+	 */
+	private final Map<Path, Directory> dirs;
+	private final Map<WatchKey, Path> watchKeys;
+	private final List<Directory> singleFiles;
+
+	private volatile Snapshot snapshot;
+	private volatile boolean indexing;
+	private volatile boolean closed;
+	private long lastPublishNanos;
+	private WatchService watcher;
+	private boolean watchFailed;
+	private Thread thread;
+
+	/**
+	 * How often listeners are notified while the index is first being built.
+	 */
+	private static final long PROGRESS_INTERVAL_MILLIS = 500;
+
+	/**
+	 * How long to wait for more file system changes before updating the
+	 * index, so a large checkout or build doesn't update it for every file.
+	 */
+	private static final long COALESCE_MILLIS = 200;
+
+
+	/**
+	 * Constructor.  The index isn't built until {@link #start()} is called.
+	 *
+	 * @param workspace The workspace to index.
+	 */
+	FileIndex(Workspace workspace) {
+		roots = getRoots(workspace);
+		rootsKey = getRootsKey(roots);
+		listenerList = new EventListenerList();
+		dirs = new HashMap<>();
+		watchKeys = new HashMap<>();
+		singleFiles = new ArrayList<>();
+		snapshot = new Snapshot(Collections.emptyList());
+	}
+
+
+	/**
+	 * Adds a listener notified when the contents of this index change.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	void addChangeListener(ChangeListener l) {
+		listenerList.add(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Stops watching the file system.  This index can't be used after this
+	 * method is called.
+	 */
+	synchronized void close() {
+		closed = true;
+		if (watcher != null) {
+			try {
+				watcher.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
+	private void fireChangeEvent() {
+		SwingUtilities.invokeLater(() -> {
+			ChangeEvent e = new ChangeEvent(this);
+			for (ChangeListener l : listenerList.getListeners(ChangeListener.class)) {
+				l.stateChanged(e);
+			}
+		});
+	}
+
+
+	/**
+	 * Returns the number of files in this index.
+	 *
+	 * @return The number of files.
+	 */
+	int getFileCount() {
+		return snapshot.names.length;
+	}
+
+
+	/**
+	 * Returns the folders and files to index in a workspace.
+	 *
+	 * @param workspace The workspace.
+	 * @return The roots of the index.
+	 */
+	private static List<Root> getRoots(Workspace workspace) {
+		RootCollector collector = new RootCollector();
+		if (workspace != null) {
+			workspace.accept(collector);
+		}
+		return collector.roots;
+	}
+
+
+	/**
+	 * Returns a string identifying a set of roots, including their filters.
+	 *
+	 * @param roots The roots.
+	 * @return A string identifying them.
+	 */
+	private static String getRootsKey(List<Root> roots) {
+		StringBuilder sb = new StringBuilder();
+		for (Root root : roots) {
+			sb.append(root.file.getAbsolutePath()).append('\0');
+			if (root.filter != null) {
+				sb.append(Arrays.toString(root.filter.getAllowedFileFilters())).
+					append(Arrays.toString(root.filter.getHiddenFileFilters())).
+					append(Arrays.toString(root.filter.getHiddenFolderFilters()));
+			}
+			sb.append('\0');
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Handles the file system changes in a single watched directory.
+	 *
+	 * @param key The watch key for the directory.
+	 */
+	private void handleWatchEvents(WatchKey key) {
+
+		Path dir = watchKeys.get(key);
+		Directory entry = dir == null ? null : dirs.get(dir);
+
+		List<WatchEvent<?>> events = key.pollEvents();
+		if (entry != null && !events.isEmpty()) {
+
+			for (WatchEvent<?> event : events) {
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					indexTree(dir, entry.root);
+				}
+				else if (event.context() instanceof Path) {
+					Path child = dir.resolve((Path)event.context());
+					if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+						removeTree(child);
+					}
+					else if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS) &&
+							entry.root.filter.isAllowed(child.toFile(), true)) {
+						indexTree(child, entry.root);
+					}
+				}
+			}
+
+			// Pick up any files created or deleted directly in this directory
+			indexDirectory(dir, entry.root);
+		}
+
+		if (!key.reset() && dir != null) {
+			removeTree(dir);
+		}
+	}
+
+
+	/**
+	 * Indexes the files directly in a directory, replacing anything indexed
+	 * for it previously, and starts watching it.  This is called on the
+	 * index thread.
+	 *
+	 * @param dir The directory.
+	 * @param root The root the directory is under.
+	 * @return The subdirectories that should also be indexed.
+	 */
+	private List<Path> indexDirectory(Path dir, Root root) {
+
+		List<String> names = new ArrayList<>();
+		List<Path> subdirs = new ArrayList<>();
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+			for (Path child : stream) {
+				BasicFileAttributes attrs;
+				try {
+					attrs = Files.readAttributes(child, BasicFileAttributes.class,
+						LinkOption.NOFOLLOW_LINKS);
+				} catch (IOException ioe) {
+					continue; // Deleted out from under us, or not readable
+				}
+				File file = child.toFile();
+				if (attrs.isDirectory()) {
+					if (root.filter.isAllowed(file, true)) {
+						subdirs.add(child);
+					}
+				}
+				// Don't follow links to directories, to avoid cycles
+				else if (!(attrs.isSymbolicLink() && Files.isDirectory(child)) &&
+						root.filter.isAllowed(file, false)) {
+					names.add(child.getFileName().toString());
+				}
+			}
+		} catch (IOException ioe) {
+			dirs.remove(dir);
+			return Collections.emptyList();
+		}
+
+		dirs.put(dir, new Directory(dir, root, names));
+		watch(dir);
+		return subdirs;
+	}
+
+
+	/**
+	 * Indexes a directory and everything below it.  This is called on the
+	 * index thread.
+	 *
+	 * @param top The directory.
+	 * @param root The root the directory is under.
+	 */
+	private void indexTree(Path top, Root root) {
+
+		Deque<Path> queue = new ArrayDeque<>();
+		queue.add(top);
+
+		while (!queue.isEmpty() && !closed) {
+			queue.addAll(indexDirectory(queue.poll(), root));
+			if (indexing && System.nanoTime() - lastPublishNanos >
+					TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MILLIS)) {
+				publish();
+			}
+		}
+	}
+
+
+	/**
+	 * Returns whether this index is still being built for the first time.
+	 *
+	 * @return Whether the index is being built.
+	 */
+	boolean isIndexing() {
+		return indexing;
+	}
+
+
+	/**
+	 * Returns whether this index covers the current contents of a workspace.
+	 *
+	 * @param workspace The workspace.
+	 * @return Whether this index was created for the same folders, files and
+	 *         filters as the workspace now has.
+	 */
+	boolean isUpToDate(Workspace workspace) {
+		return rootsKey.equals(getRootsKey(getRoots(workspace)));
+	}
+
+
+	private static boolean isWordStart(String name, int index) {
+		if (index == 0) {
+			return true;
+		}
+		char prev = name.charAt(index - 1);
+		char ch = name.charAt(index);
+		return prev == '.' || prev == '_' || prev == '-' || prev == ' ' ||
+			(Character.isUpperCase(ch) && !Character.isUpperCase(prev)) ||
+			(Character.isDigit(ch) && !Character.isDigit(prev));
+	}
+
+
+	/**
+	 * Returns a bit mask of the characters in a lower-case string.  Letters
+	 * and digits each get their own bit; other characters share the rest.
+	 *
+	 * @param text The text.
+	 * @return The bit mask.
+	 */
+	private static long mask(String text) {
+		long mask = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char ch = text.charAt(i);
+			int bit;
+			if (ch >= 'a' && ch <= 'z') {
+				bit = ch - 'a';
+			}
+			else if (ch >= '0' && ch <= '9') {
+				bit = 26 + ch - '0';
+			}
+			else {
+				bit = 36 + ch % 28;
+			}
+			mask |= 1L << bit;
+		}
+		return mask;
+	}
+
+
+	/**
+	 * Makes the current state of the index visible to searches and notifies
+	 * listeners.  This is called on the index thread.
+	 */
+	private void publish() {
+		List<Directory> all = new ArrayList<>(dirs.values());
+		all.addAll(singleFiles);
+		snapshot = new Snapshot(all);
+		lastPublishNanos = System.nanoTime();
+		fireChangeEvent();
+	}
+
+
+	/**
+	 * Removes a listener notified when the contents of this index change.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	void removeChangeListener(ChangeListener l) {
+		listenerList.remove(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Removes a directory and everything below it from the index.  This is
+	 * called on the index thread.
+	 *
+	 * @param top The directory.
+	 */
+	private void removeTree(Path top) {
+		dirs.keySet().removeIf(dir -> dir.startsWith(top));
+		Iterator<Map.Entry<WatchKey, Path>> i = watchKeys.entrySet().iterator();
+		while (i.hasNext()) {
+			Map.Entry<WatchKey, Path> entry = i.next();
+			if (entry.getValue().startsWith(top)) {
+				entry.getKey().cancel();
+				i.remove();
+			}
+		}
+	}
+
+
+	/**
+	 * Builds the index, then keeps it current.  This runs on the index thread.
+	 */
+	private void run() {
+
+		for (Root root : roots) {
+			if (closed) {
+				return;
+			}
+			if (root.filter == null) {
+				Path path = root.file.toPath().toAbsolutePath();
+				Path parent = path.getParent();
+				if (parent != null) {
+					singleFiles.add(new Directory(parent, root,
+						List.of(path.getFileName().toString())));
+				}
+			}
+			else {
+				indexTree(root.file.toPath().toAbsolutePath(), root);
+			}
+		}
+
+		indexing = false;
+		publish();
+
+		if (watcher == null) {
+			return;
+		}
+
+		try {
+			while (!closed) {
+				WatchKey key = watcher.take();
+				do {
+					handleWatchEvents(key);
+					key = watcher.poll(COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+				} while (key != null);
+				publish();
+			}
+		} catch (ClosedWatchServiceException e) {
+			// close() was called
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	/**
+	 * Returns the files whose names best match a query.  The query is
+	 * matched fuzzily: its characters must appear in a file's name in the
+	 * same order, ignoring case, but not necessarily next to each other.
+	 * Matches of the whole query, and matches at the start of a name or of
+	 * a word in it, rank higher.  If the query contains a <code>/</code>
+	 * or <code>\</code>, the part before the last one must fuzzily match
+	 * the file's directory.
+	 *
+	 * @param query The query.
+	 * @param maxResults The maximum number of files to return.
+	 * @return The matching files, best match first.
+	 */
+	List<File> search(String query, int maxResults) {
+
+		String q = query.replaceAll("\\s+", "").replace('\\', '/').
+			toLowerCase(Locale.ROOT);
+		if (q.isEmpty() || maxResults <= 0) {
+			return Collections.emptyList();
+		}
+
+		int slash = q.lastIndexOf('/');
+		String dirQuery = slash > 0 ? q.substring(0, slash) : null;
+		String nameQuery = q.substring(slash + 1);
+		long queryMask = mask(nameQuery);
+
+		Snapshot s = snapshot;
+		Comparator<int[]> comparator = Comparator.comparingInt(c -> c[1]);
+		PriorityQueue<int[]> best = new PriorityQueue<>(maxResults, comparator);
+
+		for (int i = 0; i < s.names.length; i++) {
+
+			if ((s.masks[i] & queryMask) != queryMask) {
+				continue;
+			}
+			int score = score(nameQuery, s.names[i], s.lowerNames[i]);
+			if (score < 0 || (best.size() == maxResults && score <= best.peek()[1])) {
+				continue;
+			}
+			if (dirQuery != null &&
+					score(dirQuery, "", s.dirs[s.dirIndices[i]].lowerPath) < 0) {
+				continue;
+			}
+
+			if (best.size() == maxResults) {
+				best.poll();
+			}
+			best.add(new int[] { i, score });
+		}
+
+		List<File> files = new ArrayList<>(best.size());
+		while (!best.isEmpty()) {
+			int i = best.poll()[0];
+			files.add(new File(s.dirs[s.dirIndices[i]].file, s.names[i]));
+		}
+		Collections.reverse(files);
+		return files;
+	}
+
+
+	/**
+	 * Scores how well a query matches a file name.
+	 *
+	 * @param query The lower-case query.
+	 * @param name The file name, or an empty string if only whether there
+	 *        is a match matters.
+	 * @param lowerName The lower-case file name.
+	 * @return The score, or <code>-1</code> if the query doesn't match.
+	 */
+	private static int score(String query, String name, String lowerName) {
+
+		if (query.isEmpty()) {
+			return 0;
+		}
+
+		int score;
+		int index = lowerName.indexOf(query);
+
+		if (index > -1) {
+			// Matching the whole query always beats a scattered match
+			score = 1000 + query.length() * 10;
+			if (index == 0) {
+				score += lowerName.length() == query.length() ? 1000 : 500;
+			}
+			else if (!name.isEmpty() && isWordStart(name, index)) {
+				score += 250;
+			}
+		}
+
+		else {
+			score = 0;
+			int prev = -2;
+			int q = 0;
+			for (int i = 0; i < lowerName.length() && q < query.length(); i++) {
+				if (lowerName.charAt(i) == query.charAt(q)) {
+					score += 10;
+					if (i == prev + 1) {
+						score += 15;
+					}
+					if (!name.isEmpty() && isWordStart(name, i)) {
+						score += 20;
+					}
+					prev = i;
+					q++;
+				}
+			}
+			if (q < query.length()) {
+				return -1;
+			}
+		}
+
+		// Prefer shorter names among otherwise equal matches
+		return Math.max(score - lowerName.length(), 0);
+	}
+
+
+	/**
+	 * Starts building this index on a background thread.  Calling this
+	 * method more than once has no effect.
+	 */
+	synchronized void start() {
+
+		if (thread != null || closed) {
+			return;
+		}
+
+		try {
+			watcher = FileSystems.getDefault().newWatchService();
+		} catch (IOException ioe) {
+			ioe.printStackTrace(); // The index just won't be kept current
+		}
+
+		indexing = true;
+		thread = new Thread(this::run, "RText File Index");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+
+	/**
+	 * Starts watching a directory for files being created or deleted.  This
+	 * is called on the index thread.
+	 *
+	 * @param dir The directory.
+	 */
+	private void watch(Path dir) {
+		if (watcher == null || watchFailed) {
+			return;
+		}
+		try {
+			watchKeys.put(dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_DELETE), dir);
+		} catch (ClosedWatchServiceException e) {
+			// close() was called
+		} catch (IOException ioe) {
+			// Usually the OS limit on watched directories.  Directories
+			// already watched are still kept current.
+			ioe.printStackTrace();
+			watchFailed = true;
+		}
+	}
+
+
+	/**
+	 * The files indexed directly in a single directory.
+	 */
+	private static final class Directory {
+
+		private final File file;
+		private final String lowerPath;
+		private final Root root;
+		private final String[] names;
+		private final String[] lowerNames;
+		private final long[] masks;
+
+		Directory(Path dir, Root root, List<String> names) {
+			this.file = dir.toFile();
+			this.lowerPath = dir.toString().replace('\\', '/').toLowerCase(Locale.ROOT);
+			this.root = root;
+			this.names = names.toArray(new String[0]);
+			lowerNames = new String[this.names.length];
+			masks = new long[this.names.length];
+			for (int i = 0; i < this.names.length; i++) {
+				lowerNames[i] = this.names[i].toLowerCase(Locale.ROOT);
+				masks[i] = mask(lowerNames[i]);
+			}
+		}
+	}
+
+
+	/**
+	 * A folder or file in the workspace to index.
+	 */
+	private static final class Root {
+
+		private final File file;
+
+		/**
+		 * The folder's filters, or <code>null</code> if this is a file.
+		 */
+		private final FolderFilterInfo filter;
+
+		Root(File file, FolderFilterInfo filter) {
+			this.file = file;
+			this.filter = filter;
+		}
+	}
+
+
+	/**
+	 * Collects the folders and files to index from a workspace.
+	 */
+	private static final class RootCollector implements WorkspaceVisitor {
+
+		private final List<Root> roots = new ArrayList<>();
+
+		@Override
+		public void postVisit(Workspace workspace) {
+		}
+
+		@Override
+		public void postVisit(Project project) {
+		}
+
+		@Override
+		public void postVisit(FileProjectEntry entry) {
+		}
+
+		@Override
+		public void postVisit(FolderProjectEntry entry) {
+		}
+
+		@Override
+		public void postVisit(LogicalFolderProjectEntry entry) {
+		}
+
+		@Override
+		public void visit(Workspace workspace) {
+		}
+
+		@Override
+		public void visit(Project project) {
+		}
+
+		@Override
+		public void visit(FileProjectEntry entry) {
+			roots.add(new Root(entry.getFile(), null));
+		}
+
+		@Override
+		public void visit(FolderProjectEntry entry) {
+			// Copy the filters, since the index is built on another thread
+			FolderFilterInfo info = entry.getFilterInfo();
+			roots.add(new Root(entry.getFile(), new FolderFilterInfo(
+				info.getAllowedFileFilters(), info.getHiddenFileFilters(),
+				info.getHiddenFolderFilters())));
+		}
+
+		@Override
+		public void visit(LogicalFolderProjectEntry entry) {
+		}
+	}
+
+
+	/**
+	 * An immutable copy of the index that searches are run against.  The
+	 * file names are stored in flat arrays to keep them compact.
+	 */
+	private static final class Snapshot {
+
+		private final String[] names;
+		private final String[] lowerNames;
+		private final long[] masks;
+		private final int[] dirIndices;
+		private final Directory[] dirs;
+
+		Snapshot(List<Directory> directories) {
+
+			int count = 0;
+			for (Directory dir : directories) {
+				count += dir.names.length;
+			}
+
+			names = new String[count];
+			lowerNames = new String[count];
+			masks = new long[count];
+			dirIndices = new int[count];
+			dirs = directories.toArray(new Directory[0]);
+
+			int offset = 0;
+			for (int d = 0; d < dirs.length; d++) {
+				Directory dir = dirs[d];
+				int len = dir.names.length;
+				System.arraycopy(dir.names, 0, names, offset, len);
+				System.arraycopy(dir.lowerNames, 0, lowerNames, offset, len);
+				System.arraycopy(dir.masks, 0, masks, offset, len);
+				Arrays.fill(dirIndices, offset, offset + len, d);
+				offset += len;
+			}
+		}
+	}
+
+
+}
@@ -0,0 +1,53 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.awt.event.ActionEvent;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Displays a dialog for opening any file in the active workspace by name.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class GoToFileAction extends AppAction<RText> {
+
+	/**
+	 * The parent plugin.
+	 */
+	private final ProjectPlugin plugin;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param plugin The parent plugin.
+	 */
+	GoToFileAction(RText owner, ProjectPlugin plugin) {
+		super(owner, Messages.getBundle(), "Action.GoToFile");
+		this.plugin = plugin;
+	}
+
+
+	/**
+	 * Called when this action is performed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		GoToFileDialog dialog = new GoToFileDialog(getApplication(),
+			plugin.getFileIndex());
+		dialog.setVisible(true);
+	}
+
+
+}
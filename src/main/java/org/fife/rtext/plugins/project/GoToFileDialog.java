@@ -0,0 +1,105 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.File;
+import java.util.List;
+import javax.swing.Icon;
+import javax.swing.UIManager;
+import javax.swing.event.ChangeListener;
+
+import org.fife.rtext.AbstractGoToDialog;
+import org.fife.rtext.RText;
+
+
+/**
+ * A dialog allowing the user to quickly open any file in the workspace by
+ * typing part of its name.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FileIndex
+ */
+class GoToFileDialog extends AbstractGoToDialog<File> {
+
+	private final FileIndex fileIndex;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param index The index of the files in the workspace.
+	 */
+	GoToFileDialog(RText parent, FileIndex index) {
+
+		super(parent, Messages.getString("GoToFileDialog.Title"));
+		this.fileIndex = index;
+
+		refreshResults(); // Do initial population.
+		pack();
+		setLocationRelativeTo(parent);
+
+	}
+
+
+	@Override
+	protected void addIndexListener(ChangeListener l) {
+		fileIndex.addChangeListener(l);
+	}
+
+
+	@Override
+	protected String getItemDetails(File file) {
+		return file.getParent();
+	}
+
+
+	@Override
+	protected Icon getItemIcon(File file) {
+		return UIManager.getIcon("FileView.fileIcon");
+	}
+
+
+	@Override
+	protected String getItemName(File file) {
+		return file.getName();
+	}
+
+
+	@Override
+	protected String getStatusText() {
+		String count = Integer.toString(fileIndex.getFileCount());
+		return fileIndex.isIndexing() ?
+			Messages.getString("GoToFileDialog.Indexing", count) :
+			Messages.getString("GoToFileDialog.FileCount", count);
+	}
+
+
+	@Override
+	protected boolean open(File file) {
+		if (!file.isFile()) {
+			return false;
+		}
+		getRText().openFile(file);
+		escapePressed();
+		return true;
+	}
+
+
+	@Override
+	protected void removeIndexListener(ChangeListener l) {
+		fileIndex.removeChangeListener(l);
+	}
+
+
+	@Override
+	protected List<File> search(String text, int maxResults) {
+		return fileIndex.search(text, maxResults);
+	}
+
+
+}
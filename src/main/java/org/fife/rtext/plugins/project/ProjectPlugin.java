@@ -21,6 +21,8 @@ import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JSeparator;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.tree.DefaultTreeModel;
@@ -31,6 +33,7 @@ import javax.swing.tree.TreePath;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.WarmUpScheduler;
 import org.fife.rtext.plugins.project.model.Workspace;
 import org.fife.rtext.plugins.project.tree.AbstractWorkspaceTreeNode;
 import org.fife.rtext.plugins.project.tree.WorkspaceTree;
@@ -59,12 +62,19 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 
 	private Map<String, Icon> icons;
 	private Workspace workspace;
+	private FileIndex fileIndex;
 	private ProjectPluginOptionPanel optionPanel;
 
 	private static final String VIEW_CONSOLE_ACTION	= "viewProjectWindowAction";
+	private static final String GO_TO_FILE_ACTION	= "goToFileAction";
 	private static final String DOCKABLE_WINDOW_PROJECTS = "projectsDockableWindow";
 	private static final String VERSION_STRING = "6.0.1";
 
+	/**
+	 * The identifier of the file index warm-up task.
+	 */
+	private static final String WARM_UP_TASK = "fileIndex";
+
 
 	public ProjectPlugin(RText app) {
 
@@ -75,6 +85,7 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		AppAction<RText> a = new ViewProjectsAction(app, this);
 		a.setAccelerator(prefs.windowVisibilityAccelerator);
 		app.addAction(VIEW_CONSOLE_ACTION, a);
+		app.addAction(GO_TO_FILE_ACTION, new GoToFileAction(app, this));
 
 		String workspaceOverride = System.getProperty(PROPERTY_INITIAL_WORKSPACE);
 		if (workspaceOverride!=null) {
@@ -107,6 +118,27 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Returns the index of the files in the active workspace, creating it
+	 * if necessary.  If folders or files have been added to or removed from
+	 * the workspace since the index was created, or their filters changed,
+	 * it is rebuilt.
+	 *
+	 * @return The file index.  It may still be being built in the
+	 *         background.
+	 */
+	FileIndex getFileIndex() {
+		if (fileIndex==null || !fileIndex.isUpToDate(workspace)) {
+			if (fileIndex!=null) {
+				fileIndex.close();
+			}
+			fileIndex = new FileIndex(workspace);
+			fileIndex.start();
+		}
+		return fileIndex;
+	}
+
+
 	@Override
 	public PluginOptionsDialogPanel<ProjectPlugin> getOptionsDialogPanel() {
 		if (optionPanel==null) {
@@ -242,6 +274,23 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		item.applyComponentOrientation(app.getComponentOrientation());
 		menu.add(item);
 
+		// Add "Go to File" to the end of the "Go to..." menu section.
+		JMenu searchMenu = mb.getMenuByName(RTextMenuBar.MENU_SEARCH);
+		for (int i=searchMenu.getMenuComponentCount()-1; i>=0; i--) {
+			Component c = searchMenu.getMenuComponent(i);
+			if (c instanceof JSeparator) {
+				JMenuItem goToFileItem = new JMenuItem(app.getAction(GO_TO_FILE_ACTION));
+				goToFileItem.setToolTipText(null);
+				searchMenu.insert(goToFileItem, i);
+				break;
+			}
+		}
+
+		// Index the workspace while the user is idle, so "Go to File" is
+		// ready when they need it
+		WarmUpScheduler.get().register(WARM_UP_TASK,
+			() -> SwingUtilities.invokeLater(this::getFileIndex));
+
 	}
 
 
@@ -480,6 +529,10 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	 */
 	void setWorkspace(Workspace workspace) {
 		this.workspace = workspace;
+		if (fileIndex!=null) {
+			fileIndex.close();
+			fileIndex = null;
+		}
 		getTree().setWorkspace(workspace);
 		refreshWorkspaceName();
 	}
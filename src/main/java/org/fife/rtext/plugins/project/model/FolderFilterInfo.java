@@ -11,10 +11,9 @@
 package org.fife.rtext.plugins.project.model;
 
 import java.io.File;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
-import org.fife.rtext.RTextUtilities;
-import org.fife.ui.OS;
+import org.fife.rtext.GlobSet;
 
 
 /**
@@ -28,9 +27,9 @@ public class FolderFilterInfo {
 	private String[] allowedFileFilters;
 	private String[] disallowedFileFilters;
 	private String[] disallowedDirectories;
-	private NameMatcher[] allowedFilePatterns;
-	private NameMatcher[] disallowedFilePatterns;
-	private NameMatcher[] disallowedDirPatterns;
+	private GlobSet<String> allowedFilePatterns;
+	private GlobSet<String> disallowedFilePatterns;
+	private GlobSet<String> disallowedDirPatterns;
 
 
 	public FolderFilterInfo() {
@@ -79,7 +78,7 @@ public class FolderFilterInfo {
 				if (disallowedDirPatterns==null) {
 					disallowedDirPatterns = wildcardToMatcher(disallowedDirectories);
 				}
-				if (matches(name, disallowedDirPatterns)) {
+				if (disallowedDirPatterns.matches(name)) {
 					return false;
 				}
 			}
@@ -91,7 +90,7 @@ public class FolderFilterInfo {
 				if (allowedFilePatterns==null) {
 					allowedFilePatterns = wildcardToMatcher(allowedFileFilters);
 				}
-				if (!matches(name, allowedFilePatterns)) {
+				if (!allowedFilePatterns.matches(name)) {
 					return false;
 				}
 			}
@@ -100,7 +99,7 @@ public class FolderFilterInfo {
 				if (disallowedFilePatterns==null) {
 					disallowedFilePatterns = wildcardToMatcher(disallowedFileFilters);
 				}
-				if (matches(name, disallowedFilePatterns)) {
+				if (disallowedFilePatterns.matches(name)) {
 					return false;
 				}
 			}
@@ -112,42 +111,6 @@ public class FolderFilterInfo {
 	}
 
 
-	/**
-	 * Returns whether a filter can be checked via a string literal.
-	 *
-	 * @param filter The filter.
-	 * @return Whether a string literal comparison can be used for the filter.
-	 */
-	private static boolean isStringLiteral(String filter) {
-		for (int i=0; i<filter.length(); i++) {
-			char ch = filter.charAt(i);
-			if (!(Character.isLetterOrDigit(ch) || ch=='.' || ch==' ' ||
-					ch=='-' || ch=='_')) {
-				return false;
-			}
-		}
-		return true;
-	}
-
-
-	/**
-	 * Returns whether a file name matches any of an array of name matchers.
-	 *
-	 * @param fileName The file name to check.
-	 * @param matchers The array of matchers to check against.
-	 * @return Whether the file name matched any of the matchers.
-	 */
-	private static boolean matches(String fileName,
-			NameMatcher[] matchers) {
-		for (NameMatcher matcher : matchers) {
-			if (matcher.matches(fileName)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-
 	/**
 	 * Sets file filters to apply to dictate what to show in
 	 * this tree node.
@@ -199,69 +162,13 @@ public class FolderFilterInfo {
 
 
 	/**
-	 * Converts an array of wildcard file filters into an array of matchers
-	 * for them.
+	 * Compiles an array of wildcard file filters into a single matcher.
 	 *
 	 * @param filters The file filters.
-	 * @return The equivalent matchers
-	 */
-	private static NameMatcher[] wildcardToMatcher(String[] filters) {
-		NameMatcher[] matchers = null;
-		if (filters!=null && filters.length>0) {
-			matchers = new NameMatcher[filters.length];
-			for (int i=0; i<filters.length; i++) {
-				if (isStringLiteral(filters[i])) {
-					matchers[i] = new StringLiteralNameMatcher(filters[i]);
-				}
-				else {
-					Pattern pattern = RTextUtilities.
-							getPatternForFileFilter(filters[i], true);
-					matchers[i] = new RegexNameMatcher(pattern);
-				}
-			}
-		}
-		return matchers;
-	}
-
-
-	/**
-	 * Returns whether a file name is acceptable by some criteria.
-	 */
-	private interface NameMatcher {
-
-		boolean matches(String text);
-
-	}
-
-
-	/**
-	 * Returns whether a file name matches a regular expression.
-	 *
-	 * @param pattern The pattern to use.
+	 * @return The equivalent matcher.
 	 */
-	private record RegexNameMatcher(Pattern pattern) implements NameMatcher {
-
-		@Override
-		public boolean matches(String text) {
-			return pattern.matcher(text).matches();
-		}
-
-	}
-
-
-	/**
-	 * Returns whether a file name matches a string literal.
-	 *
-	 * @param literal The literal to check against.
-	 */
-	private record StringLiteralNameMatcher(String literal) implements NameMatcher {
-
-		@Override
-		public boolean matches(String text) {
-			return OS.get().isCaseSensitive() ?
-					literal.equals(text) : literal.equalsIgnoreCase(text);
-		}
-
+	private static GlobSet<String> wildcardToMatcher(String[] filters) {
+		return GlobSet.of(Arrays.asList(filters));
 	}
 
 
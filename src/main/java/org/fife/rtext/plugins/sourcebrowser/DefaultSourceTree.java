@@ -14,7 +14,17 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.Set;
 import javax.swing.Icon;
 import javax.swing.JComponent;
 import javax.swing.JMenuItem;
@@ -25,10 +35,14 @@ import javax.swing.UIManager;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 import javax.swing.text.Element;
+import javax.swing.text.Segment;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreeCellRenderer;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
 import org.fife.ctags.TagEntry;
@@ -38,7 +52,6 @@ import org.fife.rtext.plugins.sourcebrowser.SourceBrowserPlugin.ExtendedTagEntry
 import org.fife.ui.RTreeSelectionModel;
 import org.fife.ui.UIUtil;
 import org.fife.ui.app.AppAction;
-import org.fife.ui.rtextarea.SearchEngine;
 
 
 /**
@@ -66,6 +79,12 @@ class DefaultSourceTree extends JTree {
 	private final String lineFoundText;
 	private final String cantFindLineText;
 
+	/**
+	 * How many lines above and below a tag's recorded line are searched
+	 * for it before searching the whole document.
+	 */
+	private static final int NEARBY_LINE_COUNT = 100;
+
 
 	DefaultSourceTree(SourceBrowserPlugin plugin, RText owner) {
 
@@ -106,6 +125,128 @@ class DefaultSourceTree extends JTree {
 	}
 
 
+	/**
+	 * Returns the offset of a tag's text in a document.  The search starts
+	 * at the line ctags found the tag on and works outward, since the tag
+	 * has usually moved only a few lines, if at all, since ctags was run.
+	 * Only if it isn't nearby is the whole document searched.  Lines are
+	 * read one at a time through the document's element map, so the
+	 * document's text is never copied.
+	 *
+	 * @param doc The document.
+	 * @param text The text of the tag's line, as found by ctags.
+	 * @param lineNumber The tag's 1-based line number, or <code>0</code>
+	 *        if it is unknown.
+	 * @return The offset of the text, or <code>-1</code> if it isn't found.
+	 */
+	private static int findTagText(Document doc, String text, long lineNumber) {
+
+		Element root = doc.getDefaultRootElement();
+		int lineCount = root.getElementCount();
+		Segment seg = new Segment();
+
+		if (lineNumber > 0) {
+			// If lines were deleted, the tag may now be near the end
+			int line = (int)Math.min(lineNumber - 1, lineCount - 1);
+			for (int delta=0; delta<=NEARBY_LINE_COUNT; delta++) {
+				int pos = findTextInLine(doc, line + delta, text, seg);
+				if (pos==-1 && delta>0) {
+					pos = findTextInLine(doc, line - delta, text, seg);
+				}
+				if (pos>-1) {
+					return pos;
+				}
+			}
+		}
+
+		// It has moved far, or we don't know its line number
+		for (int line=0; line<lineCount; line++) {
+			int pos = findTextInLine(doc, line, text, seg);
+			if (pos>-1) {
+				return pos;
+			}
+		}
+		return -1;
+
+	}
+
+
+	/**
+	 * Returns the offset of text in a single line of a document.
+	 *
+	 * @param doc The document.
+	 * @param line The line to search.  If this is not a valid line,
+	 *        <code>-1</code> is returned.
+	 * @param text The text to search for.
+	 * @param seg A segment to read the line into.
+	 * @return The offset of the text, or <code>-1</code> if it isn't in the
+	 *         line.
+	 */
+	private static int findTextInLine(Document doc, int line, String text, Segment seg) {
+
+		Element root = doc.getDefaultRootElement();
+		if (line<0 || line>=root.getElementCount()) {
+			return -1;
+		}
+
+		Element elem = root.getElement(line);
+		int start = elem.getStartOffset();
+		int length = elem.getEndOffset() - start;
+		if (length<text.length()) {
+			return -1;
+		}
+		try {
+			doc.getText(start, Math.min(length, doc.getLength() - start), seg);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return -1;
+		}
+
+		int last = seg.count - text.length();
+		for (int i=0; i<=last; i++) {
+			int j = 0;
+			while (j<text.length() && seg.array[seg.offset + i + j]==text.charAt(j)) {
+				j++;
+			}
+			if (j==text.length()) {
+				return start + i;
+			}
+		}
+		return -1;
+
+	}
+
+
+	/**
+	 * Returns the name of a group node, without the count of its children.
+	 *
+	 * @param node The group node.
+	 * @return The group's name.
+	 */
+	private static String getGroupName(TreeNode node) {
+		String title = node.toString();
+		int paren = title!=null ? title.lastIndexOf(" (") : -1;
+		return paren > -1 ? title.substring(0, paren) : title;
+	}
+
+
+	/**
+	 * Returns a key identifying the tag a tree node represents.  The line
+	 * number isn't part of the key, so a tag is still matched to its old
+	 * node after lines are added or removed above it.
+	 *
+	 * @param node The tree node.
+	 * @return The key.
+	 */
+	private static String getNodeKey(TreeNode node) {
+		Object obj = ((DefaultMutableTreeNode)node).getUserObject();
+		if (obj instanceof TagEntry entry) {
+			return entry.name + '\0' + entry.kind + '\0' + entry.getPlainTextPattern();
+		}
+		return String.valueOf(obj);
+	}
+
+
 	/**
 	 * Returns the icon to use for "root" nodes of source trees (typically
 	 * representing the type of source file).
@@ -133,13 +274,44 @@ class DefaultSourceTree extends JTree {
 	}
 
 
+	/**
+	 * Returns whether a new tree can be merged into the current one, rather
+	 * than replacing it.  This is true if both trees are for the same file
+	 * and have the same groups.
+	 *
+	 * @param oldRoot The current root.
+	 * @param newRoot The new root.
+	 * @return Whether the trees can be merged.
+	 */
+	private boolean isReconcilable(Object oldRoot, SourceTreeNode newRoot) {
+
+		if (!(oldRoot instanceof SourceTreeNode oldNode) || newRoot==null ||
+				newRoot.isSorted()!=isSorted() ||
+				!Objects.equals(oldNode.getUserObject(), newRoot.getUserObject()) ||
+				oldNode.getChildCount()!=newRoot.getChildCount()) {
+			return false;
+		}
+
+		for (int i=0; i<newRoot.getChildCount(); i++) {
+			TreeNode oldGroup = oldNode.getChildAt(i);
+			TreeNode newGroup = newRoot.getChildAt(i);
+			if (!(oldGroup instanceof GroupTreeNode) || !(newGroup instanceof GroupTreeNode) ||
+					!Objects.equals(getGroupName(oldGroup), getGroupName(newGroup))) {
+				return false;
+			}
+		}
+		return true;
+
+	}
+
+
 	/**
 	 * Returns whether the contents of this tree are sorted.
 	 *
 	 * @return Whether the contents of this tree are sorted.
 	 * @see #setSorted(boolean)
 	 */
-	private boolean isSorted() {
+	boolean isSorted() {
 		return sorted;
 	}
 
@@ -213,6 +385,118 @@ class DefaultSourceTree extends JTree {
 	}
 
 
+	/**
+	 * Merges the tags in a group of a new tree into the matching group in
+	 * this tree.  Nodes for tags that are in both are kept, so their
+	 * selection is kept too, and only the tags that were added or removed
+	 * fire events.
+	 *
+	 * @param oldGroup The group in this tree.
+	 * @param newGroup The group in the new tree.  Its children should
+	 *        already be sorted.
+	 */
+	private void reconcileGroup(SourceTreeNode oldGroup, SourceTreeNode newGroup) {
+
+		if (!Objects.equals(oldGroup.getUserObject(), newGroup.getUserObject())) {
+			oldGroup.setUserObject(newGroup.getUserObject()); // The count
+			treeModel.nodeChanged(oldGroup);
+		}
+
+		List<TreeNode> oldVisible = new ArrayList<>(oldGroup.getChildCount());
+		for (int i=0; i<oldGroup.getChildCount(); i++) {
+			oldVisible.add(oldGroup.getChildAt(i));
+		}
+		Map<String, Deque<TreeNode>> oldByKey = new HashMap<>();
+		for (TreeNode node : oldVisible) {
+			oldByKey.computeIfAbsent(getNodeKey(node), k -> new ArrayDeque<>()).add(node);
+		}
+
+		// Match each new tag to an old node, giving the old node the new
+		// tag since its line number may have changed
+		Map<TreeNode, TreeNode> reused = new IdentityHashMap<>();
+		for (int i=0; i<newGroup.getChildCount(); i++) {
+			TreeNode newNode = newGroup.getChildAt(i);
+			Deque<TreeNode> matches = oldByKey.get(getNodeKey(newNode));
+			TreeNode oldNode = matches!=null ? matches.poll() : null;
+			if (oldNode!=null) {
+				Object tag = ((DefaultMutableTreeNode)newNode).getUserObject();
+				((DefaultMutableTreeNode)oldNode).setUserObject(tag);
+				reused.put(newNode, oldNode);
+			}
+		}
+		Set<TreeNode> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+		kept.addAll(reused.values());
+
+		// Remove the nodes for tags that are gone
+		List<TreeNode> retained = new ArrayList<>(kept.size());
+		List<Integer> removedIndices = new ArrayList<>();
+		List<TreeNode> removed = new ArrayList<>();
+		for (int i=0; i<oldVisible.size(); i++) {
+			TreeNode node = oldVisible.get(i);
+			if (kept.contains(node)) {
+				retained.add(node);
+			}
+			else {
+				removedIndices.add(i);
+				removed.add(node);
+			}
+		}
+		if (!removed.isEmpty()) {
+			List<MutableTreeNode> retainedAll = new ArrayList<>(retained.size());
+			for (TreeNode node : oldGroup.getAllChildren()) {
+				if (kept.contains(node)) {
+					retainedAll.add((MutableTreeNode)node);
+				}
+			}
+			oldGroup.setChildren(retainedAll, retained);
+			int[] indices = removedIndices.stream().mapToInt(Integer::intValue).toArray();
+			treeModel.nodesWereRemoved(oldGroup, indices, removed.toArray());
+		}
+
+		// Build the final children, reusing the old nodes
+		List<TreeNode> finalVisible = new ArrayList<>(newGroup.getChildCount());
+		for (int i=0; i<newGroup.getChildCount(); i++) {
+			TreeNode newNode = newGroup.getChildAt(i);
+			finalVisible.add(reused.getOrDefault(newNode, newNode));
+		}
+		List<MutableTreeNode> finalAll = new ArrayList<>(finalVisible.size());
+		for (TreeNode newNode : newGroup.getAllChildren()) {
+			finalAll.add((MutableTreeNode)reused.getOrDefault(newNode, newNode));
+		}
+
+		// If the kept tags are still in the same order, the rest can just be
+		// inserted.  Otherwise (e.g. functions were moved around), the group
+		// is reloaded.
+		List<TreeNode> finalRetained = new ArrayList<>(retained.size());
+		List<Integer> insertedIndices = new ArrayList<>();
+		for (int i=0; i<finalVisible.size(); i++) {
+			TreeNode node = finalVisible.get(i);
+			if (kept.contains(node)) {
+				finalRetained.add(node);
+			}
+			else {
+				insertedIndices.add(i);
+			}
+		}
+
+		boolean expanded = isExpanded(new TreePath(oldGroup.getPath()));
+		oldGroup.setChildren(finalAll, finalVisible);
+		if (finalRetained.equals(retained)) {
+			if (!insertedIndices.isEmpty()) {
+				int[] indices = insertedIndices.stream().mapToInt(Integer::intValue).toArray();
+				treeModel.nodesWereInserted(oldGroup, indices);
+			}
+		}
+		else {
+			treeModel.nodeStructureChanged(oldGroup);
+			if (expanded) {
+				expandPath(new TreePath(oldGroup.getPath()));
+			}
+		}
+
+	}
+
+
 	/**
 	 * Refreshes what children are visible in the tree.  This should be called
 	 * manually when updating a source tree with a new root, and is also called
@@ -272,6 +556,47 @@ class DefaultSourceTree extends JTree {
 	}
 
 
+	/**
+	 * Displays a newly parsed tree.  If it's for the same file as the tree
+	 * currently displayed, it is merged into the current one, firing events
+	 * only for the tags that were added or removed, so expanded nodes, the
+	 * selection and the scroll position are kept.  Otherwise, it replaces
+	 * the current tree.
+	 *
+	 * @param newRoot The new root.  Its children should already be sorted
+	 *        to match this tree, e.g. on the thread that parsed the file.
+	 *        This may be <code>null</code>.
+	 * @see #setRoot(SourceTreeNode)
+	 */
+	void updateRoot(SourceTreeNode newRoot) {
+
+		Object oldRoot = treeModel.getRoot();
+		if (!isReconcilable(oldRoot, newRoot)) {
+			if (newRoot!=null && newRoot.isSorted()!=isSorted()) {
+				newRoot.setSorted(isSorted()); // Toggled while parsing
+			}
+			treeModel.setRoot(newRoot);
+			plugin.ensureSourceTreeSortedProperly();
+			expandInitialNodes();
+			return;
+		}
+
+		// Don't jump to tags that get selected or deselected as nodes are
+		// added and removed
+		ignoreTreeSelections = true;
+		try {
+			SourceTreeNode oldNode = (SourceTreeNode)oldRoot;
+			for (int i=0; i<newRoot.getChildCount(); i++) {
+				reconcileGroup((SourceTreeNode)oldNode.getChildAt(i),
+					(SourceTreeNode)newRoot.getChildAt(i));
+			}
+		} finally {
+			ignoreTreeSelections = false;
+		}
+
+	}
+
+
 	@Override
 	public void updateUI() {
 		super.updateUI();
@@ -436,12 +761,10 @@ class DefaultSourceTree extends JTree {
 					text = text.substring(2, text.length()-2);
 
 					if (plugin.getUseHTMLToolTips()) {
-						// FIXME: Fix me to look line by line (as it's
-						// guaranteed to be just a a line!).
 						RTextEditorPane textArea = owner.getMainView().
 													getCurrentTextArea();
-						int pos = SearchEngine.getNextMatchPos(text,
-								textArea.getText(), true, true, false);
+						int pos = findTagText(textArea.getDocument(), text,
+								entry.lineNumber);
 						if (pos>-1) {
 							try {
 								int line = textArea.getLineOfOffset(pos);
@@ -502,10 +825,8 @@ class DefaultSourceTree extends JTree {
 					RTextEditorPane editor=owner.getMainView().getCurrentTextArea();
 					String pattern = entry.getPlainTextPattern();
 					if (pattern!=null) {
-						// FIXME: Fix me to look line by line (as it's
-						// guaranteed to be just a a line!).
-						int pos = SearchEngine.getNextMatchPos(pattern,
-									editor.getText(), true, true, false);
+						int pos = findTagText(editor.getDocument(), pattern,
+									entry.lineNumber);
 						if (pos>-1) {
 							editor.setCaretPosition(pos);
 							editor.moveCaretPosition(pos+pattern.length());
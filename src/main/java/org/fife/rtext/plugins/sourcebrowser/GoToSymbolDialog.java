@@ -0,0 +1,156 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.sourcebrowser;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.List;
+import java.util.ResourceBundle;
+import javax.swing.Icon;
+import javax.swing.event.ChangeListener;
+import javax.swing.text.Element;
+
+import org.fife.ctags.TagEntry;
+import org.fife.rtext.AbstractGoToDialog;
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.RTextUtilities;
+
+
+/**
+ * A dialog allowing the user to jump to any symbol in the workspace by
+ * typing part of its name.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see SymbolIndex
+ */
+class GoToSymbolDialog extends AbstractGoToDialog<SymbolIndex.Symbol> {
+
+	private final SymbolIndex symbolIndex;
+	private final ResourceBundle msg;
+	private final Icon icon;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param plugin The source browser plugin.
+	 * @param index The index of the symbols in the workspace.  If this is
+	 *        <code>null</code>, the dialog just says that no index is
+	 *        available.
+	 */
+	GoToSymbolDialog(RText parent, SourceBrowserPlugin plugin, SymbolIndex index) {
+
+		super(parent, plugin.getBundle().getString("GoToSymbolDialog.Title"));
+		this.symbolIndex = index;
+		this.msg = plugin.getBundle();
+		this.icon = plugin.getPluginIcon("blue");
+
+		refreshResults(); // Do initial population.
+		pack();
+		setLocationRelativeTo(parent);
+
+	}
+
+
+	@Override
+	protected void addIndexListener(ChangeListener l) {
+		if (symbolIndex!=null) {
+			symbolIndex.addChangeListener(l);
+		}
+	}
+
+
+	@Override
+	protected String getItemDetails(SymbolIndex.Symbol symbol) {
+		return symbol.getFile().getAbsolutePath() + ":" + symbol.getTag().lineNumber;
+	}
+
+
+	@Override
+	protected Icon getItemIcon(SymbolIndex.Symbol symbol) {
+		return icon;
+	}
+
+
+	@Override
+	protected String getItemName(SymbolIndex.Symbol symbol) {
+		return symbol.getTag().name;
+	}
+
+
+	@Override
+	protected String getStatusText() {
+		if (symbolIndex == null) {
+			return msg.getString("GoToSymbolDialog.Unavailable");
+		}
+		String count = Integer.toString(symbolIndex.getSymbolCount());
+		String key = symbolIndex.isUpdating() ? "GoToSymbolDialog.Indexing" :
+			"GoToSymbolDialog.SymbolCount";
+		return MessageFormat.format(msg.getString(key), count);
+	}
+
+
+	@Override
+	protected boolean isSameItem(SymbolIndex.Symbol symbol1, SymbolIndex.Symbol symbol2) {
+		return symbol1.getFile().equals(symbol2.getFile()) &&
+			symbol1.getTag().name.equals(symbol2.getTag().name) &&
+			symbol1.getTag().lineNumber == symbol2.getTag().lineNumber;
+	}
+
+
+	/**
+	 * Opens the file containing a symbol and selects the line it's defined
+	 * on.
+	 *
+	 * @param symbol The symbol.
+	 * @return Whether the file could be opened.
+	 */
+	@Override
+	protected boolean open(SymbolIndex.Symbol symbol) {
+
+		RText rtext = getRText();
+		if (!symbol.getFile().isFile() ||
+				!rtext.getMainView().openFile(symbol.getFile().getAbsolutePath(), null, true)) {
+			return false;
+		}
+
+		escapePressed();
+
+		TagEntry tag = symbol.getTag();
+		RTextEditorPane textArea = rtext.getMainView().getCurrentTextArea();
+		Element root = textArea.getDocument().getDefaultRootElement();
+		int line = (int)tag.lineNumber - 1;
+		if (line >= 0 && line < root.getElementCount()) {
+			Element elem = root.getElement(line);
+			textArea.setCaretPosition(elem.getStartOffset());
+			textArea.moveCaretPosition(Math.max(elem.getStartOffset(), elem.getEndOffset() - 1));
+			RTextUtilities.centerSelectionVertically(textArea);
+		}
+		textArea.requestFocusInWindow();
+		return true;
+
+	}
+
+
+	@Override
+	protected void removeIndexListener(ChangeListener l) {
+		if (symbolIndex!=null) {
+			symbolIndex.removeChangeListener(l);
+		}
+	}
+
+
+	@Override
+	protected List<SymbolIndex.Symbol> search(String text, int maxResults) {
+		return symbolIndex != null ? symbolIndex.search(text, maxResults) :
+			Collections.emptyList();
+	}
+
+
+}
@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -69,6 +70,7 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	private boolean useHTMLToolTips;
 	private final SourceBrowserThread sourceBrowserThread;
 	private final SourceTreeNode workingRoot;
+	private final Timer reparseTimer;
 	private JToolBar dockableWindowTB;
 
 	private String ctagsExecutableLocation;
@@ -83,6 +85,9 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	private final ViewAction viewAction;
 	private SourceBrowserOptionPanel optionPanel;
 
+	private volatile SymbolIndex symbolIndex;
+	private String symbolIndexWorkspace;
+
 	static final String BUNDLE_NAME		=
 					"org.fife.rtext.plugins.sourcebrowser.SourceBrowser";
 
@@ -90,8 +95,17 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 
 	private static final String VIEW_SB_ACTION	= "ViewSourceBrowserAction";
 
+	private static final String GO_TO_SYMBOL_ACTION	= "GoToSymbolAction";
+
+	private static final String WARM_UP_TASK = "symbolIndex";
+
 	private static final String CACHED_SOURCE_TREE = "sourceBrowser.fileSystemTree";
 
+	/**
+	 * How long the user must stop typing before the outline is updated.
+	 */
+	private static final int REPARSE_DELAY_MILLIS = 750;
+
 
 	/**
 	 * Creates a new <code>SourceBrowserPlugin</code>.
@@ -121,6 +135,8 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 
 		sourceBrowserThread = new SourceBrowserThread(this);
 		workingRoot = new SourceTreeNode(msg.getString("Working"));
+		reparseTimer = new Timer(REPARSE_DELAY_MILLIS, e -> reparseCurrentBuffer());
+		reparseTimer.setRepeats(false);
 
 	}
 
@@ -180,6 +196,18 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	@Override
 	public void currentTextAreaPropertyChanged(CurrentTextAreaEvent e) {
 
+		// Keep the workspace symbol index current as files are saved, even
+		// if we're not visible.
+		SymbolIndex index = symbolIndex;
+		if (index!=null && e.getType()==CurrentTextAreaEvent.IS_MODIFIED_CHANGED &&
+				Boolean.FALSE.equals(e.getNewValue())) {
+			RTextEditorPane textArea = getApplication().getMainView().getCurrentTextArea();
+			File file = new File(textArea.getFileFullPath());
+			if (textArea.isLocal() && index.isIndexed(file)) {
+				index.refreshFile(file);
+			}
+		}
+
 		// Don't worry about it if we're not visible.
 		final DockableWindow wind = getDockableWindow(getPluginName());
 		if (!wind.isActive()/* || !wind.isShowing()*/)
@@ -203,6 +231,7 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 			if (sourceBrowserThread!=null) {
 				sourceBrowserThread.interrupt();
 			}
+			reparseTimer.stop();
 
 			RTextEditorPane textArea = owner.getMainView().getCurrentTextArea();
 
@@ -269,7 +298,13 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 				((DefaultSourceTree)sourceTree).setRoot(null);
 				return;
 			}
-			((DefaultSourceTree)sourceTree).setRoot(workingRoot);
+
+			// If the buffer hasn't changed since it was last parsed, the
+			// thread reuses the cached tags and finishes immediately.
+			TagCache cache = getTagCache(textArea);
+			if (cache.getTags(style)==null) {
+				((DefaultSourceTree)sourceTree).setRoot(workingRoot);
+			}
 
 			// Start a new process in a separate thread to parse the
 			// file.  When the thread completes it will automatically
@@ -277,7 +312,7 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 			if (sourceBrowserThread!=null) {
 				sourceBrowserThread.reset();
 				sourceBrowserThread.start(10000, textArea, style, language,
-												(DefaultSourceTree)sourceTree);
+												(DefaultSourceTree)sourceTree, cache);
 			}
 
 		}
@@ -418,6 +453,41 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	}
 
 
+	/**
+	 * Returns the cache of the tags found in a text area's buffer.  When
+	 * the buffer of the current text area is edited, the outline is updated
+	 * once the user stops typing.
+	 *
+	 * @param textArea The text area.
+	 * @return The cache.
+	 */
+	private TagCache getTagCache(RTextEditorPane textArea) {
+		return TagCache.get(textArea, () -> {
+			if (textArea==getApplication().getMainView().getCurrentTextArea()) {
+				reparseTimer.restart();
+			}
+		});
+	}
+
+
+	/**
+	 * Returns the tags for a file from the workspace symbol index, if it
+	 * has up-to-date tags for that file.  This may be called on any thread.
+	 *
+	 * @param textArea The text area containing the file.
+	 * @param language The ctags language the file is being parsed as.
+	 * @return The tags, or <code>null</code> if ctags must be run on the
+	 *         file instead.
+	 */
+	List<TagEntry> getIndexedTags(RTextEditorPane textArea, String language) {
+		SymbolIndex index = symbolIndex;
+		if (index==null || textArea.isDirty() || !textArea.isLocal()) {
+			return null;
+		}
+		return index.getTags(new File(textArea.getFileFullPath()), language);
+	}
+
+
 	/**
 	 * Returns the options panel for this source browser.
 	 *
@@ -535,6 +605,25 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 		JMenu viewMenu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
 		viewMenu.add(item);
 
+		// Add "Go to Symbol in Workspace" to the end of the "Go to..." menu
+		// section.
+		owner.addAction(GO_TO_SYMBOL_ACTION, new GoToSymbolAction(owner, msg));
+		JMenu searchMenu = mb.getMenuByName(RTextMenuBar.MENU_SEARCH);
+		for (int i=searchMenu.getMenuComponentCount()-1; i>=0; i--) {
+			Component c = searchMenu.getMenuComponent(i);
+			if (c instanceof JSeparator) {
+				JMenuItem goToSymbolItem = new JMenuItem(owner.getAction(GO_TO_SYMBOL_ACTION));
+				goToSymbolItem.setToolTipText(null);
+				searchMenu.insert(goToSymbolItem, i);
+				break;
+			}
+		}
+
+		// Index the workspace while the user is idle, so the source browser
+		// and "Go to Symbol" don't have to wait on ctags
+		WarmUpScheduler.get().register(WARM_UP_TASK,
+			() -> SwingUtilities.invokeLater(this::refreshSymbolIndex));
+
 	}
 
 
@@ -610,6 +699,7 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 		else if (AbstractMainView.TEXT_AREA_REMOVED_PROPERTY.equals(propertyName)) {
 			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
 			uninstallSourceTree(textArea);
+			TagCache.uninstall(textArea);
 		}
 	}
 
@@ -628,6 +718,89 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	}
 
 
+	/**
+	 * Brings the workspace symbol index up to date with the workspace open
+	 * in the Projects plugin, creating it if necessary.  The update itself
+	 * runs in the background.  This must be called on the EDT.
+	 *
+	 * @return The symbol index, or <code>null</code> if there isn't one,
+	 *         either because the Projects plugin isn't installed or because
+	 *         Exuberant Ctags isn't configured.
+	 */
+	SymbolIndex refreshSymbolIndex() {
+
+		Plugin<?> projectPlugin = null;
+		for (Plugin<?> plugin : getApplication().getPlugins()) {
+			if (WorkspaceSourceFiles.PROJECT_PLUGIN_CLASS.equals(plugin.getClass().getName())) {
+				projectPlugin = plugin;
+				break;
+			}
+		}
+
+		// Standard ctags writes to a "tags" file rather than stdout, so it
+		// can't be used to build an index.
+		boolean usable = projectPlugin!=null && ctagsFile!=null && ctagsFile.isFile() &&
+			CTAGS_TYPE_EXUBERANT.equals(getCTagsType());
+		WorkspaceSourceFiles sourceFiles = usable ? new WorkspaceSourceFiles(projectPlugin) : null;
+		String workspacePath = sourceFiles!=null ? sourceFiles.getWorkspacePath() : null;
+
+		if (workspacePath==null) {
+			if (symbolIndex!=null) {
+				symbolIndex.close();
+				symbolIndex = null;
+				symbolIndexWorkspace = null;
+			}
+			return null;
+		}
+
+		if (symbolIndex==null || !workspacePath.equals(symbolIndexWorkspace)) {
+			if (symbolIndex!=null) {
+				symbolIndex.close();
+				symbolIndex.save();
+			}
+			File indexDir = new File(RTextUtilities.getPreferencesDirectory(), "symbols");
+			String indexName = Integer.toHexString(workspacePath.hashCode()) + ".idx";
+			symbolIndex = new SymbolIndex(this, new File(indexDir, indexName));
+			symbolIndexWorkspace = workspacePath;
+		}
+
+		AbstractMainView mainView = getApplication().getMainView();
+		symbolIndex.refresh(() -> sourceFiles.listFiles(file ->
+			getLanguageForStyle(mainView.getSyntaxStyleForFile(file.getName()))!=null));
+		return symbolIndex;
+
+	}
+
+
+	/**
+	 * Re-parses the current text area's buffer after the user has edited
+	 * it, if the outline is showing the output of ctags for it.
+	 */
+	private void reparseCurrentBuffer() {
+
+		RTextEditorPane textArea = getApplication().getMainView().getCurrentTextArea();
+		if (textArea==null || !getDockableWindow(getPluginName()).isActive() ||
+				!(sourceTree instanceof DefaultSourceTree) ||
+				ctagsFile==null || !ctagsFile.isFile()) {
+			return;
+		}
+
+		// Custom handlers keep their own trees up to date
+		String style = textArea.getSyntaxEditingStyle();
+		String language = getLanguageForStyle(style);
+		if (language==null || System.getProperty(CUSTOM_HANDLER_PREFIX + style)!=null) {
+			return;
+		}
+
+		// Keep showing the old tags until the new ones are ready
+		sourceBrowserThread.interrupt();
+		sourceBrowserThread.reset();
+		sourceBrowserThread.start(10000, textArea, style, language,
+			(DefaultSourceTree)sourceTree, getTagCache(textArea));
+
+	}
+
+
 	@Override
 	public void savePreferences() {
 		RText owner = getApplication();
@@ -645,6 +818,9 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 		} catch (IOException ioe) {
 			owner.displayException(ioe);
 		}
+		if (symbolIndex!=null) {
+			symbolIndex.save();
+		}
 	}
 
 
@@ -722,9 +898,14 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	 */
 	@Override
 	public boolean uninstall() {
+		reparseTimer.stop();
 		RText owner = getApplication();
 		owner.getMainView().removeCurrentTextAreaListener(this);
 		owner.getMainView().removePropertyChangeListener(AbstractMainView.TEXT_AREA_REMOVED_PROPERTY, this);
+		if (symbolIndex!=null) {
+			symbolIndex.close();
+			symbolIndex = null;
+		}
 		return true;
 	}
 
@@ -799,6 +980,25 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	}
 
 
+	/**
+	 * Displays a dialog for jumping to any symbol in the workspace.
+	 */
+	private class GoToSymbolAction extends AppAction<RText> {
+
+		GoToSymbolAction(RText app, ResourceBundle msg) {
+			super(app, msg, "Action.GoToSymbol");
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			GoToSymbolDialog dialog = new GoToSymbolDialog(getApplication(),
+				SourceBrowserPlugin.this, refreshSymbolIndex());
+			dialog.setVisible(true);
+		}
+
+	}
+
+
 	/**
 	 * Toggles whether the source tree is sorted alphabetically.
 	 */
@@ -15,6 +15,8 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -22,8 +24,9 @@ import java.util.Map;
 import javax.swing.Icon;
 
 import org.fife.ctags.TagEntry;
-import org.fife.io.ProcessRunner;
+import org.fife.rtext.ManagedProcess;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.jfr.CtagsEvent;
 import org.fife.ui.GUIWorkerThread;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
@@ -47,8 +50,22 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	private String style;
 	private String language;
 	private DefaultSourceTree tree;
+	private boolean sorted;
+
+	private TagCache cache;
+	private int stamp;				// The document's stamp when we started.
+	private List<TagEntry> cachedTags;
+	private String text;			// Unsaved buffer content, if any.
+	private String encoding;
+	private List<TagEntry> parsedTags;
 
 	private static final int MAX_NUM_HASH_MAPS = 12;	// Longest string length in tagTypesMap.
+
+	/**
+	 * The maximum amount of ctags output read.  Tags are only listed if
+	 * all of the output fits.
+	 */
+	private static final int MAX_OUTPUT_LENGTH = 16 * 1024 * 1024;
 	private static final Map<String, String> TAG_TYPES_MAP;
 
 	static {
@@ -264,6 +281,20 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	}
 
 
+	/**
+	 * Adds a tag to the list for its tag type, if that type is displayed
+	 * for this language.
+	 *
+	 * @param entry The tag.
+	 */
+	private void addTag(TagEntry entry) {
+		List<TagEntry> list = map.get(entry.kind);
+		if (list!=null) {	// A supported tag type for this language.
+			list.add(entry);
+		}
+	}
+
+
 	/**
 	 * Adds a node to the ctags tree containing one child for each tag entry
 	 * passed in.
@@ -319,6 +350,37 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	@Override
 	public SourceTreeNode construct() {
 
+		CtagsEvent event = new CtagsEvent();
+		event.begin();
+
+		SourceTreeNode root = constructImpl();
+
+		// Sort here rather than on the EDT, since there may be thousands of
+		// tags.
+		if (root!=null) {
+			root.setSorted(sorted);
+			root.refresh();
+		}
+
+		int tagCount = 0;
+		for (List<TagEntry> list : map.values()) {
+			tagCount += list.size();
+		}
+		event.commit(textArea.getFileFullPath(), language, tagCount);
+		return root;
+	}
+
+
+	/**
+	 * Builds the tree of the buffer's tags, using the tags cached for the
+	 * buffer or the workspace symbol index if possible, and running ctags
+	 * otherwise.
+	 *
+	 * @return A <code>TreeNode</code> object for the source browser tree.
+	 *         If something goes wrong, this value will be <code>null</code>.
+	 */
+	private SourceTreeNode constructImpl() {
+
 		// Create data structures in which we can store the tags.
 		map.clear();
 		String knownTagTypes = TAG_TYPES_MAP.get(style);
@@ -329,89 +391,42 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 			map.put(tagType, arrayListBuffer.get(i));
 		}
 
-		// Create a command line to run ctags.
-		boolean exuberant = plugin.getCTagsType().equals(
-							SourceBrowserPlugin.CTAGS_TYPE_EXUBERANT);
-		//System.out.println("DEBUG: Exuberant: " + exuberant);
-		String[] commandLine = createCommandLine(exuberant);
-
-		// Run the process and collect its output in a separate thread.
-		// If the thread does not complete in maxTime milliseconds, we'll
-		// assume the process is a runaway one and we'll kill it.
-		ProcessRunner runner = new ProcessRunner(commandLine);
-		Thread t = new Thread(runner);
-		t.start();
-		try {
-			t.join(maxTime);
-		} catch (InterruptedException ie) {
-			// Most likely interrupted because we were parsing a very large
-			// file, above but the user clicked on a different tab before we
-			// completed.  Don't print a stack trace; just interrupt the
-			// thread doing the parsing (since we can't watch it anymore)
-			// and return.
-			t.interrupt();
-			return null;
-		}
-		if (t.isAlive()) {
-			// If it's still alive, we assume it's a runaway process.
-			// This happens when the t.join(maxTime) above does not complete
-			// before maxTime is up.
-			t.interrupt();
-			String s = plugin.getBundle().getString("Error.RunawayProcess");
-			return new SourceTreeNode(s);
-		}
-		else if (runner.getLastError()!=null) {
-			// If we got an error launching/running the process (such as
-			// "not a valid win32 process", etc.), say so.
-			String s = plugin.getBundle().getString("Error.RunningProcess");
-			return new SourceTreeNode(s);
+		// If the buffer hasn't changed since it was last parsed, or the
+		// workspace symbol index has this file's tags, we don't need to run
+		// ctags at all.
+		List<TagEntry> knownTags = cachedTags!=null ? cachedTags :
+			plugin.getIndexedTags(textArea, language);
+		if (knownTags!=null) {
+			for (TagEntry entry : knownTags) {
+				addTag(entry);
+			}
+			parsedTags = knownTags;
+			return createRoot();
 		}
 
-		// Add stuff from the process's stdout to our maps.
-		BufferedReader r;
-		if (exuberant) {
-			String stdout = runner.getStdout();
-			r = new BufferedReader(new StringReader(stdout));
-		}
-		else {
-			File file = new File("tags");
-			if (!file.isFile()) {
-				// TODO: Give better error message here - and localize me!
-				String s = "tags file not found!";
-				return new SourceTreeNode(s);
-			}
+		// ctags can only read files, so unsaved changes are written to a
+		// temporary file for it to parse.
+		File tempFile = null;
+		String sourceFile = textArea.getFileFullPath();
+		if (text!=null) {
 			try {
-				r = new BufferedReader(new FileReader(file));
+				tempFile = createTempFile();
 			} catch (IOException ioe) {
-				// If we got an error launching/running the process (such as
-				// "not a valid win32 process", etc.), say so.
 				ioe.printStackTrace();
 				String s = plugin.getBundle().getString("Error.RunningProcess");
 				return new SourceTreeNode(s);
 			}
+			sourceFile = tempFile.getAbsolutePath();
 		}
-		String line;
+
 		try {
-			while ((line=r.readLine()) != null) {
-				TagEntry entry = new SourceBrowserPlugin.ExtendedTagEntry(line);
-				List<TagEntry> list = map.get(entry.kind);
-				if (list!=null) {	// A supported tag type for this language.
-					list.add(entry);
-				}
+			return runCtags(sourceFile);
+		} finally {
+			if (tempFile!=null && !tempFile.delete()) {
+				tempFile.deleteOnExit();
 			}
-			r.close();
-		} catch (IOException ioe) {
-			ioe.printStackTrace();
-			// Don't return null, just return what we got.
 		}
 
-		// Sets the tree stuff.
-		SourceTreeNode root = new SourceTreeNode(textArea.getFileName());
-		root.setSortable(false);
-		addChildNodesForStyle(root, style);
-
-		return root;
-
 	}
 
 
@@ -419,21 +434,22 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	 * Creates the command line to use to launch ctags.
 	 *
 	 * @param exuberant Whether we're using Exuberant ctags or standard ctags.
+	 * @param sourceFile The file to parse.
 	 * @return The command line.
 	 */
-	private String[] createCommandLine(boolean exuberant) {
+	private String[] createCommandLine(boolean exuberant, String sourceFile) {
 
-		String sourceFile = textArea.getFileFullPath();
 		String[] commandLine;
 
 		if (exuberant) {
-			commandLine = new String[6];
+			commandLine = new String[7];
 			commandLine[0] = plugin.getCTagsExecutableLocation();
 			commandLine[1] = "-f";
 			commandLine[2] = "-";
 			commandLine[3] = "--language-force=" + language;
 			commandLine[4] = "--sort=no"; // Sorting is a UI option
-			commandLine[5] = sourceFile;
+			commandLine[5] = "--fields=+n"; // Line numbers anchor navigation
+			commandLine[6] = sourceFile;
 		}
 		else { // standard
 			commandLine = new String[2];
@@ -446,6 +462,47 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	}
 
 
+	/**
+	 * Creates the root of the source browser tree from the tags collected.
+	 *
+	 * @return The root node.
+	 */
+	private SourceTreeNode createRoot() {
+		SourceTreeNode root = new SourceTreeNode(textArea.getFileName());
+		root.setSortable(false);
+		addChildNodesForStyle(root, style);
+		return root;
+	}
+
+
+	/**
+	 * Writes the unsaved buffer content to a temporary file for ctags to
+	 * parse.  The file has the same extension as the buffer's file, since
+	 * standard ctags uses it to determine the language.
+	 *
+	 * @return The temporary file.  The caller should delete it.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private File createTempFile() throws IOException {
+
+		String fileName = textArea.getFileName();
+		int dot = fileName.lastIndexOf('.');
+		String suffix = dot > -1 ? fileName.substring(dot) : null;
+
+		Charset charset;
+		try {
+			charset = Charset.forName(encoding);
+		} catch (IllegalArgumentException iae) { // Unsupported or null
+			charset = Charset.defaultCharset();
+		}
+
+		File file = Files.createTempFile("rtext-outline", suffix).toFile();
+		Files.write(file.toPath(), text.getBytes(charset));
+		return file;
+
+	}
+
+
 	/**
 	 * Called on the event dispatching thread (not on the worker thread)
 	 * after the <code>construct</code> method has returned.<p>
@@ -455,7 +512,99 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	 */
 	@Override
 	public void finished() {
-		tree.setRoot(get());
+		SourceTreeNode root = get();
+		tree.updateRoot(root);
+		if (root!=null && parsedTags!=null) {
+			cache.putTags(stamp, style, parsedTags);
+		}
+	}
+
+
+	/**
+	 * Runs the ctags executable on a file and builds the tree of its
+	 * output.
+	 *
+	 * @param sourceFile The file to parse.
+	 * @return A <code>TreeNode</code> object for the source browser tree.
+	 *         If something goes wrong, this value will be <code>null</code>.
+	 */
+	private SourceTreeNode runCtags(String sourceFile) {
+
+		// Create a command line to run ctags.
+		boolean exuberant = plugin.getCTagsType().equals(
+							SourceBrowserPlugin.CTAGS_TYPE_EXUBERANT);
+		//System.out.println("DEBUG: Exuberant: " + exuberant);
+		String[] commandLine = createCommandLine(exuberant, sourceFile);
+
+		// Run the process and collect its output.  If it does not complete
+		// in maxTime milliseconds, we'll assume the process is a runaway one
+		// and it's killed.
+		ManagedProcess runner = new ManagedProcess(commandLine);
+		runner.setTimeout(maxTime);
+		runner.setMaxOutputLength(MAX_OUTPUT_LENGTH);
+		runner.run();
+		if (Thread.currentThread().isInterrupted()) {
+			// Most likely interrupted because we were parsing a very large
+			// file, but the user clicked on a different tab before we
+			// completed.  ctags has been killed, so just return.
+			return null;
+		}
+		if (runner.isTimedOut()) {
+			String s = plugin.getBundle().getString("Error.RunawayProcess");
+			return new SourceTreeNode(s);
+		}
+		else if (runner.getLastError()!=null) {
+			// If we got an error launching/running the process (such as
+			// "not a valid win32 process", etc.), say so.
+			String s = plugin.getBundle().getString("Error.RunningProcess");
+			return new SourceTreeNode(s);
+		}
+		else if (exuberant && runner.isOutputTruncated()) {
+			// Don't list some of the tags as if they were all of them
+			String s = plugin.getBundle().getString("Error.OutputTooLarge");
+			return new SourceTreeNode(s);
+		}
+
+		// Add stuff from the process's stdout to our maps.
+		BufferedReader r;
+		if (exuberant) {
+			String stdout = runner.getStdout();
+			r = new BufferedReader(new StringReader(stdout));
+		}
+		else {
+			File file = new File("tags");
+			if (!file.isFile()) {
+				// TODO: Give better error message here - and localize me!
+				String s = "tags file not found!";
+				return new SourceTreeNode(s);
+			}
+			try {
+				r = new BufferedReader(new FileReader(file));
+			} catch (IOException ioe) {
+				// If we got an error launching/running the process (such as
+				// "not a valid win32 process", etc.), say so.
+				ioe.printStackTrace();
+				String s = plugin.getBundle().getString("Error.RunningProcess");
+				return new SourceTreeNode(s);
+			}
+		}
+		List<TagEntry> tags = new ArrayList<>();
+		String line;
+		try {
+			while ((line=r.readLine()) != null) {
+				TagEntry entry = new SourceBrowserPlugin.ExtendedTagEntry(line);
+				tags.add(entry);
+				addTag(entry);
+			}
+			r.close();
+			parsedTags = tags;
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+			// Don't return null, just return what we got.
+		}
+
+		return createRoot();
+
 	}
 
 
@@ -468,14 +617,25 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	 * @param style The programming language to parse the file with.
 	 * @param language The programming language of the file to parse.
 	 * @param tree The tree to modify.
+	 * @param cache The tags cached for the text area's buffer.
 	 */
 	public void start(int maxTime, RTextEditorPane textArea, String style,
-					String language, DefaultSourceTree tree) {
+					String language, DefaultSourceTree tree, TagCache cache) {
 		this.maxTime = maxTime;
 		this.textArea = textArea;
 		this.style = style;
 		this.language = language;
 		this.tree = tree;
+		sorted = tree.isSorted();
+		this.cache = cache;
+		stamp = cache.getStamp();
+		cachedTags = cache.getTags(style);
+		parsedTags = null;
+		// Parse the buffer rather than the file if they might differ.  This
+		// must be grabbed here, on the EDT.
+		boolean fileIsCurrent = textArea.isLocal() && !textArea.isDirty();
+		text = cachedTags==null && !fileIsCurrent ? textArea.getText() : null;
+		encoding = textArea.getEncoding();
 		super.start();
 	}
 
@@ -12,6 +12,7 @@ package org.fife.rtext.plugins.sourcebrowser;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Vector;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.MutableTreeNode;
@@ -121,6 +122,18 @@ class SourceTreeNode extends DefaultMutableTreeNode {
 	}
 
 
+	/**
+	 * Returns all of this node's children in the order they were added,
+	 * regardless of sorting.
+	 *
+	 * @return The children.  This is a copy.
+	 * @see #setChildren(List, List)
+	 */
+	List<TreeNode> getAllChildren() {
+		return children!=null ? new Vector<>(children) : new Vector<>();
+	}
+
+
 	@Override
 	public TreeNode getChildAfter(TreeNode child) {
 		if (child==null) {
@@ -202,7 +215,7 @@ class SourceTreeNode extends DefaultMutableTreeNode {
 	 *
 	 * @return Whether this node is sorted.
 	 */
-	private boolean isSorted() {
+	boolean isSorted() {
 		return sorted;
 	}
 
@@ -246,6 +259,34 @@ class SourceTreeNode extends DefaultMutableTreeNode {
 	}
 
 
+	/**
+	 * Replaces this node's children.  The visible children are taken as
+	 * given rather than re-sorted, so a caller that has already sorted them,
+	 * e.g. on a background thread, doesn't pay for it again.
+	 *
+	 * @param all All the children, in the order they were added.
+	 * @param visible The children to display, in display order.
+	 * @see #getAllChildren()
+	 */
+	void setChildren(List<? extends MutableTreeNode> all, List<? extends TreeNode> visible) {
+		if (children!=null) {
+			for (TreeNode child : children) {
+				((MutableTreeNode)child).setParent(null);
+			}
+			children.clear();
+		}
+		else {
+			children = new Vector<>(all.size());
+		}
+		for (MutableTreeNode child : all) {
+			child.setParent(this);
+			children.add(child);
+		}
+		visibleChildren.clear();
+		visibleChildren.addAll(visible);
+	}
+
+
 	/**
 	 * Sets whether this particular node's children are sortable.  Usually,
 	 * only tree nodes containing only "leaves" should be sorted (for example,
@@ -0,0 +1,683 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.sourcebrowser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.EventListenerList;
+
+import org.fife.ctags.TagEntry;
+import org.fife.rtext.ManagedProcess;
+import org.fife.rtext.plugins.sourcebrowser.SourceBrowserPlugin.ExtendedTagEntry;
+
+
+/**
+ * The tags of every source file in a workspace, as found by Exuberant Ctags,
+ * saved to disk between sessions.<p>
+ *
+ * The index is updated on a background thread.  Each file's tags are stored
+ * with its modification time, so an update only runs ctags on files that
+ * have changed since they were last indexed.  Changed files are passed to
+ * ctags in batches, and batches are run in parallel.<p>
+ *
+ * The index is stored as a compressed list of files, each followed by its
+ * tags.  The file's path is stored once rather than in every tag.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see GoToSymbolDialog
+ */
+class SymbolIndex {
+
+	private final SourceBrowserPlugin plugin;
+	private final File indexFile;
+	private final Map<String, FileTags> files;
+	private final ExecutorService updater;
+	private final AtomicBoolean refreshPending;
+	private final EventListenerList listenerList;
+	private volatile boolean loaded;
+	private volatile boolean updating;
+	private volatile boolean dirty;
+
+	private static final int MAGIC = 0x52545349; // "RTSI"
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of files passed to a single run of ctags.
+	 */
+	private static final int BATCH_SIZE = 32;
+
+	/**
+	 * How long to let a single run of ctags go before assuming it's a
+	 * runaway process.
+	 */
+	private static final int BATCH_TIMEOUT_MILLIS = 60000;
+
+	/**
+	 * The most output kept from a single run of ctags.  A batch whose
+	 * output is longer than this isn't indexed.
+	 */
+	private static final int MAX_OUTPUT_LENGTH = 16 * 1024 * 1024;
+
+	/**
+	 * The longest line of ctags output indexed.  Tags from longer lines are
+	 * skipped.
+	 */
+	private static final int MAX_TAG_LENGTH = 4096;
+
+
+	/**
+	 * Constructor.  Nothing is loaded until the first refresh.
+	 *
+	 * @param plugin The source browser plugin.
+	 * @param indexFile The file the index is saved to.
+	 */
+	SymbolIndex(SourceBrowserPlugin plugin, File indexFile) {
+		this.plugin = plugin;
+		this.indexFile = indexFile;
+		files = new ConcurrentHashMap<>();
+		updater = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "RText Symbol Index");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+		refreshPending = new AtomicBoolean();
+		listenerList = new EventListenerList();
+	}
+
+
+	/**
+	 * Adds a listener notified when the contents of this index change.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	void addChangeListener(ChangeListener l) {
+		listenerList.add(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Stops updating this index.  Any pending update is abandoned.
+	 */
+	void close() {
+		updater.shutdownNow();
+	}
+
+
+	private void fireChangeEvent() {
+		SwingUtilities.invokeLater(() -> {
+			ChangeEvent e = new ChangeEvent(this);
+			for (ChangeListener l : listenerList.getListeners(ChangeListener.class)) {
+				l.stateChanged(e);
+			}
+		});
+	}
+
+
+	/**
+	 * Returns the file this index is saved to.
+	 *
+	 * @return The file.
+	 */
+	File getIndexFile() {
+		return indexFile;
+	}
+
+
+	/**
+	 * Returns the number of symbols in this index.
+	 *
+	 * @return The number of symbols.
+	 */
+	int getSymbolCount() {
+		int count = 0;
+		for (FileTags tags : files.values()) {
+			count += tags.names.length;
+		}
+		return count;
+	}
+
+
+	/**
+	 * Returns the indexed tags for a file, if they are up to date.
+	 *
+	 * @param file The file.
+	 * @param language The ctags language the file is being parsed as.
+	 * @return The tags, or <code>null</code> if the file isn't indexed, has
+	 *         changed since it was indexed, or was indexed as a different
+	 *         language.
+	 */
+	List<TagEntry> getTags(File file, String language) {
+
+		String path = file.getAbsolutePath();
+		FileTags tags = files.get(path);
+		if (tags == null || tags.mtime != file.lastModified() ||
+				!language.equals(tags.language)) {
+			return null;
+		}
+
+		List<TagEntry> entries = new ArrayList<>(tags.names.length);
+		for (int i = 0; i < tags.names.length; i++) {
+			entries.add(tags.createTagEntry(path, i));
+		}
+		return entries;
+	}
+
+
+	/**
+	 * Returns whether a file is in this index.
+	 *
+	 * @param file The file.
+	 * @return Whether the file is indexed.
+	 */
+	boolean isIndexed(File file) {
+		return files.containsKey(file.getAbsolutePath());
+	}
+
+
+	/**
+	 * Returns whether this index is being updated.
+	 *
+	 * @return Whether the index is being updated.
+	 */
+	boolean isUpdating() {
+		return updating || refreshPending.get();
+	}
+
+
+	/**
+	 * Loads this index from disk, if it has been saved.  This is called on
+	 * the update thread.
+	 */
+	private void load() {
+
+		loaded = true;
+		if (!indexFile.isFile()) {
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new GZIPInputStream(Files.newInputStream(indexFile.toPath()))))) {
+
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return; // Just rebuild it
+			}
+
+			int fileCount = in.readInt();
+			for (int i = 0; i < fileCount; i++) {
+				String path = in.readUTF();
+				long mtime = in.readLong();
+				String language = in.readUTF();
+				int tagCount = in.readInt();
+				String[] names = new String[tagCount];
+				String[] rests = new String[tagCount];
+				for (int j = 0; j < tagCount; j++) {
+					names[j] = in.readUTF();
+					rests[j] = in.readUTF();
+				}
+				files.put(path, new FileTags(mtime, language, names, rests));
+			}
+
+		} catch (IOException ioe) {
+			// Corrupt or from an incompatible version; just rebuild it
+			ioe.printStackTrace();
+			files.clear();
+		}
+	}
+
+
+	/**
+	 * Updates this index for the current set of source files in the
+	 * workspace.  Files no longer in the workspace are removed from the
+	 * index, and new or modified files are re-indexed.  This method returns
+	 * immediately; if an update is already waiting to run, it does nothing.
+	 *
+	 * @param sourceFiles Returns the source files in the workspace.  This
+	 *        is called on the update thread.
+	 */
+	void refresh(Supplier<Collection<File>> sourceFiles) {
+		if (refreshPending.compareAndSet(false, true)) {
+			fireChangeEvent();
+			submit(() -> {
+				refreshPending.set(false);
+				Collection<File> all = sourceFiles.get();
+				Set<String> paths = new HashSet<>();
+				for (File file : all) {
+					paths.add(file.getAbsolutePath());
+				}
+				if (files.keySet().retainAll(paths)) {
+					dirty = true;
+				}
+				update(all);
+				save();
+			});
+		}
+	}
+
+
+	/**
+	 * Re-indexes a single file if it has changed, e.g. after it is saved.
+	 * This method returns immediately.
+	 *
+	 * @param file The file.
+	 */
+	void refreshFile(File file) {
+		submit(() -> update(Collections.singletonList(file)));
+	}
+
+
+	/**
+	 * Removes a listener notified when the contents of this index change.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	void removeChangeListener(ChangeListener l) {
+		listenerList.remove(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Runs ctags on a batch of files and adds their tags to the index.  This
+	 * is called on a worker thread.
+	 *
+	 * @param batch The files to index.
+	 * @return Whether ctags ran successfully.
+	 * @throws InterruptedException If this thread is interrupted.
+	 */
+	private boolean runCtags(List<File> batch) throws InterruptedException {
+
+		// Record modification times before running ctags, so a file changed
+		// while it's being indexed is indexed again next time
+		Map<String, Long> mtimes = new HashMap<>();
+		List<String> commandLine = new ArrayList<>();
+		commandLine.add(plugin.getCTagsExecutableLocation());
+		commandLine.add("-f");
+		commandLine.add("-");
+		commandLine.add("--sort=no");
+		commandLine.add("--fields=+nl");
+		for (File file : batch) {
+			String path = file.getAbsolutePath();
+			mtimes.put(path, file.lastModified());
+			commandLine.add(path);
+		}
+
+		ManagedProcess runner = new ManagedProcess(commandLine.toArray(new String[0]));
+		runner.setTimeout(BATCH_TIMEOUT_MILLIS);
+		runner.setMaxOutputLength(MAX_OUTPUT_LENGTH);
+		runner.run();
+		if (Thread.interrupted()) { // ctags has been killed
+			throw new InterruptedException();
+		}
+		// Don't index partial output, e.g. from a runaway process
+		if (runner.getLastError() != null || runner.isOutputTruncated()) {
+			return false;
+		}
+
+		Map<String, TagCollector> collectors = new HashMap<>();
+		for (String path : mtimes.keySet()) {
+			collectors.put(path, new TagCollector());
+		}
+
+		try (BufferedReader r = new BufferedReader(new StringReader(runner.getStdout()))) {
+			String line;
+			while ((line = r.readLine()) != null) {
+				int nameEnd = line.indexOf('\t');
+				int fileEnd = nameEnd == -1 ? -1 : line.indexOf('\t', nameEnd + 1);
+				if (fileEnd > -1) {
+					TagCollector collector = collectors.get(line.substring(nameEnd + 1, fileEnd));
+					// Skip tags from huge lines, e.g. in minified files
+					if (collector != null && line.length() <= MAX_TAG_LENGTH) {
+						collector.add(line.substring(0, nameEnd), line.substring(fileEnd + 1));
+					}
+				}
+			}
+		} catch (IOException ioe) { // Never happens
+			ioe.printStackTrace();
+		}
+
+		for (Map.Entry<String, TagCollector> entry : collectors.entrySet()) {
+			String path = entry.getKey();
+			files.put(path, entry.getValue().toFileTags(mtimes.get(path)));
+		}
+		dirty = true;
+		return true;
+	}
+
+
+	/**
+	 * Saves this index to disk, if it has changed since it was loaded or
+	 * last saved.  Other threads may keep updating the index while it's
+	 * being saved.
+	 */
+	synchronized void save() {
+
+		if (!dirty) {
+			return;
+		}
+		dirty = false;
+
+		File dir = indexFile.getParentFile();
+		File temp = new File(dir, indexFile.getName() + ".tmp");
+
+		try {
+
+			Files.createDirectories(dir.toPath());
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new GZIPOutputStream(Files.newOutputStream(temp.toPath()))))) {
+				Map<String, FileTags> copy = new HashMap<>(files);
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(copy.size());
+				for (Map.Entry<String, FileTags> entry : copy.entrySet()) {
+					FileTags tags = entry.getValue();
+					out.writeUTF(entry.getKey());
+					out.writeLong(tags.mtime);
+					out.writeUTF(tags.language);
+					out.writeInt(tags.names.length);
+					for (int i = 0; i < tags.names.length; i++) {
+						out.writeUTF(tags.names[i]);
+						out.writeUTF(tags.rests[i]);
+					}
+				}
+			}
+
+			try {
+				Files.move(temp.toPath(), indexFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), indexFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+			}
+
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+			dirty = true;
+		}
+	}
+
+
+	/**
+	 * Returns the symbols whose names best match a query, ignoring case.
+	 * Exact matches rank highest, followed by names starting with the
+	 * query, then names containing it.
+	 *
+	 * @param query The query.
+	 * @param maxResults The maximum number of symbols to return.
+	 * @return The matching symbols, best match first.
+	 */
+	List<Symbol> search(String query, int maxResults) {
+
+		String q = query.trim().toLowerCase(Locale.ROOT);
+		if (q.isEmpty() || maxResults <= 0) {
+			return Collections.emptyList();
+		}
+
+		Comparator<Candidate> comparator = Comparator.comparingInt(c -> c.score);
+		PriorityQueue<Candidate> best = new PriorityQueue<>(maxResults, comparator);
+
+		for (Map.Entry<String, FileTags> entry : files.entrySet()) {
+			FileTags tags = entry.getValue();
+			for (int i = 0; i < tags.names.length; i++) {
+
+				String lowerName = tags.lowerNames[i];
+				int index = lowerName.indexOf(q);
+				if (index == -1) {
+					continue;
+				}
+
+				int score = index > 0 ? 1000 : lowerName.length() == q.length() ? 3000 : 2000;
+				score -= lowerName.length(); // Prefer shorter names
+				if (best.size() == maxResults) {
+					if (score <= best.peek().score) {
+						continue;
+					}
+					best.poll();
+				}
+				best.add(new Candidate(entry.getKey(), tags, i, score));
+			}
+		}
+
+		List<Symbol> symbols = new ArrayList<>(best.size());
+		while (!best.isEmpty()) {
+			Candidate c = best.poll();
+			symbols.add(new Symbol(new File(c.path), c.tags.createTagEntry(c.path, c.index)));
+		}
+		Collections.reverse(symbols);
+		return symbols;
+	}
+
+
+	/**
+	 * Runs a task on the update thread, if this index hasn't been closed.
+	 *
+	 * @param task The task.
+	 */
+	private void submit(Runnable task) {
+		if (updater.isShutdown()) {
+			return;
+		}
+		updater.execute(() -> {
+			updating = true;
+			try {
+				if (!loaded) {
+					load();
+				}
+				task.run();
+			} finally {
+				updating = false;
+				fireChangeEvent();
+			}
+		});
+	}
+
+
+	/**
+	 * Re-indexes any files that are new or have changed since they were
+	 * indexed.  This is called on the update thread.
+	 *
+	 * @param sourceFiles The files to check.
+	 */
+	private void update(Collection<File> sourceFiles) {
+
+		List<File> changed = new ArrayList<>();
+		for (File file : sourceFiles) {
+			FileTags tags = files.get(file.getAbsolutePath());
+			if (tags == null || tags.mtime != file.lastModified()) {
+				if (file.isFile()) {
+					changed.add(file);
+				}
+				else if (tags != null) {
+					files.remove(file.getAbsolutePath());
+					dirty = true;
+				}
+			}
+		}
+		if (changed.isEmpty()) {
+			return;
+		}
+
+		int threadCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() / 2,
+			(changed.size() + BATCH_SIZE - 1) / BATCH_SIZE));
+		ExecutorService workers = Executors.newFixedThreadPool(threadCount, r -> {
+			Thread t = new Thread(r, "RText Symbol Index Worker");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+
+		try {
+			CompletionService<Boolean> results = new ExecutorCompletionService<>(workers);
+			int batchCount = 0;
+			for (int i = 0; i < changed.size(); i += BATCH_SIZE) {
+				List<File> batch = changed.subList(i, Math.min(i + BATCH_SIZE, changed.size()));
+				results.submit(() -> runCtags(batch));
+				batchCount++;
+			}
+			for (int i = 0; i < batchCount; i++) {
+				if (!results.take().get()) {
+					// Don't keep trying the rest if ctags isn't working.
+					// Shutting down the workers cancels the batches left
+					break;
+				}
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ee) {
+			ee.printStackTrace();
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+
+	/**
+	 * A symbol found by a search, before being converted to a tag entry.
+	 */
+	private static final class Candidate {
+
+		private final String path;
+		private final FileTags tags;
+		private final int index;
+		private final int score;
+
+		Candidate(String path, FileTags tags, int index, int score) {
+			this.path = path;
+			this.tags = tags;
+			this.index = index;
+			this.score = score;
+		}
+	}
+
+
+	/**
+	 * The tags in a single file.  The ctags output line for each tag is
+	 * split into the tag's name and everything after the file name.
+	 */
+	private static final class FileTags {
+
+		private final long mtime;
+		private final String language;
+		private final String[] names;
+		private final String[] lowerNames;
+		private final String[] rests;
+
+		FileTags(long mtime, String language, String[] names, String[] rests) {
+			this.mtime = mtime;
+			this.language = language;
+			this.names = names;
+			this.rests = rests;
+			lowerNames = new String[names.length];
+			for (int i = 0; i < names.length; i++) {
+				lowerNames[i] = names[i].toLowerCase(Locale.ROOT);
+			}
+		}
+
+		TagEntry createTagEntry(String path, int index) {
+			return new ExtendedTagEntry(names[index] + '\t' + path + '\t' + rests[index]);
+		}
+	}
+
+
+	/**
+	 * A symbol returned by a search, and the file it's defined in.
+	 */
+	static final class Symbol {
+
+		private final File file;
+		private final TagEntry tag;
+
+		Symbol(File file, TagEntry tag) {
+			this.file = file;
+			this.tag = tag;
+		}
+
+		/**
+		 * Returns the file the symbol is defined in.
+		 *
+		 * @return The file.
+		 */
+		File getFile() {
+			return file;
+		}
+
+		/**
+		 * Returns the symbol's tag.
+		 *
+		 * @return The tag.
+		 */
+		TagEntry getTag() {
+			return tag;
+		}
+	}
+
+
+	/**
+	 * Collects the tags for one file from ctags' output.
+	 */
+	private static final class TagCollector {
+
+		private final List<String> names = new ArrayList<>();
+		private final List<String> rests = new ArrayList<>();
+		private String language = "";
+
+		void add(String name, String rest) {
+			names.add(name);
+			rests.add(rest);
+			if (language.isEmpty()) {
+				int start = rest.indexOf("\tlanguage:");
+				if (start > -1) {
+					start += "\tlanguage:".length();
+					int end = rest.indexOf('\t', start);
+					language = end == -1 ? rest.substring(start) : rest.substring(start, end);
+				}
+			}
+		}
+
+		FileTags toFileTags(long mtime) {
+			return new FileTags(mtime, language, names.toArray(new String[0]),
+				rests.toArray(new String[0]));
+		}
+	}
+
+
+}
@@ -0,0 +1,153 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.sourcebrowser;
+
+import java.util.List;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+
+import org.fife.ctags.TagEntry;
+import org.fife.rtext.RTextEditorPane;
+
+
+/**
+ * The tags ctags last found in a text area's buffer.  The cache listens to
+ * the text area's document and bumps a modification stamp on every edit, so
+ * switching back to a text area that hasn't changed doesn't need to run
+ * ctags again.<p>
+ *
+ * All methods must be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class TagCache implements DocumentListener {
+
+	private final Document doc;
+	private final Runnable changeCallback;
+	private int stamp;
+
+	private int cachedStamp;
+	private String cachedStyle;
+	private List<TagEntry> cachedTags;
+
+	private static final String CLIENT_PROPERTY = "sourceBrowser.tagCache";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param doc The document to track.
+	 * @param changeCallback Called whenever the document is modified.
+	 */
+	private TagCache(Document doc, Runnable changeCallback) {
+		this.doc = doc;
+		this.changeCallback = changeCallback;
+		cachedStamp = -1;
+		doc.addDocumentListener(this);
+	}
+
+
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+		// Attribute changes don't change the tags
+	}
+
+
+	/**
+	 * Returns the tag cache for a text area, creating it if necessary.  If
+	 * the text area's document has been replaced, e.g. because the file was
+	 * reloaded, a new cache is created.
+	 *
+	 * @param textArea The text area.
+	 * @param changeCallback Called whenever the text area's document is
+	 *        modified.  This is only used if a new cache is created.
+	 * @return The tag cache.
+	 * @see #uninstall(RTextEditorPane)
+	 */
+	static TagCache get(RTextEditorPane textArea, Runnable changeCallback) {
+		TagCache cache = (TagCache)textArea.getClientProperty(CLIENT_PROPERTY);
+		if (cache == null || cache.doc != textArea.getDocument()) {
+			if (cache != null) {
+				cache.doc.removeDocumentListener(cache);
+			}
+			cache = new TagCache(textArea.getDocument(), changeCallback);
+			textArea.putClientProperty(CLIENT_PROPERTY, cache);
+		}
+		return cache;
+	}
+
+
+	/**
+	 * Returns the modification stamp of the document.  This changes every
+	 * time the document is edited.
+	 *
+	 * @return The modification stamp.
+	 */
+	int getStamp() {
+		return stamp;
+	}
+
+
+	/**
+	 * Returns the cached tags, if they are for the document's current
+	 * content.
+	 *
+	 * @param style The syntax style the document is being parsed as.
+	 * @return The tags, or <code>null</code> if the document has changed
+	 *         or was parsed as another language.
+	 */
+	List<TagEntry> getTags(String style) {
+		return cachedStamp == stamp && style.equals(cachedStyle) ? cachedTags : null;
+	}
+
+
+	@Override
+	public void insertUpdate(DocumentEvent e) {
+		stamp++;
+		changeCallback.run();
+	}
+
+
+	/**
+	 * Caches the tags found in the document.
+	 *
+	 * @param docStamp The document's modification stamp when its content
+	 *        was passed to ctags.
+	 * @param style The syntax style the document was parsed as.
+	 * @param tags The tags found.
+	 */
+	void putTags(int docStamp, String style, List<TagEntry> tags) {
+		cachedStamp = docStamp;
+		cachedStyle = style;
+		cachedTags = tags;
+	}
+
+
+	@Override
+	public void removeUpdate(DocumentEvent e) {
+		stamp++;
+		changeCallback.run();
+	}
+
+
+	/**
+	 * Removes the tag cache from a text area, if it has one.
+	 *
+	 * @param textArea The text area.
+	 * @see #get(RTextEditorPane, Runnable)
+	 */
+	static void uninstall(RTextEditorPane textArea) {
+		TagCache cache = (TagCache)textArea.getClientProperty(CLIENT_PROPERTY);
+		if (cache != null) {
+			cache.doc.removeDocumentListener(cache);
+			textArea.putClientProperty(CLIENT_PROPERTY, null);
+		}
+	}
+
+
+}
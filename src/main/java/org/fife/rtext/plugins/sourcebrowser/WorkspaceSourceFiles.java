@@ -0,0 +1,213 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.sourcebrowser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.model.FileProjectEntry;
+import org.fife.rtext.plugins.project.model.FolderFilterInfo;
+import org.fife.rtext.plugins.project.model.FolderProjectEntry;
+import org.fife.rtext.plugins.project.model.LogicalFolderProjectEntry;
+import org.fife.rtext.plugins.project.model.Project;
+import org.fife.rtext.plugins.project.model.Workspace;
+import org.fife.rtext.plugins.project.model.WorkspaceVisitor;
+import org.fife.ui.app.Plugin;
+
+
+/**
+ * Lists the files in the workspace open in the Projects plugin.  This is
+ * the only class in this plugin that uses the Projects plugin, so that
+ * plugin's classes are only loaded if it's installed.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see SymbolIndex
+ */
+final class WorkspaceSourceFiles implements WorkspaceVisitor {
+
+	private final String workspacePath;
+	private final List<File> folders;
+	private final List<FolderFilterInfo> filters;
+	private final List<File> files;
+
+	/**
+	 * The Projects plugin's class.
+	 */
+	static final String PROJECT_PLUGIN_CLASS = "org.fife.rtext.plugins.project.ProjectPlugin";
+
+
+	/**
+	 * Constructor.  This must be called on the EDT.
+	 *
+	 * @param projectPlugin The Projects plugin.  Its class must be
+	 *        {@link #PROJECT_PLUGIN_CLASS}.
+	 */
+	WorkspaceSourceFiles(Plugin<?> projectPlugin) {
+
+		folders = new ArrayList<>();
+		filters = new ArrayList<>();
+		files = new ArrayList<>();
+
+		Workspace workspace = ((ProjectPlugin)projectPlugin).getWorkspace();
+		if (workspace != null) {
+			workspacePath = workspace.getFileFullPath();
+			workspace.accept(this);
+		}
+		else {
+			workspacePath = null;
+		}
+	}
+
+
+	/**
+	 * Returns the full path of the workspace file.
+	 *
+	 * @return The path, or <code>null</code> if no workspace is open.
+	 */
+	String getWorkspacePath() {
+		return workspacePath;
+	}
+
+
+	/**
+	 * Returns the files in the workspace, walking its folders.  This may be
+	 * called on any thread.
+	 *
+	 * @param accept Returns whether a file should be listed.
+	 * @return The files.
+	 */
+	Collection<File> listFiles(Predicate<File> accept) {
+
+		Set<File> result = new LinkedHashSet<>();
+		for (File file : files) {
+			if (accept.test(file)) {
+				result.add(file);
+			}
+		}
+
+		for (int i = 0; i < folders.size(); i++) {
+			FolderFilterInfo filter = filters.get(i);
+			Deque<Path> queue = new ArrayDeque<>();
+			queue.add(folders.get(i).toPath());
+			while (!queue.isEmpty() && !Thread.currentThread().isInterrupted()) {
+				listFiles(queue.poll(), filter, accept, queue, result);
+			}
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Lists the files directly in a directory.
+	 *
+	 * @param dir The directory.
+	 * @param filter The filters of the project folder the directory is in.
+	 * @param accept Returns whether a file should be listed.
+	 * @param subdirs Subdirectories to walk are added to this queue.
+	 * @param result Files are added to this set.
+	 */
+	private static void listFiles(Path dir, FolderFilterInfo filter,
+			Predicate<File> accept, Deque<Path> subdirs, Set<File> result) {
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+			for (Path child : stream) {
+				BasicFileAttributes attrs;
+				try {
+					attrs = Files.readAttributes(child, BasicFileAttributes.class,
+						LinkOption.NOFOLLOW_LINKS);
+				} catch (IOException ioe) {
+					continue;
+				}
+				File file = child.toFile();
+				if (attrs.isDirectory()) {
+					if (filter.isAllowed(file, true)) {
+						subdirs.add(child);
+					}
+				}
+				else if (attrs.isRegularFile() && filter.isAllowed(file, false) &&
+						accept.test(file)) {
+					result.add(file);
+				}
+			}
+		} catch (IOException ioe) {
+			// Not readable; skip it
+		}
+	}
+
+
+	@Override
+	public void postVisit(Workspace workspace) {
+	}
+
+
+	@Override
+	public void postVisit(Project project) {
+	}
+
+
+	@Override
+	public void postVisit(FileProjectEntry entry) {
+	}
+
+
+	@Override
+	public void postVisit(FolderProjectEntry entry) {
+	}
+
+
+	@Override
+	public void postVisit(LogicalFolderProjectEntry entry) {
+	}
+
+
+	@Override
+	public void visit(Workspace workspace) {
+	}
+
+
+	@Override
+	public void visit(Project project) {
+	}
+
+
+	@Override
+	public void visit(FileProjectEntry entry) {
+		files.add(entry.getFile().getAbsoluteFile());
+	}
+
+
+	@Override
+	public void visit(FolderProjectEntry entry) {
+		// Copy the filters, since the folders are walked on another thread
+		FolderFilterInfo info = entry.getFilterInfo();
+		folders.add(entry.getFile().getAbsoluteFile());
+		filters.add(new FolderFilterInfo(info.getAllowedFileFilters(),
+			info.getHiddenFileFilters(), info.getHiddenFolderFilters()));
+	}
+
+
+	@Override
+	public void visit(LogicalFolderProjectEntry entry) {
+	}
+
+
+}
@@ -152,8 +152,11 @@ class TaskWindow extends AbstractParserNoticeWindow
 		// A text area has been re-parsed for tasks.
 		if (RSyntaxTextArea.PARSER_NOTICES_PROPERTY.equals(prop)) {
 			RTextEditorPane source = (RTextEditorPane)e.getSource();
-			List<ParserNotice> notices = source.getParserNotices();//(List)e.getNewValue();
-			model.update(source, notices);
+			// An evicted editor's document is empty; keep its tasks listed
+			if (!source.isEvicted()) {
+				List<ParserNotice> notices = source.getParserNotices();//(List)e.getNewValue();
+				model.update(source, notices);
+			}
 		}
 
 		if (AbstractMainView.TEXT_AREA_ADDED_PROPERTY.equals(prop)) {
@@ -258,12 +258,16 @@ public class TasksPlugin extends GUIPlugin<RText> {
 
 	/**
 	 * Re-parses all open files for tasks.  This is called when the task
-	 * identifier list changes.
+	 * identifier list changes.  Evicted files are loaded back in, since
+	 * their listed tasks would otherwise be out of date.
 	 */
 	private void reparseForTasks() {
 		AbstractMainView view = getApplication().getMainView();
 		for (int i=0; i<view.getNumDocuments(); i++) {
 			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
+			if (!view.rehydrate(textArea)) {
+				continue;
+			}
 			for (int j=0; j<textArea.getParserCount(); j++) {
 				Parser parser = textArea.getParser(j);
 				if (window.isTaskParser(parser)) {
@@ -15,6 +15,7 @@ import javax.swing.UIManager;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.jfr.TidyEvent;
 import org.fife.ui.app.AppAction;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
@@ -58,6 +59,9 @@ class TidyAction extends AppAction<RText> {
 		String style = textArea.getSyntaxEditingStyle();
 		PrettyPrintResult result = null;
 
+		TidyEvent event = new TidyEvent();
+		event.begin();
+
 		if (SyntaxConstants.SYNTAX_STYLE_JSON.equals(style)) {
 			result = tidyJson();
 		}
@@ -69,6 +73,9 @@ class TidyAction extends AppAction<RText> {
 			UIManager.getLookAndFeel().provideErrorFeedback(textArea);
 		}
 
+		event.commit(style, textArea.getDocument().getLength(),
+			result!=null ? result.result() : PrettyPrinter.RESULT_ERRORS);
+
 		if (result!=null) {
 			finish(textArea, result);
 		}
@@ -19,10 +19,13 @@ import java.awt.event.MouseEvent;
 import javax.swing.*;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultEditorKit;
+import javax.swing.text.DefaultStyledDocument;
 import javax.swing.text.Document;
 import javax.swing.text.Element;
+import javax.swing.text.StyleContext;
 import javax.swing.text.TextAction;
 
+import org.fife.rtext.RingBufferContent;
 import org.fife.ui.OptionsDialog;
 import org.fife.ui.StandardAction;
 import org.fife.ui.app.console.AbstractConsoleTextArea;
@@ -45,6 +48,9 @@ class OutputTextPane extends AbstractConsoleTextArea {
 	 */
 	OutputTextPane(ToolPlugin plugin) {
 		this.plugin = plugin;
+		// Old lines are trimmed as output is appended, which is cheap with
+		// a ring buffer
+		setStyledDocument(new DefaultStyledDocument(new RingBufferContent(), new StyleContext()));
 		installDefaultStyles(false);
 		fixKeyboardShortcuts();
 		Listener listener = new Listener();
@@ -75,10 +75,8 @@ class RunToolAction extends AppAction<RText> {
 		showButDontFocus(window);
 		// Call startingTool() before tool.execute() so threading doesn't
 		// cause the window's title to get hosed.
-		if (window.startingTool(tool)) {
-			tool.setRText(getApplication());
-			tool.execute(window);
-		}
+		ToolRun run = window.startingTool(tool);
+		run.setProcess(tool.execute(run));
 
 	}
 
@@ -17,7 +17,7 @@ import org.fife.ui.app.AppAction;
 
 
 /**
- * Stops the currently running tool.
+ * Stops the tool running in the selected tab of the tool output window.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -54,10 +54,7 @@ class StopAction extends AppAction<RText> {
 	 */
 	@Override
 	public void actionPerformed(ActionEvent e) {
-		Tool tool = plugin.getActiveTool();
-		if (tool!=null) { // Should always be true
-			tool.kill();
-		}
+		plugin.getDockableWindow().stopSelectedRun();
 	}
 
 
@@ -18,15 +18,16 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.fife.io.ProcessRunner;
 import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.ManagedProcess;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.jfr.ToolEvent;
 
 
 /**
  * An "external tool;" that is, an external process that can be
- * run from RText.  Tools are run in separate threads, and their
+ * run from RText.  Tools are run as {@link ManagedProcess}es, and their
  * output captured to be displayed in a docked window.
  *
  * @author Robert Futrell
@@ -43,12 +44,13 @@ public class Tool implements Comparable<Tool> {
 	private boolean appendEnv;
 	private String accelerator; // String to ease serialization
 	private transient RText rtext;
-	private Thread runThread;
 
 	/**
-	 * Synchronizes access to {@link #runThread}.
+	 * The processes running this tool.  A tool can be run again while it's
+	 * still running, e.g. to build several files at once.  Guarded by the
+	 * list itself.
 	 */
-	private static final Object RUN_THREAD_LOCK = new Object();
+	private final transient List<ManagedProcess> processes = new ArrayList<>();
 
 	private static final Pattern VAR_PATTERN =
 			Pattern.compile("\\$\\{file_(?:name|name_no_ext|dir|full_path)}");
@@ -183,13 +185,16 @@ public class Tool implements Comparable<Tool> {
 
 
 	/**
-	 * Runs this tool in a separate thread.
+	 * Runs this tool in a separate process.  This method returns
+	 * immediately.  If this tool is already running, another instance of
+	 * it is started.
 	 *
 	 * @param l Listens for events as this tool runs.  This may be
 	 *        <code>null</code>.
+	 * @return The process running the tool.
 	 * @see #checkForErrors()
 	 */
-	public void execute(final ProcessRunnerOutputListener l) {
+	public ManagedProcess execute(final ProcessRunnerOutputListener l) {
 
 		// Replace any ${file_XXX} "variables" in the command line.
 		final String[] cmd = new String[1 + args.size()];
@@ -208,20 +213,38 @@ public class Tool implements Comparable<Tool> {
 			env2.replaceAll((k, v) -> varSubstitute(env2.get(k)));
 		}
 
-		// Run this tool in a separate thread.
-		synchronized (RUN_THREAD_LOCK) {
-			runThread = new Thread(() -> {
-				ProcessRunner pr = new ProcessRunner(cmd);
-				pr.setDirectory(new File(dir));
-				pr.setEnvironmentVars(env2, appendEnv);
-				pr.setOutputListener(l);
-				pr.run();
-				synchronized (RUN_THREAD_LOCK) {
-					runThread = null;
+		final ToolEvent event = new ToolEvent();
+		event.begin();
+		final ManagedProcess mp = new ManagedProcess(cmd);
+		mp.setDirectory(new File(dir));
+		mp.setEnvironmentVars(env2, appendEnv);
+		mp.setOutputListener(new ProcessRunnerOutputListener() {
+
+			@Override
+			public void outputWritten(Process p, String output, boolean stdout) {
+				if (l!=null) {
+					l.outputWritten(p, output, stdout);
 				}
-			});
-			runThread.start();
+			}
+
+			@Override
+			public void processCompleted(Process p, int rc, Throwable e) {
+				event.commit(getName(), program);
+				synchronized (processes) {
+					processes.remove(mp);
+				}
+				if (l!=null) {
+					l.processCompleted(p, rc, e);
+				}
+			}
+
+		});
+
+		synchronized (processes) {
+			processes.add(mp);
 		}
+		mp.start();
+		return mp;
 
 	}
 
@@ -341,24 +364,19 @@ public class Tool implements Comparable<Tool> {
 
 
 	/**
-	 * Forcibly terminates this tool's external process, if it is running.
+	 * Forcibly terminates all running instances of this tool, and any
+	 * processes they launched.
 	 *
-	 * @return If the process was running and killed.
+	 * @return If the tool was running and killed.
 	 */
 	public boolean kill() {
-		synchronized (RUN_THREAD_LOCK) {
-			if (runThread!=null) {
-				runThread.interrupt();
-				try { // Be nice, just in case it's finishing up some work
-					runThread.join(1000);
-				} catch (InterruptedException ie) { // No biggie
-					ie.printStackTrace();
-				}
-				runThread = null;
-				return true;
-			}
+		List<ManagedProcess> running;
+		synchronized (processes) {
+			running = new ArrayList<>(processes);
+			processes.clear();
 		}
-		return false;
+		running.forEach(ManagedProcess::kill);
+		return !running.isEmpty();
 	}
 
 
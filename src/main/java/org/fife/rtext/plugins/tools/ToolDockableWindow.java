@@ -11,65 +11,79 @@
 package org.fife.rtext.plugins.tools;
 
 import java.awt.*;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.File;
 import java.text.MessageFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 import javax.swing.Box;
 import javax.swing.JButton;
-import javax.swing.JOptionPane;
+import javax.swing.JTabbedPane;
 import javax.swing.JToolBar;
-import javax.swing.SwingUtilities;
-import javax.swing.text.BadLocationException;
 import javax.swing.text.Style;
 import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledDocument;
 
-import org.fife.io.ProcessRunnerOutputListener;
-import org.fife.ui.UIUtil;
 import org.fife.ui.app.console.AbstractConsoleTextArea;
-import org.fife.ui.RScrollPane;
 import org.fife.ui.WebLookAndFeelUtils;
 import org.fife.ui.dockablewindows.DockableWindow;
 
 
 /**
- * The dockable window containing external tool output.
+ * The dockable window containing external tool output.  Each run of a tool
+ * gets its own tab, so several tools can run at once.
  *
  * @author Robert Futrell
  * @version 1.0
  */
-public class ToolDockableWindow extends DockableWindow
-								implements ProcessRunnerOutputListener {
+public class ToolDockableWindow extends DockableWindow {
 
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.tools.DockableWindow";
-	private static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
+	static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
 
-	/**
-	 * The tool currently running.  This should only be manipulated on the
-	 * EDT.
-	 */
-	private Tool tool;
+	private final ToolPlugin plugin;
 
 	/**
-	 * The time the last tool was started, in milliseconds.
+	 * The runs displayed, in the same order as their tabs.  This should only
+	 * be manipulated on the EDT.
 	 */
-	private long startTime;
+	private final List<ToolRun> runs;
+
+	private final JTabbedPane tabbedPane;
 
 	/**
-	 * Where the output of the tool goes.
+	 * Never displayed; holds the styles copied into each run's text area.
 	 */
-	private final OutputTextPane textArea;
+	private final OutputTextPane styles;
 
 	private final JToolBar toolbar;
 
 	/**
-	 * Used by toolbar button to stop the currently running tool.
+	 * Used by toolbar button to stop the selected run.
 	 */
 	private final StopAction stopAction;
 
+	/**
+	 * Opens the full output of the selected run.
+	 */
+	private final JButton openFullLogButton;
+
+	/**
+	 * Whether the full output of each run is written to a temporary file.
+	 */
+	private boolean saveFullOutput;
+
+	/**
+	 * The maximum number of completed runs whose tabs are kept.
+	 */
+	private static final int MAX_COMPLETED_RUNS = 8;
+
+	private static final String[] STYLES = {
+		AbstractConsoleTextArea.STYLE_RESULT,
+		AbstractConsoleTextArea.STYLE_PROMPT,
+		AbstractConsoleTextArea.STYLE_STDOUT,
+		AbstractConsoleTextArea.STYLE_STDERR,
+	};
+
 
 	/**
 	 * Constructor.
@@ -79,20 +93,27 @@ public class ToolDockableWindow extends DockableWindow
 	public ToolDockableWindow(ToolPlugin plugin) {
 
 		super(new BorderLayout());
+		this.plugin = plugin;
 		setIcon(plugin.getPluginIcon());
 		setDockableWindowName(MSG.getString("Window.Name"));
+		runs = new ArrayList<>();
 
-		textArea = new OutputTextPane(plugin);
-		setPrimaryComponent(textArea);
-		RScrollPane sp = new RScrollPane(textArea);
-		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
-		add(sp);
+		styles = new OutputTextPane(plugin);
+		tabbedPane = new JTabbedPane(JTabbedPane.BOTTOM, JTabbedPane.SCROLL_TAB_LAYOUT);
+		tabbedPane.addChangeListener(e -> refreshSelectedRunState());
+		setPrimaryComponent(tabbedPane);
+		add(tabbedPane);
 
 		// Create a toolbar.
 		toolbar = new JToolBar();
 		toolbar.setFloatable(false);
 		toolbar.add(Box.createHorizontalGlue());
 
+		openFullLogButton = new JButton(MSG.getString("Window.OpenFullLog"));
+		openFullLogButton.addActionListener(e -> openFullLog());
+		openFullLogButton.setEnabled(false);
+		toolbar.add(openFullLogButton);
+
 		stopAction = new StopAction(plugin, ToolPlugin.MSG);
 		JButton b = new JButton(stopAction);
 		b.setText(null);
@@ -109,39 +130,36 @@ public class ToolDockableWindow extends DockableWindow
 
 
 	/**
-	 * Appends text to the output text component with a given style.
+	 * Copies the colors of the styles in {@link #styles} into a text area.
 	 *
-	 * @param text The text to append.
-	 * @param style The style to apply to the text.
+	 * @param textArea The text area to update.
 	 */
-	private void appendWithStyle(String text, Style style) {
-
-		// The user can move the caret and type (stdin) so always append
-		// to the end of the document.
-		final StyledDocument doc = (StyledDocument)textArea.getDocument();
-		int end = doc.getLength();
-		try {
-			// Thread safe since we're using an AbstractDocument
-			doc.insertString(end, text + "\n", style);
-			//doc.setLogicalStyle(doc.getLength()-1, style);
-		} catch (BadLocationException ble) {
-			ble.printStackTrace();
+	private void copyColors(OutputTextPane textArea) {
+		for (String style : STYLES) {
+			setForeground(textArea, style,
+				isStyleUsed(style) ? getForeground(style) : null);
 		}
-
-		SwingUtilities.invokeLater(() -> textArea.setCaretPosition(doc.getLength()));
-
 	}
 
 
 	/**
-	 * Returns the currently running tool, if any.  This method should only be
-	 * called on the EDT.
+	 * Returns the tool in the selected tab if it's running, otherwise any
+	 * running tool.  This method should only be called on the EDT.
 	 *
-	 * @return The currently running tool, or <code>null</code> if a tool
-	 *         isn't running.
+	 * @return The running tool, or <code>null</code> if no tool is
+	 *         running.
 	 */
 	public Tool getActiveTool() {
-		return tool;
+		ToolRun selected = getSelectedRun();
+		if (selected!=null && selected.isRunning()) {
+			return selected.getTool();
+		}
+		for (ToolRun run : runs) {
+			if (run.isRunning()) {
+				return run.getTool();
+			}
+		}
+		return null;
 	}
 
 
@@ -155,7 +173,7 @@ public class ToolDockableWindow extends DockableWindow
 	 */
 	public Color getForeground(String style) {
 		Color c = null;
-		Style s = textArea.getStyle(style);
+		Style s = styles.getStyle(style);
 		if (s!=null) {
 			c = StyleConstants.getForeground(s);
 		}
@@ -163,6 +181,24 @@ public class ToolDockableWindow extends DockableWindow
 	}
 
 
+	/**
+	 * Returns whether the full output of each run is written to a temporary
+	 * file.
+	 *
+	 * @return Whether the full output is saved.
+	 * @see #setSaveFullOutput(boolean)
+	 */
+	public boolean getSaveFullOutput() {
+		return saveFullOutput;
+	}
+
+
+	private ToolRun getSelectedRun() {
+		int index = tabbedPane.getSelectedIndex();
+		return index>-1 ? runs.get(index) : null;
+	}
+
+
 	/**
 	 * Returns whether a special style is used for a given type of text in
 	 * the consoles.
@@ -171,68 +207,60 @@ public class ToolDockableWindow extends DockableWindow
 	 * @return Whether a special style is used.
 	 */
 	public boolean isStyleUsed(String style) {
-		return textArea.getStyle(style).isDefined(StyleConstants.Foreground);
+		return styles.getStyle(style).isDefined(StyleConstants.Foreground);
 	}
 
 
 	/**
-	 * Prints an exception to the output text component.  This is called
-	 * when an error occurs trying to launch or run a process.
-	 *
-	 * @param e The throwable that occurred.
+	 * Opens the full output of the selected run in an editor.
 	 */
-	private void outputStackTrace(Throwable e) {
-		Style style = textArea.getStyle(OutputTextPane.STYLE_STDERR);
-		StringWriter sw = new StringWriter();
-		PrintWriter pw = new PrintWriter(sw);
-		e.printStackTrace(pw);
-		pw.close();
-		appendWithStyle(sw.toString(), style);
-	}
-
-
-	@Override
-	public void outputWritten(Process p, String output, boolean stdout) {
-		Style style = textArea.getStyle(stdout ?
-				OutputTextPane.STYLE_STDOUT : OutputTextPane.STYLE_STDERR);
-		appendWithStyle(output, style); // thread safe Swing calls
+	private void openFullLog() {
+		ToolRun run = getSelectedRun();
+		File logFile = run!=null ? run.getLogFile() : null;
+		if (logFile!=null && logFile.isFile()) {
+			run.flushLog(); // In case the tool is still running
+			plugin.getApplication().openFile(logFile);
+		}
 	}
 
 
-	@Override
-	public void processCompleted(final Process p, final int rc,
-								final Throwable e) {
-
-		// Note that this isn't called on the EDT
-		SwingUtilities.invokeLater(() -> {
-
-			if (e==null) {
-				float time = (System.currentTimeMillis()-startTime)/1000f;
-				String title = MSG.getString("Window.Title.CompletedTool");
-				title = MessageFormat.format(title,
-					tool.getName(), Integer.toString(rc), Float.toString(time));
-				setDockableWindowTitle(title);
-			}
-			else if (e instanceof InterruptedException) { // User killed
-				String title = MSG.getString("Window.Title.ProcessTerminated");
-				title = MessageFormat.format(title, tool.getName());
-				setDockableWindowTitle(title);
-				String text = MSG.getString("Window.ProcessTerminated");
-				appendWithStyle(text,
-						textArea.getStyle(OutputTextPane.STYLE_STDERR));
+	/**
+	 * Removes the tabs of the oldest completed runs, so at most
+	 * {@link #MAX_COMPLETED_RUNS} are kept.  Running tools are never removed.
+	 */
+	private void pruneCompletedRuns() {
+		int completed = (int)runs.stream().filter(run -> !run.isRunning()).count();
+		for (int i=0; i<runs.size() && completed>MAX_COMPLETED_RUNS; ) {
+			if (!runs.get(i).isRunning()) {
+				runs.remove(i).dispose();
+				tabbedPane.removeTabAt(i);
+				completed--;
 			}
 			else {
-				String title = MSG.getString("Window.Title.ToolError");
-				title = MessageFormat.format(title, tool.getName());
-				setDockableWindowTitle(title);
-				outputStackTrace(e);
+				i++;
 			}
+		}
+	}
 
-			stopAction.setEnabled(false);
-			tool = null;
-
-		});
 
+	/**
+	 * Updates the window title and toolbar for the selected run.
+	 */
+	private void refreshSelectedRunState() {
+		ToolRun run = getSelectedRun();
+		if (run==null) {
+			setDockableWindowTitle(null);
+			stopAction.setEnabled(false);
+			openFullLogButton.setEnabled(false);
+			openFullLogButton.setToolTipText(null);
+			return;
+		}
+		setDockableWindowTitle(run.getTitle());
+		stopAction.setEnabled(run.isRunning());
+		openFullLogButton.setEnabled(run.getLogFile()!=null);
+		openFullLogButton.setToolTipText(!run.isTruncated() ? null :
+			MessageFormat.format(MSG.getString("Window.OutputTruncated"),
+				Integer.toString(ToolRun.MAX_LINES)));
 	}
 
 
@@ -241,7 +269,26 @@ public class ToolDockableWindow extends DockableWindow
 	 * application theme.
 	 */
 	public void restoreDefaultColors() {
-		textArea.restoreDefaultColors();
+		styles.restoreDefaultColors();
+		for (ToolRun run : runs) {
+			copyColors(run.getTextArea());
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when a run's state changes, e.g. it completes.
+	 *
+	 * @param run The run.
+	 */
+	void runChanged(ToolRun run) {
+		int index = runs.indexOf(run);
+		if (index>-1) {
+			tabbedPane.setToolTipTextAt(index, run.getTitle());
+			if (index==tabbedPane.getSelectedIndex()) {
+				refreshSelectedRunState();
+			}
+		}
 	}
 
 
@@ -254,6 +301,15 @@ public class ToolDockableWindow extends DockableWindow
 	 * @see #getForeground(String)
 	 */
 	public void setForeground(String style, Color fg) {
+		setForeground(styles, style, fg);
+		for (ToolRun run : runs) {
+			setForeground(run.getTextArea(), style, fg);
+		}
+	}
+
+
+	private static void setForeground(OutputTextPane textArea, String style,
+			Color fg) {
 		Style s = textArea.getStyle(style);
 		if (s!=null) {
 			if (fg!=null) {
@@ -267,29 +323,51 @@ public class ToolDockableWindow extends DockableWindow
 
 
 	/**
-	 * Called just before a tool is launched.
+	 * Sets whether the full output of each run is written to a temporary
+	 * file, so it's available even when the output window only shows the
+	 * last part of it.  This only affects tools started afterward.
+	 *
+	 * @param save Whether to save the full output.
+	 * @see #getSaveFullOutput()
+	 */
+	public void setSaveFullOutput(boolean save) {
+		saveFullOutput = save;
+	}
+
+
+	/**
+	 * Called just before a tool is launched.  A new tab is created for the
+	 * run and selected.  This method should only be called on the EDT.
 	 *
 	 * @param tool The tool being launched.
-	 * @return Whether the tool should be launched.  This will return
-	 *         <code>false</code> if another tool is currently running.
+	 * @return The run, which should be used to listen to the tool's output.
+	 */
+	ToolRun startingTool(Tool tool) {
+
+		OutputTextPane textArea = new OutputTextPane(plugin);
+		copyColors(textArea);
+		textArea.applyComponentOrientation(getComponentOrientation());
+		ToolRun run = new ToolRun(this, tool, textArea, saveFullOutput);
+
+		runs.add(run);
+		tabbedPane.addTab(tool.getName(), run.getComponent());
+		tabbedPane.setToolTipTextAt(runs.size()-1, run.getTitle());
+		pruneCompletedRuns();
+		tabbedPane.setSelectedComponent(run.getComponent());
+		refreshSelectedRunState();
+		return run;
+
+	}
+
+
+	/**
+	 * Forcibly terminates the run in the selected tab, if it's running.
 	 */
-	public boolean startingTool(Tool tool) {
-		if (this.tool!=null) {
-			String title = MSG.getString("ErrorDialog.Title");
-			String message = MSG.getString("ErrorDialog.ToolAlreadyRunning");
-			JOptionPane.showMessageDialog(this, message, title,
-											JOptionPane.ERROR_MESSAGE);
-			return false;
+	void stopSelectedRun() {
+		ToolRun run = getSelectedRun();
+		if (run!=null) {
+			run.kill();
 		}
-		this.tool = tool;
-		startTime = System.currentTimeMillis();
-		String title = MSG.getString("Window.Title.StartingTool");
-		title = MessageFormat.format(title, tool.getName(),
-			new SimpleDateFormat().format(new Date()));
-		setDockableWindowTitle(title);
-		textArea.setText(null);
-		stopAction.setEnabled(true);
-		return true;
 	}
 
 
@@ -39,6 +39,7 @@ class ToolOptionPanel extends AbstractConsoleTextAreaOptionPanel<ToolPlugin>
 	static final String MSG = "org.fife.rtext.plugins.tools.OptionPanel";
 
 	private DefaultTableModel model;
+	private JCheckBox saveFullOutputCB;
 
 	static final String TITLE_KEY = "Title";
 
@@ -61,7 +62,12 @@ class ToolOptionPanel extends AbstractConsoleTextAreaOptionPanel<ToolPlugin>
 		setLayout(new BorderLayout());
 		Box topPanel = Box.createVerticalBox();
 
-		topPanel.add(createGeneralPanel());
+		Container generalPanel = createGeneralPanel();
+		generalPanel.add(Box.createVerticalStrut(COMPONENT_VERTICAL_SPACING));
+		saveFullOutputCB = new JCheckBox(msg.getString("SaveFullOutput"));
+		saveFullOutputCB.addActionListener(e -> setDirty(true));
+		addLeftAligned(generalPanel, saveFullOutputCB);
+		topPanel.add(generalPanel);
 		topPanel.add(Box.createVerticalStrut(SECTION_VERTICAL_SPACING));
 
 		topPanel.add(createToolsPanel());
@@ -130,6 +136,7 @@ class ToolOptionPanel extends AbstractConsoleTextAreaOptionPanel<ToolPlugin>
 		ToolDockableWindow window = p.getDockableWindow();
 		window.setActive(visibleCB.isSelected());
 		window.setPosition(locationCombo.getSelectedIndex());
+		window.setSaveFullOutput(saveFullOutputCB.isSelected());
 
 		ToolManager tm = ToolManager.get();
 		tm.clearTools();
@@ -153,6 +160,19 @@ class ToolOptionPanel extends AbstractConsoleTextAreaOptionPanel<ToolPlugin>
 	}
 
 
+	@Override
+	protected boolean notDefaults() {
+		return super.notDefaults() || saveFullOutputCB.isSelected();
+	}
+
+
+	@Override
+	protected void restoreDefaults() {
+		super.restoreDefaults();
+		saveFullOutputCB.setSelected(false);
+	}
+
+
 	/**
 	 * Sets the tool output panel placement placement displayed by this panel.
 	 *
@@ -174,6 +194,7 @@ class ToolOptionPanel extends AbstractConsoleTextAreaOptionPanel<ToolPlugin>
 		ToolDockableWindow window = p.getDockableWindow();
 		visibleCB.setSelected(window.isActive());
 		setToolOutputPanelPlacement(window.getPosition());
+		saveFullOutputCB.setSelected(window.getSaveFullOutput());
 
 		ToolManager tm = ToolManager.get();
 		model.setRowCount(0);
@@ -91,6 +91,7 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 		window = new ToolDockableWindow(this);
 		window.setPosition(prefs.windowPosition);
 		window.setActive(prefs.windowVisible);
+		window.setSaveFullOutput(prefs.saveFullOutput);
 		putDockableWindow(DOCKABLE_WINDOW_TOOLS, window);
 
 		rtext.addPropertyChangeListener(AbstractGUIApplication.THEME_PROPERTY, this);
@@ -404,6 +405,7 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 		AppAction<?> a = (AppAction<?>)app.getAction(VIEW_TOOL_OUTPUT_ACTION);
 		prefs.windowVisibilityAccelerator = a.getAccelerator();
 		prefs.windowVisible = window.isActive();
+		prefs.saveFullOutput = window.getSaveFullOutput();
 
 		a = (AppAction<?>)app.getAction(NEW_TOOL_ACTION);
 		prefs.newToolAccelerator = a.getAccelerator();
@@ -0,0 +1,466 @@
+/*
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.ResourceBundle;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.StyledDocument;
+
+import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.ManagedProcess;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.UIUtil;
+
+
+/**
+ * A single run of a tool, displayed in its own tab in the tool output
+ * window.  Several tools, or several runs of the same tool, can run at
+ * once.<p>
+ *
+ * Output is collected as it is read and added to the text area in batches
+ * on a timer, rather than with an EDT event per line.  Only the last
+ * {@link #MAX_LINES} lines are kept, so a chatty build can't use up all of
+ * RText's memory.  Optionally, the full output is also written to a
+ * temporary file the user can open.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ToolRun implements ProcessRunnerOutputListener {
+
+	private final ToolDockableWindow window;
+	private final Tool tool;
+	private final OutputTextPane textArea;
+	private final RScrollPane scrollPane;
+	private final long startTime;
+
+	/**
+	 * The running process.  This, and the state below, is only accessed on
+	 * the EDT.
+	 */
+	private ManagedProcess process;
+	private boolean running;
+	private String title;
+	private boolean truncated;
+
+	/**
+	 * Output read but not yet added to the text area.  This is also the lock
+	 * for the full log, since stdout and stderr are read on different
+	 * threads.
+	 */
+	private final Deque<Line> pendingOutput;
+	private boolean pendingOutputDropped;
+	private boolean flushScheduled;
+	private final Timer flushTimer;
+
+	private File logFile;
+	private Writer logWriter;
+
+	private static final ResourceBundle MSG = ToolDockableWindow.MSG;
+
+	/**
+	 * The maximum number of lines of output kept in the text area.
+	 */
+	static final int MAX_LINES = 10000;
+
+	/**
+	 * How often output is added to the text area.
+	 */
+	private static final int FLUSH_INTERVAL_MILLIS = 50;
+
+
+	/**
+	 * Constructor.  This should be called on the EDT.
+	 *
+	 * @param window The parent window.
+	 * @param tool The tool being run.
+	 * @param textArea The text area to display the output in.
+	 * @param saveFullOutput Whether to write the full output to a temporary
+	 *        file.
+	 */
+	ToolRun(ToolDockableWindow window, Tool tool, OutputTextPane textArea,
+			boolean saveFullOutput) {
+
+		this.window = window;
+		this.tool = tool;
+		this.textArea = textArea;
+		scrollPane = new RScrollPane(textArea);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(scrollPane);
+		startTime = System.currentTimeMillis();
+		running = true;
+		title = MessageFormat.format(MSG.getString("Window.Title.StartingTool"),
+			tool.getName(), new SimpleDateFormat().format(new Date()));
+
+		pendingOutput = new ArrayDeque<>();
+		flushTimer = new Timer(FLUSH_INTERVAL_MILLIS, e -> flushPendingOutput());
+		flushTimer.setRepeats(false);
+
+		if (saveFullOutput) {
+			try {
+				logFile = File.createTempFile("rtext-tool-", ".log");
+				logFile.deleteOnExit();
+				logWriter = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(logFile), StandardCharsets.UTF_8));
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+				logFile = null;
+			}
+		}
+
+	}
+
+
+	/**
+	 * Appends text to the text area right away, after any pending output.
+	 * This should be called on the EDT.
+	 *
+	 * @param text The text to append.
+	 * @param style The style of the text.
+	 */
+	private void append(String text, String style) {
+		flushPendingOutput();
+		insert(text + "\n", style);
+		trimToMaxLines();
+		textArea.setCaretPosition(textArea.getDocument().getLength());
+	}
+
+
+	/**
+	 * Closes the full log, if it's open.  The caller should hold the lock
+	 * on {@link #pendingOutput}.
+	 */
+	private void closeLog() {
+		if (logWriter!=null) {
+			try {
+				logWriter.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+			logWriter = null;
+		}
+	}
+
+
+	/**
+	 * Deletes the file the full output of this run was written to, if any.
+	 * This is called when this run's tab is removed, so long sessions don't
+	 * fill up the temporary directory.
+	 */
+	void dispose() {
+		synchronized (pendingOutput) {
+			closeLog();
+			if (logFile!=null) {
+				if (!logFile.delete()) {
+					logFile.deleteOnExit(); // e.g. if it's open on Windows
+				}
+				logFile = null;
+			}
+		}
+	}
+
+
+	/**
+	 * Writes any buffered output to the full log, so it can be opened while
+	 * the tool is still running.
+	 */
+	void flushLog() {
+		synchronized (pendingOutput) {
+			if (logWriter!=null) {
+				try {
+					logWriter.flush();
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+					closeLog();
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Adds the output read since the last flush to the text area.  This is
+	 * called on the EDT.
+	 */
+	private void flushPendingOutput() {
+
+		Line[] lines;
+		boolean dropped;
+		synchronized (pendingOutput) {
+			lines = pendingOutput.toArray(new Line[0]);
+			pendingOutput.clear();
+			dropped = pendingOutputDropped;
+			pendingOutputDropped = false;
+			flushScheduled = false;
+			flushTimer.stop();
+		}
+		if (dropped) {
+			setTruncated();
+		}
+		if (lines.length==0) {
+			return;
+		}
+
+		// Insert runs of lines of the same style at once
+		StringBuilder sb = new StringBuilder();
+		boolean stdout = lines[0].stdout;
+		for (Line line : lines) {
+			if (line.stdout!=stdout) {
+				insert(sb.toString(), getStyle(stdout));
+				sb.setLength(0);
+				stdout = line.stdout;
+			}
+			sb.append(line.text).append('\n');
+		}
+		insert(sb.toString(), getStyle(stdout));
+
+		trimToMaxLines();
+		textArea.setCaretPosition(textArea.getDocument().getLength());
+
+	}
+
+
+	/**
+	 * Returns the component displaying this run's output.
+	 *
+	 * @return The component.
+	 */
+	JComponent getComponent() {
+		return scrollPane;
+	}
+
+
+	/**
+	 * Returns the file the full output of this run is written to.
+	 *
+	 * @return The file, or <code>null</code> if the full output isn't
+	 *         being saved.
+	 */
+	File getLogFile() {
+		return logFile;
+	}
+
+
+	private static String getStyle(boolean stdout) {
+		return stdout ? OutputTextPane.STYLE_STDOUT : OutputTextPane.STYLE_STDERR;
+	}
+
+
+	/**
+	 * Returns the text area displaying this run's output.
+	 *
+	 * @return The text area.
+	 */
+	OutputTextPane getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Returns the title to display for this run, describing its status.
+	 *
+	 * @return The title.
+	 */
+	String getTitle() {
+		return title;
+	}
+
+
+	/**
+	 * Returns the tool being run.
+	 *
+	 * @return The tool.
+	 */
+	Tool getTool() {
+		return tool;
+	}
+
+
+	private void insert(String text, String style) {
+		StyledDocument doc = (StyledDocument)textArea.getDocument();
+		try {
+			doc.insertString(doc.getLength(), text, textArea.getStyle(style));
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Returns whether the tool is still running.
+	 *
+	 * @return Whether the tool is running.
+	 */
+	boolean isRunning() {
+		return running;
+	}
+
+
+	/**
+	 * Returns whether older output was removed from the text area because
+	 * there was too much of it.
+	 *
+	 * @return Whether output was removed.
+	 * @see #MAX_LINES
+	 */
+	boolean isTruncated() {
+		return truncated;
+	}
+
+
+	/**
+	 * Forcibly terminates this run, along with any processes it launched.
+	 */
+	void kill() {
+		if (process!=null) {
+			process.kill();
+		}
+	}
+
+
+	@Override
+	public void outputWritten(Process p, String output, boolean stdout) {
+
+		boolean scheduleFlush;
+		synchronized (pendingOutput) {
+			if (logWriter!=null) {
+				try {
+					logWriter.write(output);
+					logWriter.write('\n');
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+					closeLog();
+				}
+			}
+			// Lines beyond the maximum would just be trimmed when flushed
+			if (pendingOutput.size()==MAX_LINES) {
+				pendingOutput.removeFirst();
+				pendingOutputDropped = true;
+			}
+			pendingOutput.addLast(new Line(output, stdout));
+			scheduleFlush = !flushScheduled;
+			flushScheduled = true;
+		}
+
+		if (scheduleFlush) {
+			SwingUtilities.invokeLater(flushTimer::start);
+		}
+
+	}
+
+
+	@Override
+	public void processCompleted(Process p, int rc, Throwable e) {
+
+		synchronized (pendingOutput) {
+			closeLog();
+		}
+
+		// Note that this isn't called on the EDT
+		SwingUtilities.invokeLater(() -> {
+
+			flushPendingOutput();
+
+			if (e==null) {
+				float time = (System.currentTimeMillis()-startTime)/1000f;
+				title = MessageFormat.format(MSG.getString("Window.Title.CompletedTool"),
+					tool.getName(), Integer.toString(rc), Float.toString(time));
+			}
+			else if (e instanceof InterruptedException) { // User killed
+				title = MessageFormat.format(MSG.getString("Window.Title.ProcessTerminated"),
+					tool.getName());
+				append(MSG.getString("Window.ProcessTerminated"), OutputTextPane.STYLE_STDERR);
+			}
+			else {
+				title = MessageFormat.format(MSG.getString("Window.Title.ToolError"),
+					tool.getName());
+				StringWriter sw = new StringWriter();
+				PrintWriter pw = new PrintWriter(sw);
+				e.printStackTrace(pw);
+				pw.close();
+				append(sw.toString(), OutputTextPane.STYLE_STDERR);
+			}
+
+			running = false;
+			process = null;
+			window.runChanged(this);
+
+		});
+
+	}
+
+
+	/**
+	 * Sets the process running the tool.  This should be called on the EDT.
+	 *
+	 * @param process The process.
+	 */
+	void setProcess(ManagedProcess process) {
+		if (running) {
+			this.process = process;
+		}
+	}
+
+
+	/**
+	 * Notes that older output was removed because there was too much of it.
+	 * This should be called on the EDT.
+	 *
+	 * @see #isTruncated()
+	 */
+	private void setTruncated() {
+		if (!truncated) {
+			truncated = true;
+			window.runChanged(this);
+		}
+	}
+
+
+	/**
+	 * Removes the oldest lines from the text area if it has more than
+	 * {@link #MAX_LINES} lines.  This is cheap, since the text area's content
+	 * is a ring buffer.
+	 */
+	private void trimToMaxLines() {
+		StyledDocument doc = (StyledDocument)textArea.getDocument();
+		Element root = doc.getDefaultRootElement();
+		int extra = root.getElementCount() - 1 - MAX_LINES;
+		if (extra>0) {
+			try {
+				doc.remove(0, root.getElement(extra).getStartOffset());
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+			setTruncated();
+		}
+	}
+
+
+	/**
+	 * A line of output.
+	 */
+	private record Line(String text, boolean stdout) {
+	}
+
+
+}
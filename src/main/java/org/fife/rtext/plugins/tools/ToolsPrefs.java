@@ -51,6 +51,12 @@ public class ToolsPrefs extends Prefs {
 	 */
 	public KeyStroke editToolsAccelerator;
 
+	/**
+	 * Whether the full output of each tool run is written to a temporary
+	 * file, in addition to the last part of it shown in the output window.
+	 */
+	public boolean saveFullOutput;
+
 
 	/**
 	 * Overridden to validate the task identifiers value.
@@ -72,6 +78,7 @@ public class ToolsPrefs extends Prefs {
 		windowVisibilityAccelerator = null;
 		newToolAccelerator = null;
 		editToolsAccelerator = null;
+		saveFullOutput = false;
 	}
 
 
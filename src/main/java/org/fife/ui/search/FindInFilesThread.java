@@ -23,7 +23,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 import javax.swing.text.Document;
 import javax.swing.text.Element;
@@ -31,7 +30,9 @@ import javax.swing.text.Element;
 import org.fife.io.UnicodeReader;
 import org.fife.rsta.ui.search.FindDialog;
 import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.GlobSet;
 import org.fife.rtext.RText;
+import org.fife.rtext.jfr.FindInFilesEvent;
 import org.fife.ui.GUIWorkerThread;
 import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
@@ -124,7 +125,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 
 		// Get the string to search for and filters for the files to search.
 		String searchString = dialog.getSearchString();
-		Pattern[] filterStrings = getFilterStrings();
+		GlobSet<String> filterStrings = getFilterStrings();
 		if (filterStrings==null) {
 			dialog.searchCompleted("");
 			return null;
@@ -182,6 +183,9 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 				dialog.setStatusText(searchingFile + i + "/" + numFiles +
 								": " + fileFullPath);
 
+				FindInFilesEvent event = new FindInFilesEvent();
+				event.begin();
+
 				try {
 					// Use a UnicodeReader to auto-detect whether this
 					// is a Unicode file.
@@ -236,6 +240,9 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 					}
 				}
 
+				event.commit(fileFullPath, temp.length(),
+					textArea.getSyntaxEditingStyle(), useRegex);
+
 			} // End of if (temp.isFile()).
 
 			// Otherwise, if the file is a directory...
@@ -453,33 +460,18 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
-	protected Pattern[] getFilterStrings() {
-
-		// Get the list of regular expressions to apply when deciding
-		// whether to look in a file.  If we're on Windows, or OS X,
-		// do case-insensitive regexes.
+	/**
+	 * Returns the filters to apply when deciding whether to look in a file.
+	 * If we're on Windows or OS X, they're case-insensitive.
+	 *
+	 * @return The filters, or <code>null</code> if none were specified.
+	 */
+	protected GlobSet<String> getFilterStrings() {
 		String[] tokens = dialog.getInFilesPatterns();
 		if (tokens==null || tokens.length==0) {
 			return null;
 		}
-		int tokenCount = tokens.length;
-		Pattern[] filterStrings = new Pattern[tokenCount];
-		int flags = 0;
-		if (!OS.get().isCaseSensitive()) {
-			flags = Pattern.CASE_INSENSITIVE;
-		}
-		try {
-			for (int i=0; i<tokenCount; i++) {
-				String pattern = getRegexForFileFilter(tokens[i]);
-				filterStrings[i] = Pattern.compile(pattern, flags);
-			}
-		} catch (PatternSyntaxException e) {
-			e.printStackTrace(); // Never happens.
-			return null;
-		}
-
-		return filterStrings;
-
+		return GlobSet.of(Arrays.asList(tokens));
 	}
 
 
@@ -517,31 +509,6 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
-	/**
-	 * Converts a <code>String</code> representing a wildcard file filter into
-	 * another <code>String</code> containing a regular expression good for
-	 * finding files that match the wildcard expressions.<br><br>
-	 * Example: For<br><br>
-	 * <code>String regEx = getRegexForFileFilter("*.c");</code>
-	 * <br><br>
-	 * <code>regEx</code> will contain <code>^.*\.c$</code>.
-	 *
-	 * @param filter The file filter for which to create equivalent
-	 *        regular expressions.  This filter can currently only contain
-	 *        the wildcards '*' and '?'.
-	 * @return A <code>String</code> representing an equivalent regular
-	 *         expression for the string passed in.  If an error occurs,
-	 *         <code>null</code> is returned.
-	 */
-	protected static String getRegexForFileFilter(String filter) {
-		filter = filter.replaceAll("\\.", "\\\\.");		// '.' => '\.'
-		filter = filter.replaceAll("\\*", ".*");		// '*' => '.*'
-		filter = filter.replaceAll("\\?", ".");			// '?' => '.'
-		filter = filter.replaceAll("\\$", "\\\\\\$");	// '$' => '\$'
-		return "^" + filter + "$";
-	}
-
-
 	/**
 	 * Returns whether the specified file is "filtered out" and should
 	 * not be searched.
@@ -551,13 +518,8 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	 * @return Whether the file is filtered out.
 	 */
 	protected static boolean isFilteredOut(String file,
-										   Pattern[] filters) {
-		for (Pattern filter : filters) {
-			if (filter.matcher(file).matches()) {
-				return false;
-			}
-		}
-		return true;
+										   GlobSet<String> filters) {
+		return !filters.matches(file);
 	}
 
 
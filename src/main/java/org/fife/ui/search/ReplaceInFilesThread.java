@@ -16,6 +16,7 @@ import java.util.regex.*;
 
 import org.fife.io.*;
 import org.fife.rsta.ui.search.FindDialog;
+import org.fife.rtext.GlobSet;
 import org.fife.ui.rtextarea.SearchEngine;
 
 
@@ -48,7 +49,7 @@ class ReplaceInFilesThread extends FindInFilesThread {
 
 		// Get the string to search for and filters for the files to search.
 		String searchString = dialog.getSearchString();
-		Pattern[] filterStrings = getFilterStrings();
+		GlobSet<String> filterStrings = getFilterStrings();
 		if (filterStrings==null) {
 			dialog.searchCompleted("");
 			return null;